@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.benchmark;
+
+import com.ritense.audit.domain.AuditRecord;
+import com.ritense.audit.domain.AuditRecordBuilder;
+import com.ritense.audit.domain.AuditRecordId;
+import com.ritense.audit.domain.MetaDataBuilder;
+import com.ritense.audit.repository.impl.JdbcAuditRecordBatchRepository;
+import com.ritense.valtimo.contract.event.TaskCompletedEvent;
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import liquibase.Contexts;
+import liquibase.Liquibase;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Measures how many audit records per second are written to the database, either one record per transaction, as the
+ * default AuditEventProcessorImpl does, or in JDBC batches, as the BufferedAuditEventProcessorImpl does. The immediate
+ * case uses a plain JDBC insert instead of a JPA save, so it is an upper bound for the default processor.
+ *
+ * Needs the database of the audit integration tests, started with ./gradlew :audit:integrationTestingPostgresqlComposeUp,
+ * or the MySQL one with the database param set to mysql.
+ * Run with: ./gradlew :audit:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditRecordInsertBenchmark {
+
+    private static final int RECORDS_PER_INVOCATION = 100;
+
+    @Param({"1", "10", "100"})
+    public int batchSize;
+
+    @Param({"postgres"})
+    public String database;
+
+    private HikariDataSource dataSource;
+    private JdbcAuditRecordBatchRepository batchRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final boolean postgres = "postgres".equalsIgnoreCase(database);
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres
+            ? "jdbc:postgresql://localhost:3307/audit-test"
+            : "jdbc:mysql://localhost:3307/audit-test");
+        dataSource.setUsername("valtimo");
+        dataSource.setPassword("password");
+        dataSource.setAutoCommit(false);
+        migrate();
+
+        batchRepository = new JdbcAuditRecordBatchRepository(dataSource, database);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        transactionTemplate.executeWithoutResult(status -> new JdbcTemplate(dataSource).execute("TRUNCATE TABLE audit_record"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_INVOCATION)
+    public void insert() {
+        final List<AuditRecord> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < RECORDS_PER_INVOCATION; i++) {
+            batch.add(auditRecord());
+            if (batch.size() == batchSize || i == RECORDS_PER_INVOCATION - 1) {
+                transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    private void migrate() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            final Liquibase liquibase = new Liquibase(
+                "config/liquibase/audit-master.xml",
+                new ClassLoaderResourceAccessor(),
+                DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+            );
+            liquibase.update(new Contexts());
+            connection.commit();
+        }
+    }
+
+    private static AuditRecord auditRecord() {
+        final LocalDateTime now = LocalDateTime.now();
+        final TaskCompletedEvent event = new TaskCompletedEvent(
+            UUID.randomUUID(),
+            "benchmark",
+            now,
+            "benchmark-user",
+            "benchmark@example.com",
+            now,
+            "taskId",
+            "Complete intake",
+            "intake:1",
+            UUID.randomUUID().toString(),
+            Map.of("approved", true, "comment", "Looks good"),
+            null
+        );
+        return new AuditRecordBuilder()
+            .id(AuditRecordId.newId(event.getId()))
+            .metaData(new MetaDataBuilder()
+                .origin(event.getOrigin())
+                .occurredOn(event.getOccurredOn())
+                .user(event.getUser())
+                .build())
+            .auditEvent(event)
+            .build();
+    }
+
+}
@@ -20,21 +20,33 @@ import com.ritense.audit.domain.AuditRecord;
 import com.ritense.audit.domain.AuditRecordId;
 import com.ritense.audit.domain.listener.AuditEventListener;
 import com.ritense.audit.domain.listener.impl.AuditEventListenerImpl;
+import com.ritense.audit.repository.AuditRecordPartitionRepository;
 import com.ritense.audit.repository.AuditRecordRepository;
+import com.ritense.audit.repository.impl.JdbcAuditRecordBatchRepository;
+import com.ritense.audit.repository.impl.MySqlAuditRecordPartitionRepository;
 import com.ritense.audit.repository.impl.MySqlAuditRecordRepository;
+import com.ritense.audit.repository.impl.PostgresAuditRecordPartitionRepository;
 import com.ritense.audit.repository.impl.PostgresAuditRecordRepository;
 import com.ritense.audit.service.AuditEventProcessor;
+import com.ritense.audit.service.AuditPartitionService;
 import com.ritense.audit.service.AuditRetentionService;
 import com.ritense.audit.service.AuditSearchService;
 import com.ritense.audit.service.AuditService;
 import com.ritense.audit.service.impl.AuditEventProcessorImpl;
+import com.ritense.audit.service.impl.AuditPartitionServiceImpl;
 import com.ritense.audit.service.impl.AuditRetentionServiceImpl;
 import com.ritense.audit.service.impl.AuditSearchServiceImpl;
 import com.ritense.audit.service.impl.AuditServiceImpl;
+import com.ritense.audit.service.impl.BufferedAuditEventProcessorImpl;
 import com.ritense.authorization.AuthorizationService;
 import com.ritense.document.service.DocumentService;
 import com.ritense.valtimo.contract.database.QueryDialectHelper;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import javax.sql.DataSource;
+import net.javacrumbs.shedlock.core.LockProvider;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -43,6 +55,7 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @AutoConfiguration
 @EnableJpaRepositories(basePackages = "com.ritense.audit.repository.impl")
@@ -51,8 +64,34 @@ public class AuditAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean(AuditEventProcessor.class)
-    public AuditEventProcessor auditEventProcessor(AuditRecordRepository<AuditRecord> auditRecordRepository) {
-        return new AuditEventProcessorImpl(auditRecordRepository);
+    @ConditionalOnProperty(prefix = "audit.record.batch", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public AuditEventProcessor auditEventProcessor(
+        AuditRecordRepository<AuditRecord> auditRecordRepository,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new AuditEventProcessorImpl(auditRecordRepository, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AuditEventProcessor.class)
+    @ConditionalOnProperty(prefix = "audit.record.batch", name = "enabled", havingValue = "true")
+    public BufferedAuditEventProcessorImpl bufferedAuditEventProcessor(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        @Value("${valtimo.database:mysql}") String database,
+        @Value("${audit.record.batch.size:100}") int batchSize,
+        @Value("${audit.record.batch.flush-interval:PT1S}") Duration flushInterval,
+        @Value("${audit.record.batch.capacity:10000}") int capacity,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        return new BufferedAuditEventProcessorImpl(
+            new JdbcAuditRecordBatchRepository(dataSource, database),
+            transactionManager,
+            batchSize,
+            flushInterval,
+            capacity,
+            meterRegistry.getIfAvailable()
+        );
     }
 
     @Bean
@@ -70,9 +109,21 @@ public class AuditAutoConfiguration {
     @ConditionalOnProperty(prefix = "scheduling", name = "enabled", havingValue = "true", matchIfMissing = true)
     public AuditRetentionService auditRetentionService(
         AuditService auditService,
-        @Value("${audit.record.retention:15}") long retentionInDays
+        @Value("${audit.record.retention:15}") long retentionInDays,
+        ObjectProvider<AuditPartitionService> auditPartitionService
+    ) {
+        return new AuditRetentionServiceImpl(auditService, retentionInDays, auditPartitionService.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AuditPartitionService.class)
+    @ConditionalOnProperty(prefix = "scheduling", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public AuditPartitionService auditPartitionService(
+        AuditRecordPartitionRepository auditRecordPartitionRepository,
+        @Value("${audit.record.partition.months-ahead:3}") int monthsAhead,
+        ObjectProvider<LockProvider> lockProvider
     ) {
-        return new AuditRetentionServiceImpl(auditService, retentionInDays);
+        return new AuditPartitionServiceImpl(auditRecordPartitionRepository, monthsAhead, lockProvider.getIfAvailable());
     }
 
     @Bean
@@ -102,4 +153,18 @@ public class AuditAutoConfiguration {
     public JpaRepositoryFactoryBean<AuditRecordRepository<AuditRecord>, AuditRecord, AuditRecordId> mysqlAuditRecordRepository() {
         return new JpaRepositoryFactoryBean<>(MySqlAuditRecordRepository.class);
     }
+
+    @Bean
+    @ConditionalOnMissingBean(AuditRecordPartitionRepository.class)
+    @ConditionalOnProperty(prefix = "valtimo", name = "database", havingValue = "postgres")
+    public AuditRecordPartitionRepository postgresAuditRecordPartitionRepository(DataSource dataSource) {
+        return new PostgresAuditRecordPartitionRepository(dataSource);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(AuditRecordPartitionRepository.class)
+    @ConditionalOnProperty(prefix = "valtimo", name = "database", havingValue = "mysql", matchIfMissing = true)
+    public AuditRecordPartitionRepository mysqlAuditRecordPartitionRepository(DataSource dataSource) {
+        return new MySqlAuditRecordPartitionRepository(dataSource);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.repository.impl;
+
+import com.ritense.audit.domain.AuditRecord;
+import io.hypersistence.utils.hibernate.type.util.ObjectMapperWrapper;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Writes audit records with a single JDBC batch statement instead of one JPA flush per record.
+ * The generated classname column is left to the database.
+ */
+public class JdbcAuditRecordBatchRepository {
+
+    private static final String POSTGRES_INSERT = "INSERT INTO audit_record "
+        + "(audit_record_id, created_on, occurred_on, origin, \"user\", audit_event, document_id) "
+        + "VALUES (?, ?, ?, ?, ?, CAST(? AS jsonb), ?)";
+    private static final String MYSQL_INSERT = "INSERT INTO audit_record "
+        + "(audit_record_id, created_on, occurred_on, origin, `user`, audit_event, document_id) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public JdbcAuditRecordBatchRepository(DataSource dataSource, String database) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.postgres = "postgres".equalsIgnoreCase(database);
+    }
+
+    public void insertAll(List<AuditRecord> auditRecords) {
+        if (auditRecords.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            postgres ? POSTGRES_INSERT : MYSQL_INSERT,
+            auditRecords,
+            auditRecords.size(),
+            this::bind
+        );
+    }
+
+    private void bind(PreparedStatement ps, AuditRecord auditRecord) throws SQLException {
+        setUuid(ps, 1, auditRecord.getAuditRecordId().id());
+        ps.setTimestamp(2, Timestamp.valueOf(auditRecord.getCreatedOn()));
+        ps.setTimestamp(3, Timestamp.valueOf(auditRecord.getMetaData().getOccurredOn()));
+        ps.setString(4, auditRecord.getMetaData().getOrigin());
+        ps.setString(5, auditRecord.getMetaData().getUser());
+        ps.setString(6, ObjectMapperWrapper.INSTANCE.toString(auditRecord.getAuditEvent()));
+        setUuid(ps, 7, auditRecord.getDocumentId());
+    }
+
+    private void setUuid(PreparedStatement ps, int index, UUID uuid) throws SQLException {
+        if (postgres) {
+            ps.setObject(index, uuid, Types.OTHER);
+        } else if (uuid == null) {
+            ps.setNull(index, Types.BINARY);
+        } else {
+            ps.setBytes(index, ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array());
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.repository.impl;
+
+import com.ritense.audit.domain.AuditRecordPartition;
+import com.ritense.audit.repository.AuditRecordPartitionRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class MySqlAuditRecordPartitionRepository implements AuditRecordPartitionRepository {
+
+    private static final String MAXVALUE = "MAXVALUE";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private final JdbcTemplate jdbcTemplate;
+
+    public MySqlAuditRecordPartitionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public boolean isPartitioned() {
+        final Integer partitions = jdbcTemplate.queryForObject(
+            " SELECT  COUNT(*) " +
+                " FROM    information_schema.PARTITIONS " +
+                " WHERE   TABLE_SCHEMA = DATABASE() " +
+                " AND     TABLE_NAME = 'audit_record' " +
+                " AND     PARTITION_NAME IS NOT NULL ",
+            Integer.class
+        );
+        return partitions != null && partitions > 0;
+    }
+
+    @Override
+    public List<AuditRecordPartition> findAllPartitions() {
+        return jdbcTemplate.query(
+            " SELECT  PARTITION_NAME, PARTITION_DESCRIPTION " +
+                " FROM    information_schema.PARTITIONS " +
+                " WHERE   TABLE_SCHEMA = DATABASE() " +
+                " AND     TABLE_NAME = 'audit_record' " +
+                " AND     PARTITION_NAME IS NOT NULL " +
+                " ORDER BY PARTITION_ORDINAL_POSITION ",
+            (rs, rowNum) -> new AuditRecordPartition(rs.getString(1), upperBound(rs.getString(2)))
+        );
+    }
+
+    @Override
+    public void createPartition(LocalDate from, LocalDate to) {
+        final String partition = String.format(
+            "PARTITION p%s VALUES LESS THAN ('%s 00:00:00')",
+            PARTITION_SUFFIX.format(from),
+            to
+        );
+        // New partitions are split off the catch-all partition, which moves any rows in the new range along with it
+        final String catchAll = findAllPartitions().stream()
+            .filter(it -> it.upperBound() == null)
+            .map(AuditRecordPartition::name)
+            .findFirst()
+            .orElse(null);
+        if (catchAll == null) {
+            jdbcTemplate.execute("ALTER TABLE audit_record ADD PARTITION (" + partition + ")");
+        } else {
+            jdbcTemplate.execute(String.format(
+                "ALTER TABLE audit_record REORGANIZE PARTITION `%1$s` INTO (%2$s, PARTITION `%1$s` VALUES LESS THAN (MAXVALUE))",
+                catchAll,
+                partition
+            ));
+        }
+    }
+
+    @Override
+    public void dropPartition(AuditRecordPartition partition) {
+        jdbcTemplate.execute("ALTER TABLE audit_record DROP PARTITION `" + partition.name().replace("`", "``") + "`");
+    }
+
+    private static LocalDateTime upperBound(String partitionDescription) {
+        if (partitionDescription == null || Objects.equals(partitionDescription, MAXVALUE)) {
+            return null;
+        }
+        final String bound = partitionDescription.replace("'", "");
+        if (bound.length() == 10) {
+            return LocalDate.parse(bound).atStartOfDay();
+        }
+        return LocalDateTime.parse(bound.replace(' ', 'T'));
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.repository.impl;
+
+import com.ritense.audit.domain.AuditRecordPartition;
+import com.ritense.audit.repository.AuditRecordPartitionRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+public class PostgresAuditRecordPartitionRepository implements AuditRecordPartitionRepository {
+
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final String COLUMNS = "audit_record_id, created_on, occurred_on, origin, \"user\", audit_event, document_id";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private final JdbcTemplate jdbcTemplate;
+
+    public PostgresAuditRecordPartitionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('audit_record'))",
+            Boolean.class
+        ));
+    }
+
+    @Override
+    public List<AuditRecordPartition> findAllPartitions() {
+        return jdbcTemplate.query(
+            " SELECT  c.relname, pg_get_expr(c.relpartbound, c.oid) " +
+                " FROM    pg_inherits i " +
+                " JOIN    pg_class c ON c.oid = i.inhrelid " +
+                " WHERE   i.inhparent = to_regclass('audit_record') ",
+            (rs, rowNum) -> new AuditRecordPartition(rs.getString(1), upperBound(rs.getString(2)))
+        );
+    }
+
+    @Override
+    @Transactional
+    public void createPartition(LocalDate from, LocalDate to) {
+        final String partition = "audit_record_p" + PARTITION_SUFFIX.format(from);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition))) {
+            return;
+        }
+        // A new partition may not overlap rows in the default partition, so those rows are moved out and back again
+        final String defaultPartition = findDefaultPartition();
+        if (defaultPartition != null) {
+            jdbcTemplate.execute(String.format(
+                "CREATE TEMPORARY TABLE audit_record_moved ON COMMIT DROP AS " +
+                    "WITH moved AS (DELETE FROM \"%s\" WHERE occurred_on >= '%s' AND occurred_on < '%s' RETURNING %s) " +
+                    "SELECT * FROM moved",
+                defaultPartition.replace("\"", "\"\""),
+                from,
+                to,
+                COLUMNS
+            ));
+        }
+        jdbcTemplate.execute(String.format(
+            "CREATE TABLE %s PARTITION OF audit_record FOR VALUES FROM ('%s') TO ('%s')",
+            partition,
+            from,
+            to
+        ));
+        if (defaultPartition != null) {
+            jdbcTemplate.execute(String.format(
+                "INSERT INTO audit_record (%1$s) SELECT %1$s FROM audit_record_moved",
+                COLUMNS
+            ));
+        }
+    }
+
+    @Override
+    @Transactional
+    public void dropPartition(AuditRecordPartition partition) {
+        jdbcTemplate.execute("DROP TABLE \"" + partition.name().replace("\"", "\"\"") + "\"");
+    }
+
+    private String findDefaultPartition() {
+        return jdbcTemplate.query(
+            " SELECT  c.relname " +
+                " FROM    pg_inherits i " +
+                " JOIN    pg_class c ON c.oid = i.inhrelid " +
+                " WHERE   i.inhparent = to_regclass('audit_record') " +
+                " AND     pg_get_expr(c.relpartbound, c.oid) = 'DEFAULT' ",
+            (rs, rowNum) -> rs.getString(1)
+        ).stream().findFirst().orElse(null);
+    }
+
+    private static LocalDateTime upperBound(String partitionBound) {
+        final Matcher matcher = UPPER_BOUND.matcher(partitionBound);
+        if (!matcher.find()) {
+            return null;
+        }
+        return LocalDateTime.parse(matcher.group(1).replace(' ', 'T'));
+    }
+
+}
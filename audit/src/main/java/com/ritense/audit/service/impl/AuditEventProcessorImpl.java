@@ -28,6 +28,8 @@ import com.ritense.audit.exception.AuditRuntimeException;
 import com.ritense.audit.repository.AuditRecordRepository;
 import com.ritense.audit.service.AuditEventProcessor;
 import com.ritense.valtimo.contract.audit.AuditEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.sql.SQLIntegrityConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,10 +39,21 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuditEventProcessorImpl implements AuditEventProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(AuditEventProcessorImpl.class);
+    static final String INSERT_TIMER = "valtimo.audit.record.insert";
+    static final String INSERTED_COUNTER = "valtimo.audit.record.inserted";
     private final AuditRecordRepository<AuditRecord> auditRecordRepository;
+    private final MeterRegistry meterRegistry;
 
     public AuditEventProcessorImpl(AuditRecordRepository<AuditRecord> auditRecordRepository) {
+        this(auditRecordRepository, null);
+    }
+
+    public AuditEventProcessorImpl(
+        AuditRecordRepository<AuditRecord> auditRecordRepository,
+        MeterRegistry meterRegistry
+    ) {
         this.auditRecordRepository = auditRecordRepository;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -52,19 +65,14 @@ public class AuditEventProcessorImpl implements AuditEventProcessor {
             event
         );
         try {
-            assertArgumentNotNull(event, "auditEvent is required");
-            final MetaData metaData = new MetaDataBuilder()
-                .origin(event.getOrigin())
-                .occurredOn(event.getOccurredOn())
-                .user(event.getUser())
-                .build();
-            final AuditRecord auditRecord = new AuditRecordBuilder()
-                .id(AuditRecordId.newId(event.getId()))
-                .metaData(metaData)
-                .auditEvent(event)
-                .documentId(event.getDocumentId())
-                .build();
-            auditRecordRepository.saveAndFlush(auditRecord);
+            final AuditRecord auditRecord = toAuditRecord(event);
+            if (meterRegistry == null) {
+                auditRecordRepository.saveAndFlush(auditRecord);
+            } else {
+                Timer.builder(INSERT_TIMER).tag("mode", "immediate").register(meterRegistry)
+                    .record(() -> auditRecordRepository.saveAndFlush(auditRecord));
+                meterRegistry.counter(INSERTED_COUNTER, "mode", "immediate").increment();
+            }
             logger.debug("Processed AuditEvent: {}", auditRecord);
         } catch (IllegalArgumentException e) {
             throw new AuditRuntimeException("Error due to invalid argument.", e);
@@ -79,4 +87,19 @@ public class AuditEventProcessorImpl implements AuditEventProcessor {
         }
     }
 
+    static AuditRecord toAuditRecord(final AuditEvent event) {
+        assertArgumentNotNull(event, "auditEvent is required");
+        final MetaData metaData = new MetaDataBuilder()
+            .origin(event.getOrigin())
+            .occurredOn(event.getOccurredOn())
+            .user(event.getUser())
+            .build();
+        return new AuditRecordBuilder()
+            .id(AuditRecordId.newId(event.getId()))
+            .metaData(metaData)
+            .auditEvent(event)
+            .documentId(event.getDocumentId())
+            .build();
+    }
+
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.service.impl;
+
+import com.ritense.audit.domain.AuditRecordPartition;
+import com.ritense.audit.repository.AuditRecordPartitionRepository;
+import com.ritense.audit.service.AuditPartitionService;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Objects;
+import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Maintains the monthly range partitions of the audit_record table. Partitions are created {@code monthsAhead} months
+ * in advance, so inserts never land in the catch-all partition, and retention drops whole partitions instead of
+ * deleting rows. Partitions are also created once on startup, so a fresh installation or an instance that was down
+ * when the job was due does not wait for the next run. Does nothing when the table is not partitioned.
+ */
+public class AuditPartitionServiceImpl implements AuditPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionServiceImpl.class);
+    private static final String LOCK_NAME = "AuditPartitionService_createPartitions";
+    private final AuditRecordPartitionRepository auditRecordPartitionRepository;
+    private final int monthsAhead;
+    private final LockProvider lockProvider;
+
+    public AuditPartitionServiceImpl(
+        AuditRecordPartitionRepository auditRecordPartitionRepository,
+        int monthsAhead,
+        LockProvider lockProvider
+    ) {
+        this.auditRecordPartitionRepository = auditRecordPartitionRepository;
+        this.monthsAhead = monthsAhead;
+        this.lockProvider = lockProvider;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createPartitionsOnStartup() {
+        try {
+            if (lockProvider == null) {
+                createPartitions();
+                return;
+            }
+            // Same lock as the scheduled job, so instances starting together do not create the same partitions
+            new DefaultLockingTaskExecutor(lockProvider).executeWithLock(
+                (Runnable) this::createPartitions,
+                new LockConfiguration(Instant.now(), LOCK_NAME, Duration.ofMinutes(60), Duration.ofSeconds(4))
+            );
+        } catch (Exception e) {
+            logger.error("Failed to create audit record partitions on startup, retrying on the next scheduled run", e);
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${scheduling.job.cron.createAuditPartitions:0 0 3 * * ?}")
+    @SchedulerLock(name = LOCK_NAME, lockAtLeastFor = "PT4S", lockAtMostFor = "PT60M")
+    public void createPartitions() {
+        if (!auditRecordPartitionRepository.isPartitioned()) {
+            return;
+        }
+        final LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        final LocalDate until = currentMonth.plusMonths(monthsAhead + 1L);
+        // Continue after the last bounded partition so ranges never overlap with existing ones
+        LocalDate from = auditRecordPartitionRepository.findAllPartitions().stream()
+            .map(AuditRecordPartition::upperBound)
+            .filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .map(LocalDateTime::toLocalDate)
+            .orElse(currentMonth);
+        while (from.isBefore(until)) {
+            final LocalDate to = from.withDayOfMonth(1).plusMonths(1);
+            logger.info("Creating audit record partition from {} to {}", from, to);
+            auditRecordPartitionRepository.createPartition(from, to);
+            from = to;
+        }
+    }
+
+    @Override
+    public void dropPartitionsBefore(LocalDateTime date) {
+        if (!auditRecordPartitionRepository.isPartitioned()) {
+            return;
+        }
+        auditRecordPartitionRepository.findAllPartitions().stream()
+            .filter(partition -> partition.upperBound() != null && !partition.upperBound().isAfter(date))
+            .forEach(partition -> {
+                logger.info("Dropping audit record partition {} ending at {}", partition.name(), partition.upperBound());
+                auditRecordPartitionRepository.dropPartition(partition);
+            });
+    }
+
+}
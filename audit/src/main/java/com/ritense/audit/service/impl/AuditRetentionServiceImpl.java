@@ -18,8 +18,10 @@ package com.ritense.audit.service.impl;
 
 import static java.time.LocalDateTime.now;
 
+import com.ritense.audit.service.AuditPartitionService;
 import com.ritense.audit.service.AuditRetentionService;
 import com.ritense.audit.service.AuditService;
+import java.time.LocalDateTime;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.springframework.scheduling.annotation.Scheduled;
 
@@ -27,10 +29,20 @@ public class AuditRetentionServiceImpl implements AuditRetentionService {
 
     private final AuditService auditService;
     private final long retention;
+    private final AuditPartitionService auditPartitionService;
 
     public AuditRetentionServiceImpl(AuditService auditService, long retention) {
+        this(auditService, retention, null);
+    }
+
+    public AuditRetentionServiceImpl(
+        AuditService auditService,
+        long retention,
+        AuditPartitionService auditPartitionService
+    ) {
         this.auditService = auditService;
         this.retention = retention;
+        this.auditPartitionService = auditPartitionService;
     }
 
     @Override
@@ -39,7 +51,12 @@ public class AuditRetentionServiceImpl implements AuditRetentionService {
         name = "AuditRetentionService_cleanup", lockAtLeastFor = "PT4S", lockAtMostFor = "PT60M"
     )
     public void cleanup() {
-        auditService.deleteAllBefore(now().minusDays(retention));
+        final LocalDateTime date = now().minusDays(retention);
+        if (auditPartitionService != null) {
+            // Expired partitions are dropped whole, leaving only the partition that contains the date to delete from
+            auditPartitionService.dropPartitionsBefore(date);
+        }
+        auditService.deleteAllBefore(date);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.service.impl;
+
+import static com.ritense.audit.service.impl.AuditEventProcessorImpl.INSERTED_COUNTER;
+import static com.ritense.audit.service.impl.AuditEventProcessorImpl.INSERT_TIMER;
+
+import com.ritense.audit.domain.AuditRecord;
+import com.ritense.audit.exception.AuditRuntimeException;
+import com.ritense.audit.repository.impl.JdbcAuditRecordBatchRepository;
+import com.ritense.audit.service.AuditEventProcessor;
+import com.ritense.valtimo.contract.audit.AuditEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Buffers audit records and writes them in JDBC batches, either when {@code batchSize} records are queued or every
+ * {@code flushInterval}.
+ *
+ * <p>Durability contract: a record is queued only after the transaction that raised the event has committed (or
+ * immediately when no transaction is active), so rolled back operations leave no audit trail. Failed batches are put
+ * back in the queue and retried on the next flush; records rejected by a constraint, such as already processed ones,
+ * are skipped. When the buffer is full, the caller writes the buffer itself, so audit records are throttled while the
+ * database keeps up.
+ *
+ * <p>Records are dropped, and counted in {@value #DROPPED_COUNTER}, when:
+ * <ul>
+ *     <li>the buffer is full and cannot be written, e.g. while the database is unavailable for longer than the buffer
+ *     can hold;</li>
+ *     <li>records are still buffered on shutdown and cannot be written;</li>
+ *     <li>the JVM crashes, in which case they are not counted.</li>
+ * </ul>
+ * Use the default {@link AuditEventProcessorImpl} when the audit trail must be written in the same transaction as the
+ * business operation.
+ */
+public class BufferedAuditEventProcessorImpl implements AuditEventProcessor, DisposableBean {
+
+    public static final String DROPPED_COUNTER = "valtimo.audit.record.dropped";
+    private static final Logger logger = LoggerFactory.getLogger(BufferedAuditEventProcessorImpl.class);
+    private final JdbcAuditRecordBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final BlockingDeque<AuditRecord> queue;
+    private final ScheduledExecutorService scheduler;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public BufferedAuditEventProcessorImpl(
+        JdbcAuditRecordBatchRepository batchRepository,
+        PlatformTransactionManager transactionManager,
+        int batchSize,
+        Duration flushInterval,
+        int capacity,
+        MeterRegistry meterRegistry
+    ) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1");
+        }
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.queue = new LinkedBlockingDeque<>(Math.max(capacity, batchSize));
+        this.meterRegistry = meterRegistry;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "audit-record-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final long intervalMillis = flushInterval.toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::flushSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        if (meterRegistry != null) {
+            meterRegistry.gauge("valtimo.audit.record.buffer.size", queue, BlockingDeque::size);
+            FunctionCounter.builder(DROPPED_COUNTER, droppedCount, AtomicLong::get)
+                .description("Audit records that were dropped because they could not be buffered or written")
+                .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void process(final AuditEvent event) {
+        logger.debug("Enter: {}.{} with argument[s] = {}",
+            BufferedAuditEventProcessorImpl.class,
+            "process(AuditEvent event)",
+            event
+        );
+        final AuditRecord auditRecord;
+        try {
+            auditRecord = AuditEventProcessorImpl.toAuditRecord(event);
+        } catch (IllegalArgumentException e) {
+            throw new AuditRuntimeException("Error due to invalid argument.", e);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(auditRecord);
+                }
+            });
+        } else {
+            enqueue(auditRecord);
+        }
+    }
+
+    /**
+     * Returns the number of audit records that were dropped since the application started.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Writes all buffered records. Returns without error when a batch fails; the failed records stay queued.
+     */
+    public synchronized void flush() {
+        final List<AuditRecord> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            if (!write(batch)) {
+                requeue(batch);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!queue.isEmpty()) {
+            final int discarded = queue.size();
+            queue.clear();
+            dropped(discarded);
+            logger.error("Discarding {} audit records that could not be written on shutdown", discarded);
+        }
+    }
+
+    private void enqueue(AuditRecord auditRecord) {
+        while (!queue.offer(auditRecord)) {
+            // Buffer is full: write on the caller thread to throttle producers, drop only when that write fails
+            final int sizeBefore = queue.size();
+            flush();
+            if (queue.size() >= sizeBefore) {
+                dropped(1);
+                logger.error("Audit buffer is full and cannot be flushed, discarding {}", auditRecord);
+                return;
+            }
+        }
+        if (scheduler.isShutdown()) {
+            flush();
+        } else if (queue.size() >= batchSize) {
+            try {
+                scheduler.execute(this::flushSafely);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("Unexpected error while flushing audit records", e);
+        }
+    }
+
+    private boolean write(List<AuditRecord> batch) {
+        final long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(batch));
+            recordInsert(batch.size(), start);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Batch of {} audit records was rejected, retrying one by one", batch.size(), e);
+            return writeOneByOne(batch);
+        } catch (Exception e) {
+            logger.error("Failed to write batch of {} audit records, will retry", batch.size(), e);
+            return false;
+        }
+    }
+
+    private boolean writeOneByOne(List<AuditRecord> batch) {
+        final List<AuditRecord> failed = new ArrayList<>();
+        for (AuditRecord auditRecord : batch) {
+            final long start = System.nanoTime();
+            try {
+                transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(List.of(auditRecord)));
+                recordInsert(1, start);
+            } catch (DataIntegrityViolationException e) {
+                logger.warn("Skipping audit record {} rejected by the database", auditRecord.getId(), e);
+            } catch (Exception e) {
+                logger.error("Failed to write audit record {}, will retry", auditRecord.getId(), e);
+                failed.add(auditRecord);
+            }
+        }
+        batch.retainAll(failed);
+        return failed.isEmpty();
+    }
+
+    private void requeue(List<AuditRecord> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (!queue.offerFirst(batch.get(i))) {
+                dropped(i + 1);
+                logger.error("Audit buffer is full, discarding {} audit records that failed to be written", i + 1);
+                return;
+            }
+        }
+    }
+
+    private void dropped(int count) {
+        droppedCount.addAndGet(count);
+    }
+
+    private void recordInsert(int count, long startNanos) {
+        if (meterRegistry != null) {
+            Timer.builder(INSERT_TIMER).tag("mode", "batched").register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            meterRegistry.counter(INSERTED_COUNTER, "mode", "batched").increment(count);
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ritense.audit.BaseIntegrationTest;
+import com.ritense.audit.domain.AuditRecordPartition;
+import com.ritense.audit.domain.event.TestEvent;
+import com.ritense.audit.repository.AuditRecordPartitionRepository;
+import jakarta.inject.Inject;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuditRecordPartitionRepositoryIntTest extends BaseIntegrationTest {
+
+    @Inject
+    private AuditRecordPartitionRepository auditRecordPartitionRepository;
+
+    @BeforeEach
+    public void setUp() {
+        auditRecordRepository.deleteAll();
+    }
+
+    @Test
+    void shouldFindPartitionsCreatedByChangeset() {
+        final LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+
+        assertThat(auditRecordPartitionRepository.isPartitioned()).isTrue();
+        final List<AuditRecordPartition> partitions = auditRecordPartitionRepository.findAllPartitions();
+        assertThat(partitions)
+            .map(AuditRecordPartition::upperBound)
+            .filteredOn(Objects::nonNull)
+            .containsExactlyInAnyOrder(
+                currentMonth.plusMonths(1).atStartOfDay(),
+                currentMonth.plusMonths(2).atStartOfDay(),
+                currentMonth.plusMonths(3).atStartOfDay(),
+                currentMonth.plusMonths(4).atStartOfDay()
+            );
+        assertThat(partitions).filteredOn(partition -> partition.upperBound() == null).hasSize(1);
+    }
+
+    @Test
+    void shouldMoveRowsOutOfCatchAllPartitionWhenCreatingPartition() {
+        final LocalDate month = LocalDate.now().withDayOfMonth(1).plusYears(5);
+        auditEventProcessor.process(testEvent(month.plusDays(3).atStartOfDay()));
+        assertThat(auditRecordRepository.findAuditRecordsByEvent(TestEvent.class.getName())).hasSize(1);
+
+        auditRecordPartitionRepository.createPartition(month, month.plusMonths(1));
+
+        final AuditRecordPartition partition = findPartitionEndingAt(month.plusMonths(1).atStartOfDay());
+        assertThat(auditRecordRepository.findAuditRecordsByEvent(TestEvent.class.getName())).hasSize(1);
+
+        auditRecordPartitionRepository.dropPartition(partition);
+
+        assertThat(auditRecordRepository.findAuditRecordsByEvent(TestEvent.class.getName())).isEmpty();
+        assertThat(auditRecordPartitionRepository.findAllPartitions()).doesNotContain(partition);
+    }
+
+    private AuditRecordPartition findPartitionEndingAt(LocalDateTime upperBound) {
+        return auditRecordPartitionRepository.findAllPartitions().stream()
+            .filter(partition -> upperBound.equals(partition.upperBound()))
+            .findFirst()
+            .orElseThrow();
+    }
+
+}
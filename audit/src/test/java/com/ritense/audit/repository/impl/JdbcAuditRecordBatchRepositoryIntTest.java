@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.repository.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ritense.audit.BaseIntegrationTest;
+import com.ritense.audit.domain.AuditRecord;
+import com.ritense.audit.domain.AuditRecordBuilder;
+import com.ritense.audit.domain.AuditRecordId;
+import com.ritense.audit.domain.event.TestEvent;
+import jakarta.inject.Inject;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class JdbcAuditRecordBatchRepositoryIntTest extends BaseIntegrationTest {
+
+    @Inject
+    private DataSource dataSource;
+
+    @Inject
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${valtimo.database}")
+    private String database;
+
+    private JdbcAuditRecordBatchRepository batchRepository;
+
+    @BeforeEach
+    public void setUp() {
+        auditRecordRepository.deleteAll();
+        batchRepository = new JdbcAuditRecordBatchRepository(dataSource, database);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldInsertRecordsThatAreReadBackAsEntities() {
+        final UUID documentId = UUID.randomUUID();
+        final TestEvent eventWithDocument = testEvent(LocalDateTime.now(), "Jane Doe");
+        final TestEvent eventWithoutDocument = testEvent(LocalDateTime.now());
+
+        insertAll(List.of(
+            auditRecord(eventWithDocument, documentId),
+            auditRecord(eventWithoutDocument, null)
+        ));
+
+        final List<AuditRecord> records = auditRecordRepository.findAuditRecordsByEvent(TestEvent.class.getName());
+        assertThat(records).hasSize(2);
+
+        final Page<AuditRecord> recordsOfDocument = auditRecordRepository.findByEventAndDocumentId(
+            List.of(TestEvent.class.getName()),
+            documentId,
+            PageRequest.of(0, 10)
+        );
+        assertThat(recordsOfDocument.getContent()).hasSize(1);
+        final AuditRecord recordOfDocument = recordsOfDocument.getContent().get(0);
+        assertThat(recordOfDocument.getAuditRecordId().id()).isEqualTo(eventWithDocument.getId());
+        assertThat(recordOfDocument.getDocumentId()).isEqualTo(documentId);
+        assertThat(recordOfDocument.getMetaData().getUser()).isEqualTo(eventWithDocument.getUser());
+        assertThat(recordOfDocument.getMetaData().getOrigin()).isEqualTo(eventWithDocument.getOrigin());
+        assertThat(recordOfDocument.getAuditEvent()).isInstanceOf(TestEvent.class);
+        assertThat(((TestEvent) recordOfDocument.getAuditEvent()).getName()).isEqualTo("Jane Doe");
+    }
+
+    @Test
+    void shouldRejectRecordThatWasAlreadyInserted() {
+        final AuditRecord auditRecord = auditRecord(testEvent(LocalDateTime.now()), null);
+        insertAll(List.of(auditRecord));
+
+        assertThrows(DataIntegrityViolationException.class, () -> insertAll(List.of(auditRecord)));
+        assertThat(auditRecordRepository.count()).isEqualTo(1);
+    }
+
+    private void insertAll(List<AuditRecord> auditRecords) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> batchRepository.insertAll(auditRecords));
+    }
+
+    private AuditRecord auditRecord(TestEvent event, UUID documentId) {
+        return new AuditRecordBuilder()
+            .id(AuditRecordId.newId(event.getId()))
+            .metaData(metaData(event))
+            .auditEvent(event)
+            .documentId(documentId)
+            .build();
+    }
+}
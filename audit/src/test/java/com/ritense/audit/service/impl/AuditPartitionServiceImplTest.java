@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ritense.audit.domain.AuditRecordPartition;
+import com.ritense.audit.repository.AuditRecordPartitionRepository;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AuditPartitionServiceImplTest {
+
+    private AuditPartitionServiceImpl auditPartitionService;
+    private AuditRecordPartitionRepository auditRecordPartitionRepository;
+    private LockProvider lockProvider;
+
+    @BeforeEach
+    public void setUp() {
+        auditRecordPartitionRepository = mock(AuditRecordPartitionRepository.class);
+        when(auditRecordPartitionRepository.isPartitioned()).thenReturn(true);
+        lockProvider = mock(LockProvider.class);
+        auditPartitionService = new AuditPartitionServiceImpl(auditRecordPartitionRepository, 1, lockProvider);
+    }
+
+    @Test
+    public void shouldCreatePartitionsAfterLastBoundedPartition() {
+        final LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        when(auditRecordPartitionRepository.findAllPartitions()).thenReturn(List.of(
+            new AuditRecordPartition("audit_record_legacy", currentMonth.plusMonths(1).atStartOfDay()),
+            new AuditRecordPartition("audit_record_default", null)
+        ));
+
+        auditPartitionService.createPartitions();
+
+        verify(auditRecordPartitionRepository).createPartition(currentMonth.plusMonths(1), currentMonth.plusMonths(2));
+        verify(auditRecordPartitionRepository, never()).createPartition(currentMonth, currentMonth.plusMonths(1));
+        verify(auditRecordPartitionRepository, never()).createPartition(currentMonth.plusMonths(2), currentMonth.plusMonths(3));
+    }
+
+    @Test
+    public void shouldCreatePartitionsOnStartupUnderLock() {
+        final LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        final SimpleLock lock = mock(SimpleLock.class);
+        when(lockProvider.lock(any())).thenReturn(Optional.of(lock));
+        when(auditRecordPartitionRepository.findAllPartitions()).thenReturn(List.of(
+            new AuditRecordPartition("audit_record_legacy", currentMonth.plusMonths(1).atStartOfDay())
+        ));
+
+        auditPartitionService.createPartitionsOnStartup();
+
+        verify(auditRecordPartitionRepository).createPartition(currentMonth.plusMonths(1), currentMonth.plusMonths(2));
+        verify(lock).unlock();
+    }
+
+    @Test
+    public void shouldSkipPartitionsOnStartupWhenLockIsHeld() {
+        when(lockProvider.lock(any())).thenReturn(Optional.empty());
+
+        auditPartitionService.createPartitionsOnStartup();
+
+        verify(auditRecordPartitionRepository, never()).createPartition(any(), any());
+    }
+
+    @Test
+    public void shouldDropOnlyPartitionsEndingBeforeDate() {
+        final LocalDateTime date = LocalDateTime.of(2024, 3, 15, 0, 0);
+        final AuditRecordPartition expired = new AuditRecordPartition("audit_record_p202402", LocalDateTime.of(2024, 3, 1, 0, 0));
+        final AuditRecordPartition current = new AuditRecordPartition("audit_record_p202403", LocalDateTime.of(2024, 4, 1, 0, 0));
+        final AuditRecordPartition catchAll = new AuditRecordPartition("audit_record_default", null);
+        when(auditRecordPartitionRepository.findAllPartitions()).thenReturn(List.of(expired, current, catchAll));
+
+        auditPartitionService.dropPartitionsBefore(date);
+
+        verify(auditRecordPartitionRepository).dropPartition(expired);
+        verify(auditRecordPartitionRepository, never()).dropPartition(current);
+        verify(auditRecordPartitionRepository, never()).dropPartition(catchAll);
+    }
+
+    @Test
+    public void shouldDoNothingWhenTableIsNotPartitioned() {
+        when(auditRecordPartitionRepository.isPartitioned()).thenReturn(false);
+
+        auditPartitionService.createPartitions();
+        auditPartitionService.dropPartitionsBefore(LocalDateTime.now());
+
+        verify(auditRecordPartitionRepository, never()).createPartition(any(), any());
+        verify(auditRecordPartitionRepository, never()).dropPartition(any());
+    }
+
+}
@@ -17,15 +17,18 @@
 package com.ritense.audit.service.impl;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.ritense.audit.service.AuditPartitionService;
 import com.ritense.audit.service.AuditRetentionService;
 import com.ritense.audit.service.AuditService;
 import java.time.LocalDateTime;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
 public class AuditRetentionServiceImplTest {
 
@@ -44,4 +47,14 @@ public class AuditRetentionServiceImplTest {
         verify(auditService, times(1)).deleteAllBefore(any(LocalDateTime.class));
     }
 
+    @Test
+    public void shouldDropExpiredPartitionsBeforeDeleting() {
+        final AuditPartitionService auditPartitionService = mock(AuditPartitionService.class);
+        new AuditRetentionServiceImpl(auditService, 5, auditPartitionService).cleanup();
+
+        final InOrder inOrder = inOrder(auditPartitionService, auditService);
+        inOrder.verify(auditPartitionService).dropPartitionsBefore(any(LocalDateTime.class));
+        inOrder.verify(auditService).deleteAllBefore(any(LocalDateTime.class));
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.audit.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.ritense.audit.AbstractTestHelper;
+import com.ritense.audit.domain.AuditRecord;
+import com.ritense.audit.exception.AuditRuntimeException;
+import com.ritense.audit.repository.impl.JdbcAuditRecordBatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class BufferedAuditEventProcessorImplTest extends AbstractTestHelper {
+
+    private BufferedAuditEventProcessorImpl auditEventProcessor;
+    private JdbcAuditRecordBatchRepository batchRepository;
+    private List<List<AuditRecord>> writtenBatches;
+
+    @BeforeEach
+    public void setUp() {
+        batchRepository = mock(JdbcAuditRecordBatchRepository.class);
+        writtenBatches = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> writtenBatches.add(new ArrayList<>(invocation.getArgument(0))))
+            .when(batchRepository).insertAll(anyList());
+        auditEventProcessor = new BufferedAuditEventProcessorImpl(
+            batchRepository,
+            mock(PlatformTransactionManager.class),
+            3,
+            Duration.ofHours(1),
+            100,
+            null
+        );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        auditEventProcessor.destroy();
+    }
+
+    @Test
+    public void shouldFailProcessingEventWhenNull() {
+        assertThrows(AuditRuntimeException.class, () -> auditEventProcessor.process(null));
+        auditEventProcessor.flush();
+        verifyNoInteractions(batchRepository);
+    }
+
+    @Test
+    public void shouldWriteBufferedRecordsInOneBatchOnFlush() {
+        auditEventProcessor.process(testEvent(LocalDateTime.now()));
+        auditEventProcessor.process(testEvent(LocalDateTime.now()));
+
+        assertThat(writtenBatches).isEmpty();
+        auditEventProcessor.flush();
+
+        assertThat(writtenBatches).hasSize(1);
+        assertThat(writtenBatches.get(0)).hasSize(2);
+    }
+
+    @Test
+    public void shouldWriteWhenBatchSizeIsReached() {
+        auditEventProcessor.process(testEvent(LocalDateTime.now()));
+        auditEventProcessor.process(testEvent(LocalDateTime.now()));
+        auditEventProcessor.process(testEvent(LocalDateTime.now()));
+
+        verify(batchRepository, timeout(5000)).insertAll(anyList());
+        assertThat(writtenBatches.get(0)).hasSize(3);
+    }
+
+    @Test
+    public void shouldOnlyBufferRecordAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            auditEventProcessor.process(testEvent(LocalDateTime.now()));
+            auditEventProcessor.flush();
+            assertThat(writtenBatches).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        auditEventProcessor.flush();
+
+        assertThat(writtenBatches).hasSize(1);
+    }
+
+    @Test
+    public void shouldRetryFailedBatchOnNextFlush() {
+        final AtomicBoolean failed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new QueryTimeoutException("timeout");
+            }
+            return writtenBatches.add(new ArrayList<>(invocation.getArgument(0)));
+        }).when(batchRepository).insertAll(anyList());
+
+        auditEventProcessor.process(testEvent(LocalDateTime.now()));
+        auditEventProcessor.flush();
+        assertThat(writtenBatches).isEmpty();
+
+        auditEventProcessor.flush();
+        assertThat(writtenBatches).hasSize(1);
+        assertThat(writtenBatches.get(0)).hasSize(1);
+    }
+
+    @Test
+    public void shouldCountDroppedRecordsWhenBufferIsFullAndDatabaseIsDown() {
+        doThrow(new QueryTimeoutException("timeout")).when(batchRepository).insertAll(anyList());
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final BufferedAuditEventProcessorImpl fullProcessor = new BufferedAuditEventProcessorImpl(
+            batchRepository,
+            mock(PlatformTransactionManager.class),
+            3,
+            Duration.ofHours(1),
+            3,
+            meterRegistry
+        );
+        try {
+            for (int i = 0; i < 4; i++) {
+                fullProcessor.process(testEvent(LocalDateTime.now()));
+            }
+            fullProcessor.flush();
+
+            assertThat(fullProcessor.getDroppedCount()).isEqualTo(1);
+            assertThat(meterRegistry.get(BufferedAuditEventProcessorImpl.DROPPED_COUNTER).functionCounter().count())
+                .isEqualTo(1);
+        } finally {
+            fullProcessor.destroy();
+        }
+        assertThat(fullProcessor.getDroppedCount()).isEqualTo(4);
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.authorization.benchmark
+
+import com.ritense.authorization.permission.condition.ExpressionPermissionCondition
+import com.ritense.authorization.permission.condition.FieldPermissionCondition
+import com.ritense.authorization.permission.condition.PermissionCondition
+import com.ritense.authorization.permission.condition.PermissionConditionOperator
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.UUID
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures in-memory PBAC checks: evaluating a typical permission set against one page of entities, the way
+ * AuthorizationService.hasPermission does for every entity in a list.
+ *
+ * Run with: ./gradlew :authorization:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class PermissionConditionBenchmark {
+
+    @Param("FIELD", "EXPRESSION", "MIXED")
+    lateinit var conditionSet: String
+
+    @Param("100")
+    var pageSize: Int = 0
+
+    private lateinit var conditions: List<PermissionCondition>
+    private lateinit var entities: List<BenchmarkCase>
+
+    @Setup(Level.Trial)
+    fun setup() {
+        val fieldConditions = listOf(
+            FieldPermissionCondition("assignee", PermissionConditionOperator.EQUAL_TO, "user-1"),
+            FieldPermissionCondition("status.key", PermissionConditionOperator.NOT_EQUAL_TO, "closed"),
+            FieldPermissionCondition("createdBy", PermissionConditionOperator.EQUAL_TO, "admin"),
+        )
+        val expressionConditions = listOf(
+            ExpressionPermissionCondition(
+                "content.content", "$.height", PermissionConditionOperator.GREATER_THAN, 10, Int::class.javaObjectType
+            ),
+            ExpressionPermissionCondition(
+                "content.content", "$.address.city", PermissionConditionOperator.EQUAL_TO, "Amsterdam", String::class.java
+            ),
+            ExpressionPermissionCondition(
+                "content.content", "$.tags", PermissionConditionOperator.LIST_CONTAINS, "urgent", String::class.java
+            ),
+        )
+        conditions = when (conditionSet) {
+            "FIELD" -> fieldConditions
+            "EXPRESSION" -> expressionConditions
+            else -> fieldConditions + expressionConditions
+        }
+        entities = (0 until pageSize).map { index ->
+            BenchmarkCase(
+                id = UUID.randomUUID(),
+                assignee = "user-${index % 2}",
+                status = BenchmarkStatus(if (index % 5 == 0) "closed" else "open"),
+                content = BenchmarkContent(
+                    """
+                    {
+                        "height": ${index % 20},
+                        "address": { "street": "Street $index", "city": "Amsterdam" },
+                        "tags": ["new", "urgent", "tag-$index"]
+                    }
+                    """.trimIndent()
+                ),
+                createdBy = "admin"
+            )
+        }
+    }
+
+    @Benchmark
+    fun evaluatePage(): Int {
+        return entities.count { entity -> conditions.all { it.isValid(entity) } }
+    }
+}
+
+class BenchmarkCase(
+    val id: UUID,
+    val assignee: String?,
+    val status: BenchmarkStatus,
+    val content: BenchmarkContent,
+    createdBy: String
+) : BenchmarkAuditable(createdBy)
+
+open class BenchmarkAuditable(
+    val createdBy: String
+)
+
+class BenchmarkStatus(
+    val key: String
+)
+
+class BenchmarkContent(
+    val content: String
+)
@@ -17,6 +17,7 @@
 package com.ritense.authorization
 
 import com.ritense.authorization.permission.Permission
+import com.ritense.authorization.permission.PermissionCache
 import com.ritense.authorization.permission.PermissionRepository
 import com.ritense.authorization.request.AuthorizationRequest
 import com.ritense.authorization.request.EntityAuthorizationRequest
@@ -39,7 +40,8 @@ class ValtimoAuthorizationService(
     private val mappers: List<AuthorizationEntityMapper<*, *>>,
     private val actionProviders: List<ResourceActionProvider<*>>,
     private val permissionRepository: PermissionRepository,
-    private val userManagementService: UserManagementService
+    private val userManagementService: UserManagementService,
+    private val permissionCache: PermissionCache? = null,
 ) : AuthorizationService {
     override fun <T : Any> requirePermission(
         request: AuthorizationRequest<T>
@@ -81,7 +83,8 @@ class ValtimoAuthorizationService(
     }
 
     override fun getPermissions(resourceType: Class<*>, action: Action<*>): List<Permission> {
-        return permissionRepository.findAllByResourceTypeAndAction(resourceType, action)
+        return permissionCache?.getPermissions(resourceType, action)
+            ?: permissionRepository.findAllByResourceTypeAndAction(resourceType, action)
     }
 
     override fun <FROM, TO> getMapper(
@@ -126,7 +129,9 @@ class ValtimoAuthorizationService(
                 ?.roles
                 ?: return emptyList()
         }
-        return permissionRepository.findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(userRoles)
+        val rolePermissions = permissionCache?.getPermissions(userRoles, context.resourceType, context.action)
+            ?: permissionRepository.findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(userRoles)
+        return rolePermissions
             .filter { permission ->
                 context.resourceType == permission.resourceType
                     && context.action == permission.action
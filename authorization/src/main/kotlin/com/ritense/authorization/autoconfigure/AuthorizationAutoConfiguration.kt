@@ -27,7 +27,9 @@ import com.ritense.authorization.ValtimoAuthorizationService
 import com.ritense.authorization.annotation.RunWithoutAuthorizationAspect
 import com.ritense.authorization.deployment.PermissionDeployer
 import com.ritense.authorization.deployment.RoleDeployer
+import com.ritense.authorization.permission.PermissionCache
 import com.ritense.authorization.permission.PermissionRepository
+import com.ritense.authorization.permission.PermissionVersionRepository
 import com.ritense.authorization.role.RoleRepository
 import com.ritense.authorization.specification.AuthorizationSpecificationFactory
 import com.ritense.authorization.specification.impl.DenyAuthorizationSpecificationFactory
@@ -40,15 +42,19 @@ import com.ritense.valtimo.changelog.service.ChangelogService
 import com.ritense.valtimo.contract.authentication.UserManagementService
 import com.ritense.authorization.UserManagementServiceHolder
 import com.ritense.valtimo.contract.config.LiquibaseMasterChangeLogLocation
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.ObjectProvider
 import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.boot.autoconfigure.domain.EntityScan
 import org.springframework.context.annotation.Bean
 import org.springframework.core.Ordered.HIGHEST_PRECEDENCE
 import org.springframework.core.annotation.Order
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import java.time.Duration
 import javax.sql.DataSource
 
 @AutoConfiguration
@@ -77,19 +83,40 @@ class AuthorizationAutoConfiguration(
         actionProviders: List<ResourceActionProvider<*>>,
         permissionRepository: PermissionRepository,
         roleRepository: RoleRepository,
-        userManagementService: UserManagementService
+        userManagementService: UserManagementService,
+        permissionCache: ObjectProvider<PermissionCache>
     ): AuthorizationService {
         val authorizationService = ValtimoAuthorizationService(
             authorizationSpecificationFactories,
             mappers,
             actionProviders,
             permissionRepository,
-            userManagementService
+            userManagementService,
+            permissionCache.ifAvailable
         )
         AuthorizationServiceHolder(authorizationService)
         return authorizationService
     }
 
+    @Bean
+    @ConditionalOnMissingBean(PermissionCache::class)
+    @ConditionalOnProperty(value = ["valtimo.authorization.permission-cache.enabled"], havingValue = "true", matchIfMissing = true)
+    fun permissionCache(
+        permissionRepository: PermissionRepository,
+        permissionVersionRepository: PermissionVersionRepository,
+        @Value("\${valtimo.authorization.permission-cache.revalidate-interval:PT1S}") revalidateInterval: Duration,
+        @Value("\${valtimo.authorization.permission-cache.maximum-size:1000}") maximumSize: Int,
+        meterRegistry: ObjectProvider<MeterRegistry>
+    ): PermissionCache {
+        return PermissionCache(
+            permissionRepository,
+            permissionVersionRepository,
+            revalidateInterval,
+            maximumSize,
+            meterRegistry.ifAvailable
+        )
+    }
+
     @Order(HIGHEST_PRECEDENCE + 1)
     @Bean
     @ConditionalOnClass(DataSource::class)
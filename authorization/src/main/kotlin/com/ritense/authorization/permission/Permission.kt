@@ -26,6 +26,7 @@ import io.hypersistence.utils.hibernate.type.json.JsonType
 import jakarta.persistence.Column
 import jakarta.persistence.Embedded
 import jakarta.persistence.Entity
+import jakarta.persistence.EntityListeners
 import jakarta.persistence.FetchType
 import jakarta.persistence.Id
 import jakarta.persistence.JoinColumn
@@ -40,6 +41,7 @@ import java.util.UUID
 
 @Entity
 @Table(name = "permission")
+@EntityListeners(PermissionCacheInvalidationListener::class)
 data class Permission(
     @Id
     @Column(name = "id")
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.authorization.permission
+
+import com.ritense.authorization.Action
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import mu.KotlinLogging
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.time.Duration
+import java.util.Collections
+import java.util.WeakHashMap
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * In-memory index of permissions, keyed by role set, resource type and action.
+ *
+ * Every change to a [Permission] or [com.ritense.authorization.role.Role] entity invalidates the index through
+ * [PermissionCacheInvalidationListener]. Within the transaction that made the change the index is bypassed, and it is
+ * cleared again when that transaction completes. A committed change also increments the [PermissionVersion], which
+ * other nodes check at most once per revalidateInterval.
+ */
+open class PermissionCache(
+    private val permissionRepository: PermissionRepository,
+    private val permissionVersionRepository: PermissionVersionRepository,
+    private val revalidateInterval: Duration = Duration.ofSeconds(1),
+    private val maximumSize: Int = 1000,
+    meterRegistry: MeterRegistry? = null,
+) {
+    private val permissionsByRoles = ConcurrentHashMap<Set<String>, Map<PermissionKey, List<Permission>>>()
+    private val permissionsByResourceType = ConcurrentHashMap<PermissionKey, List<Permission>>()
+    private val generation = AtomicLong()
+
+    @Volatile
+    private var version: Long? = null
+
+    @Volatile
+    private var revalidated = false
+
+    @Volatile
+    private var lastRevalidatedAt = 0L
+
+    private val hits = meterRegistry?.let { counter(it, "hit") }
+    private val misses = meterRegistry?.let { counter(it, "miss") }
+
+    init {
+        synchronized(instances) {
+            instances.add(this)
+        }
+    }
+
+    fun getPermissions(roleKeys: Collection<String>, resourceType: Class<*>, action: Action<*>): List<Permission> {
+        val key = PermissionKey(resourceType, action.key)
+        if (isBypassed()) {
+            return index(permissionRepository.findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(roleKeys))[key] ?: emptyList()
+        }
+        revalidate()
+        val roles = roleKeys.toSet()
+        permissionsByRoles[roles]?.let { permissions ->
+            hits?.increment()
+            return permissions[key] ?: emptyList()
+        }
+        misses?.increment()
+        val loadedGeneration = generation.get()
+        val permissions = index(permissionRepository.findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(roles))
+        store(permissionsByRoles, roles, permissions, loadedGeneration)
+        return permissions[key] ?: emptyList()
+    }
+
+    fun getPermissions(resourceType: Class<*>, action: Action<*>): List<Permission> {
+        if (isBypassed()) {
+            return permissionRepository.findAllByResourceTypeAndAction(resourceType, action)
+        }
+        revalidate()
+        val key = PermissionKey(resourceType, action.key)
+        permissionsByResourceType[key]?.let { permissions ->
+            hits?.increment()
+            return permissions
+        }
+        misses?.increment()
+        val loadedGeneration = generation.get()
+        val permissions = permissionRepository.findAllByResourceTypeAndAction(resourceType, action)
+        store(permissionsByResourceType, key, permissions, loadedGeneration)
+        return permissions
+    }
+
+    fun invalidate() {
+        clear()
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            permissionVersionRepository.incrementVersion()
+            return
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return
+        }
+        TransactionSynchronizationManager.bindResource(this, true)
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCommit() {
+                permissionVersionRepository.incrementVersion()
+            }
+
+            override fun afterCompletion(status: Int) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(this@PermissionCache)
+                clear()
+            }
+        })
+    }
+
+    private fun isBypassed() = TransactionSynchronizationManager.hasResource(this)
+
+    private fun revalidate() {
+        val now = System.nanoTime()
+        if (revalidated && now - lastRevalidatedAt < revalidateInterval.toNanos()) {
+            return
+        }
+        lastRevalidatedAt = now
+        revalidated = true
+        val currentVersion = permissionVersionRepository.findCurrentVersion()
+        if (currentVersion != version) {
+            logger.debug { "Permission version changed from $version to $currentVersion. Clearing permission cache" }
+            clear()
+            version = currentVersion
+        }
+    }
+
+    private fun <K : Any, V : Any> store(map: MutableMap<K, V>, key: K, value: V, loadedGeneration: Long) {
+        if (map.size >= maximumSize) {
+            map.clear()
+        }
+        map[key] = value
+        // An invalidation while loading means the loaded permissions may already be outdated
+        if (generation.get() != loadedGeneration) {
+            map.remove(key)
+        }
+    }
+
+    private fun clear() {
+        generation.incrementAndGet()
+        permissionsByRoles.clear()
+        permissionsByResourceType.clear()
+    }
+
+    private fun index(permissions: List<Permission>): Map<PermissionKey, List<Permission>> {
+        return permissions.groupBy { permission -> PermissionKey(permission.resourceType, permission.action.key) }
+    }
+
+    private fun counter(meterRegistry: MeterRegistry, result: String): Counter {
+        return Counter.builder("cache.gets")
+            .tag("cache", CACHE_NAME)
+            .tag("result", result)
+            .register(meterRegistry)
+    }
+
+    private data class PermissionKey(
+        val resourceType: Class<*>,
+        val actionKey: String,
+    )
+
+    companion object {
+        const val CACHE_NAME = "valtimo.permissions"
+
+        private val logger = KotlinLogging.logger {}
+        private val instances: MutableSet<PermissionCache> = Collections.newSetFromMap(WeakHashMap())
+
+        /**
+         * Invalidates every permission cache in this JVM. Used by JPA entity listeners, which are not Spring beans.
+         */
+        @JvmStatic
+        fun invalidateAll() {
+            synchronized(instances) {
+                instances.toList()
+            }.forEach { it.invalidate() }
+        }
+    }
+}
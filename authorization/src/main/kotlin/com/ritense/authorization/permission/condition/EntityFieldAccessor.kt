@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.authorization.permission.condition
+
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Field
+import java.lang.reflect.Modifier
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Reads a dot-separated field path (for example 'document.assignee.id') from an entity.
+ *
+ * The path is split once, and the getter for every field is looked up once per class and cached as a MethodHandle,
+ * so evaluating a condition over many entities doesn't scan the declared fields of the class hierarchy every time.
+ */
+internal class EntityFieldAccessor private constructor(
+    field: String
+) {
+    private val fields = field.split('.')
+
+    fun getValue(entity: Any): Any? {
+        var currentEntity: Any? = entity
+        fields.forEachIndexed { index, value ->
+            val current = currentEntity
+                ?: throw NullPointerException("Field $fields not found in class ${entity.javaClass}")
+            val getter = findGetter(current.javaClass, value)
+                ?: throw NoSuchFieldException("Field $fields not found in class ${entity.javaClass}")
+
+            // Field.get(obj) does not (always) seem to work according to spec, because it throws a NullPointerException when the value of a property is null
+            currentEntity = try {
+                getter.invoke(current)
+            } catch (npe: NullPointerException) {
+                if (index == fields.size - 1) {
+                    null
+                } else {
+                    throw npe
+                }
+            }
+        }
+        return currentEntity
+    }
+
+    companion object {
+        private val accessors = ConcurrentHashMap<String, EntityFieldAccessor>()
+
+        private val getters = object : ClassValue<ConcurrentHashMap<String, MethodHandle>>() {
+            override fun computeValue(type: Class<*>) = ConcurrentHashMap<String, MethodHandle>()
+        }
+
+        private val GETTER_TYPE = MethodType.methodType(Any::class.java, Any::class.java)
+
+        fun of(field: String): EntityFieldAccessor = accessors.computeIfAbsent(field, ::EntityFieldAccessor)
+
+        private fun findGetter(type: Class<*>, name: String): MethodHandle? {
+            val classGetters = getters.get(type)
+            classGetters[name]?.let { return it }
+            val declaredField = findField(type, name) ?: return null
+            return classGetters.computeIfAbsent(name) { toGetter(declaredField) }
+        }
+
+        private fun findField(type: Class<*>, name: String): Field? {
+            var classToSearch: Class<*>? = type
+            while (classToSearch != null) {
+                classToSearch.declaredFields.firstOrNull { it.name == name }?.let { return it }
+                classToSearch = classToSearch.superclass
+            }
+            return null
+        }
+
+        private fun toGetter(field: Field): MethodHandle {
+            field.trySetAccessible()
+            val getter = MethodHandles.lookup().unreflectGetter(field)
+            return if (Modifier.isStatic(field.modifiers)) {
+                MethodHandles.dropArguments(getter, 0, Any::class.java).asType(GETTER_TYPE)
+            } else {
+                getter.asType(GETTER_TYPE)
+            }
+        }
+    }
+}
@@ -18,8 +18,13 @@ package com.ritense.authorization.permission.condition
 
 import com.fasterxml.jackson.annotation.JsonTypeName
 import com.fasterxml.jackson.annotation.JsonView
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.jayway.jsonpath.Configuration
 import com.jayway.jsonpath.JsonPath
 import com.jayway.jsonpath.PathNotFoundException
+import com.jayway.jsonpath.spi.json.JacksonJsonNodeJsonProvider
+import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider
 import com.ritense.authorization.permission.PermissionView
 import com.ritense.authorization.permission.condition.ExpressionPermissionCondition.Companion.EXPRESSION
 import com.ritense.valtimo.contract.authorization.CurrentUserExpressionHandler
@@ -49,11 +54,13 @@ data class ExpressionPermissionCondition<V>(
         require(value == null || value is Comparable<*> || value is List<*>)
     }
 
+    private val compiledPath by lazy { JsonPath.compile(path) }
+
     override fun <E : Any> isValid(entity: E): Boolean {
-        val jsonValue = toJsonString(entity)
+        val jsonValue = toJsonNode(entity)
             ?: return value == null
         val pathValue = try {
-            JsonPath.read<Any?>(jsonValue, path)
+            toValue(compiledPath.read<Any?>(jsonValue, jsonPathConfiguration()))
         } catch (e: PathNotFoundException) {
             null
         }
@@ -96,19 +103,41 @@ data class ExpressionPermissionCondition<V>(
         )
     }
 
-    private fun toJsonString(entity: Any): String? {
+    private fun toJsonNode(entity: Any): JsonNode? {
         val fieldValue = findEntityFieldValue(entity, field) ?: return null
         return if (fieldValue is String) {
-            fieldValue
+            MapperSingleton.get().readTree(fieldValue)
         } else {
             try {
-                MapperSingleton.get().writeValueAsString(fieldValue) ?: return null
+                MapperSingleton.get().valueToTree<JsonNode>(fieldValue) ?: return null
             } catch (e: Exception) {
                 null
             }
         }
     }
 
+    /**
+     * Converts the result of the JsonPath to plain values, the same types the expression was compared against when it
+     * was still evaluated on a JSON string: Integer/Long/BigInteger, Double, String, Boolean, List and Map.
+     */
+    private fun toValue(result: Any?): Any? {
+        if (result !is JsonNode) {
+            return result
+        }
+        return when {
+            result.isNull || result.isMissingNode -> null
+            result.isTextual -> result.textValue()
+            result.isBoolean -> result.booleanValue()
+            result.isIntegralNumber && result.canConvertToInt() -> result.intValue()
+            result.isIntegralNumber && result.canConvertToLong() -> result.longValue()
+            result.isIntegralNumber -> result.bigIntegerValue()
+            result.isNumber -> result.doubleValue()
+            result.isArray -> result.map { toValue(it) }
+            result.isObject -> result.fields().asSequence().associate { it.key to toValue(it.value) }
+            else -> result.asText()
+        }
+    }
+
     private fun evaluateExpression(pathValue: Any?): Boolean {
         return operator.evaluate(
             pathValue,
@@ -128,5 +157,27 @@ data class ExpressionPermissionCondition<V>(
 
     companion object {
         const val EXPRESSION = "expression"
+
+        @Volatile
+        private var jsonPathConfiguration: Pair<ObjectMapper, Configuration>? = null
+
+        /**
+         * JsonPath configuration that evaluates directly on the Jackson tree. Rebuilt when MapperSingleton is given a
+         * different mapper.
+         */
+        private fun jsonPathConfiguration(): Configuration {
+            val mapper = MapperSingleton.get()
+            jsonPathConfiguration?.let { (cachedMapper, configuration) ->
+                if (cachedMapper === mapper) {
+                    return configuration
+                }
+            }
+            val configuration = Configuration.builder()
+                .jsonProvider(JacksonJsonNodeJsonProvider(mapper))
+                .mappingProvider(JacksonMappingProvider(mapper))
+                .build()
+            jsonPathConfiguration = mapper to configuration
+            return configuration
+        }
     }
 }
\ No newline at end of file
@@ -16,41 +16,8 @@
 
 package com.ritense.authorization.permission.condition
 
-import java.lang.reflect.Field
-
 abstract class ReflectingPermissionCondition(type: PermissionConditionType) : PermissionCondition(type) {
     protected fun findEntityFieldValue(entity: Any, field: String): Any? {
-        var currentEntity: Any? = entity
-        val fields = field.split('.')
-        fields.forEachIndexed { index, value ->
-            if (currentEntity == null) {
-                throw NullPointerException("Field $fields not found in class ${entity.javaClass}")
-            }
-            var classToSearch: Class<*>? = currentEntity?.javaClass
-            var declaredField: Field? = null
-
-            while (declaredField == null && classToSearch != null) {
-                declaredField = classToSearch.declaredFields.firstOrNull { it.name == value }
-                if (declaredField == null)
-                    classToSearch = classToSearch.superclass
-            }
-
-            if (declaredField == null) {
-                throw NoSuchFieldException("Field $fields not found in class ${entity.javaClass}")
-            }
-            declaredField.trySetAccessible()
-
-            // Field.get(obj) does not (always) seem to work according to spec, because it throws a NullPointerException when the value of a property is null
-            currentEntity = try {
-                declaredField.get(currentEntity)
-            } catch (npe: NullPointerException) {
-                if (index == fields.size - 1) {
-                    null
-                } else {
-                    throw npe
-                }
-            }
-        }
-        return currentEntity
+        return EntityFieldAccessor.of(field).getValue(entity)
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.authorization.permission
+
+import com.ritense.authorization.Action
+import com.ritense.authorization.role.Role
+import com.ritense.authorization.testimpl.TestEntity
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.time.Duration
+
+class PermissionCacheTest {
+
+    private lateinit var permissionRepository: PermissionRepository
+    private lateinit var permissionVersionRepository: PermissionVersionRepository
+    private lateinit var meterRegistry: SimpleMeterRegistry
+    private lateinit var permissionCache: PermissionCache
+
+    @BeforeEach
+    fun setUp() {
+        permissionRepository = mock()
+        permissionVersionRepository = mock()
+        meterRegistry = SimpleMeterRegistry()
+        whenever(permissionVersionRepository.findCurrentVersion()).thenReturn(0L)
+        whenever(permissionRepository.findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(any()))
+            .thenReturn(listOf(VIEW_PERMISSION, MODIFY_PERMISSION))
+        permissionCache = PermissionCache(
+            permissionRepository,
+            permissionVersionRepository,
+            Duration.ofHours(1),
+            meterRegistry = meterRegistry
+        )
+    }
+
+    @AfterEach
+    fun tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization()
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(permissionCache)
+    }
+
+    @Test
+    fun `should load permissions of a role set once`() {
+        val view = permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+        val modify = permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, MODIFY)
+        val delete = permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, Action<TestEntity>(Action.DELETE))
+
+        assertThat(view).containsExactly(VIEW_PERMISSION)
+        assertThat(modify).containsExactly(MODIFY_PERMISSION)
+        assertThat(delete).isEmpty()
+        verify(permissionRepository, times(1)).findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(any())
+        assertThat(cacheGets("hit")).isEqualTo(2.0)
+        assertThat(cacheGets("miss")).isEqualTo(1.0)
+    }
+
+    @Test
+    fun `should reload permissions after invalidation`() {
+        permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+
+        permissionCache.invalidate()
+        permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+
+        verify(permissionRepository, times(2)).findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(any())
+        verify(permissionVersionRepository).incrementVersion()
+    }
+
+    @Test
+    fun `should reload permissions when another node changed the version`() {
+        val permissionCache = PermissionCache(permissionRepository, permissionVersionRepository, Duration.ZERO)
+        permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+        permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+
+        whenever(permissionVersionRepository.findCurrentVersion()).thenReturn(1L)
+        permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+
+        verify(permissionRepository, times(2)).findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(any())
+    }
+
+    @Test
+    fun `should bypass cache in transaction that changed permissions until it completes`() {
+        TransactionSynchronizationManager.initSynchronization()
+
+        permissionCache.invalidate()
+        permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+        permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+        verify(permissionRepository, times(2)).findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(any())
+
+        TransactionSynchronizationManager.getSynchronizations().forEach { synchronization ->
+            synchronization.afterCommit()
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+        }
+        TransactionSynchronizationManager.clearSynchronization()
+        permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+        permissionCache.getPermissions(listOf(ROLE), TestEntity::class.java, VIEW)
+
+        verify(permissionRepository, times(3)).findAllByRoleKeyInOrderByRoleKeyAscResourceTypeAsc(any())
+        verify(permissionVersionRepository).incrementVersion()
+    }
+
+    private fun cacheGets(result: String) = meterRegistry.get("cache.gets")
+        .tag("cache", PermissionCache.CACHE_NAME)
+        .tag("result", result)
+        .counter()
+        .count()
+
+    companion object {
+        private const val ROLE = "ROLE_USER"
+        private val VIEW = Action<TestEntity>(Action.VIEW)
+        private val MODIFY = Action<TestEntity>(Action.MODIFY)
+        private val VIEW_PERMISSION = Permission(
+            resourceType = TestEntity::class.java,
+            action = VIEW,
+            conditionContainer = ConditionContainer(),
+            role = Role(key = ROLE)
+        )
+        private val MODIFY_PERMISSION = Permission(
+            resourceType = TestEntity::class.java,
+            action = MODIFY,
+            conditionContainer = ConditionContainer(),
+            role = Role(key = ROLE)
+        )
+    }
+}
@@ -156,6 +156,25 @@ class ExpressionPermissionConditionTest {
         assertEquals(true, result)
     }
 
+    @Test
+    fun `should pass validation when the entity property is an object instead of a JSON string`() {
+        val entity = TestEntity(TestChildEntity(mapOf("value" to 3L, "nested" to mapOf("value" to "myValue"))))
+
+        assertEquals(true, createExpressionCondition(3, Int::class.javaObjectType).isValid(entity))
+        assertEquals(true, conditionTemplate.copy(path = "nested.value").isValid(entity))
+        assertEquals(false, createExpressionCondition("3", String::class.java).isValid(entity))
+    }
+
+    @Test
+    fun `should give the same result when the condition is evaluated repeatedly`() {
+        val otherEntity = TestEntity(TestChildEntity("""{"value": "otherValue"}"""))
+
+        repeat(3) {
+            assertEquals(true, conditionTemplate.isValid(entity))
+            assertEquals(false, conditionTemplate.isValid(otherEntity))
+        }
+    }
+
     @Test
     fun `should serialize to JSON`() {
         val condition = conditionTemplate
@@ -219,6 +219,23 @@ class FieldPermissionConditionTest {
         }
     }
 
+    @Test
+    fun `should resolve the same field path on different entity classes`() {
+        val otherEntity = OtherTestEntity(TestChildEntity(99))
+
+        repeat(3) {
+            assertTrue(conditionTemplate.isValid(entity))
+            assertFalse(conditionTemplate.isValid(otherEntity))
+        }
+    }
+
+    @Test
+    fun `should resolve a field declared in a superclass`() {
+        val entity = SubclassedTestEntity(TestChildEntity(100))
+
+        assertTrue(conditionTemplate.isValid(entity))
+    }
+
     @Test
     fun `should serialize to JSON`() {
         val condition = conditionTemplate
@@ -256,4 +273,16 @@ class FieldPermissionConditionTest {
         MatcherAssert.assertThat(result.operator, Matchers.equalTo(GREATER_THAN))
         MatcherAssert.assertThat(result.value, Matchers.equalTo(true))
     }
-}
\ No newline at end of file
+}
+
+private data class OtherTestEntity(
+    val child: TestChildEntity?
+)
+
+private open class BaseTestEntity(
+    val child: TestChildEntity?
+)
+
+private class SubclassedTestEntity(
+    child: TestChildEntity?
+) : BaseTestEntity(child)
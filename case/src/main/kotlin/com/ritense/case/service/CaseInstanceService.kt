@@ -23,6 +23,7 @@ import com.ritense.document.domain.Document
 import com.ritense.document.domain.search.SearchWithConfigRequest
 import com.ritense.document.service.DocumentSearchService
 import com.ritense.valtimo.contract.annotation.SkipComponentScan
+import com.ritense.valtimo.contract.repository.KeysetPage
 import com.ritense.valueresolver.ValueResolverService
 import org.springframework.data.domain.Page
 import org.springframework.data.domain.PageRequest
@@ -51,24 +52,56 @@ class CaseInstanceService(
         )
         val newPageable = mutatePageable(caseListColumns, pageable)
 
-        return documentSearchService.search(caseDefinitionName, searchRequest, newPageable)
-            .map { document -> toCaseListRowDto(document, caseListColumns) }
+        val documents = documentSearchService.search(caseDefinitionName, searchRequest, newPageable)
+        val resolvedValues = valueResolverService.resolveValuesForDocuments(
+            documents.content.map { document -> document.id().id.toString() },
+            caseListColumns.map { it.path }
+        )
+        return documents.map { document ->
+            toCaseListRowDto(document, caseListColumns, resolvedValues[document.id().id.toString()] ?: emptyMap())
+        }
+    }
+
+    fun scroll(
+        caseDefinitionName: String,
+        searchRequest: SearchWithConfigRequest,
+        sort: Sort,
+        size: Int,
+        token: String?
+    ): KeysetPage<CaseListRowDto> {
+        // No authorization on this level, as we have to fully rely on the documentSearchService for filtering results
+        val caseListColumns = caseDefinitionListColumnRepository.findByIdCaseDefinitionNameOrderByOrderAsc(
+            caseDefinitionName
+        )
+
+        val documents = documentSearchService.scroll(caseDefinitionName, searchRequest, mutateSort(caseListColumns, sort), size, token)
+        val resolvedValues = valueResolverService.resolveValuesForDocuments(
+            documents.content.map { document -> document.id().id.toString() },
+            caseListColumns.map { it.path }
+        )
+        return documents.map { document ->
+            toCaseListRowDto(document, caseListColumns, resolvedValues[document.id().id.toString()] ?: emptyMap())
+        }
     }
 
     private fun mutatePageable(caseListColumns: Collection<CaseListColumn>, pageable: Pageable): PageRequest {
-        val newSortOrders = pageable.sort.map { sortOrder ->
+        return PageRequest.of(pageable.pageNumber, pageable.pageSize, mutateSort(caseListColumns, pageable.sort))
+    }
+
+    private fun mutateSort(caseListColumns: Collection<CaseListColumn>, sort: Sort): Sort {
+        val newSortOrders = sort.map { sortOrder ->
             val caseListColumn = caseListColumns.find { caseListColumn -> caseListColumn.id.key == sortOrder.property }
             val sortingProperty = caseListColumn?.path ?: sortOrder.property
             Sort.Order(sortOrder.direction, sortingProperty, sortOrder.nullHandling)
         }
-        val newSort = Sort.by(newSortOrders.toMutableList())
-        return PageRequest.of(pageable.pageNumber, pageable.pageSize, newSort)
+        return Sort.by(newSortOrders.toMutableList())
     }
 
-    private fun toCaseListRowDto(document: Document, caseListColumns: List<CaseListColumn>): CaseListRowDto {
-        val paths = caseListColumns.map { it.path }
-        val resolvedValuesMap = valueResolverService.resolveValues(document.id().id.toString(), paths)
-
+    private fun toCaseListRowDto(
+        document: Document,
+        caseListColumns: List<CaseListColumn>,
+        resolvedValuesMap: Map<String, Any?>
+    ): CaseListRowDto {
         val items = caseListColumns.map { caseListColumn ->
             CaseListRowDto.CaseListItemDto(caseListColumn.id.key, resolvedValuesMap[caseListColumn.path])
         }.toMutableList()
@@ -22,6 +22,7 @@ import com.ritense.document.domain.search.SearchWithConfigRequest
 import com.ritense.logging.LoggableResource
 import com.ritense.valtimo.contract.annotation.SkipComponentScan
 import com.ritense.valtimo.contract.domain.ValtimoMediaType.APPLICATION_JSON_UTF8_VALUE
+import com.ritense.valtimo.contract.repository.KeysetPage
 import org.springframework.data.domain.Page
 import org.springframework.data.domain.Pageable
 import org.springframework.http.ResponseEntity
@@ -30,6 +31,7 @@ import org.springframework.web.bind.annotation.PathVariable
 import org.springframework.web.bind.annotation.PostMapping
 import org.springframework.web.bind.annotation.RequestBody
 import org.springframework.web.bind.annotation.RequestMapping
+import org.springframework.web.bind.annotation.RequestParam
 
 @Controller
 @SkipComponentScan
@@ -47,4 +49,15 @@ class CaseInstanceResource(
         val result = service.search(caseDefinitionName, searchRequest, pageable)
         return ResponseEntity.ok(result)
     }
+
+    @PostMapping("/v1/case/{caseDefinitionName}/search/scroll")
+    fun scroll(
+        @LoggableResource("documentDefinitionName") @PathVariable(name = "caseDefinitionName") caseDefinitionName: String,
+        @RequestBody searchRequest: SearchWithConfigRequest,
+        pageable: Pageable,
+        @RequestParam(name = "token", required = false) token: String?
+    ): ResponseEntity<KeysetPage<CaseListRowDto>> {
+        val result = service.scroll(caseDefinitionName, searchRequest, pageable.sort, pageable.pageSize, token)
+        return ResponseEntity.ok(result)
+    }
 }
@@ -28,6 +28,7 @@ import com.ritense.document.domain.impl.JsonSchemaDocumentDefinitionId
 import com.ritense.document.domain.impl.JsonSchemaDocumentId
 import com.ritense.document.domain.search.SearchWithConfigRequest
 import com.ritense.document.service.DocumentSearchService
+import com.ritense.valtimo.contract.repository.KeysetPage
 import com.ritense.valueresolver.ValueResolverService
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
@@ -68,8 +69,9 @@ class CaseInstanceServiceTest {
         whenever(DOCUMENT.id()).thenReturn(JsonSchemaDocumentId.newId(UUID.randomUUID()))
         whenever(caseDefinitionListColumnRepository.findByIdCaseDefinitionNameOrderByOrderAsc(CASE_DEFINITION_NAME))
             .thenReturn(listOf(FIRST_NAME_CASE_LIST_COLUMN))
-        whenever(valueResolverService.resolveValues(DOCUMENT.id().id.toString(), listOf("doc:firstName")))
-            .thenReturn(mapOf("doc:firstName" to "John"))
+        val documentId = DOCUMENT.id().id.toString()
+        whenever(valueResolverService.resolveValuesForDocuments(listOf(documentId), listOf("doc:firstName")))
+            .thenReturn(mapOf(documentId to mapOf("doc:firstName" to "John")))
         whenever(DOCUMENT.definitionId()).thenReturn(JsonSchemaDocumentDefinitionId.newId(CASE_DEFINITION_NAME))
     }
 
@@ -104,6 +106,22 @@ class CaseInstanceServiceTest {
         assertEquals(documentsPage.content.size, 1)
     }
 
+    @Test
+    fun `should scroll case list rows sorted on the column path`() {
+        val searchRequest = SearchWithConfigRequest()
+        whenever(documentSearchService.scroll(CASE_DEFINITION_NAME, searchRequest, Sort.by("doc:firstName"), 10, "token"))
+            .thenReturn(KeysetPage(listOf(DOCUMENT), "next-token"))
+        whenever(caseDefinitionService.getCaseSettings(CASE_DEFINITION_NAME))
+            .thenReturn(CaseDefinitionSettings(CASE_DEFINITION_NAME, false))
+
+        val rows = service.scroll(CASE_DEFINITION_NAME, searchRequest, Sort.by("first-name"), 10, "token")
+
+        assertEquals(1, rows.content.size)
+        assertEquals("first-name", rows.content[0].items[0].key)
+        assertEquals("John", rows.content[0].items[0].value)
+        assertEquals("next-token", rows.next)
+    }
+
     companion object {
         private const val CASE_DEFINITION_NAME = "my-case-definition-name"
         private val DOCUMENT = mock<JsonSchemaDocument>()
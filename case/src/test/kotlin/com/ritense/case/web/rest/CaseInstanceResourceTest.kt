@@ -20,6 +20,7 @@ import com.ritense.case.service.CaseInstanceService
 import com.ritense.case.web.rest.dto.CaseListRowDto
 import com.ritense.document.domain.search.SearchWithConfigRequest
 import com.ritense.valtimo.contract.json.MapperSingleton
+import com.ritense.valtimo.contract.repository.KeysetPage
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.mockito.kotlin.any
@@ -80,4 +81,28 @@ class CaseInstanceResourceTest {
 
         verify(service).search(eq(caseDefinitionName), any(), any())
     }
+
+    @Test
+    fun `should scroll case list rows`() {
+        val caseDefinitionName = "name"
+        val rows = KeysetPage(
+            listOf(CaseListRowDto("myDocumentId", listOf(CaseListRowDto.CaseListItemDto("createdOn", "2022-12-28")))),
+            "next-token"
+        )
+        whenever(service.scroll(eq(caseDefinitionName), any(), any(), eq(10), eq("token"))).thenReturn(rows)
+
+        mockMvc
+            .perform(
+                MockMvcRequestBuilders
+                    .post("/api/v1/case/{caseDefinitionName}/search/scroll", caseDefinitionName)
+                    .param("size", "10")
+                    .param("token", "token")
+                    .content(MapperSingleton.get().writeValueAsString(SearchWithConfigRequest()))
+                    .contentType(MediaType.APPLICATION_JSON_VALUE)
+            )
+            .andExpect(MockMvcResultMatchers.status().isOk)
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()").value(1))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.content[0].id").value("myDocumentId"))
+            .andExpect(MockMvcResultMatchers.jsonPath("$.next").value("next-token"))
+    }
 }
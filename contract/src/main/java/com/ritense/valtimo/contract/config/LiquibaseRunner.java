@@ -19,6 +19,7 @@ package com.ritense.valtimo.contract.config;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 import javax.sql.DataSource;
 import liquibase.Contexts;
@@ -43,6 +44,7 @@ public class LiquibaseRunner {
     private static final Logger logger = LoggerFactory.getLogger(LiquibaseRunner.class);
     private final List<LiquibaseMasterChangeLogLocation> liquibaseMasterChangeLogLocations;
     private final Contexts context;
+    private final Map<String, String> parameters;
     private final DataSource datasource;
 
     public LiquibaseRunner(
@@ -53,6 +55,7 @@ public class LiquibaseRunner {
         this.liquibaseMasterChangeLogLocations = liquibaseMasterChangeLogLocations;
         this.datasource = datasource;
         this.context = new Contexts(liquibaseProperties.getContexts());
+        this.parameters = liquibaseProperties.getParameters() == null ? Map.of() : liquibaseProperties.getParameters();
     }
 
     public void run() throws SQLException, DatabaseException {
@@ -80,6 +83,7 @@ public class LiquibaseRunner {
     @SuppressWarnings({"squid:S2095", "java:S2095"}) // Liquibase connection is closed elsewhere
     private void runChangeLog(Database database, String filePath) throws LiquibaseException {
         Liquibase liquibase = new Liquibase(filePath, new ClassLoaderResourceAccessor(), database);
+        parameters.forEach(liquibase::setChangeLogParameter);
         logger.info("Running liquibase master changelog: {}", liquibase.getChangeLogFile());
         liquibase.update(context);
     }
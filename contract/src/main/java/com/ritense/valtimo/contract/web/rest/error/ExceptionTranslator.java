@@ -18,15 +18,18 @@ package com.ritense.valtimo.contract.web.rest.error;
 
 import com.ritense.valtimo.contract.annotation.SkipComponentScan;
 import com.ritense.valtimo.contract.hardening.service.HardeningService;
+import com.ritense.valtimo.contract.repository.InvalidKeysetException;
 import jakarta.annotation.Nullable;
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.Optional;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.NativeWebRequest;
 import org.zalando.problem.DefaultProblem;
 import org.zalando.problem.Problem;
 import org.zalando.problem.ProblemBuilder;
+import org.zalando.problem.Status;
 import org.zalando.problem.ThrowableProblem;
 import org.zalando.problem.spring.web.advice.ProblemHandling;
 import org.zalando.problem.violations.ConstraintViolationProblem;
@@ -45,6 +48,11 @@ public class ExceptionTranslator implements ProblemHandling {
         this.hardeningServiceOptional = hardeningServiceOptional;
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleInvalidKeysetException(InvalidKeysetException ex, NativeWebRequest request) {
+        return create(Status.BAD_REQUEST, ex, request);
+    }
+
     /**
      * Post-process the Problem payload to add the message key for the front-end if needed.
      */
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.contract.concurrent
+
+import org.slf4j.MDC
+import org.springframework.core.task.TaskDecorator
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable
+import org.springframework.security.core.context.SecurityContextHolder
+
+/**
+ * Runs a task with the security context and logging context (MDC) of the thread that submitted it. The contexts of the
+ * worker thread are restored when the task is done.
+ */
+class ContextPropagatingTaskDecorator : TaskDecorator {
+
+    override fun decorate(runnable: Runnable): Runnable {
+        val loggingContext = MDC.getCopyOfContextMap()
+        val withLoggingContext = Runnable {
+            val previousLoggingContext = MDC.getCopyOfContextMap()
+            setLoggingContext(loggingContext)
+            try {
+                runnable.run()
+            } finally {
+                setLoggingContext(previousLoggingContext)
+            }
+        }
+        return DelegatingSecurityContextRunnable(withLoggingContext, SecurityContextHolder.getContext())
+    }
+
+    private fun setLoggingContext(loggingContext: Map<String, String>?) {
+        if (loggingContext == null) {
+            MDC.clear()
+        } else {
+            MDC.setContextMap(loggingContext)
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.contract.concurrent
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
+
+object ContextPropagatingTaskExecutors {
+
+    /**
+     * Creates a pool with a fixed number of daemon threads, that runs tasks with the security and logging context of
+     * the thread that submitted them. Register it as a bean, so Spring initializes it and shuts it down with the
+     * application context.
+     */
+    @JvmStatic
+    fun fixed(threadNamePrefix: String, threadCount: Int): ThreadPoolTaskExecutor {
+        val executor = ThreadPoolTaskExecutor()
+        executor.corePoolSize = threadCount
+        executor.maxPoolSize = threadCount
+        executor.threadNamePrefix = threadNamePrefix
+        executor.isDaemon = true
+        executor.setTaskDecorator(ContextPropagatingTaskDecorator())
+        return executor
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.contract.repository
+
+/**
+ * Thrown when a keyset paginated search gets a continuation token or sort it can't use. This is a client error.
+ */
+class InvalidKeysetException @JvmOverloads constructor(
+    message: String,
+    cause: Throwable? = null
+) : IllegalArgumentException(
+    message,
+    cause
+)
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.contract.repository
+
+/**
+ * One page of a keyset (seek) paginated search. The next page is requested by passing [next] back as the continuation
+ * token. [next] is null on the last page.
+ */
+data class KeysetPage<T>(
+    val content: List<T>,
+    val next: String?,
+) {
+    val size: Int
+        get() = content.size
+
+    fun <R> map(transform: (T) -> R): KeysetPage<R> = KeysetPage(content.map(transform), next)
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.contract.repository
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.SerializationFeature
+import com.fasterxml.jackson.module.kotlin.readValue
+import jakarta.persistence.criteria.CriteriaBuilder
+import jakarta.persistence.criteria.Expression
+import jakarta.persistence.criteria.Predicate
+import org.springframework.data.domain.Sort
+import java.util.Base64
+
+/**
+ * The position after the last row of a keyset paginated page: the value of the sort key and the id of that row.
+ *
+ * Rows are ordered on (sort key, id), so the next page is everything after (value, id) in that order. Unlike an offset,
+ * the database can seek to this position in the index, so deep pages are as fast as the first one.
+ */
+data class KeysetToken(
+    val property: String,
+    val direction: Sort.Direction,
+    val value: Any,
+    val id: Any,
+) {
+
+    fun encode(): String {
+        val json = mapper.writeValueAsBytes(
+            mapOf(PROPERTY to property, DIRECTION to direction.name, VALUE to value, ID to id)
+        )
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json)
+    }
+
+    fun matches(order: Sort.Order) = order.property == property && order.direction == direction
+
+    /**
+     * @throws InvalidKeysetException when this token was issued for another sort
+     */
+    fun requireMatches(order: Sort.Order): KeysetToken {
+        if (!matches(order)) {
+            throw InvalidKeysetException("The continuation token does not belong to sort '$order'")
+        }
+        return this
+    }
+
+    /**
+     * Creates the predicate that selects the rows after this position. The sort key must not be nullable.
+     *
+     * @throws InvalidKeysetException when the value or id of the token does not fit the type of its expression
+     */
+    @Suppress("UNCHECKED_CAST")
+    fun toPredicate(
+        cb: CriteriaBuilder,
+        sortExpression: Expression<*>,
+        idExpression: Expression<*>
+    ): Predicate {
+        val sortKey = sortExpression as Expression<Comparable<Any>>
+        val rowId = idExpression as Expression<Comparable<Any>>
+        val value = convert(value, sortExpression.javaType)
+        val id = convert(id, idExpression.javaType)
+        return if (direction.isAscending) {
+            cb.or(
+                cb.greaterThan(sortKey, value),
+                cb.and(cb.equal(sortKey, value), cb.greaterThan(rowId, id))
+            )
+        } else {
+            cb.or(
+                cb.lessThan(sortKey, value),
+                cb.and(cb.equal(sortKey, value), cb.lessThan(rowId, id))
+            )
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun convert(value: Any, type: Class<*>): Comparable<Any> {
+        return try {
+            mapper.convertValue(value, type) as Comparable<Any>
+        } catch (e: IllegalArgumentException) {
+            throw InvalidKeysetException("Invalid continuation token", e)
+        }
+    }
+
+    companion object {
+        private const val PROPERTY = "p"
+        private const val DIRECTION = "d"
+        private const val VALUE = "v"
+        private const val ID = "i"
+
+        private val mapper = ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+
+        /**
+         * @throws InvalidKeysetException when the token is not a valid continuation token
+         */
+        @JvmStatic
+        fun decode(token: String): KeysetToken {
+            val values = try {
+                mapper.readValue<Map<String, Any?>>(Base64.getUrlDecoder().decode(token))
+            } catch (e: Exception) {
+                throw InvalidKeysetException("Invalid continuation token", e)
+            }
+            return KeysetToken(
+                property = values[PROPERTY] as? String
+                    ?: throw InvalidKeysetException("Invalid continuation token"),
+                direction = Sort.Direction.fromOptionalString(values[DIRECTION] as? String)
+                    .orElseThrow { InvalidKeysetException("Invalid continuation token") },
+                value = values[VALUE] ?: throw InvalidKeysetException("Invalid continuation token"),
+                id = values[ID] ?: throw InvalidKeysetException("Invalid continuation token"),
+            )
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.contract.concurrent
+
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.slf4j.MDC
+import org.springframework.security.authentication.TestingAuthenticationToken
+import org.springframework.security.core.context.SecurityContextHolder
+import java.util.concurrent.Callable
+import java.util.concurrent.TimeUnit
+
+class ContextPropagatingTaskExecutorsTest {
+
+    private val executor = ContextPropagatingTaskExecutors.fixed("test-", 1)
+
+    @BeforeEach
+    fun setUp() {
+        executor.initialize()
+    }
+
+    @AfterEach
+    fun tearDown() {
+        executor.shutdown()
+        SecurityContextHolder.clearContext()
+        MDC.clear()
+    }
+
+    @Test
+    fun `should run tasks with the security and logging context of the submitting thread`() {
+        SecurityContextHolder.getContext().authentication = TestingAuthenticationToken("user", null)
+        MDC.put("correlationId", "123")
+
+        val (threadName, userName, correlationId) = executor.submit(Callable {
+            Triple(
+                Thread.currentThread().name,
+                SecurityContextHolder.getContext().authentication?.name,
+                MDC.get("correlationId")
+            )
+        }).get(10, TimeUnit.SECONDS)
+
+        assertThat(threadName).startsWith("test-")
+        assertThat(userName).isEqualTo("user")
+        assertThat(correlationId).isEqualTo("123")
+    }
+
+    @Test
+    fun `should restore the context of the worker thread after the task`() {
+        SecurityContextHolder.getContext().authentication = TestingAuthenticationToken("user", null)
+        MDC.put("correlationId", "123")
+        executor.submit(Callable { }).get(10, TimeUnit.SECONDS)
+        SecurityContextHolder.clearContext()
+        MDC.clear()
+
+        val (userName, correlationId) = executor.submit(Callable {
+            SecurityContextHolder.getContext().authentication?.name to MDC.get("correlationId")
+        }).get(10, TimeUnit.SECONDS)
+
+        assertThat(userName).isNull()
+        assertThat(correlationId).isNull()
+    }
+}
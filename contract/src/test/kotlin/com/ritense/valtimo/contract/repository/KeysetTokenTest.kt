@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.contract.repository
+
+import jakarta.persistence.criteria.CriteriaBuilder
+import jakarta.persistence.criteria.Expression
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.mockito.Mockito.doReturn
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.verifyNoInteractions
+import org.springframework.data.domain.Sort
+import java.time.LocalDateTime
+import java.util.UUID
+
+class KeysetTokenTest {
+
+    @Test
+    fun `should decode an encoded token`() {
+        val id = UUID.randomUUID()
+        val createdOn = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000)
+        val token = KeysetToken("createdOn", Sort.Direction.DESC, createdOn, id)
+
+        val decoded = KeysetToken.decode(token.encode())
+
+        assertThat(decoded.property).isEqualTo("createdOn")
+        assertThat(decoded.direction).isEqualTo(Sort.Direction.DESC)
+        assertThat(decoded.value).isEqualTo("2024-05-01T12:30:15.123")
+        assertThat(decoded.id).isEqualTo(id.toString())
+        assertThat(decoded.matches(Sort.Order.desc("createdOn"))).isTrue()
+        assertThat(decoded.matches(Sort.Order.asc("createdOn"))).isFalse()
+    }
+
+    @Test
+    fun `should encode to a url safe string`() {
+        val token = KeysetToken("sequence", Sort.Direction.ASC, 12345L, "task-id-with-?&=")
+
+        assertThat(token.encode()).matches("[A-Za-z0-9_-]+")
+    }
+
+    @Test
+    fun `should reject an invalid token`() {
+        assertThrows<InvalidKeysetException> {
+            KeysetToken.decode("not a token")
+        }
+        assertThrows<InvalidKeysetException> {
+            KeysetToken.decode("e30")
+        }
+    }
+
+    @Test
+    fun `should reject a token for another sort`() {
+        val token = KeysetToken("createdOn", Sort.Direction.DESC, "2024-05-01T12:30:15", UUID.randomUUID())
+
+        assertThat(token.requireMatches(Sort.Order.desc("createdOn"))).isSameAs(token)
+        assertThrows<InvalidKeysetException> {
+            token.requireMatches(Sort.Order.asc("createdOn"))
+        }
+    }
+
+    @Test
+    fun `should reject a token whose value does not fit the sort key`() {
+        val token = KeysetToken.decode(
+            KeysetToken("createdOn", Sort.Direction.DESC, "not a date", UUID.randomUUID()).encode()
+        )
+        val cb = mock(CriteriaBuilder::class.java)
+        val sortExpression = expression(LocalDateTime::class.java)
+        val idExpression = expression(UUID::class.java)
+
+        assertThrows<InvalidKeysetException> {
+            token.toPredicate(cb, sortExpression, idExpression)
+        }
+        verifyNoInteractions(cb)
+    }
+
+    private fun expression(type: Class<*>): Expression<*> {
+        val expression = mock(Expression::class.java)
+        doReturn(type).`when`(expression).javaType
+        return expression
+    }
+}
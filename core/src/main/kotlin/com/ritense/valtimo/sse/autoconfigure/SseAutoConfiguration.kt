@@ -18,10 +18,13 @@ package com.ritense.valtimo.sse.autoconfigure
 
 import com.ritense.valtimo.sse.domain.listener.ProcessEndListener
 import com.ritense.valtimo.sse.domain.listener.TaskUpdateListener
+import com.ritense.valtimo.sse.security.config.SseHttpSecurityConfigurer
+import com.ritense.valtimo.sse.web.rest.SseResource
 import com.ritense.valtimo.web.sse.service.SseSubscriptionService
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.context.annotation.Bean
+import org.springframework.core.annotation.Order
 
 @AutoConfiguration
 class SseAutoConfiguration {
@@ -38,4 +41,15 @@ class SseAutoConfiguration {
         sseSubscriptionService: SseSubscriptionService
     ) = ProcessEndListener(sseSubscriptionService)
 
+    @Bean
+    @ConditionalOnMissingBean(SseResource::class)
+    fun sseResource(
+        sseSubscriptionService: SseSubscriptionService
+    ) = SseResource(sseSubscriptionService)
+
+    @Order(290)
+    @Bean
+    @ConditionalOnMissingBean(SseHttpSecurityConfigurer::class)
+    fun sseHttpSecurityConfigurer() = SseHttpSecurityConfigurer()
+
 }
\ No newline at end of file
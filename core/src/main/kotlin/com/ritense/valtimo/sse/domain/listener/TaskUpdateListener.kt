@@ -35,7 +35,8 @@ class TaskUpdateListener(
     fun handle(taskEvent: TaskEvent) {
         sseSubscriptionService.notifySubscribers(
             TaskUpdateSseEvent(
-                processInstanceId = taskEvent.processInstanceId
+                processInstanceId = taskEvent.processInstanceId,
+                taskId = taskEvent.id
             )
         )
     }
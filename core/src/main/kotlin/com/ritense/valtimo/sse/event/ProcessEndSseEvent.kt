@@ -17,7 +17,14 @@
 package com.ritense.valtimo.sse.event
 
 import com.ritense.valtimo.web.sse.event.BaseSseEvent
+import com.ritense.valtimo.web.sse.event.SseTopics
 
 class ProcessEndSseEvent(
     val processInstanceId: String
-) : BaseSseEvent("PROCESS_END")
\ No newline at end of file
+) : BaseSseEvent("PROCESS_END") {
+    override val coalesceKey: Any
+        get() = "$eventType:$processInstanceId"
+
+    override val topics: Set<String>
+        get() = setOf(SseTopics.processInstance(processInstanceId))
+}
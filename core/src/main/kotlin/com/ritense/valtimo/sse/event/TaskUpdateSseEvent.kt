@@ -17,7 +17,15 @@
 package com.ritense.valtimo.sse.event
 
 import com.ritense.valtimo.web.sse.event.BaseSseEvent
+import com.ritense.valtimo.web.sse.event.SseTopics
 
 class TaskUpdateSseEvent(
-    val processInstanceId: String
-) : BaseSseEvent("TASK_UPDATE")
\ No newline at end of file
+    val processInstanceId: String,
+    private val taskId: String? = null,
+) : BaseSseEvent("TASK_UPDATE") {
+    override val coalesceKey: Any
+        get() = "$eventType:$processInstanceId"
+
+    override val topics: Set<String>
+        get() = setOfNotNull(SseTopics.processInstance(processInstanceId), taskId?.let { SseTopics.task(it) })
+}
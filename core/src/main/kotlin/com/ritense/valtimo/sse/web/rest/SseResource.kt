@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.sse.web.rest
+
+import com.ritense.valtimo.contract.annotation.SkipComponentScan
+import com.ritense.valtimo.web.sse.domain.Subscriber
+import com.ritense.valtimo.web.sse.service.SseSubscriptionService
+import org.springframework.http.MediaType
+import org.springframework.http.ResponseEntity
+import org.springframework.web.bind.annotation.GetMapping
+import org.springframework.web.bind.annotation.PathVariable
+import org.springframework.web.bind.annotation.PutMapping
+import org.springframework.web.bind.annotation.RequestBody
+import org.springframework.web.bind.annotation.RequestMapping
+import org.springframework.web.bind.annotation.RequestParam
+import org.springframework.web.bind.annotation.RestController
+import java.util.UUID
+
+@RestController
+@SkipComponentScan
+@RequestMapping("/api")
+class SseResource(
+    private val sseSubscriptionService: SseSubscriptionService,
+) {
+
+    @GetMapping("/v1/sse", produces = [MediaType.TEXT_EVENT_STREAM_VALUE])
+    fun subscribe(
+        @RequestParam(required = false) subscriptionId: UUID?,
+    ): Subscriber {
+        return sseSubscriptionService.subscribe(subscriptionId)
+    }
+
+    @PutMapping("/v1/sse/{subscriptionId}/topics")
+    fun watch(
+        @PathVariable subscriptionId: UUID,
+        @RequestBody topics: Set<String>,
+    ): ResponseEntity<Unit> {
+        return if (sseSubscriptionService.watch(subscriptionId, topics)) {
+            ResponseEntity.noContent().build()
+        } else {
+            ResponseEntity.notFound().build()
+        }
+    }
+
+}
@@ -30,8 +30,10 @@ import com.ritense.dashboard.web.rest.AdminDashboardResource
 import com.ritense.dashboard.web.rest.DashboardResource
 import com.ritense.valtimo.changelog.service.ChangelogService
 import com.ritense.valtimo.contract.authentication.UserManagementService
+import com.ritense.valtimo.contract.concurrent.ContextPropagatingTaskExecutors
 import com.ritense.valtimo.contract.config.LiquibaseMasterChangeLogLocation
 import com.ritense.valtimo.contract.database.QueryDialectHelper
+import org.springframework.beans.factory.annotation.Qualifier
 import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass
@@ -42,7 +44,10 @@ import org.springframework.context.ApplicationContext
 import org.springframework.context.annotation.Bean
 import org.springframework.core.Ordered.HIGHEST_PRECEDENCE
 import org.springframework.core.annotation.Order
+import org.springframework.core.task.AsyncTaskExecutor
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
+import java.time.Duration
 import javax.sql.DataSource
 
 @AutoConfiguration
@@ -88,6 +93,14 @@ class DashboardAutoConfiguration {
         )
     }
 
+    @Bean
+    @ConditionalOnMissingBean(name = ["dashboardWidgetDataExecutor"])
+    fun dashboardWidgetDataExecutor(
+        @Value("\${valtimo.dashboard.widget-data.thread-count:4}") threadCount: Int
+    ): ThreadPoolTaskExecutor {
+        return ContextPropagatingTaskExecutors.fixed("dashboard-widget-data-", maxOf(threadCount, 1))
+    }
+
     @Bean
     @ConditionalOnMissingBean(DashboardDataService::class)
     fun dashboardDataService(
@@ -97,7 +110,10 @@ class DashboardAutoConfiguration {
         objectMapper: ObjectMapper,
         dashboardService: DashboardService,
         authorizationService: AuthorizationService,
-        @Value("\${valtimo.authorization.dashboard.enabled:false}") authorizationEnabled: Boolean
+        @Value("\${valtimo.authorization.dashboard.enabled:false}") authorizationEnabled: Boolean,
+        @Value("\${valtimo.dashboard.widget-data.thread-count:4}") threadCount: Int,
+        @Value("\${valtimo.dashboard.widget-data.time-budget:PT30S}") timeBudget: Duration,
+        @Qualifier("dashboardWidgetDataExecutor") dashboardWidgetDataExecutor: AsyncTaskExecutor
     ): DashboardDataService {
         return DashboardDataService(
             applicationContext,
@@ -106,7 +122,9 @@ class DashboardAutoConfiguration {
             objectMapper,
             dashboardService,
             authorizationService,
-            authorizationEnabled
+            authorizationEnabled,
+            dashboardWidgetDataExecutor.takeIf { threadCount > 0 },
+            timeBudget
         )
     }
 
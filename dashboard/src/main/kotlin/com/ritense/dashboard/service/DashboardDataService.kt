@@ -17,6 +17,7 @@
 package com.ritense.dashboard.service
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.ritense.authorization.AuthorizationContext
 import com.ritense.authorization.AuthorizationService
 import com.ritense.authorization.request.EntityAuthorizationRequest
 import com.ritense.dashboard.datasource.WidgetDataSourceResolver
@@ -25,12 +26,19 @@ import com.ritense.dashboard.domain.WidgetConfiguration
 import com.ritense.dashboard.repository.WidgetConfigurationRepository
 import com.ritense.dashboard.web.rest.dto.DashboardWidgetDataResultDto
 import com.ritense.valtimo.contract.annotation.SkipComponentScan
+import mu.KLogger
+import mu.KotlinLogging
 import org.springframework.cache.annotation.Cacheable
 import org.springframework.context.ApplicationContext
+import org.springframework.core.task.AsyncTaskExecutor
 import org.springframework.stereotype.Service
 import org.springframework.transaction.annotation.Transactional
+import java.time.Duration
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
 
-@Transactional(readOnly = true)
 @Service
 @SkipComponentScan
 class DashboardDataService(
@@ -40,26 +48,62 @@ class DashboardDataService(
     private val objectMapper: ObjectMapper,
     private val dashboardService: DashboardService,
     private val authorizationService: AuthorizationService,
-    private val authorizationEnabled: Boolean
+    private val authorizationEnabled: Boolean,
+    private val executor: AsyncTaskExecutor? = null,
+    private val timeBudget: Duration = Duration.ofSeconds(30)
 ) {
 
     /**
-     * This will get all widget data for the given dashboard key
+     * This will get all widget data for the given dashboard key.
+     *
+     * The widgets are evaluated concurrently, each in its own read-only transaction. Widgets that are not done within
+     * the time budget are returned as timed out, so one slow widget doesn't block the whole dashboard. This method
+     * doesn't start a transaction itself, so the request doesn't hold a connection while it waits for the widgets.
      */
     fun getWidgetDataForDashboard(dashboardKey: String): List<DashboardWidgetDataResultDto> {
         val dashboard = dashboardService.getDashboard(dashboardKey)
         checkAuthorization(dashboard)
 
-        return widgetConfigurationRepository.findAllByDashboardKey(dashboardKey)
+        val configs = widgetConfigurationRepository.findAllByDashboardKey(dashboardKey)
             .sortedBy { it.order }
-            .map { config ->
-                self().getWidgetDataByConfig(config)
+        val dataService = self()
+
+        if (executor == null || configs.size < 2) {
+            return configs.map { config ->
+                dataService.getWidgetDataByConfig(config)
             }
+        }
+
+        val ignoreAuthorization = AuthorizationContext.ignoreAuthorization
+        val futures = configs.map { config ->
+            config to executor.submit(Callable {
+                if (ignoreAuthorization) {
+                    AuthorizationContext.runWithoutAuthorization { dataService.getWidgetDataByConfig(config) }
+                } else {
+                    dataService.getWidgetDataByConfig(config)
+                }
+            })
+        }
+
+        val deadline = System.nanoTime() + timeBudget.toNanos()
+        return futures.map { (config, future) ->
+            try {
+                future.get(maxOf(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+            } catch (e: TimeoutException) {
+                future.cancel(true)
+                logger.warn { "Widget '${config.key}' of dashboard '$dashboardKey' took longer than $timeBudget" }
+                DashboardWidgetDataResultDto.timedOut(config.key)
+            } catch (e: ExecutionException) {
+                futures.forEach { it.second.cancel(true) }
+                throw e.cause ?: e
+            }
+        }
     }
 
     /**
      * This can be used to get a single result by widget configuration key
      */
+    @Transactional(readOnly = true)
     @Cacheable(value = [CACHE_NAME], key = "#key")
     fun getWidgetDataByConfigKey(key: String): DashboardWidgetDataResultDto {
         val config = widgetConfigurationRepository.getReferenceById(key)
@@ -73,6 +117,7 @@ class DashboardDataService(
      * This can be used to get a single result by widget configuration instance
      */
 //    @Cacheable(value = [CACHE_NAME], key = "#config.key")
+    @Transactional(readOnly = true)
     fun getWidgetDataByConfig(
         config: WidgetConfiguration
     ): DashboardWidgetDataResultDto {
@@ -114,5 +159,6 @@ class DashboardDataService(
 
     companion object {
         private const val CACHE_NAME = "dashboard.widgetData"
+        private val logger: KLogger = KotlinLogging.logger {}
     }
 }
\ No newline at end of file
@@ -18,5 +18,13 @@ package com.ritense.dashboard.web.rest.dto
 
 class DashboardWidgetDataResultDto(
     val key: String,
-    val data: Any
-)
\ No newline at end of file
+    val data: Any?,
+    /**
+     * True when the data of the widget could not be retrieved within the time budget. The data is null then.
+     */
+    val timedOut: Boolean = false
+) {
+    companion object {
+        fun timedOut(key: String) = DashboardWidgetDataResultDto(key, null, true)
+    }
+}
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.ritense.dashboard.service
 
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.ritense.authorization.AuthorizationContext.Companion.runWithoutAuthorization
+import com.ritense.authorization.AuthorizationService
 import com.ritense.dashboard.BaseIntegrationTest
 import com.ritense.dashboard.TestDataSource
 import com.ritense.dashboard.TestDataSource.Companion.NUMBERS_DATA_KEY
@@ -9,15 +10,18 @@ import com.ritense.dashboard.TestDataSource.Companion.NUMBER_DATA_KEY
 import com.ritense.dashboard.TestDataSourceProperties
 import com.ritense.dashboard.TestWidgetNumberResult
 import com.ritense.dashboard.TestWidgetNumbersResult
+import com.ritense.dashboard.datasource.WidgetDataSourceResolver
 import com.ritense.dashboard.domain.WidgetConfiguration
 import com.ritense.dashboard.repository.WidgetConfigurationRepository
 import com.ritense.valtimo.contract.authentication.model.ValtimoUser
+import com.ritense.valtimo.contract.concurrent.ContextPropagatingTaskExecutors
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Disabled
 import org.junit.jupiter.api.Test
 import org.mockito.kotlin.any
+import org.mockito.kotlin.doAnswer
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
@@ -25,6 +29,10 @@ import org.mockito.kotlin.whenever
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.boot.test.mock.mockito.SpyBean
 import org.springframework.cache.CacheManager
+import org.springframework.context.ApplicationContext
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
 
 class DashboardDataServiceIntTest @Autowired constructor(
     private val dashboardDataService: DashboardDataService,
@@ -32,7 +40,10 @@ class DashboardDataServiceIntTest @Autowired constructor(
     @SpyBean private val widgetConfigurationRepository: WidgetConfigurationRepository,
     @SpyBean private val testDataSource: TestDataSource,
     @SpyBean private val dashboardService: DashboardService,
-    val cacheManager: CacheManager
+    val cacheManager: CacheManager,
+    private val applicationContext: ApplicationContext,
+    private val widgetDataSourceResolver: WidgetDataSourceResolver,
+    private val authorizationService: AuthorizationService
 ): BaseIntegrationTest() {
 
     lateinit var numberConfiguration: WidgetConfiguration
@@ -92,6 +103,68 @@ class DashboardDataServiceIntTest @Autowired constructor(
         verify(testDataSource, times(1)).numbersData()
     }
 
+    @Test
+    fun `should get data of the widgets concurrently in their own read-only transaction`() {
+        runWithoutAuthorization {
+            dashboardService.createDashboard("Test", "Test description")
+        }
+        val calls = ConcurrentHashMap<String, Pair<String, Boolean>>()
+        doAnswer {
+            calls["number"] = currentThreadAndTransaction()
+            it.callRealMethod()
+        }.whenever(testDataSource).numberData(any())
+        doAnswer {
+            calls["numbers"] = currentThreadAndTransaction()
+            it.callRealMethod()
+        }.whenever(testDataSource).numbersData()
+
+        val dashboardData = dashboardDataService.getWidgetDataForDashboard(DASHBOARD_KEY)
+
+        assertThat(dashboardData.map { it.key }).containsExactly(NUMBER_CONFIG_KEY, NUMBERS_CONFIG_KEY)
+        assertThat(calls.keys).containsExactlyInAnyOrder("number", "numbers")
+        calls.values.forEach { (threadName, readOnlyTransaction) ->
+            assertThat(threadName).startsWith("dashboard-widget-data-")
+            assertThat(readOnlyTransaction).isTrue()
+        }
+    }
+
+    @Test
+    fun `should return widgets that exceed the time budget as timed out`() {
+        runWithoutAuthorization {
+            dashboardService.createDashboard("Test", "Test description")
+        }
+        doAnswer {
+            Thread.sleep(10_000)
+            it.callRealMethod()
+        }.whenever(testDataSource).numbersData()
+        val executor = ContextPropagatingTaskExecutors.fixed("test-widget-data-", 2)
+        executor.initialize()
+        val service = DashboardDataService(
+            applicationContext,
+            widgetDataSourceResolver,
+            widgetConfigurationRepository,
+            objectMapper,
+            dashboardService,
+            authorizationService,
+            false,
+            executor,
+            Duration.ofMillis(500)
+        )
+
+        try {
+            val dashboardData = service.getWidgetDataForDashboard(DASHBOARD_KEY)
+
+            assertThat(dashboardData).hasSize(2)
+            assertThat(dashboardData[0].timedOut).isFalse()
+            assertThat(dashboardData[0].data).isInstanceOf(TestWidgetNumberResult::class.java)
+            assertThat(dashboardData[1].key).isEqualTo(NUMBERS_CONFIG_KEY)
+            assertThat(dashboardData[1].timedOut).isTrue()
+            assertThat(dashboardData[1].data).isNull()
+        } finally {
+            executor.shutdown()
+        }
+    }
+
     @Test
     @Disabled
     fun `should cache widget data by dashboard key`() {
@@ -133,6 +206,10 @@ class DashboardDataServiceIntTest @Autowired constructor(
         verify(testDataSource, times(1)).numbersData()
     }
 
+    private fun currentThreadAndTransaction() = Thread.currentThread().name to
+        (TransactionSynchronizationManager.isActualTransactionActive() &&
+            TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+
     companion object {
         private const val DASHBOARD_KEY = "test"
         private const val NUMBER_CONFIG_KEY = "number-config"
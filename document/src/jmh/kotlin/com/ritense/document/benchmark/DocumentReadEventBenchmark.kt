@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.benchmark
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.ritense.document.domain.DocumentDefinition
+import com.ritense.document.domain.impl.JsonDocumentContent
+import com.ritense.document.domain.impl.JsonSchema
+import com.ritense.document.domain.impl.JsonSchemaDocument
+import com.ritense.document.domain.impl.JsonSchemaDocumentDefinition
+import com.ritense.document.domain.impl.JsonSchemaDocumentDefinitionId
+import com.ritense.document.event.DocumentEventPayload
+import com.ritense.document.event.DocumentReadEventProperties
+import com.ritense.document.event.DocumentReadEventPublisher
+import com.ritense.document.service.DocumentSequenceGeneratorService
+import com.ritense.outbox.OutboxService
+import com.ritense.outbox.domain.BaseEvent
+import com.ritense.valtimo.contract.json.MapperSingleton
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+import java.util.function.Supplier
+
+/**
+ * Measures the outbox cost of one page of the document list endpoint: building the DocumentsListed payload and
+ * serializing it into the message that is stored in the outbox table.
+ *
+ * Run with: ./gradlew :document:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class DocumentReadEventBenchmark {
+
+    @Param("FULL", "FIELDS", "ID", "DISABLED")
+    lateinit var payload: String
+
+    private val objectMapper: ObjectMapper = MapperSingleton.get()
+    private lateinit var publisher: DocumentReadEventPublisher
+    private lateinit var page: List<JsonSchemaDocument>
+    private val outboxService = SerializingOutboxService(objectMapper)
+
+    @Setup(Level.Trial)
+    fun setup() {
+        val listed = when (payload) {
+            "DISABLED" -> DocumentReadEventProperties.ReadEvent(enabled = false)
+            else -> DocumentReadEventProperties.ReadEvent(
+                payload = DocumentEventPayload.valueOf(payload),
+                fields = listOf("/id", "/createdOn", "/sequence", "/content/firstName", "/content/lastName")
+            )
+        }
+        publisher = DocumentReadEventPublisher(outboxService, objectMapper, DocumentReadEventProperties(listed = listed))
+
+        val definition = JsonSchemaDocumentDefinition(
+            JsonSchemaDocumentDefinitionId.newId("benchmark"),
+            JsonSchema.fromString(SCHEMA)
+        )
+        val sequenceGenerator = object : DocumentSequenceGeneratorService {
+            override fun next(documentDefinitionId: DocumentDefinition.Id) = 1L
+            override fun deleteSequenceRecordBy(documentDefinitionName: String) = Unit
+        }
+        page = (1..PAGE_SIZE).map { index ->
+            JsonSchemaDocument.create(definition, content(index), "benchmark", sequenceGenerator, null)
+                .resultingDocument()
+                .orElseThrow()
+        }
+    }
+
+    @Benchmark
+    fun listPage(): Int {
+        publisher.documentsListed(page)
+        return outboxService.lastMessageLength
+    }
+
+    private fun content(index: Int): JsonDocumentContent {
+        val content = objectMapper.createObjectNode()
+            .put("firstName", "First $index")
+            .put("lastName", "Last $index")
+        (1..FIELD_COUNT).forEach { field -> content.put("field$field", "Some text value for field $field of document $index") }
+        return JsonDocumentContent(content.toString())
+    }
+
+    private class SerializingOutboxService(private val objectMapper: ObjectMapper) : OutboxService {
+        var lastMessageLength = 0
+
+        override fun send(eventSupplier: Supplier<BaseEvent>) {
+            lastMessageLength = objectMapper.writeValueAsString(eventSupplier.get().result).length
+        }
+    }
+
+    companion object {
+        private const val PAGE_SIZE = 50
+        private const val FIELD_COUNT = 50
+        private val SCHEMA = """
+            {
+                "${'$'}id": "benchmark.schema",
+                "${'$'}schema": "http://json-schema.org/draft-07/schema#",
+                "type": "object",
+                "additionalProperties": true
+            }
+        """
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.benchmark
+
+import com.ritense.document.config.DocumentSpringContextHelper
+import com.ritense.document.domain.DocumentDefinition
+import com.ritense.document.domain.impl.CompiledJsonSchemaCache
+import com.ritense.document.domain.impl.JsonDocumentContent
+import com.ritense.document.domain.impl.JsonSchema
+import com.ritense.document.domain.impl.JsonSchemaDocument
+import com.ritense.document.domain.impl.JsonSchemaDocumentDefinition
+import com.ritense.document.domain.impl.JsonSchemaDocumentDefinitionId
+import com.ritense.document.service.DocumentSequenceGeneratorService
+import com.ritense.valtimo.contract.json.MapperSingleton
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager
+import org.springframework.context.support.GenericApplicationContext
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures document create and modify throughput, which is dominated by validating the content against the schema.
+ *
+ * Every invocation gets a freshly hydrated definition, like a definition loaded from the database per request.
+ * COLD clears the compiled schema cache before each invocation, so every validation compiles the schema like it
+ * did before the cache existed. WARM keeps the cache.
+ *
+ * Run with: ./gradlew :document:jmh -Pjmh.includes=DocumentValidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class DocumentValidationBenchmark {
+
+    @Param("COLD", "WARM")
+    lateinit var schemaCache: String
+
+    private val objectMapper = MapperSingleton.get()
+    private val sequenceGenerator = object : DocumentSequenceGeneratorService {
+        override fun next(documentDefinitionId: DocumentDefinition.Id) = 1L
+        override fun deleteSequenceRecordBy(documentDefinitionName: String) = Unit
+    }
+    private val createContent = content("Created")
+    private val modifiedContent = content("Modified")
+    private lateinit var definition: JsonSchemaDocumentDefinition
+    private lateinit var document: JsonSchemaDocument
+    private val compiledJsonSchemaCache = CompiledJsonSchemaCache(ConcurrentMapCacheManager())
+
+    @Setup(Level.Trial)
+    fun setupContext() {
+        // Definitions reach the cache through the application context, like they do in the application
+        val context = GenericApplicationContext()
+        context.registerBean(CompiledJsonSchemaCache::class.java, { compiledJsonSchemaCache })
+        context.refresh()
+        DocumentSpringContextHelper().setApplicationContext(context)
+    }
+
+    @Setup(Level.Invocation)
+    fun setup() {
+        document = JsonSchemaDocument.create(loadDefinition(), createContent, "benchmark", sequenceGenerator, null)
+            .resultingDocument()
+            .orElseThrow()
+        if (schemaCache == "COLD") {
+            compiledJsonSchemaCache.evictAll()
+        }
+        definition = loadDefinition()
+    }
+
+    @Benchmark
+    fun create(): Boolean {
+        return JsonSchemaDocument.create(definition, createContent, "benchmark", sequenceGenerator, null)
+            .resultingDocument()
+            .isPresent
+    }
+
+    @Benchmark
+    fun modify(): Boolean {
+        return document.applyModifiedContent(modifiedContent, definition).resultingDocument().isPresent
+    }
+
+    private fun content(prefix: String): JsonDocumentContent {
+        val content = objectMapper.createObjectNode()
+        (1..FIELD_COUNT).forEach { field -> content.put("field$field", "$prefix value for field $field") }
+        content.putObject("address")
+            .put("street", "$prefix street")
+            .put("houseNumber", 1)
+            .put("postalCode", "1234AB")
+        return JsonDocumentContent(content.toString())
+    }
+
+    private fun loadDefinition() = hydrate(
+        JsonSchemaDocumentDefinition::class.java,
+        "id" to JsonSchemaDocumentDefinitionId.existingId("benchmark", 1),
+        "schema" to hydrate(JsonSchema::class.java, "schema" to SCHEMA_SOURCE),
+    )
+
+    /**
+     * Instantiates an entity the way Hibernate does when loading it: through the no-arg constructor and field access.
+     */
+    private fun <T> hydrate(type: Class<T>, vararg fields: Pair<String, Any>): T {
+        val constructor = type.getDeclaredConstructor()
+        constructor.isAccessible = true
+        val instance = constructor.newInstance()
+        fields.forEach { (name, value) ->
+            val field = type.getDeclaredField(name)
+            field.isAccessible = true
+            field.set(instance, value)
+        }
+        return instance
+    }
+
+    companion object {
+        private const val FIELD_COUNT = 30
+        private val SCHEMA_SOURCE = JsonSchema.fromString(
+            MapperSingleton.get().createObjectNode().apply {
+                put("\$id", "benchmark.schema")
+                put("\$schema", "http://json-schema.org/draft-07/schema#")
+                put("type", "object")
+                put("additionalProperties", false)
+                val properties = putObject("properties")
+                (1..FIELD_COUNT).forEach { field ->
+                    properties.putObject("field$field").put("type", "string").put("maxLength", 200)
+                }
+                properties.putObject("address").apply {
+                    put("type", "object")
+                    putArray("required").add("street").add("houseNumber")
+                    putObject("properties").apply {
+                        putObject("street").put("type", "string")
+                        putObject("houseNumber").put("type", "integer").put("minimum", 1)
+                        putObject("postalCode").put("type", "string").put("pattern", "^[0-9]{4}[A-Z]{2}$")
+                    }
+                }
+            }.toString()
+        ).asJson().toString()
+    }
+}
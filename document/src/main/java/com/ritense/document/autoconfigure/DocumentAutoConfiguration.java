@@ -19,17 +19,22 @@ package com.ritense.document.autoconfigure;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ritense.authorization.AuthorizationService;
 import com.ritense.document.config.DocumentSpringContextHelper;
+import com.ritense.document.domain.impl.CompiledJsonSchemaCache;
 import com.ritense.document.domain.impl.JsonSchemaDocumentDefinition;
 import com.ritense.document.domain.impl.listener.ApplicationReadyEventListenerImpl;
+import com.ritense.document.domain.impl.listener.CompiledJsonSchemaCacheEvictionListener;
 import com.ritense.document.domain.impl.listener.DocumentRelatedFileSubmittedEventListenerImpl;
 import com.ritense.document.domain.impl.listener.RelatedJsonSchemaDocumentAvailableEventListenerImpl;
 import com.ritense.document.domain.impl.sequence.JsonSchemaDocumentDefinitionSequenceRecord;
+import com.ritense.document.event.DocumentReadEventProperties;
+import com.ritense.document.event.DocumentReadEventPublisher;
 import com.ritense.document.exporter.JsonSchemaDocumentDefinitionExporter;
 import com.ritense.document.importer.JsonSchemaDocumentDefinitionImporter;
 import com.ritense.document.repository.DocumentDefinitionRepository;
 import com.ritense.document.repository.DocumentDefinitionSequenceRepository;
 import com.ritense.document.repository.impl.JsonSchemaDocumentRepository;
 import com.ritense.document.service.DocumentDefinitionService;
+import com.ritense.document.service.DocumentSearchProperties;
 import com.ritense.document.service.DocumentSearchService;
 import com.ritense.document.service.DocumentSequenceGeneratorService;
 import com.ritense.document.service.DocumentService;
@@ -60,6 +65,9 @@ import javax.annotation.Nullable;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.io.ResourceLoader;
@@ -67,8 +75,10 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.zalando.problem.spring.web.advice.AdviceTrait;
 
 @AutoConfiguration
+@EnableCaching
 @EnableJpaRepositories(basePackages = "com.ritense.document.repository")
 @EntityScan("com.ritense.document.domain")
+@EnableConfigurationProperties({DocumentReadEventProperties.class, DocumentSearchProperties.class})
 public class DocumentAutoConfiguration {
 
     @Bean
@@ -83,7 +93,8 @@ public class DocumentAutoConfiguration {
         final ApplicationEventPublisher applicationEventPublisher,
         final OutboxService outboxService,
         final ObjectMapper objectMapper,
-        final InternalCaseStatusService internalCaseStatusService
+        final InternalCaseStatusService internalCaseStatusService,
+        final DocumentReadEventPublisher documentReadEventPublisher
     ) {
         return new JsonSchemaDocumentService(
             documentRepository,
@@ -95,7 +106,22 @@ public class DocumentAutoConfiguration {
             applicationEventPublisher,
             outboxService,
             objectMapper,
-            internalCaseStatusService
+            internalCaseStatusService,
+            documentReadEventPublisher
+        );
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(DocumentReadEventPublisher.class)
+    public DocumentReadEventPublisher documentReadEventPublisher(
+        final OutboxService outboxService,
+        final ObjectMapper objectMapper,
+        final DocumentReadEventProperties documentReadEventProperties
+    ) {
+        return new DocumentReadEventPublisher(
+            outboxService,
+            objectMapper,
+            documentReadEventProperties
         );
     }
 
@@ -167,8 +193,8 @@ public class DocumentAutoConfiguration {
         final SearchFieldService searchFieldService,
         final UserManagementService userManagementService,
         final AuthorizationService authorizationService,
-        final OutboxService outboxService,
-        final ObjectMapper objectMapper
+        final DocumentReadEventPublisher documentReadEventPublisher,
+        final DocumentSearchProperties documentSearchProperties
     ) {
         return new JsonSchemaDocumentSearchService(
             entityManager,
@@ -176,8 +202,8 @@ public class DocumentAutoConfiguration {
             searchFieldService,
             userManagementService,
             authorizationService,
-            outboxService,
-            objectMapper
+            documentReadEventPublisher,
+            documentSearchProperties
         );
     }
 
@@ -189,6 +215,20 @@ public class DocumentAutoConfiguration {
         return new ApplicationReadyEventListenerImpl(documentDefinitionService);
     }
 
+    @Bean
+    @ConditionalOnMissingBean(CompiledJsonSchemaCache.class)
+    public CompiledJsonSchemaCache compiledJsonSchemaCache(CacheManager cacheManager) {
+        return new CompiledJsonSchemaCache(cacheManager);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(CompiledJsonSchemaCacheEvictionListener.class)
+    public CompiledJsonSchemaCacheEvictionListener compiledJsonSchemaCacheEvictionListener(
+        CompiledJsonSchemaCache compiledJsonSchemaCache
+    ) {
+        return new CompiledJsonSchemaCacheEvictionListener(compiledJsonSchemaCache);
+    }
+
     @Bean
     @ConditionalOnMissingBean(RelatedJsonSchemaDocumentAvailableEventListenerImpl.class)
     public RelatedJsonSchemaDocumentAvailableEventListenerImpl relatedDocumentAvailableEventListener(
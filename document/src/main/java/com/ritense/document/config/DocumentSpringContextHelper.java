@@ -32,4 +32,14 @@ public class DocumentSpringContextHelper implements ApplicationContextAware {
         return context.getEnvironment().getProperty(property, targetClass);
     }
 
+    /**
+     * Returns the bean of the given type, or null when there is none or when running outside a Spring context.
+     */
+    public static <T> T getBean(Class<T> beanClass) {
+        if (context == null) {
+            return null;
+        }
+        return context.getBeanProvider(beanClass).getIfAvailable();
+    }
+
 }
\ No newline at end of file
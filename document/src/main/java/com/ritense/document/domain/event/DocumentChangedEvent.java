@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.domain.event;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Registered by a document when it is created, deleted, or when its content, assignee or status changes. It is
+ * published when the document is saved or deleted through its repository.
+ */
+public class DocumentChangedEvent {
+
+    private final UUID documentId;
+    private final String documentDefinitionName;
+
+    public DocumentChangedEvent(UUID documentId, String documentDefinitionName) {
+        this.documentId = documentId;
+        this.documentDefinitionName = documentDefinitionName;
+    }
+
+    public UUID getDocumentId() {
+        return documentId;
+    }
+
+    public String getDocumentDefinitionName() {
+        return documentDefinitionName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DocumentChangedEvent that)) {
+            return false;
+        }
+        return documentId.equals(that.documentId) && documentDefinitionName.equals(that.documentDefinitionName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(documentId, documentDefinitionName);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.domain.impl;
+
+import static com.ritense.valtimo.contract.utils.AssertionConcern.assertArgumentNotNull;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.everit.json.schema.ArraySchema;
+import org.everit.json.schema.CombinedSchema;
+import org.everit.json.schema.ConditionalSchema;
+import org.everit.json.schema.NotSchema;
+import org.everit.json.schema.ObjectSchema;
+import org.everit.json.schema.ReferenceSchema;
+import org.everit.json.schema.Schema;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Compiled Everit schemas keyed by document definition id (name and version), stored in a Spring cache. Entries
+ * remember the schema source they were compiled from, so a definition that is re-deployed under the same id is never
+ * validated against a stale schema, even when the eviction event was missed.
+ */
+public class CompiledJsonSchemaCache {
+
+    public static final String CACHE_NAME = "document.compiledJsonSchema";
+
+    private final CacheManager cacheManager;
+
+    public CompiledJsonSchemaCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    CompiledSchema get(JsonSchemaDocumentDefinitionId id, JsonSchema jsonSchema) {
+        assertArgumentNotNull(id, "id is required");
+        assertArgumentNotNull(jsonSchema, "jsonSchema is required");
+        final var cache = cache();
+        final var cached = cache == null ? null : cache.get(id, CompiledSchema.class);
+        if (cached != null && cached.source.equals(jsonSchema.source())) {
+            return cached;
+        }
+        final var compiled = CompiledSchema.of(jsonSchema);
+        if (cache != null) {
+            cache.put(id, compiled);
+        }
+        return compiled;
+    }
+
+    public void evict(JsonSchemaDocumentDefinitionId id) {
+        final var cache = cache();
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+
+    /**
+     * Undeploying is rare, so all versions of all definitions are evicted instead of looking up the versions.
+     */
+    public void evictAll() {
+        final var cache = cache();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+
+    static final class CompiledSchema {
+
+        private final String source;
+        private final Schema schema;
+        private final boolean appliesDefaults;
+
+        private CompiledSchema(String source, Schema schema) {
+            this.source = source;
+            this.schema = schema;
+            this.appliesDefaults = hasDefaults(schema, Collections.newSetFromMap(new IdentityHashMap<>()));
+        }
+
+        static CompiledSchema of(JsonSchema jsonSchema) {
+            return new CompiledSchema(jsonSchema.source(), jsonSchema.getSchema());
+        }
+
+        Schema schema() {
+            return schema;
+        }
+
+        /**
+         * Whether validating can add default values to the content. When it can't, the validated content is the
+         * original content.
+         */
+        boolean appliesDefaults() {
+            return appliesDefaults;
+        }
+
+        private static boolean hasDefaults(Schema schema, Set<Schema> visited) {
+            if (schema == null || !visited.add(schema)) {
+                return false;
+            }
+            if (schema.hasDefaultValue()) {
+                return true;
+            }
+            if (schema instanceof ObjectSchema objectSchema) {
+                return objectSchema.getPropertySchemas().values().stream().anyMatch(it -> hasDefaults(it, visited))
+                    || objectSchema.getPatternProperties().values().stream().anyMatch(it -> hasDefaults(it, visited))
+                    || objectSchema.getSchemaDependencies().values().stream().anyMatch(it -> hasDefaults(it, visited))
+                    || hasDefaults(objectSchema.getSchemaOfAdditionalProperties(), visited);
+            } else if (schema instanceof ArraySchema arraySchema) {
+                return hasDefaults(arraySchema.getAllItemSchema(), visited)
+                    || (arraySchema.getItemSchemas() != null
+                    && arraySchema.getItemSchemas().stream().anyMatch(it -> hasDefaults(it, visited)))
+                    || hasDefaults(arraySchema.getSchemaOfAdditionalItems(), visited);
+            } else if (schema instanceof CombinedSchema combinedSchema) {
+                return combinedSchema.getSubschemas().stream().anyMatch(it -> hasDefaults(it, visited));
+            } else if (schema instanceof ReferenceSchema referenceSchema) {
+                return hasDefaults(referenceSchema.getReferredSchema(), visited);
+            } else if (schema instanceof ConditionalSchema conditionalSchema) {
+                return hasDefaults(conditionalSchema.getIfSchema().orElse(null), visited)
+                    || hasDefaults(conditionalSchema.getThenSchema().orElse(null), visited)
+                    || hasDefaults(conditionalSchema.getElseSchema().orElse(null), visited);
+            } else if (schema instanceof NotSchema notSchema) {
+                return hasDefaults(notSchema.getMustNotMatch(), visited);
+            }
+            return false;
+        }
+    }
+
+}
@@ -38,6 +38,7 @@ import org.everit.json.schema.Validator;
 import org.everit.json.schema.loader.SchemaClient;
 import org.everit.json.schema.loader.SchemaLoader;
 import org.hibernate.annotations.Type;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.json.JSONTokener;
 import org.springframework.core.io.ClassPathResource;
@@ -59,6 +60,10 @@ public final class JsonSchema {
     @Column(name = "json_schema", columnDefinition = "json")
     private String schema;
 
+    private transient volatile Schema compiledSchema;
+
+    private transient volatile JsonNode tree;
+
     JsonSchema() {
     }
 
@@ -87,28 +92,37 @@ public final class JsonSchema {
         this.schema = new JSONObject(jsonSchema).toString();
     }
 
-    JsonDocumentContent validateDocument(DocumentContent content) {
-        final var jsonObject = new JSONObject(content.asJson().toString()); // Wrapped is needed for lib
+    JsonDocumentContent validateDocument(DocumentContent content, Schema compiled, boolean appliesDefaults) {
+        final var jsonObject = toJsonObject(content.asJson()); // Wrapped is needed for lib
         // If there are some properties missing from input which have "default" values in the schema,
         // then they will be set by the validator during validation.
-        VALIDATOR.performValidation(getSchema(), jsonObject);
+        VALIDATOR.performValidation(compiled, jsonObject);
+        if (!appliesDefaults && content instanceof JsonDocumentContent jsonDocumentContent) {
+            // Nothing was added to the content, so it doesn't have to be serialized again
+            return jsonDocumentContent;
+        }
         return new JsonDocumentContent(jsonObject.toString());
     }
 
     public JsonNode asJson() {
-        try {
-            return MapperSingleton.INSTANCE.get().readTree(schema);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return tree().deepCopy();
     }
 
     @JsonIgnore
     public Schema getSchema() {
-        final SchemaLoader schemaLoader = getSchemaLoaderBuilder()
-            .schemaJson(new JSONObject(new JSONTokener(schema)))
-            .build();
-        return schemaLoader.load().build();
+        var compiled = compiledSchema;
+        if (compiled == null) {
+            final SchemaLoader schemaLoader = getSchemaLoaderBuilder()
+                .schemaJson(new JSONObject(new JSONTokener(schema)))
+                .build();
+            compiled = schemaLoader.load().build();
+            compiledSchema = compiled;
+        }
+        return compiled;
+    }
+
+    String source() {
+        return schema;
     }
 
     @Override
@@ -120,12 +134,50 @@ public final class JsonSchema {
             return false;
         }
         JsonSchema that = (JsonSchema) o;
-        return getSchema().equals(that.getSchema());
+        return Objects.equals(schema, that.schema) || tree().equals(that.tree());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getSchema());
+        return tree().hashCode();
+    }
+
+    private JsonNode tree() {
+        var parsed = tree;
+        if (parsed == null) {
+            try {
+                parsed = MapperSingleton.INSTANCE.get().readTree(schema);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            tree = parsed;
+        }
+        return parsed;
+    }
+
+    private static JSONObject toJsonObject(JsonNode node) {
+        final var jsonObject = new JSONObject();
+        node.fields().forEachRemaining(field -> jsonObject.put(field.getKey(), toJsonValue(field.getValue())));
+        return jsonObject;
+    }
+
+    private static Object toJsonValue(JsonNode node) {
+        if (node.isObject()) {
+            return toJsonObject(node);
+        } else if (node.isArray()) {
+            final var jsonArray = new JSONArray();
+            node.forEach(element -> jsonArray.put(toJsonValue(element)));
+            return jsonArray;
+        } else if (node.isTextual()) {
+            return node.textValue();
+        } else if (node.isNumber()) {
+            return node.numberValue();
+        } else if (node.isBoolean()) {
+            return node.booleanValue();
+        } else if (node.isNull() || node.isMissingNode()) {
+            return JSONObject.NULL;
+        }
+        return node.asText();
     }
 
     @Transient
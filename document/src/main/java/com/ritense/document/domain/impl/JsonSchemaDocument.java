@@ -23,6 +23,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.ritense.document.domain.Document;
 import com.ritense.document.domain.InternalCaseStatus;
 import com.ritense.document.domain.RelatedFile;
+import com.ritense.document.domain.event.DocumentChangedEvent;
 import com.ritense.document.domain.impl.event.JsonSchemaDocumentCreatedEvent;
 import com.ritense.document.domain.impl.event.JsonSchemaDocumentModifiedEvent;
 import com.ritense.document.domain.impl.relation.JsonSchemaDocumentRelation;
@@ -165,6 +166,7 @@ public class JsonSchemaDocument extends AbstractAggregateRoot<JsonSchemaDocument
                 this.documentDefinitionId
             )
         );
+        registerChanged();
     }
 
     JsonSchemaDocument() {
@@ -243,6 +245,7 @@ public class JsonSchemaDocument extends AbstractAggregateRoot<JsonSchemaDocument
                     changes
                 )
             );
+            registerChanged();
         }
         return new ModifyDocumentResultImpl(this);
     }
@@ -310,11 +313,13 @@ public class JsonSchemaDocument extends AbstractAggregateRoot<JsonSchemaDocument
     public void setAssignee(String id, String fullName) {
         this.assigneeId = id;
         this.assigneeFullName = fullName;
+        registerChanged();
     }
 
     public void unassign() {
         this.assigneeId = null;
         this.assigneeFullName = null;
+        registerChanged();
     }
 
     public void setInternalStatus(@Nullable InternalCaseStatus internalCaseStatus) {
@@ -322,6 +327,19 @@ public class JsonSchemaDocument extends AbstractAggregateRoot<JsonSchemaDocument
             throw new IllegalArgumentException("Invalid status key: '" + internalCaseStatus.getId().getKey() + "'.");
         }
         this.internalStatus = internalCaseStatus;
+        registerChanged();
+    }
+
+    /**
+     * Registers that the document is about to be deleted, so the deletion is published when it is deleted through
+     * the repository.
+     */
+    public void registerDeletion() {
+        registerChanged();
+    }
+
+    private void registerChanged() {
+        registerEvent(new DocumentChangedEvent(id.getId(), documentDefinitionId.name()));
     }
 
     @Override
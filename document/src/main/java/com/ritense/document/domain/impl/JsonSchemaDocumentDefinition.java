@@ -21,6 +21,7 @@ import static com.ritense.valtimo.contract.utils.AssertionConcern.assertArgument
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.ritense.document.config.DocumentSpringContextHelper;
 import com.ritense.document.domain.DocumentContent;
 import com.ritense.document.domain.DocumentDefinition;
 import com.ritense.document.domain.impl.event.JsonSchemaDocumentDefinitionDeployedEvent;
@@ -119,7 +120,11 @@ public class JsonSchemaDocumentDefinition extends AbstractAggregateRoot<JsonSche
 
         List<DocumentContentValidationError> errors = new ArrayList<>();
         try {
-            content = schema.validateDocument(content);
+            final var compiledSchemaCache = DocumentSpringContextHelper.getBean(CompiledJsonSchemaCache.class);
+            final var compiled = compiledSchemaCache == null
+                ? CompiledJsonSchemaCache.CompiledSchema.of(schema)
+                : compiledSchemaCache.get(id, schema);
+            content = schema.validateDocument(content, compiled.schema(), compiled.appliesDefaults());
         } catch (ValidationException e) {
             errors = e.getAllMessages()
                 .stream()
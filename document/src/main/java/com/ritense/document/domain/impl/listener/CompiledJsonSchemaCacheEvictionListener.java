@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.domain.impl.listener;
+
+import com.ritense.document.domain.impl.CompiledJsonSchemaCache;
+import com.ritense.document.domain.impl.JsonSchemaDocumentDefinitionId;
+import com.ritense.document.domain.impl.event.JsonSchemaDocumentDefinitionDeployedEvent;
+import com.ritense.valtimo.contract.event.UndeployDocumentDefinitionEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+public class CompiledJsonSchemaCacheEvictionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledJsonSchemaCacheEvictionListener.class);
+    private final CompiledJsonSchemaCache compiledJsonSchemaCache;
+
+    public CompiledJsonSchemaCacheEvictionListener(CompiledJsonSchemaCache compiledJsonSchemaCache) {
+        this.compiledJsonSchemaCache = compiledJsonSchemaCache;
+    }
+
+    @EventListener(JsonSchemaDocumentDefinitionDeployedEvent.class)
+    public void handleDocumentDefinitionDeployedEvent(JsonSchemaDocumentDefinitionDeployedEvent event) {
+        final var definitionId = event.documentDefinition().id();
+        final var id = JsonSchemaDocumentDefinitionId.existingId(definitionId.name(), definitionId.version());
+        logger.debug("Deployed document definition {}. Evicting compiled schema", id);
+        compiledJsonSchemaCache.evict(id);
+    }
+
+    @EventListener(UndeployDocumentDefinitionEvent.class)
+    public void handleUndeployDocumentDefinitionEvent(UndeployDocumentDefinitionEvent event) {
+        logger.debug("Undeployed document definition {}. Evicting compiled schemas", event.getDocumentDefinitionName());
+        compiledJsonSchemaCache.evictAll();
+    }
+
+}
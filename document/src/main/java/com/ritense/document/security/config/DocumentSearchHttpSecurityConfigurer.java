@@ -37,6 +37,7 @@ public class DocumentSearchHttpSecurityConfigurer implements HttpSecurityConfigu
             http.authorizeHttpRequests(requests ->
                 requests.requestMatchers(antMatcher(POST, "/api/v1/document-search")).authenticated()
                     .requestMatchers(antMatcher(POST, "/api/v1/document-definition/{name}/search")).authenticated()
+                    .requestMatchers(antMatcher(POST, "/api/v1/document-definition/{name}/search/scroll")).authenticated()
                     .requestMatchers(antMatcher(POST, FIELDS_URL)).hasAuthority(ADMIN)
                     .requestMatchers(antMatcher(GET, FIELDS_URL)).authenticated()
                     .requestMatchers(antMatcher(PUT, FIELDS_URL)).hasAuthority(ADMIN)
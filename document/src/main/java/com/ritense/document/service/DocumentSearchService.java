@@ -20,8 +20,10 @@ import com.ritense.document.domain.Document;
 import com.ritense.document.domain.search.AdvancedSearchRequest;
 import com.ritense.document.domain.search.SearchWithConfigRequest;
 import com.ritense.document.service.impl.SearchRequest;
+import com.ritense.valtimo.contract.repository.KeysetPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 public interface DocumentSearchService {
 
@@ -39,4 +41,17 @@ public interface DocumentSearchService {
 
     Long count(String documentDefinitionName, AdvancedSearchRequest advancedSearchRequest);
 
+    /**
+     * Keyset (seek) paginated search. Pass the 'next' token of the previous page to get the page after it, or null for
+     * the first page.
+     */
+    @SuppressWarnings({"squid:S1452","java:S1452"})
+    KeysetPage<? extends Document> scroll(
+        String documentDefinitionName,
+        SearchWithConfigRequest searchWithConfigRequest,
+        Sort sort,
+        int size,
+        String token
+    );
+
 }
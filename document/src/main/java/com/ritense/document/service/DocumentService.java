@@ -26,6 +26,7 @@ import com.ritense.document.service.result.CreateDocumentResult;
 import com.ritense.document.service.result.ModifyDocumentResult;
 import com.ritense.valtimo.contract.authentication.NamedUser;
 import jakarta.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -43,6 +44,17 @@ public interface DocumentService {
 
     Document get(String documentId);
 
+    /**
+     * Fetches many documents in one call, for example to resolve values for all rows of a list page.
+     * Unlike get(String) this doesn't publish a DocumentViewed event per document. VIEW permission on all documents is
+     * required and checked with one authorization request, unless called without authorization.
+     *
+     * @param documentIds the ids of the documents to fetch
+     * @return the documents, in no particular order
+     * @throws com.ritense.document.exception.DocumentNotFoundException when one of the documents doesn't exist
+     */
+    List<? extends Document> getDocuments(Collection<String> documentIds);
+
     CreateDocumentResult createDocument(NewDocumentRequest newDocumentRequest);
 
     void modifyDocument(Document document, JsonNode jsonNode);
@@ -32,15 +32,22 @@ import com.ritense.document.domain.search.SearchOperator;
 import com.ritense.document.domain.search.SearchRequestMapper;
 import com.ritense.document.domain.search.SearchRequestValidator;
 import com.ritense.document.domain.search.SearchWithConfigRequest;
-import com.ritense.document.event.DocumentsListed;
+import com.ritense.document.event.DocumentReadEventProperties;
+import com.ritense.document.event.DocumentReadEventPublisher;
+import com.ritense.document.service.DocumentSearchProperties;
+import com.ritense.document.service.DocumentSearchProperties.TotalCountMode;
 import com.ritense.document.service.DocumentSearchService;
 import com.ritense.document.service.SearchFieldService;
 import com.ritense.logging.LoggableResource;
 import com.ritense.outbox.OutboxService;
 import com.ritense.valtimo.contract.authentication.UserManagementService;
 import com.ritense.valtimo.contract.database.QueryDialectHelper;
+import com.ritense.valtimo.contract.repository.InvalidKeysetException;
+import com.ritense.valtimo.contract.repository.KeysetPage;
+import com.ritense.valtimo.contract.repository.KeysetToken;
 import com.ritense.valtimo.contract.utils.RequestHelper;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
@@ -63,10 +70,13 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -76,6 +86,7 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class JsonSchemaDocumentSearchService implements DocumentSearchService {
 
+    private static final String ID = "id";
     private static final String DOCUMENT_DEFINITION_ID = "documentDefinitionId";
     private static final String NAME = "name";
     private static final String CREATED_BY = "createdBy";
@@ -88,6 +99,12 @@ public class JsonSchemaDocumentSearchService implements DocumentSearchService {
     private static final String DOC_PREFIX = "doc:";
     private static final String CASE_PREFIX = "case:";
 
+    private static final Sort.Order DEFAULT_KEYSET_ORDER = Sort.Order.desc("createdOn");
+    private static final Map<String, Function<JsonSchemaDocument, Object>> KEYSET_PROPERTIES = Map.of(
+        "createdOn", JsonSchemaDocument::createdOn,
+        SEQUENCE, JsonSchemaDocument::sequence
+    );
+
     private static final Map<String, String> DOCUMENT_FIELD_MAP = Map.of(
         "definitionId.name", "documentDefinitionId.name",
         "definitionId.version", "documentDefinitionId.key",
@@ -100,9 +117,10 @@ public class JsonSchemaDocumentSearchService implements DocumentSearchService {
     private final UserManagementService userManagementService;
 
     private final AuthorizationService authorizationService;
-    private final OutboxService outboxService;
 
-    private final ObjectMapper objectMapper;
+    private final DocumentReadEventPublisher documentReadEventPublisher;
+
+    private final DocumentSearchProperties documentSearchProperties;
 
     public JsonSchemaDocumentSearchService(
         EntityManager entityManager,
@@ -111,14 +129,52 @@ public class JsonSchemaDocumentSearchService implements DocumentSearchService {
         UserManagementService userManagementService,
         AuthorizationService authorizationService, OutboxService outboxService,
         ObjectMapper objectMapper
+    ) {
+        this(
+            entityManager,
+            queryDialectHelper,
+            searchFieldService,
+            userManagementService,
+            authorizationService,
+            new DocumentReadEventPublisher(outboxService, objectMapper, new DocumentReadEventProperties())
+        );
+    }
+
+    public JsonSchemaDocumentSearchService(
+        EntityManager entityManager,
+        QueryDialectHelper queryDialectHelper,
+        SearchFieldService searchFieldService,
+        UserManagementService userManagementService,
+        AuthorizationService authorizationService,
+        DocumentReadEventPublisher documentReadEventPublisher
+    ) {
+        this(
+            entityManager,
+            queryDialectHelper,
+            searchFieldService,
+            userManagementService,
+            authorizationService,
+            documentReadEventPublisher,
+            new DocumentSearchProperties()
+        );
+    }
+
+    public JsonSchemaDocumentSearchService(
+        EntityManager entityManager,
+        QueryDialectHelper queryDialectHelper,
+        SearchFieldService searchFieldService,
+        UserManagementService userManagementService,
+        AuthorizationService authorizationService,
+        DocumentReadEventPublisher documentReadEventPublisher,
+        DocumentSearchProperties documentSearchProperties
     ) {
         this.entityManager = entityManager;
         this.queryDialectHelper = queryDialectHelper;
         this.searchFieldService = searchFieldService;
         this.userManagementService = userManagementService;
         this.authorizationService = authorizationService;
-        this.outboxService = outboxService;
-        this.objectMapper = objectMapper;
+        this.documentReadEventPublisher = documentReadEventPublisher;
+        this.documentSearchProperties = documentSearchProperties;
     }
 
     @Override
@@ -128,6 +184,7 @@ public class JsonSchemaDocumentSearchService implements DocumentSearchService {
     ) {
         return withLoggingContext("documentDefinitionName", searchRequest.getDocumentDefinitionName(), () ->
             search(
+                searchRequest.getDocumentDefinitionName(),
                 (cb, query, documentRoot) -> buildQueryWhere(searchRequest, cb, query, documentRoot),
                 pageable
             )
@@ -140,20 +197,7 @@ public class JsonSchemaDocumentSearchService implements DocumentSearchService {
         SearchWithConfigRequest searchWithConfigRequest,
         Pageable pageable
     ) {
-        ZoneOffset zoneOffset = RequestHelper.getZoneOffset();
-        var searchFieldMap = searchFieldService.getSearchFields(documentDefinitionName).stream()
-            .collect(toMap(SearchField::getKey, searchField -> searchField));
-
-        var searchCriteria = searchWithConfigRequest.getOtherFilters().stream()
-            .map(otherFilter -> SearchRequestMapper.toOtherFilter(
-                otherFilter,
-                searchFieldMap.get(otherFilter.getKey()),
-                zoneOffset
-            ))
-            .toList();
-
-        var advancedSearchRequest = SearchRequestMapper.toAdvancedSearchRequest(searchWithConfigRequest, searchCriteria);
-
+        var advancedSearchRequest = toAdvancedSearchRequest(documentDefinitionName, searchWithConfigRequest);
         return search(documentDefinitionName, advancedSearchRequest, pageable);
     }
 
@@ -165,11 +209,30 @@ public class JsonSchemaDocumentSearchService implements DocumentSearchService {
     ) {
         SearchRequestValidator.validate(advancedSearchRequest);
         return search(
+            documentDefinitionName,
             (cb, query, documentRoot) -> buildQueryWhere(documentDefinitionName, advancedSearchRequest, cb, query, documentRoot),
             pageable
         );
     }
 
+    @Override
+    public KeysetPage<JsonSchemaDocument> scroll(
+        @LoggableResource("documentDefinitionName") String documentDefinitionName,
+        SearchWithConfigRequest searchWithConfigRequest,
+        Sort sort,
+        int size,
+        String token
+    ) {
+        var advancedSearchRequest = toAdvancedSearchRequest(documentDefinitionName, searchWithConfigRequest);
+        SearchRequestValidator.validate(advancedSearchRequest);
+        return scroll(
+            (cb, query, documentRoot) -> buildQueryWhere(documentDefinitionName, advancedSearchRequest, cb, query, documentRoot),
+            sort,
+            size,
+            token
+        );
+    }
+
     @Override
     public Long count(
         @LoggableResource("documentDefinitionName") String documentDefinitionName,
@@ -180,7 +243,49 @@ public class JsonSchemaDocumentSearchService implements DocumentSearchService {
         );
     }
 
-    private Page<JsonSchemaDocument> search(QueryWhereBuilder queryWhereBuilder, Pageable pageable) {
+    private AdvancedSearchRequest toAdvancedSearchRequest(
+        String documentDefinitionName,
+        SearchWithConfigRequest searchWithConfigRequest
+    ) {
+        ZoneOffset zoneOffset = RequestHelper.getZoneOffset();
+        var searchFieldMap = searchFieldService.getSearchFields(documentDefinitionName).stream()
+            .collect(toMap(SearchField::getKey, searchField -> searchField));
+
+        var searchCriteria = searchWithConfigRequest.getOtherFilters().stream()
+            .map(otherFilter -> SearchRequestMapper.toOtherFilter(
+                otherFilter,
+                searchFieldMap.get(otherFilter.getKey()),
+                zoneOffset
+            ))
+            .toList();
+
+        return SearchRequestMapper.toAdvancedSearchRequest(searchWithConfigRequest, searchCriteria);
+    }
+
+    private Page<JsonSchemaDocument> search(
+        String documentDefinitionName,
+        QueryWhereBuilder queryWhereBuilder,
+        Pageable pageable
+    ) {
+        var totalCountMode = documentSearchProperties.getTotalCountMode(documentDefinitionName);
+        Page<JsonSchemaDocument> page;
+        if (pageable.isUnpaged()) {
+            var documents = findDocuments(queryWhereBuilder, pageable, 0);
+            page = new PageImpl<>(documents, pageable, documents.size());
+        } else if (totalCountMode == TotalCountMode.WINDOW
+            && entityManager.getCriteriaBuilder() instanceof HibernateCriteriaBuilder) {
+            page = searchWithWindowCount(queryWhereBuilder, pageable);
+        } else if (totalCountMode == TotalCountMode.NONE) {
+            page = searchWithoutCount(queryWhereBuilder, pageable);
+        } else {
+            var documents = findDocuments(queryWhereBuilder, pageable, pageable.getPageSize());
+            page = new PageImpl<>(documents, pageable, count(queryWhereBuilder));
+        }
+        documentReadEventPublisher.documentsListed(page.getContent());
+        return page;
+    }
+
+    private List<JsonSchemaDocument> findDocuments(QueryWhereBuilder queryWhereBuilder, Pageable pageable, int maxResults) {
         final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         final CriteriaQuery<JsonSchemaDocument> query = cb.createQuery(JsonSchemaDocument.class);
         final Root<JsonSchemaDocument> selectRoot = query.from(JsonSchemaDocument.class);
@@ -193,16 +298,113 @@ public class JsonSchemaDocumentSearchService implements DocumentSearchService {
         if (pageable.isPaged()) {
             typedQuery
                 .setFirstResult((int) pageable.getOffset())
-                .setMaxResults(pageable.getPageSize());
+                .setMaxResults(maxResults);
         }
 
-        List<JsonSchemaDocument> documents = typedQuery.getResultList();
-        outboxService.send(() ->
-            new DocumentsListed(
-                objectMapper.valueToTree(documents)
-            )
-        );
-        return new PageImpl<>(documents, pageable, count(queryWhereBuilder));
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Selects COUNT(*) OVER() next to every document, so the total is known from the page itself. The query is always
+     * grouped on the document id, so the window runs over the distinct documents instead of the joined rows. This
+     * matches the countDistinct of the separate count query.
+     */
+    private Page<JsonSchemaDocument> searchWithWindowCount(QueryWhereBuilder queryWhereBuilder, Pageable pageable) {
+        final HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        final CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        final Root<JsonSchemaDocument> selectRoot = query.from(JsonSchemaDocument.class);
+        final Path<UUID> idPath = selectRoot.get(ID).get(ID);
+
+        final Expression<Long> total = cb.windowFunction("count", Long.class, cb.createWindow(), idPath);
+        query.multiselect(selectRoot, total);
+        queryWhereBuilder.apply(cb, query, selectRoot);
+        if (!query.getGroupList().contains(idPath)) {
+            ArrayList<Expression<?>> grouping = new ArrayList<>(query.getGroupList());
+            grouping.add(0, idPath);
+            query.groupBy(grouping);
+        }
+        query.orderBy(getOrderBy(query, cb, selectRoot, pageable.getSort()));
+
+        final List<Tuple> rows = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize())
+            .getResultList();
+
+        if (rows.isEmpty()) {
+            // A page after the last result has no rows to read the total from
+            return new PageImpl<>(List.of(), pageable, pageable.getOffset() == 0 ? 0 : count(queryWhereBuilder));
+        }
+        List<JsonSchemaDocument> documents = rows.stream()
+            .map(row -> row.get(0, JsonSchemaDocument.class))
+            .toList();
+        return new PageImpl<>(documents, pageable, rows.get(0).get(1, Long.class));
+    }
+
+    private Page<JsonSchemaDocument> searchWithoutCount(QueryWhereBuilder queryWhereBuilder, Pageable pageable) {
+        var documents = findDocuments(queryWhereBuilder, pageable, pageable.getPageSize() + 1);
+        var hasNext = documents.size() > pageable.getPageSize();
+        if (hasNext) {
+            documents = documents.subList(0, pageable.getPageSize());
+        }
+        return new PageImpl<>(documents, pageable, pageable.getOffset() + documents.size() + (hasNext ? 1 : 0));
+    }
+
+    /**
+     * Orders on (sort key, id) and continues after the position in the token, so no rows have to be skipped. Only
+     * non-nullable document properties can be used as sort key.
+     */
+    private KeysetPage<JsonSchemaDocument> scroll(QueryWhereBuilder queryWhereBuilder, Sort sort, int size, String token) {
+        final Sort.Order order = getKeysetOrder(sort);
+        final KeysetToken keysetToken = token == null ? null : KeysetToken.decode(token).requireMatches(order);
+
+        final CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        final CriteriaQuery<JsonSchemaDocument> query = cb.createQuery(JsonSchemaDocument.class);
+        final Root<JsonSchemaDocument> selectRoot = query.from(JsonSchemaDocument.class);
+
+        query.select(selectRoot);
+        queryWhereBuilder.apply(cb, query, selectRoot);
+        final List<Order> orderBy = getOrderBy(query, cb, selectRoot, Sort.by(order));
+        final Path<UUID> idPath = selectRoot.get(ID).get(ID);
+        if (keysetToken != null) {
+            final Predicate after = keysetToken.toPredicate(cb, selectRoot.get(order.getProperty()), idPath);
+            query.where(query.getRestriction() == null ? after : cb.and(query.getRestriction(), after));
+        }
+        orderBy.add(order.isAscending() ? cb.asc(idPath) : cb.desc(idPath));
+        query.orderBy(orderBy);
+
+        var documents = entityManager.createQuery(query)
+            .setMaxResults(size + 1)
+            .getResultList();
+        String next = null;
+        if (documents.size() > size) {
+            documents = documents.subList(0, size);
+            var last = documents.get(size - 1);
+            next = new KeysetToken(
+                order.getProperty(),
+                order.getDirection(),
+                KEYSET_PROPERTIES.get(order.getProperty()).apply(last),
+                last.id().getId()
+            ).encode();
+        }
+        documentReadEventPublisher.documentsListed(documents);
+        return new KeysetPage<>(documents, next);
+    }
+
+    private Sort.Order getKeysetOrder(Sort sort) {
+        if (sort.isUnsorted()) {
+            return DEFAULT_KEYSET_ORDER;
+        }
+        var orders = sort.toList();
+        var order = orders.get(0);
+        var property = order.getProperty().startsWith(CASE_PREFIX)
+            ? order.getProperty().substring(CASE_PREFIX.length())
+            : order.getProperty();
+        if (orders.size() > 1 || !KEYSET_PROPERTIES.containsKey(property)) {
+            throw new InvalidKeysetException(
+                "Keyset pagination only supports sorting on one of " + KEYSET_PROPERTIES.keySet() + ", not on '" + sort + "'"
+            );
+        }
+        return new Sort.Order(order.getDirection(), property);
     }
 
     private Long count(QueryWhereBuilder queryWhereBuilder) {
@@ -525,7 +727,7 @@ public class JsonSchemaDocumentSearchService implements DocumentSearchService {
     }
 
     private List<Order> getOrderBy(
-        CriteriaQuery<JsonSchemaDocument> query,
+        CriteriaQuery<?> query,
         CriteriaBuilder cb,
         Root<JsonSchemaDocument> root,
         Sort sort
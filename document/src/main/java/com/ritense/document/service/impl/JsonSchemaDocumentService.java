@@ -54,13 +54,13 @@ import com.ritense.document.event.DocumentAssigned;
 import com.ritense.document.event.DocumentAssigneeChangedEvent;
 import com.ritense.document.event.DocumentCreated;
 import com.ritense.document.event.DocumentDeleted;
+import com.ritense.document.event.DocumentReadEventProperties;
+import com.ritense.document.event.DocumentReadEventPublisher;
 import com.ritense.valtimo.contract.event.DocumentDeletedEvent;
 import com.ritense.document.event.DocumentStatusChanged;
 import com.ritense.document.event.DocumentUnassigned;
 import com.ritense.document.event.DocumentUnassignedEvent;
 import com.ritense.document.event.DocumentUpdated;
-import com.ritense.document.event.DocumentViewed;
-import com.ritense.document.event.DocumentsListed;
 import com.ritense.document.exception.DocumentNotFoundException;
 import com.ritense.document.exception.ModifyDocumentException;
 import com.ritense.document.exception.UnknownDocumentDefinitionException;
@@ -78,6 +78,7 @@ import com.ritense.valtimo.contract.utils.RequestHelper;
 import com.ritense.valtimo.contract.utils.SecurityUtils;
 import jakarta.annotation.Nullable;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -114,6 +115,8 @@ public class JsonSchemaDocumentService implements DocumentService {
 
     private final InternalCaseStatusService internalCaseStatusService;
 
+    private final DocumentReadEventPublisher documentReadEventPublisher;
+
     public JsonSchemaDocumentService(
         JsonSchemaDocumentRepository documentRepository,
         JsonSchemaDocumentDefinitionService documentDefinitionService,
@@ -125,6 +128,34 @@ public class JsonSchemaDocumentService implements DocumentService {
         OutboxService outboxService,
         ObjectMapper objectMapper,
         InternalCaseStatusService internalCaseStatusService
+    ) {
+        this(
+            documentRepository,
+            documentDefinitionService,
+            documentSequenceGeneratorService,
+            resourceService,
+            userManagementService,
+            authorizationService,
+            applicationEventPublisher,
+            outboxService,
+            objectMapper,
+            internalCaseStatusService,
+            new DocumentReadEventPublisher(outboxService, objectMapper, new DocumentReadEventProperties())
+        );
+    }
+
+    public JsonSchemaDocumentService(
+        JsonSchemaDocumentRepository documentRepository,
+        JsonSchemaDocumentDefinitionService documentDefinitionService,
+        JsonSchemaDocumentDefinitionSequenceGeneratorService documentSequenceGeneratorService,
+        @Nullable ResourceService resourceService,
+        UserManagementService userManagementService,
+        AuthorizationService authorizationService,
+        ApplicationEventPublisher applicationEventPublisher,
+        OutboxService outboxService,
+        ObjectMapper objectMapper,
+        InternalCaseStatusService internalCaseStatusService,
+        DocumentReadEventPublisher documentReadEventPublisher
     ) {
         this.documentRepository = documentRepository;
         this.documentDefinitionService = documentDefinitionService;
@@ -136,6 +167,7 @@ public class JsonSchemaDocumentService implements DocumentService {
         this.outboxService = outboxService;
         this.objectMapper = objectMapper;
         this.internalCaseStatusService = internalCaseStatusService;
+        this.documentReadEventPublisher = documentReadEventPublisher;
     }
 
     @Override
@@ -154,12 +186,7 @@ public class JsonSchemaDocumentService implements DocumentService {
                 )
             );
 
-            outboxService.send(() ->
-                new DocumentViewed(
-                    document.id().toString(),
-                    objectMapper.valueToTree(document)
-                )
-            );
+            documentReadEventPublisher.documentViewed(document);
         }
         return optionalDocument;
     }
@@ -186,6 +213,40 @@ public class JsonSchemaDocumentService implements DocumentService {
         return document;
     }
 
+    @Override
+    public List<JsonSchemaDocument> getDocuments(Collection<String> documentIds) {
+        final List<Document.Id> ids = documentIds.stream()
+            .distinct()
+            .map(documentId -> (Document.Id) JsonSchemaDocumentId.existingId(UUID.fromString(documentId)))
+            .toList();
+        // One query for all ids. Documents already loaded in this transaction, e.g. by a search, are reused.
+        final var documents = documentRepository.findAllById(ids);
+
+        if (documents.size() != ids.size()) {
+            final var foundIds = documents.stream()
+                .map(document -> document.id().getId())
+                .collect(Collectors.toSet());
+            final var missingId = ids.stream()
+                .filter(id -> !foundIds.contains(id.getId()))
+                .findFirst()
+                .orElseThrow();
+            throw new DocumentNotFoundException("Document not found with id " + missingId);
+        }
+
+        if (!documents.isEmpty()) {
+            // One request for all documents, so the permissions are looked up once for the whole batch
+            authorizationService.requirePermission(
+                new EntityAuthorizationRequest<>(
+                    JsonSchemaDocument.class,
+                    VIEW,
+                    documents
+                )
+            );
+        }
+
+        return documents;
+    }
+
     @Override
     public Page<JsonSchemaDocument> getAllByDocumentDefinitionName(
         Pageable pageable,
@@ -203,11 +264,7 @@ public class JsonSchemaDocumentService implements DocumentService {
         Page<JsonSchemaDocument> documentPage = documentRepository.findAll(
             spec.and(byDocumentDefinitionIdName(definitionName)), pageable);
 
-        outboxService.send(() ->
-            new DocumentsListed(
-                objectMapper.valueToTree(documentPage.getContent())
-            )
-        );
+        documentReadEventPublisher.documentsListed(documentPage.getContent());
 
         return documentPage;
     }
@@ -230,11 +287,7 @@ public class JsonSchemaDocumentService implements DocumentService {
         ));
         Page<JsonSchemaDocument> documentPage = documentRepository.findAll(spec, pageable);
 
-        outboxService.send(() ->
-            new DocumentsListed(
-                objectMapper.valueToTree(documentPage.getContent())
-            )
-        );
+        documentReadEventPublisher.documentsListed(documentPage.getContent());
 
         return documentPage;
     }
@@ -501,6 +554,7 @@ public class JsonSchemaDocumentService implements DocumentService {
                     )
                 );
                 document.removeAllRelatedFiles();
+                document.registerDeletion();
             });
             documentRepository.saveAll(documents);
             documentRepository.deleteAll(documents);
@@ -526,6 +580,7 @@ public class JsonSchemaDocumentService implements DocumentService {
             )
         );
 
+        document.registerDeletion();
         documentRepository.delete(document);
 
         applicationEventPublisher.publishEvent(
@@ -19,6 +19,7 @@ package com.ritense.document.web.rest;
 import com.ritense.document.domain.Document;
 import com.ritense.document.domain.search.SearchWithConfigRequest;
 import com.ritense.document.service.impl.SearchRequest;
+import com.ritense.valtimo.contract.repository.KeysetPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -36,4 +37,11 @@ public interface DocumentSearchResource {
         Pageable pageable
     );
 
+    ResponseEntity<KeysetPage<? extends Document>> scroll(
+        String documentDefinitionName,
+        SearchWithConfigRequest searchRequest,
+        Pageable pageable,
+        String token
+    );
+
 }
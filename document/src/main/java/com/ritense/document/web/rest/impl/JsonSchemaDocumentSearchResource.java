@@ -27,6 +27,7 @@ import com.ritense.document.service.impl.SearchRequest;
 import com.ritense.document.web.rest.DocumentSearchResource;
 import com.ritense.logging.LoggableResource;
 import com.ritense.valtimo.contract.annotation.SkipComponentScan;
+import com.ritense.valtimo.contract.repository.KeysetPage;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
@@ -35,6 +36,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -72,4 +74,18 @@ public class JsonSchemaDocumentSearchResource implements DocumentSearchResource
         );
     }
 
+    @Override
+    @PostMapping("/v1/document-definition/{name}/search/scroll")
+    public ResponseEntity<KeysetPage<? extends Document>> scroll(
+        @LoggableResource("documentDefinitionName") @PathVariable(name = "name") String documentDefinitionName,
+        @RequestBody SearchWithConfigRequest searchRequest,
+        @PageableDefault(sort = {"createdOn"}, direction = DESC) Pageable pageable,
+        @RequestParam(name = "token", required = false) String token
+    ) {
+        SearchRequestValidator.validate(searchRequest);
+        return ResponseEntity.ok(
+            documentSearchService.scroll(documentDefinitionName, searchRequest, pageable.getSort(), pageable.getPageSize(), token)
+        );
+    }
+
 }
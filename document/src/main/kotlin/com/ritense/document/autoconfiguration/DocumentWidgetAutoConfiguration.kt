@@ -16,13 +16,23 @@
 
 package com.ritense.document.autoconfiguration
 
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.ritense.document.dashboard.DocumentWidgetCounterService
 import com.ritense.document.dashboard.DocumentWidgetDataSource
+import com.ritense.document.repository.DocumentWidgetCounterMatchRepository
+import com.ritense.document.repository.DocumentWidgetCounterRepository
+import com.ritense.document.repository.DocumentWidgetCounterValueRepository
 import com.ritense.document.repository.impl.JsonSchemaDocumentRepository
 import com.ritense.valtimo.contract.database.QueryDialectHelper
 import jakarta.persistence.EntityManager
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.context.annotation.Bean
+import org.springframework.transaction.PlatformTransactionManager
+import java.time.Duration
 
 @AutoConfiguration
 class DocumentWidgetAutoConfiguration {
@@ -32,6 +42,37 @@ class DocumentWidgetAutoConfiguration {
     fun documentWidgetDataSource(
         documentRepository: JsonSchemaDocumentRepository,
         queryDialectHelper: QueryDialectHelper,
-        entityManager: EntityManager
-    ) = DocumentWidgetDataSource(documentRepository, queryDialectHelper, entityManager)
-}
\ No newline at end of file
+        entityManager: EntityManager,
+        documentWidgetCounterService: ObjectProvider<DocumentWidgetCounterService>
+    ) = DocumentWidgetDataSource(
+        documentRepository,
+        queryDialectHelper,
+        entityManager,
+        documentWidgetCounterService.ifAvailable
+    )
+
+    @Bean
+    @ConditionalOnMissingBean(DocumentWidgetCounterService::class)
+    @ConditionalOnProperty(value = ["valtimo.dashboard.widget-counters.enabled"], havingValue = "true")
+    fun documentWidgetCounterService(
+        documentWidgetCounterRepository: DocumentWidgetCounterRepository,
+        documentWidgetCounterValueRepository: DocumentWidgetCounterValueRepository,
+        documentWidgetCounterMatchRepository: DocumentWidgetCounterMatchRepository,
+        entityManager: EntityManager,
+        queryDialectHelper: QueryDialectHelper,
+        objectMapper: ObjectMapper,
+        platformTransactionManager: PlatformTransactionManager,
+        @Value("\${valtimo.dashboard.widget-counters.retention:P7D}") retention: Duration,
+        @Value("\${valtimo.database:mysql}") database: String
+    ) = DocumentWidgetCounterService(
+        documentWidgetCounterRepository,
+        documentWidgetCounterValueRepository,
+        documentWidgetCounterMatchRepository,
+        entityManager,
+        queryDialectHelper,
+        objectMapper,
+        platformTransactionManager,
+        retention,
+        database
+    )
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.dashboard
+
+import com.ritense.valtimo.contract.dashboard.QueryCondition
+
+/**
+ * What a [com.ritense.document.domain.DocumentWidgetCounter] counts: the documents of a definition that match the
+ * query conditions, optionally grouped by the value at a path.
+ */
+data class DocumentWidgetCounterDefinition(
+    val documentDefinition: String,
+    val queryConditions: List<QueryCondition<*>> = listOf(),
+    val groupByPath: String? = null,
+) {
+
+    /**
+     * Conditions on the current time or the current user give a different count for every read, so they can't be
+     * maintained in a counter.
+     */
+    fun hasDynamicConditions(): Boolean {
+        return queryConditions.any { condition ->
+            val value = condition.queryValue
+            value is String && value.startsWith("\${") && value != "\${null}"
+        }
+    }
+}
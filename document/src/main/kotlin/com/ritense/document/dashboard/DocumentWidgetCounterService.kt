@@ -0,0 +1,438 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.dashboard
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.ritense.document.domain.DocumentWidgetCounter
+import com.ritense.document.domain.DocumentWidgetCounterMatch
+import com.ritense.document.domain.DocumentWidgetCounterMatchId
+import com.ritense.document.domain.DocumentWidgetCounterValue
+import com.ritense.document.domain.DocumentWidgetCounterValueId
+import com.ritense.document.domain.event.DocumentChangedEvent
+import com.ritense.document.domain.impl.JsonSchemaDocument
+import com.ritense.document.repository.DocumentWidgetCounterMatchRepository
+import com.ritense.document.repository.DocumentWidgetCounterRepository
+import com.ritense.document.repository.DocumentWidgetCounterValueRepository
+import com.ritense.valtimo.contract.dashboard.QueryCondition
+import com.ritense.valtimo.contract.database.QueryDialectHelper
+import com.ritense.valtimo.contract.repository.ExpressionOperator
+import jakarta.persistence.EntityManager
+import jakarta.persistence.criteria.CriteriaBuilder
+import jakarta.persistence.criteria.Predicate
+import jakarta.persistence.criteria.Root
+import jakarta.persistence.criteria.Selection
+import mu.KotlinLogging
+import org.springframework.context.event.EventListener
+import org.springframework.scheduling.annotation.Scheduled
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionDefinition
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import org.springframework.transaction.support.TransactionTemplate
+import java.security.MessageDigest
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.HexFormat
+import java.util.UUID
+
+/**
+ * Maintains the counts of the case widgets, so a dashboard read doesn't count the documents.
+ *
+ * A counter is registered when a widget reads it for the first time, and is counted from the documents by
+ * [reconcileNewCounters]. From then on, every document that is created, updated or deleted is re-evaluated against
+ * the counters of its definition after the transaction commits, and the counts are adjusted. [reconcileCounters]
+ * recounts all counters periodically, to correct for changes that were missed, like bulk deletes. Counters that are
+ * not read within the retention are removed.
+ *
+ * Reconciling and updating both lock the rows of the counters they change, so they never interleave.
+ *
+ * Widgets with conditions on the current time or user are always counted from the documents.
+ */
+open class DocumentWidgetCounterService(
+    private val documentWidgetCounterRepository: DocumentWidgetCounterRepository,
+    private val documentWidgetCounterValueRepository: DocumentWidgetCounterValueRepository,
+    private val documentWidgetCounterMatchRepository: DocumentWidgetCounterMatchRepository,
+    private val entityManager: EntityManager,
+    private val queryDialectHelper: QueryDialectHelper,
+    private val objectMapper: ObjectMapper,
+    platformTransactionManager: PlatformTransactionManager,
+    private val retention: Duration = Duration.ofDays(7),
+    database: String = "postgres",
+) {
+    private val transactionTemplate = TransactionTemplate(platformTransactionManager).apply {
+        propagationBehavior = TransactionDefinition.PROPAGATION_REQUIRES_NEW
+    }
+    private val addToValueCountQuery = if ("postgres".equals(database, ignoreCase = true)) {
+        POSTGRES_ADD_TO_VALUE_COUNT
+    } else {
+        MYSQL_ADD_TO_VALUE_COUNT
+    }
+
+    /**
+     * Returns the counts by group value for each definition, or null when any of them isn't maintained (yet). Counters
+     * that don't group have their count under an empty group value.
+     */
+    fun getCounts(definitions: List<DocumentWidgetCounterDefinition>): List<Map<String, Long>>? {
+        if (definitions.any { it.hasDynamicConditions() }) {
+            return null
+        }
+        val keys = definitions.map { key(it) }
+        val counters = documentWidgetCounterRepository.findAllById(keys).associateBy { it.key }
+        val unregistered = definitions.zip(keys).filter { (_, key) -> key !in counters }
+        if (unregistered.isNotEmpty()) {
+            register(unregistered)
+            return null
+        }
+        if (counters.values.any { it.reconciledOn == null }) {
+            return null
+        }
+        touch(counters.values)
+
+        val values = documentWidgetCounterValueRepository.findAllByIdCounterKeyIn(keys)
+            .filter { it.valueCount > 0 }
+            .groupBy({ it.id.counterKey }, { it.id.groupValue to it.valueCount })
+        return keys.map { key -> values[key]?.toMap() ?: mapOf() }
+    }
+
+    @EventListener(DocumentChangedEvent::class)
+    fun handleDocumentChanged(event: DocumentChangedEvent) {
+        documentChanged(event.documentId, event.documentDefinitionName)
+    }
+
+    /**
+     * Re-evaluates the counters for the document after the current transaction commits.
+     */
+    fun documentChanged(documentId: UUID, documentDefinitionName: String) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(mapOf(documentId to documentDefinitionName))
+            return
+        }
+        val changedDocuments = changedDocuments()
+        if (changedDocuments != null) {
+            changedDocuments[documentId] = documentDefinitionName
+            return
+        }
+        TransactionSynchronizationManager.bindResource(this, mutableMapOf(documentId to documentDefinitionName))
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCommit() {
+                changedDocuments()?.let { update(it.toMap()) }
+            }
+
+            override fun afterCompletion(status: Int) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(this@DocumentWidgetCounterService)
+            }
+        })
+    }
+
+    @Scheduled(fixedDelayString = "\${valtimo.dashboard.widget-counters.registration-delay:PT1M}")
+    fun reconcileNewCounters() {
+        documentWidgetCounterRepository.findAllByReconciledOnIsNull().forEach { counter ->
+            reconcile(counter.key, null)
+        }
+    }
+
+    @Scheduled(cron = "\${valtimo.dashboard.widget-counters.reconcile-cron:0 0 3 * * ?}")
+    fun reconcileCounters() {
+        val startedOn = LocalDateTime.now()
+        documentWidgetCounterRepository.findAllByLastReadOnBefore(startedOn - retention).forEach { counter ->
+            delete(counter.key)
+        }
+        documentWidgetCounterRepository.findAll().forEach { counter ->
+            reconcile(counter.key, startedOn)
+        }
+    }
+
+    /**
+     * Recounts the counter from the documents, unless another node did so after reconciledBefore. With a null
+     * reconciledBefore the counter is only counted when it never was.
+     */
+    fun reconcile(counterKey: String, reconciledBefore: LocalDateTime?) {
+        try {
+            transactionTemplate.executeWithoutResult { status ->
+                val counter = documentWidgetCounterRepository.findByKeyForUpdate(counterKey)
+                    ?: return@executeWithoutResult
+                val reconciledOn = counter.reconciledOn
+                if (reconciledOn != null && (reconciledBefore == null || !reconciledOn.isBefore(reconciledBefore))) {
+                    return@executeWithoutResult
+                }
+                val definition = definition(counter)
+                counter.reconciledOn = LocalDateTime.now()
+                documentWidgetCounterMatchRepository.deleteAllByCounterKey(counterKey)
+                documentWidgetCounterValueRepository.deleteAllByCounterKey(counterKey)
+                entityManager.flush()
+                entityManager.clear()
+
+                // the matching documents are read in pages, so a large definition is never loaded at once
+                val groupCounts = mutableMapOf<String, Long>()
+                var lastDocumentId: UUID? = null
+                do {
+                    val matches = findMatches(definition, lastDocumentId)
+                    if (matches.any { (_, groupValue) -> groupValue.length > MAX_GROUP_VALUE_LENGTH }) {
+                        logger.warn { "Not maintaining widget counter $counterKey: group values are too long" }
+                        status.setRollbackOnly()
+                        return@executeWithoutResult
+                    }
+                    matches.forEach { (documentId, groupValue) ->
+                        entityManager.persist(
+                            DocumentWidgetCounterMatch(DocumentWidgetCounterMatchId(counterKey, documentId), groupValue)
+                        )
+                        groupCounts.merge(groupValue, 1L) { count, increment -> count + increment }
+                    }
+                    entityManager.flush()
+                    entityManager.clear()
+                    lastDocumentId = matches.lastOrNull()?.first
+                } while (matches.size == BATCH_SIZE)
+
+                groupCounts.forEach { (groupValue, count) ->
+                    entityManager.persist(
+                        DocumentWidgetCounterValue(DocumentWidgetCounterValueId(counterKey, groupValue), count)
+                    )
+                }
+            }
+        } catch (e: Exception) {
+            logger.error(e) { "Failed to reconcile widget counter $counterKey" }
+        }
+    }
+
+    private fun register(definitions: List<Pair<DocumentWidgetCounterDefinition, String>>) {
+        definitions.forEach { (definition, key) ->
+            try {
+                transactionTemplate.executeWithoutResult {
+                    entityManager.persist(
+                        DocumentWidgetCounter(
+                            key = key,
+                            documentDefinitionName = definition.documentDefinition,
+                            definition = objectMapper.valueToTree(definition),
+                        )
+                    )
+                }
+            } catch (e: Exception) {
+                // another node registered the same counter at the same time
+                logger.debug(e) { "Failed to register widget counter $key" }
+            }
+        }
+    }
+
+    private fun touch(counters: Collection<DocumentWidgetCounter>) {
+        val now = LocalDateTime.now()
+        val stale = counters.filter { it.lastReadOn.isBefore(now - TOUCH_INTERVAL) }
+        if (stale.isNotEmpty()) {
+            transactionTemplate.executeWithoutResult {
+                stale.forEach { documentWidgetCounterRepository.updateLastReadOn(it.key, now) }
+            }
+        }
+    }
+
+    private fun delete(counterKey: String) {
+        transactionTemplate.executeWithoutResult {
+            documentWidgetCounterMatchRepository.deleteAllByCounterKey(counterKey)
+            documentWidgetCounterValueRepository.deleteAllByCounterKey(counterKey)
+            documentWidgetCounterRepository.deleteById(counterKey)
+        }
+    }
+
+    private fun update(documents: Map<UUID, String>) {
+        documents.entries.groupBy({ it.value }, { it.key }).forEach { (documentDefinitionName, documentIds) ->
+            try {
+                transactionTemplate.executeWithoutResult {
+                    val counters = documentWidgetCounterRepository
+                        .findAllByDocumentDefinitionNameForUpdate(documentDefinitionName)
+                        .filter { it.reconciledOn != null }
+                        .map { it to definition(it) }
+                    if (counters.isNotEmpty()) {
+                        documentIds.forEach { documentId -> update(documentId, documentDefinitionName, counters) }
+                    }
+                }
+            } catch (e: Exception) {
+                logger.error(e) { "Failed to update the widget counters of $documentDefinitionName" }
+            }
+        }
+    }
+
+    private fun update(
+        documentId: UUID,
+        documentDefinitionName: String,
+        counters: List<Pair<DocumentWidgetCounter, DocumentWidgetCounterDefinition>>
+    ) {
+        val currentGroupValues = evaluate(documentId, documentDefinitionName, counters)
+        val previousMatches = documentWidgetCounterMatchRepository.findAllByIdDocumentIdAndIdCounterKeyIn(
+            documentId,
+            counters.map { (counter, _) -> counter.key }
+        ).associateBy { it.id.counterKey }
+
+        counters.forEachIndexed { index, (counter, _) ->
+            val previousMatch = previousMatches[counter.key]
+            val groupValue = currentGroupValues[index]
+            if (previousMatch?.groupValue == groupValue) {
+                return@forEachIndexed
+            }
+            if (groupValue != null && groupValue.length > MAX_GROUP_VALUE_LENGTH) {
+                documentWidgetCounterRepository.resetReconciledOn(counter.key)
+                return@forEachIndexed
+            }
+            previousMatch?.let { addToValueCount(counter.key, it.groupValue, -1) }
+            groupValue?.let { addToValueCount(counter.key, it, 1) }
+            when {
+                previousMatch == null -> entityManager.persist(
+                    DocumentWidgetCounterMatch(DocumentWidgetCounterMatchId(counter.key, documentId), groupValue!!)
+                )
+                groupValue == null -> documentWidgetCounterMatchRepository.delete(previousMatch)
+                else -> previousMatch.groupValue = groupValue
+            }
+        }
+    }
+
+    private fun addToValueCount(counterKey: String, groupValue: String, delta: Long) {
+        entityManager.createNativeQuery(addToValueCountQuery)
+            .setParameter("counterKey", counterKey)
+            .setParameter("groupValue", groupValue)
+            .setParameter("delta", delta)
+            .executeUpdate()
+    }
+
+    /**
+     * Finds the group value of the document for every counter in one query, or null when the document doesn't match
+     */
+    private fun evaluate(
+        documentId: UUID,
+        documentDefinitionName: String,
+        counters: List<Pair<DocumentWidgetCounter, DocumentWidgetCounterDefinition>>
+    ): List<String?> {
+        val criteriaBuilder = entityManager.criteriaBuilder
+        val query = criteriaBuilder.createTupleQuery()
+        val root = query.from(JsonSchemaDocument::class.java)
+        val selections: List<Selection<*>> = counters.map { (_, definition) ->
+            val predicate = predicate(definition, root, criteriaBuilder)
+            val groupByPath = definition.groupByPath
+            if (groupByPath == null) {
+                predicate?.let {
+                    criteriaBuilder.selectCase<Int>().`when`(it, 1).otherwise(0)
+                } ?: criteriaBuilder.literal(1)
+            } else {
+                val groupByExpression = pathExpression(String::class.java, groupByPath, root, criteriaBuilder)
+                criteriaBuilder.selectCase<String>()
+                    .`when`(checkNotNull(predicate), groupByExpression)
+                    .otherwise(criteriaBuilder.nullLiteral(String::class.java))
+            }
+        }
+        query
+            .multiselect(selections)
+            .where(
+                criteriaBuilder.equal(root.get<Any>("id").get<UUID>("id"), documentId),
+                criteriaBuilder.equal(root.get<Any>("documentDefinitionId").get<String>("name"), documentDefinitionName)
+            )
+
+        val result = entityManager.createQuery(query).resultList.firstOrNull()
+        return counters.mapIndexed { index, (_, definition) ->
+            when {
+                result == null -> null
+                definition.groupByPath == null -> if ((result.get(index) as Number).toInt() == 1) "" else null
+                else -> result.get(index) as String?
+            }
+        }
+    }
+
+    /**
+     * Finds the next page of documents that match the counter, ordered by id, with their group value
+     */
+    private fun findMatches(definition: DocumentWidgetCounterDefinition, afterDocumentId: UUID?): List<Pair<UUID, String>> {
+        val criteriaBuilder = entityManager.criteriaBuilder
+        val query = criteriaBuilder.createTupleQuery()
+        val root = query.from(JsonSchemaDocument::class.java)
+        val idPath = root.get<Any>("id").get<UUID>("id")
+        val groupByPath = definition.groupByPath
+        query
+            .multiselect(
+                listOfNotNull(
+                    idPath,
+                    groupByPath?.let { pathExpression(String::class.java, it, root, criteriaBuilder) }
+                )
+            )
+            .where(
+                *listOfNotNull(
+                    criteriaBuilder.equal(
+                        root.get<Any>("documentDefinitionId").get<String>("name"),
+                        definition.documentDefinition
+                    ),
+                    predicate(definition, root, criteriaBuilder),
+                    afterDocumentId?.let { criteriaBuilder.greaterThan(idPath, it) }
+                ).toTypedArray()
+            )
+            .orderBy(criteriaBuilder.asc(idPath))
+
+        return entityManager.createQuery(query).setMaxResults(BATCH_SIZE).resultList.map { result ->
+            result.get(0) as UUID to if (groupByPath == null) "" else result.get(1) as String
+        }
+    }
+
+    /**
+     * The same conditions [DocumentWidgetDataSource] queries with. Null when the definition has no conditions.
+     */
+    private fun predicate(
+        definition: DocumentWidgetCounterDefinition,
+        root: Root<JsonSchemaDocument>,
+        criteriaBuilder: CriteriaBuilder
+    ): Predicate? {
+        val conditions = definition.groupByPath?.let { path ->
+            listOf(
+                QueryCondition(path, ExpressionOperator.NOT_EQUAL_TO, "\${null}"),
+                QueryCondition(path, ExpressionOperator.NOT_EQUAL_TO, "null"),
+            )
+        }.orEmpty() + definition.queryConditions
+        if (conditions.isEmpty()) {
+            return null
+        }
+        return criteriaBuilder.and(
+            *conditions.map { it.toPredicate(root, criteriaBuilder, this::pathExpression) }.toTypedArray()
+        )
+    }
+
+    private fun <T> pathExpression(
+        valueClass: Class<T>,
+        path: String,
+        root: Root<*>,
+        criteriaBuilder: CriteriaBuilder
+    ) = documentWidgetPathExpression(queryDialectHelper, valueClass, path, root, criteriaBuilder)
+
+    private fun definition(counter: DocumentWidgetCounter): DocumentWidgetCounterDefinition {
+        return objectMapper.treeToValue(counter.definition, DocumentWidgetCounterDefinition::class.java)
+    }
+
+    private fun key(definition: DocumentWidgetCounterDefinition): String {
+        val digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(definition))
+        return HexFormat.of().formatHex(digest)
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun changedDocuments(): MutableMap<UUID, String>? {
+        return TransactionSynchronizationManager.getResource(this) as MutableMap<UUID, String>?
+    }
+
+    companion object {
+        private val logger = KotlinLogging.logger {}
+        private val TOUCH_INTERVAL = Duration.ofHours(1)
+        private const val MAX_GROUP_VALUE_LENGTH = 512
+        private const val BATCH_SIZE = 1000
+        private const val POSTGRES_ADD_TO_VALUE_COUNT = "INSERT INTO document_widget_counter_value " +
+            "(counter_key, group_value, value_count) VALUES (:counterKey, :groupValue, :delta) " +
+            "ON CONFLICT (counter_key, group_value) " +
+            "DO UPDATE SET value_count = document_widget_counter_value.value_count + EXCLUDED.value_count"
+        private const val MYSQL_ADD_TO_VALUE_COUNT = "INSERT INTO document_widget_counter_value " +
+            "(counter_key, group_value, value_count) VALUES (:counterKey, :groupValue, :delta) " +
+            "ON DUPLICATE KEY UPDATE value_count = value_count + :delta"
+    }
+}
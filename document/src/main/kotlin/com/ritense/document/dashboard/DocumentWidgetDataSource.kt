@@ -18,7 +18,6 @@ package com.ritense.document.dashboard
 
 import com.ritense.document.domain.impl.JsonSchemaDocument
 import com.ritense.document.repository.impl.JsonSchemaDocumentRepository
-import com.ritense.document.repository.impl.specification.JsonSchemaDocumentSpecificationHelper.Companion.byDocumentDefinitionIdName
 import com.ritense.valtimo.contract.dashboard.QueryCondition
 import com.ritense.valtimo.contract.dashboard.WidgetDataSource
 import com.ritense.valtimo.contract.database.QueryDialectHelper
@@ -26,54 +25,119 @@ import com.ritense.valtimo.contract.repository.ExpressionOperator
 import jakarta.persistence.EntityManager
 import jakarta.persistence.criteria.CriteriaBuilder
 import jakarta.persistence.criteria.Expression
-import jakarta.persistence.criteria.Path
 import jakarta.persistence.criteria.Root
 
 class DocumentWidgetDataSource(
     private val documentRepository: JsonSchemaDocumentRepository,
     private val queryDialectHelper: QueryDialectHelper,
-    private val entityManager: EntityManager
+    private val entityManager: EntityManager,
+    private val documentWidgetCounterService: DocumentWidgetCounterService? = null
 ) {
 
     @WidgetDataSource("case-count", "Case count")
     fun getCaseCount(caseCountDataSourceProperties: DocumentCountDataSourceProperties): DocumentCountDataResult {
-        val byCaseSpec = byDocumentDefinitionIdName(caseCountDataSourceProperties.documentDefinition)
-        val spec = byCaseSpec.and { root, _, criteriaBuilder ->
-            criteriaBuilder.and(
-                *caseCountDataSourceProperties.queryConditions?.map {
-                    it.toPredicate(root, criteriaBuilder, this::getPathExpression)
-                }?.toTypedArray() ?: arrayOf()
-            )
-        }
-
-        val count = documentRepository.count(spec)
-        val total = documentRepository.count(byCaseSpec)
+        val (count, total) = countByConditions(
+            caseCountDataSourceProperties.documentDefinition,
+            listOf(caseCountDataSourceProperties.queryConditions ?: listOf(), listOf())
+        )
         return DocumentCountDataResult(count, total)
     }
 
     @WidgetDataSource("case-counts", "Case counts")
     fun getCaseCounts(caseCountsDataSourceProperties: DocumentCountsDataSourceProperties): DocumentCountsDataResult {
-        val items: List<DocumentCountsItem> = caseCountsDataSourceProperties.queryItems.map { queryItem ->
-            val spec = byDocumentDefinitionIdName(caseCountsDataSourceProperties.documentDefinition)
-                .and { root, _, criteriaBuilder ->
-                    criteriaBuilder.and(
-                        *queryItem.queryConditions.map {
-                            it.toPredicate(root, criteriaBuilder, this::getPathExpression)
-                        }.toTypedArray()
-                    )
-                }
+        val counts = countByConditions(
+            caseCountsDataSourceProperties.documentDefinition,
+            caseCountsDataSourceProperties.queryItems.map { it.queryConditions }
+        )
+        val items = caseCountsDataSourceProperties.queryItems.mapIndexed { index, queryItem ->
+            DocumentCountsItem(queryItem.label, counts[index])
+        }
 
-            val count = documentRepository.count(spec)
+        return DocumentCountsDataResult(items)
+    }
 
+    /**
+     * Counts the documents of the definition that match each set of conditions, with a single scan of the documents:
+     * every set of conditions becomes a SUM(CASE WHEN ... THEN 1 ELSE 0 END) column of one query.
+     */
+    private fun countByConditions(
+        documentDefinition: String,
+        conditionSets: List<List<QueryCondition<*>>>
+    ): List<Long> {
+        if (conditionSets.isEmpty()) {
+            return listOf()
+        }
+        documentWidgetCounterService?.getCounts(
+            conditionSets.map { DocumentWidgetCounterDefinition(documentDefinition, it) }
+        )?.let { counts ->
+            return counts.map { it[""] ?: 0L }
+        }
 
-            DocumentCountsItem(queryItem.label, count)
+        val criteriaBuilder: CriteriaBuilder = entityManager.criteriaBuilder
+        val query = criteriaBuilder.createTupleQuery()
+        val root: Root<JsonSchemaDocument> = query.from(JsonSchemaDocument::class.java)
+        val counts: List<Expression<Long>> = conditionSets.map { conditions ->
+            if (conditions.isEmpty()) {
+                criteriaBuilder.count(root)
+            } else {
+                val predicate = criteriaBuilder.and(
+                    *conditions.map {
+                        it.toPredicate(root, criteriaBuilder, this::getPathExpression)
+                    }.toTypedArray()
+                )
+                criteriaBuilder.sum(criteriaBuilder.selectCase<Long>().`when`(predicate, 1L).otherwise(0L))
+            }
         }
 
-        return DocumentCountsDataResult(items)
+        query
+            .multiselect(counts)
+            .where(
+                criteriaBuilder.equal(
+                    root.get<Any>("documentDefinitionId").get<String>("name"),
+                    documentDefinition
+                )
+            )
+
+        val result = entityManager.createQuery(query).singleResult
+        // SUM is null when there are no documents at all
+        return counts.indices.map { (result.get(it) as Number?)?.toLong() ?: 0L }
     }
 
     @WidgetDataSource("case-group-by", "Case group by")
     fun getCaseGroupBy(caseGroupByDataSourceProperties: DocumentGroupByDataSourceProperties): DocumentGroupByDataResult {
+        val resultList = documentWidgetCounterService?.getCounts(
+            listOf(
+                DocumentWidgetCounterDefinition(
+                    caseGroupByDataSourceProperties.documentDefinition,
+                    caseGroupByDataSourceProperties.queryConditions ?: listOf(),
+                    caseGroupByDataSourceProperties.path
+                )
+            )
+        )?.single()?.map { (label, count) ->
+            DocumentGroupByItem(label, count)
+        } ?: queryGroupBy(caseGroupByDataSourceProperties)
+        val result: List<DocumentGroupByItem>;
+
+        if (caseGroupByDataSourceProperties.enum.isNullOrEmpty()) {
+            result = resultList
+        } else {
+            result = resultList.map {
+                val enumValue: String? = caseGroupByDataSourceProperties.enum[it.label]
+                if (enumValue.isNullOrEmpty()) {
+                    it
+                } else {
+                    it.label = enumValue
+                    it
+                }
+            }
+        }
+
+        return DocumentGroupByDataResult(values = result)
+    }
+
+    private fun queryGroupBy(
+        caseGroupByDataSourceProperties: DocumentGroupByDataSourceProperties
+    ): List<DocumentGroupByItem> {
         val criteriaBuilder: CriteriaBuilder = entityManager.criteriaBuilder
         val query = criteriaBuilder.createQuery(DocumentGroupByItem::class.java)
         val root: Root<JsonSchemaDocument> = query.from(JsonSchemaDocument::class.java)
@@ -109,24 +173,7 @@ class DocumentWidgetDataSource(
             )
             .groupBy(groupByExpression)
 
-        val resultList = entityManager.createQuery(query).resultList
-        val result: List<DocumentGroupByItem>;
-
-        if (caseGroupByDataSourceProperties.enum.isNullOrEmpty()) {
-            result = resultList
-        } else {
-            result = resultList.map {
-                val enumValue: String? = caseGroupByDataSourceProperties.enum[it.label]
-                if (enumValue.isNullOrEmpty()) {
-                    it
-                } else {
-                    it.label = enumValue
-                    it
-                }
-            }
-        }
-
-        return DocumentGroupByDataResult(values = result)
+        return entityManager.createQuery(query).resultList
     }
 
     private fun <T> getPathExpression(
@@ -135,32 +182,6 @@ class DocumentWidgetDataSource(
         root: Root<*>,
         criteriaBuilder: CriteriaBuilder
     ): Expression<T> {
-        // Prefix defaults to doc: when no prefix is given
-        val pathPrefix = "${path.substringBefore(":", "doc")}:"
-        val expression = when (pathPrefix) {
-            CASE_PREFIX -> {
-                var expr = root as Path<*>
-                path.substringAfter(CASE_PREFIX).split('.').forEach {
-                    expr = expr.get<Any>(it)
-                }
-                expr.`as`(valueClass)
-            }
-
-            else -> {
-                queryDialectHelper.getJsonValueExpression(
-                    criteriaBuilder,
-                    root.get<Any>("content").get<Any>("content"),
-                    "$." + path.substringAfter(DOC_PREFIX),
-                    valueClass
-                )
-            }
-        }
-
-        return expression;
-    }
-
-    companion object {
-        private const val DOC_PREFIX = "doc:"
-        private const val CASE_PREFIX = "case:"
+        return documentWidgetPathExpression(queryDialectHelper, valueClass, path, root, criteriaBuilder)
     }
 }
\ No newline at end of file
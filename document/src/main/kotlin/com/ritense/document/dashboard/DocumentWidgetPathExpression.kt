@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.dashboard
+
+import com.ritense.valtimo.contract.database.QueryDialectHelper
+import jakarta.persistence.criteria.CriteriaBuilder
+import jakarta.persistence.criteria.Expression
+import jakarta.persistence.criteria.Path
+import jakarta.persistence.criteria.Root
+
+private const val DOC_PREFIX = "doc:"
+private const val CASE_PREFIX = "case:"
+
+/**
+ * Resolves a widget path to an expression: 'case:' paths are properties of the document, and 'doc:' paths (the
+ * default) are JSON paths in the content of the document.
+ */
+internal fun <T> documentWidgetPathExpression(
+    queryDialectHelper: QueryDialectHelper,
+    valueClass: Class<T>,
+    path: String,
+    root: Root<*>,
+    criteriaBuilder: CriteriaBuilder
+): Expression<T> {
+    // Prefix defaults to doc: when no prefix is given
+    val pathPrefix = "${path.substringBefore(":", "doc")}:"
+    val expression = when (pathPrefix) {
+        CASE_PREFIX -> {
+            var expr = root as Path<*>
+            path.substringAfter(CASE_PREFIX).split('.').forEach {
+                expr = expr.get<Any>(it)
+            }
+            expr.`as`(valueClass)
+        }
+
+        else -> {
+            queryDialectHelper.getJsonValueExpression(
+                criteriaBuilder,
+                root.get<Any>("content").get<Any>("content"),
+                "$." + path.substringAfter(DOC_PREFIX),
+                valueClass
+            )
+        }
+    }
+
+    return expression
+}
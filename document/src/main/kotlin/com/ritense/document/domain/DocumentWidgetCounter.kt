@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.domain
+
+import com.fasterxml.jackson.databind.node.ObjectNode
+import io.hypersistence.utils.hibernate.type.json.JsonType
+import jakarta.persistence.Column
+import jakarta.persistence.Entity
+import jakarta.persistence.Id
+import jakarta.persistence.Table
+import org.hibernate.annotations.Type
+import java.time.LocalDateTime
+
+/**
+ * A count of documents that is maintained as documents change, so dashboard widgets don't have to count the documents
+ * on every read. The counts are kept in [DocumentWidgetCounterValue], and the documents that are counted in
+ * [DocumentWidgetCounterMatch].
+ */
+@Entity
+@Table(name = "document_widget_counter")
+class DocumentWidgetCounter(
+    @Id
+    @Column(name = "counter_key", updatable = false, nullable = false)
+    val key: String,
+
+    @Column(name = "document_definition_name", updatable = false, nullable = false)
+    val documentDefinitionName: String,
+
+    @Type(value = JsonType::class)
+    @Column(name = "counter_definition", columnDefinition = "JSON", updatable = false, nullable = false)
+    val definition: ObjectNode,
+
+    /**
+     * When the counts were last recounted from the documents. Null when the counts can't be used yet.
+     */
+    @Column(name = "reconciled_on")
+    var reconciledOn: LocalDateTime? = null,
+
+    @Column(name = "last_read_on", nullable = false)
+    var lastReadOn: LocalDateTime = LocalDateTime.now(),
+)
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.domain
+
+import jakarta.persistence.Column
+import jakarta.persistence.EmbeddedId
+import jakarta.persistence.Entity
+import jakarta.persistence.Table
+
+/**
+ * The number of documents a [DocumentWidgetCounter] counts for one group. Counters that don't group use an empty
+ * group value.
+ */
+@Entity
+@Table(name = "document_widget_counter_value")
+class DocumentWidgetCounterValue(
+    @EmbeddedId
+    val id: DocumentWidgetCounterValueId,
+
+    @Column(name = "value_count", nullable = false)
+    val valueCount: Long,
+)
@@ -17,5 +17,15 @@
 package com.ritense.document.domain.event
 
 import com.ritense.valtimo.web.sse.event.BaseSseEvent
+import com.ritense.valtimo.web.sse.event.SseTopics
+import java.util.UUID
 
-class CaseAssignedEvent : BaseSseEvent("CASE_ASSIGNED")
\ No newline at end of file
+class CaseAssignedEvent(
+    private val documentId: UUID? = null
+) : BaseSseEvent("CASE_ASSIGNED") {
+    override val coalesceKey: Any
+        get() = eventType
+
+    override val topics: Set<String>?
+        get() = documentId?.let { setOf(SseTopics.document(it.toString())) }
+}
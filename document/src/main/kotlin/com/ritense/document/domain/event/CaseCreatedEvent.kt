@@ -18,4 +18,7 @@ package com.ritense.document.domain.event
 
 import com.ritense.valtimo.web.sse.event.BaseSseEvent
 
-class CaseCreatedEvent : BaseSseEvent("CASE_CREATED")
\ No newline at end of file
+class CaseCreatedEvent : BaseSseEvent("CASE_CREATED") {
+    override val coalesceKey: Any
+        get() = eventType
+}
@@ -17,5 +17,15 @@
 package com.ritense.document.domain.event
 
 import com.ritense.valtimo.web.sse.event.BaseSseEvent
+import com.ritense.valtimo.web.sse.event.SseTopics
+import java.util.UUID
 
-class CaseUnassignedEvent : BaseSseEvent("CASE_UNASSIGNED")
\ No newline at end of file
+class CaseUnassignedEvent(
+    private val documentId: UUID? = null
+) : BaseSseEvent("CASE_UNASSIGNED") {
+    override val coalesceKey: Any
+        get() = eventType
+
+    override val topics: Set<String>?
+        get() = documentId?.let { setOf(SseTopics.document(it.toString())) }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.event
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+
+/**
+ * Configures the outbox events that are sent when documents are read.
+ */
+@ConfigurationProperties(prefix = "valtimo.outbox.document")
+data class DocumentReadEventProperties(
+    var viewed: ReadEvent = ReadEvent(),
+    var listed: ReadEvent = ReadEvent(),
+) {
+    data class ReadEvent(
+        var enabled: Boolean = true,
+        var payload: DocumentEventPayload = DocumentEventPayload.FULL,
+        /**
+         * The JSON pointers of the document fields that are sent when the payload is FIELDS. For example: /id or
+         * /content/lastname
+         */
+        var fields: List<String> = emptyList(),
+        /**
+         * The fraction of read events that is sent. 1.0 sends every event, 0.1 sends about one in ten.
+         */
+        var sampleRate: Double = 1.0,
+    )
+}
+
+enum class DocumentEventPayload {
+    /**
+     * Only the id of each document.
+     */
+    ID,
+
+    /**
+     * Only the configured fields of each document.
+     */
+    FIELDS,
+
+    /**
+     * The whole document, including content, related files and relations.
+     */
+    FULL
+}
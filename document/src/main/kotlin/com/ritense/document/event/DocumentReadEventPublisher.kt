@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.event
+
+import com.fasterxml.jackson.core.JsonPointer
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember
+import com.fasterxml.jackson.databind.node.MissingNode
+import com.fasterxml.jackson.databind.node.NullNode
+import com.fasterxml.jackson.databind.node.ObjectNode
+import com.ritense.document.domain.impl.JsonSchemaDocument
+import com.ritense.outbox.OutboxService
+import java.util.concurrent.ThreadLocalRandom
+
+/**
+ * Sends the DocumentViewed and DocumentsListed outbox events, using the payload and sampling that is configured in
+ * [DocumentReadEventProperties].
+ */
+open class DocumentReadEventPublisher(
+    private val outboxService: OutboxService,
+    private val objectMapper: ObjectMapper,
+    private val properties: DocumentReadEventProperties = DocumentReadEventProperties(),
+) {
+    private val viewedFields = properties.viewed.fields.filter { it.isNotBlank() }.map { JsonPointer.compile(it) }
+    private val listedFields = properties.listed.fields.filter { it.isNotBlank() }.map { JsonPointer.compile(it) }
+
+    open fun documentViewed(document: JsonSchemaDocument) {
+        if (shouldSend(properties.viewed)) {
+            outboxService.send {
+                DocumentViewed(
+                    document.id().toString(),
+                    toPayload(document, properties.viewed.payload, viewedFields)
+                )
+            }
+        }
+    }
+
+    open fun documentsListed(documents: List<JsonSchemaDocument>) {
+        if (shouldSend(properties.listed)) {
+            outboxService.send {
+                if (properties.listed.payload == DocumentEventPayload.FULL) {
+                    DocumentsListed(objectMapper.valueToTree(documents))
+                } else {
+                    val payload = objectMapper.createArrayNode()
+                    documents.forEach { payload.add(toPayload(it, properties.listed.payload, listedFields)) }
+                    DocumentsListed(payload)
+                }
+            }
+        }
+    }
+
+    private fun shouldSend(readEvent: DocumentReadEventProperties.ReadEvent): Boolean {
+        return readEvent.enabled
+            && (readEvent.sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < readEvent.sampleRate)
+    }
+
+    private fun toPayload(
+        document: JsonSchemaDocument,
+        payload: DocumentEventPayload,
+        fields: List<JsonPointer>
+    ): ObjectNode {
+        return when (payload) {
+            DocumentEventPayload.ID -> objectMapper.createObjectNode().put("id", document.id().toString())
+            DocumentEventPayload.FIELDS -> project(document, fields)
+            DocumentEventPayload.FULL -> objectMapper.valueToTree(document)
+        }
+    }
+
+    /**
+     * Only the top-level document properties that the fields point into are serialized, each at most once.
+     */
+    private fun project(document: JsonSchemaDocument, fields: List<JsonPointer>): ObjectNode {
+        val result = objectMapper.createObjectNode()
+        val propertyNodes = mutableMapOf<String, JsonNode>()
+        fields.forEach { field ->
+            val propertyNode = propertyNodes.getOrPut(field.matchingProperty) {
+                propertyNode(document, field.matchingProperty)
+            }
+            val value = propertyNode.at(field.tail())
+            if (!value.isMissingNode) {
+                result.withObject(field.head()).set<JsonNode>(field.last().matchingProperty, value)
+            }
+        }
+        return result
+    }
+
+    private fun propertyNode(document: JsonSchemaDocument, name: String): JsonNode {
+        if (name == CONTENT) {
+            return document.content().asJson()
+        }
+        val accessor = documentProperties[name] ?: return MissingNode.getInstance()
+        return objectMapper.valueToTree<JsonNode>(accessor.getValue(document)) ?: NullNode.instance
+    }
+
+    private val documentProperties: Map<String, AnnotatedMember> by lazy {
+        val config = objectMapper.serializationConfig
+        config.introspect(objectMapper.constructType(JsonSchemaDocument::class.java))
+            .findProperties()
+            .filter { it.couldSerialize() }
+            .associate { property ->
+                property.name to property.accessor.apply { fixAccess(config.canOverrideAccessModifiers()) }
+            }
+    }
+
+    companion object {
+        private const val CONTENT = "content"
+    }
+}
@@ -36,13 +36,13 @@ class DocumentEventListener(
     }
 
     @EventListener(DocumentUnassignedEvent::class)
-    fun handleDocumentUnassignedEvent() {
-        subscriptionService.notifySubscribers(CaseUnassignedEvent())
+    fun handleDocumentUnassignedEvent(event: DocumentUnassignedEvent) {
+        subscriptionService.notifySubscribers(CaseUnassignedEvent(event.documentId))
     }
 
     @EventListener(DocumentAssigneeChangedEvent::class)
-    fun handleDocumentAssignedEvent() {
-        subscriptionService.notifySubscribers(CaseAssignedEvent())
+    fun handleDocumentAssignedEvent(event: DocumentAssigneeChangedEvent) {
+        subscriptionService.notifySubscribers(CaseAssignedEvent(event.documentId))
     }
 
 }
\ No newline at end of file
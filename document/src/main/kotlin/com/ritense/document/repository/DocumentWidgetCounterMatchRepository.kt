@@ -0,0 +1,40 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.repository
+
+import com.ritense.document.domain.DocumentWidgetCounterMatch
+import com.ritense.document.domain.DocumentWidgetCounterMatchId
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+import java.util.UUID
+
+interface DocumentWidgetCounterMatchRepository :
+    JpaRepository<DocumentWidgetCounterMatch, DocumentWidgetCounterMatchId> {
+
+    fun findAllByIdCounterKey(counterKey: String): List<DocumentWidgetCounterMatch>
+
+    fun findAllByIdDocumentIdAndIdCounterKeyIn(
+        documentId: UUID,
+        counterKeys: Collection<String>
+    ): List<DocumentWidgetCounterMatch>
+
+    @Modifying
+    @Query("DELETE FROM DocumentWidgetCounterMatch dwcm WHERE dwcm.id.counterKey = :counterKey")
+    fun deleteAllByCounterKey(@Param("counterKey") counterKey: String): Int
+}
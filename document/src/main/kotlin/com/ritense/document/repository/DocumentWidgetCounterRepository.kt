@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.repository
+
+import com.ritense.document.domain.DocumentWidgetCounter
+import jakarta.persistence.LockModeType
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Lock
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+import java.time.LocalDateTime
+
+interface DocumentWidgetCounterRepository : JpaRepository<DocumentWidgetCounter, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(
+        "SELECT dwc FROM DocumentWidgetCounter dwc " +
+            "WHERE dwc.documentDefinitionName = :documentDefinitionName ORDER BY dwc.key"
+    )
+    fun findAllByDocumentDefinitionNameForUpdate(
+        @Param("documentDefinitionName") documentDefinitionName: String
+    ): List<DocumentWidgetCounter>
+
+    fun findAllByReconciledOnIsNull(): List<DocumentWidgetCounter>
+
+    fun findAllByLastReadOnBefore(lastReadOn: LocalDateTime): List<DocumentWidgetCounter>
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT dwc FROM DocumentWidgetCounter dwc WHERE dwc.key = :key")
+    fun findByKeyForUpdate(@Param("key") key: String): DocumentWidgetCounter?
+
+    @Modifying
+    @Query("UPDATE DocumentWidgetCounter dwc SET dwc.lastReadOn = :lastReadOn WHERE dwc.key = :key")
+    fun updateLastReadOn(@Param("key") key: String, @Param("lastReadOn") lastReadOn: LocalDateTime): Int
+
+    @Modifying
+    @Query("UPDATE DocumentWidgetCounter dwc SET dwc.reconciledOn = NULL WHERE dwc.key = :key")
+    fun resetReconciledOn(@Param("key") key: String): Int
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.repository
+
+import com.ritense.document.domain.DocumentWidgetCounterValue
+import com.ritense.document.domain.DocumentWidgetCounterValueId
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Modifying
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.query.Param
+
+interface DocumentWidgetCounterValueRepository :
+    JpaRepository<DocumentWidgetCounterValue, DocumentWidgetCounterValueId> {
+
+    fun findAllByIdCounterKeyIn(counterKeys: Collection<String>): List<DocumentWidgetCounterValue>
+
+    @Modifying
+    @Query("DELETE FROM DocumentWidgetCounterValue dwcv WHERE dwcv.id.counterKey = :counterKey")
+    fun deleteAllByCounterKey(@Param("counterKey") counterKey: String): Int
+}
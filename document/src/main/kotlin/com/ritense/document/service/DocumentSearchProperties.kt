@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.service
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+
+/**
+ * Configures how the document search calculates the total number of results of a page.
+ */
+@ConfigurationProperties(prefix = "valtimo.document.search")
+data class DocumentSearchProperties(
+    var totalCount: TotalCountMode = TotalCountMode.WINDOW,
+    /**
+     * The names of the document definitions for which no exact total is calculated, whatever the total-count mode is.
+     * Meant for definitions with so many documents that counting them costs more than the page itself.
+     */
+    var skipTotalCountFor: Set<String> = emptySet(),
+) {
+    fun getTotalCountMode(documentDefinitionName: String?): TotalCountMode {
+        return if (documentDefinitionName != null && skipTotalCountFor.contains(documentDefinitionName)) {
+            TotalCountMode.NONE
+        } else {
+            totalCount
+        }
+    }
+
+    enum class TotalCountMode {
+        /**
+         * Runs a separate count query with the same filters after the page has been fetched.
+         */
+        COUNT_QUERY,
+
+        /**
+         * Fetches the total together with the page, using COUNT(*) OVER(). Only falls back to a separate count query
+         * when a page after the last result is requested.
+         */
+        WINDOW,
+
+        /**
+         * Does not calculate an exact total. One extra row is fetched to find out whether there is a next page, and the
+         * total of the page is the number of results up to and including that row.
+         */
+        NONE
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.domain.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.ritense.document.BaseTest;
+import com.ritense.document.domain.impl.event.JsonSchemaDocumentDefinitionDeployedEvent;
+import com.ritense.document.domain.impl.listener.CompiledJsonSchemaCacheEvictionListener;
+import com.ritense.valtimo.contract.event.UndeployDocumentDefinitionEvent;
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class CompiledJsonSchemaCacheTest extends BaseTest {
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final CompiledJsonSchemaCache cache = new CompiledJsonSchemaCache(cacheManager);
+    private final CompiledJsonSchemaCacheEvictionListener listener = new CompiledJsonSchemaCacheEvictionListener(cache);
+
+    @Test
+    void shouldReuseCompiledSchemaForSameDefinition() {
+        final var definition = definition();
+
+        final var first = cache.get(definition.id(), definition.getSchema());
+        final var second = cache.get(definition.id(), JsonSchema.fromResourceUri(path("house")));
+
+        assertThat(second).isSameAs(first);
+        assertThat(size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRecompileWhenSchemaOfSameDefinitionIdChanged() {
+        final var id = JsonSchemaDocumentDefinitionId.existingId("house", 1);
+        final var original = cache.get(id, JsonSchema.fromResourceUri(path("house")));
+
+        final var changed = cache.get(
+            id,
+            JsonSchema.fromResourceUri(URI.create("config/document/definition/allows-all.schema.json"))
+        );
+
+        assertThat(changed).isNotSameAs(original);
+    }
+
+    @Test
+    void shouldEvictOnDeployAndUndeploy() {
+        final var definition = definition();
+        final var otherVersion = JsonSchemaDocumentDefinitionId.existingId("house", 2);
+        cache.get(definition.id(), definition.getSchema());
+        cache.get(otherVersion, definition.getSchema());
+
+        listener.handleDocumentDefinitionDeployedEvent(new JsonSchemaDocumentDefinitionDeployedEvent(definition));
+        assertThat(size()).isEqualTo(1);
+
+        listener.handleUndeployDocumentDefinitionEvent(new UndeployDocumentDefinitionEvent("house"));
+        assertThat(size()).isZero();
+    }
+
+    @Test
+    void shouldValidateJacksonContentWithCachedSchema() {
+        final var definition = definition();
+
+        final var valid = definition.validate(new JsonDocumentContent("{\"street\": \"Funenparkweg\", \"housenumber\": 1}"));
+        final var invalid = definition.validate(new JsonDocumentContent("{\"housenumber\": -1, \"unknown\": null}"));
+
+        assertThat(valid.passedValidation()).isTrue();
+        assertThat(valid.content().asJson().get("housenumber").intValue()).isEqualTo(1);
+        assertThat(invalid.validationErrors()).hasSize(2);
+    }
+
+    @Test
+    void shouldKeepOriginalContentWhenSchemaHasNoDefaults() {
+        final var definition = definition();
+        final var content = new JsonDocumentContent("{\"street\": \"Funenparkweg\", \"housenumber\": 1}");
+
+        final var result = definition.validate(content);
+
+        assertThat(result.content()).isSameAs(content);
+    }
+
+    @Test
+    void shouldApplySchemaDefaults() {
+        final var schema = JsonSchema.fromString(
+            "{\"$id\": \"defaults.schema\", \"$schema\": \"http://json-schema.org/draft-07/schema#\", "
+                + "\"type\": \"object\", \"properties\": {\"country\": {\"type\": \"string\", \"default\": \"NL\"}}}"
+        );
+        final var definition = new JsonSchemaDocumentDefinition(JsonSchemaDocumentDefinitionId.newId("defaults"), schema);
+
+        final var result = definition.validate(new JsonDocumentContent("{}"));
+
+        assertThat(result.content().asJson().get("country").textValue()).isEqualTo("NL");
+    }
+
+    @Test
+    void shouldCompareSchemasWithoutCompilingThem() {
+        final var schema = JsonSchema.fromResourceUri(path("house"));
+        final var same = JsonSchema.fromResourceUri(path("house"));
+        final var other = JsonSchema.fromResourceUri(path("person"));
+
+        assertThat(schema).isEqualTo(same).hasSameHashCodeAs(same);
+        assertThat(schema).isNotEqualTo(other);
+    }
+
+    private int size() {
+        return ((ConcurrentMapCache) cacheManager.getCache(CompiledJsonSchemaCache.CACHE_NAME)).getNativeCache().size();
+    }
+
+}
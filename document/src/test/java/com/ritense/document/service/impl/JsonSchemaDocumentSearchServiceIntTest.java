@@ -27,7 +27,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -35,6 +37,8 @@ import static org.mockito.Mockito.when;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ritense.authorization.AuthorizationService;
+import com.ritense.authorization.specification.AuthorizationSpecification;
 import com.ritense.document.BaseIntegrationTest;
 import com.ritense.document.domain.Document;
 import com.ritense.document.domain.impl.JsonDocumentContent;
@@ -45,16 +49,26 @@ import com.ritense.document.domain.search.AdvancedSearchRequest;
 import com.ritense.document.domain.search.AssigneeFilter;
 import com.ritense.document.domain.search.SearchOperator;
 import com.ritense.document.domain.search.SearchWithConfigRequest;
+import com.ritense.document.event.DocumentReadEventPublisher;
 import com.ritense.document.event.DocumentsListed;
+import com.ritense.document.service.DocumentSearchProperties;
+import com.ritense.document.service.DocumentSearchProperties.TotalCountMode;
 import com.ritense.document.service.result.CreateDocumentResult;
 import com.ritense.outbox.domain.BaseEvent;
 import com.ritense.valtimo.contract.authentication.model.ValtimoUserBuilder;
+import com.ritense.valtimo.contract.database.QueryDialectHelper;
+import com.ritense.valtimo.contract.repository.InvalidKeysetException;
 import com.ritense.valtimo.contract.utils.RequestHelper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import jakarta.validation.ValidationException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -83,6 +97,18 @@ class JsonSchemaDocumentSearchServiceIntTest extends BaseIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QueryDialectHelper queryDialectHelper;
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
+    @Autowired
+    private DocumentReadEventPublisher documentReadEventPublisher;
+
     private JsonSchemaDocumentDefinition definition;
     private CreateDocumentResult originalDocument;
 
@@ -404,6 +430,144 @@ class JsonSchemaDocumentSearchServiceIntTest extends BaseIntegrationTest {
         assertThat(page.getContent().get(1).content().asJson().findPath("street").asText()).isEqualTo("Czaar Peterstraat 4");
     }
 
+    @Test
+    @WithMockUser(username = USERNAME, authorities = FULL_ACCESS_ROLE)
+    void searchShouldReturnSameTotalsForEveryTotalCountMode() {
+        createDocument("{\"street\": \"Czaar Peterstraat 1\"}");
+        createDocument("{\"street\": \"Czaar Peterstraat 2\"}");
+        createDocument("{\"street\": \"Czaar Peterstraat 3\"}");
+
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setDocumentDefinitionName(definition.id().name());
+        searchRequest.setOtherFilters(List.of(new SearchCriteria("$.street", "Czaar Peterstraat")));
+        var pageable = PageRequest.of(0, 2, Sort.by(Direction.ASC, "$.street"));
+
+        var window = searchService(new DocumentSearchProperties(TotalCountMode.WINDOW, Set.of()))
+            .search(searchRequest, pageable);
+        var countQuery = searchService(new DocumentSearchProperties(TotalCountMode.COUNT_QUERY, Set.of()))
+            .search(searchRequest, pageable);
+
+        assertThat(window.getTotalElements()).isEqualTo(3);
+        assertThat(countQuery.getTotalElements()).isEqualTo(3);
+        assertThat(window.getContent()).isEqualTo(countQuery.getContent());
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME, authorities = FULL_ACCESS_ROLE)
+    @SuppressWarnings("unchecked")
+    void searchShouldCountDistinctDocumentsWhenJoinedRowsRepeatDocuments() {
+        createDocument("{\"street\": \"Czaar Peterstraat 1\"}");
+        createDocument("{\"street\": \"Czaar Peterstraat 2\"}");
+        createDocument("{\"street\": \"Czaar Peterstraat 3\"}");
+
+        // Joins every document to all documents of its definition, without grouping, so each document repeats
+        AuthorizationSpecification<JsonSchemaDocument> specification = mock(AuthorizationSpecification.class);
+        when(specification.toPredicate(
+            Mockito.<Root<JsonSchemaDocument>>any(),
+            Mockito.<CriteriaQuery<?>>any(),
+            Mockito.<CriteriaBuilder>any()
+        )).thenAnswer(invocation -> {
+            Root<JsonSchemaDocument> root = invocation.getArgument(0);
+            CriteriaQuery<?> query = invocation.getArgument(1);
+            CriteriaBuilder cb = invocation.getArgument(2);
+            Root<JsonSchemaDocument> other = query.from(JsonSchemaDocument.class);
+            return cb.equal(
+                other.get("documentDefinitionId").get("name"),
+                root.get("documentDefinitionId").get("name")
+            );
+        });
+        AuthorizationService joiningAuthorizationService = mock(AuthorizationService.class);
+        when(joiningAuthorizationService.getAuthorizationSpecification(any(), any()))
+            .thenReturn((AuthorizationSpecification) specification);
+
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setDocumentDefinitionName(definition.id().name());
+        searchRequest.setOtherFilters(List.of(new SearchCriteria("$.street", "Czaar Peterstraat")));
+        var pageable = PageRequest.of(0, 2, Sort.by(Direction.ASC, "$.street"));
+
+        var page = searchService(new DocumentSearchProperties(TotalCountMode.WINDOW, Set.of()), joiningAuthorizationService)
+            .search(searchRequest, pageable);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).hasSize(2).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME, authorities = FULL_ACCESS_ROLE)
+    void searchShouldCountWhenPageIsAfterLastResult() {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setDocumentDefinitionName(definition.id().name());
+
+        final Page<? extends Document> page = documentSearchService.search(searchRequest, PageRequest.of(10, 2));
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME, authorities = FULL_ACCESS_ROLE)
+    void searchShouldOnlyReportNextPageWhenTotalCountIsSkipped() {
+        createDocument("{\"street\": \"Czaar Peterstraat 1\"}");
+        createDocument("{\"street\": \"Czaar Peterstraat 2\"}");
+        createDocument("{\"street\": \"Czaar Peterstraat 3\"}");
+
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setDocumentDefinitionName(definition.id().name());
+        searchRequest.setOtherFilters(List.of(new SearchCriteria("$.street", "Czaar Peterstraat")));
+        var searchService = searchService(
+            new DocumentSearchProperties(TotalCountMode.WINDOW, Set.of(definition.id().name()))
+        );
+
+        var firstPage = searchService.search(searchRequest, PageRequest.of(0, 1));
+        var lastPage = searchService.search(searchRequest, PageRequest.of(2, 1));
+
+        assertThat(firstPage.getContent()).hasSize(1);
+        assertThat(firstPage.getTotalElements()).isEqualTo(2);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(lastPage.getContent()).hasSize(1);
+        assertThat(lastPage.getTotalElements()).isEqualTo(3);
+        assertThat(lastPage.hasNext()).isFalse();
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME, authorities = FULL_ACCESS_ROLE)
+    void scrollShouldReturnAllDocumentsInKeysetOrder() {
+        createDocument("{\"street\": \"Czaar Peterstraat 1\"}");
+        createDocument("{\"street\": \"Czaar Peterstraat 2\"}");
+        createDocument("{\"street\": \"Czaar Peterstraat 3\"}");
+        var sort = Sort.by(Direction.ASC, "sequence");
+        var expected = documentSearchService.search(definition.id().name(), new SearchWithConfigRequest(), PageRequest.of(0, 10, sort))
+            .getContent();
+
+        var first = documentSearchService.scroll(definition.id().name(), new SearchWithConfigRequest(), sort, 2, null);
+        var second = documentSearchService.scroll(definition.id().name(), new SearchWithConfigRequest(), sort, 2, first.getNext());
+        var third = documentSearchService.scroll(definition.id().name(), new SearchWithConfigRequest(), sort, 2, second.getNext());
+
+        var scrolled = Stream.of(first, second, third)
+            .flatMap(page -> page.getContent().stream())
+            .toList();
+        assertThat(expected).hasSize(6);
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(second.getContent()).hasSize(2);
+        assertThat(scrolled).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(scrolled).extracting(Document::sequence).isSorted();
+        assertThat(third.getNext()).isNull();
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME, authorities = FULL_ACCESS_ROLE)
+    void scrollShouldRejectSortOnNullableProperty() {
+        assertThrows(InvalidKeysetException.class, () ->
+            documentSearchService.scroll(
+                definition.id().name(),
+                new SearchWithConfigRequest(),
+                Sort.by(Direction.ASC, "$.street"),
+                2,
+                null
+            )
+        );
+    }
+
     @Test
     @WithMockUser(username = USERNAME, authorities = FULL_ACCESS_ROLE)
     void searchShouldOrderAllDocumentsByContentProperty() {
@@ -1326,4 +1490,23 @@ class JsonSchemaDocumentSearchServiceIntTest extends BaseIntegrationTest {
             )
         );
     }
+
+    private JsonSchemaDocumentSearchService searchService(DocumentSearchProperties documentSearchProperties) {
+        return searchService(documentSearchProperties, authorizationService);
+    }
+
+    private JsonSchemaDocumentSearchService searchService(
+        DocumentSearchProperties documentSearchProperties,
+        AuthorizationService authorizationService
+    ) {
+        return new JsonSchemaDocumentSearchService(
+            entityManager,
+            queryDialectHelper,
+            searchFieldService,
+            userManagementService,
+            authorizationService,
+            documentReadEventPublisher,
+            documentSearchProperties
+        );
+    }
 }
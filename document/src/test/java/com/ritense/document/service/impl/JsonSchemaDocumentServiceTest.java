@@ -20,6 +20,7 @@ import static com.ritense.valtimo.contract.authentication.AuthoritiesConstants.U
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
@@ -29,6 +30,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ritense.authorization.AuthorizationService;
+import com.ritense.authorization.request.EntityAuthorizationRequest;
 import com.ritense.document.BaseTest;
 import com.ritense.document.domain.impl.JsonDocumentContent;
 import com.ritense.document.domain.impl.JsonSchemaDocument;
@@ -106,6 +108,24 @@ class JsonSchemaDocumentServiceTest extends BaseTest {
         jsonSchemaDocument = createDocument(definitionOf("person"), content).resultingDocument().orElseThrow();
     }
 
+    @Test
+    void shouldCheckPermissionOnceForAllDocuments() {
+        final var content = new JsonDocumentContent("{\"firstname\": \"otherName\"}");
+        final var otherDocument = createDocument(definitionOf("person"), content).resultingDocument().orElseThrow();
+        when(documentRepository.findAllById(any())).thenReturn(List.of(jsonSchemaDocument, otherDocument));
+
+        final var documents = jsonSchemaDocumentService.getDocuments(List.of(
+            jsonSchemaDocument.id().toString(),
+            otherDocument.id().toString()
+        ));
+
+        assertEquals(2, documents.size());
+        final ArgumentCaptor<EntityAuthorizationRequest<JsonSchemaDocument>> captor =
+            ArgumentCaptor.forClass(EntityAuthorizationRequest.class);
+        verify(authorizationService, times(1)).requirePermission(captor.capture());
+        assertEquals(List.of(jsonSchemaDocument, otherDocument), captor.getValue().getEntities());
+    }
+
     @Test
     void shouldCreateDocument() {
         final var content = new JsonDocumentContent("{\"addresses\" : [{\"streetName\" : \"Funenpark\"}]}");
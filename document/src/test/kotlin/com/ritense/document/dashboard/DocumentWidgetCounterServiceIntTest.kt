@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.dashboard
+
+import com.ritense.authorization.AuthorizationContext.Companion.runWithoutAuthorization
+import com.ritense.document.BaseIntegrationTest
+import com.ritense.document.domain.impl.JsonDocumentContent
+import com.ritense.document.domain.impl.JsonSchemaDocument
+import com.ritense.document.domain.impl.JsonSchemaDocumentDefinition
+import com.ritense.document.domain.impl.request.NewDocumentRequest
+import com.ritense.document.repository.DocumentWidgetCounterMatchRepository
+import com.ritense.document.repository.DocumentWidgetCounterRepository
+import com.ritense.document.repository.DocumentWidgetCounterValueRepository
+import com.ritense.valtimo.contract.dashboard.QueryCondition
+import com.ritense.valtimo.contract.repository.ExpressionOperator
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.TestPropertySource
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+@TestPropertySource(properties = ["valtimo.dashboard.widget-counters.enabled=true"])
+class DocumentWidgetCounterServiceIntTest @Autowired constructor(
+    private val documentWidgetDataSource: DocumentWidgetDataSource,
+    private val documentWidgetCounterService: DocumentWidgetCounterService,
+    private val documentWidgetCounterRepository: DocumentWidgetCounterRepository,
+    private val documentWidgetCounterValueRepository: DocumentWidgetCounterValueRepository,
+    private val documentWidgetCounterMatchRepository: DocumentWidgetCounterMatchRepository,
+) : BaseIntegrationTest() {
+
+    @BeforeEach
+    fun setup() {
+        documentRepository.deleteAll()
+        documentWidgetCounterMatchRepository.deleteAll()
+        documentWidgetCounterValueRepository.deleteAll()
+        documentWidgetCounterRepository.deleteAll()
+    }
+
+    @Test
+    fun `should count from documents until the counter is reconciled`() {
+        val definition = definition()
+        createDocument(definition, SESAME_STREET)
+        createDocument(definition)
+
+        val result = documentWidgetDataSource.getCaseCount(countProperties(definition))
+
+        assertThat(result.value).isEqualTo(1)
+        assertThat(result.total).isEqualTo(2)
+        assertThat(documentWidgetCounterRepository.findAll()).hasSize(2)
+        assertThat(documentWidgetCounterRepository.findAll()).allMatch { it.reconciledOn == null }
+    }
+
+    @Test
+    fun `should maintain counts when documents change`() {
+        val definition = definition()
+        createDocument(definition, SESAME_STREET)
+        val document = createDocument(definition, SESAME_STREET)
+        createDocument(definition)
+        documentWidgetDataSource.getCaseCount(countProperties(definition))
+        documentWidgetCounterService.reconcileNewCounters()
+
+        createDocument(definition, SESAME_STREET)
+        createDocument(definition)
+        runWithoutAuthorization { documentService.deleteDocument(document.id()) }
+
+        val result = documentWidgetDataSource.getCaseCount(countProperties(definition))
+        assertThat(result.value).isEqualTo(2)
+        assertThat(result.total).isEqualTo(4)
+        assertThat(documentWidgetCounterValueRepository.findAll().map { it.valueCount })
+            .containsExactlyInAnyOrder(2, 4)
+    }
+
+    @Test
+    fun `should maintain group by counts when documents change`() {
+        val definition = definition()
+        createDocument(definition, SESAME_STREET)
+        createDocument(definition)
+        val properties = DocumentGroupByDataSourceProperties(definition.id().name(), "doc:street", null, null)
+        documentWidgetDataSource.getCaseGroupBy(properties)
+        documentWidgetCounterService.reconcileNewCounters()
+
+        createDocument(definition, SESAME_STREET)
+
+        val result = documentWidgetDataSource.getCaseGroupBy(properties)
+        assertThat(result.values).containsExactlyInAnyOrder(
+            DocumentGroupByItem(SESAME_STREET, 2),
+            DocumentGroupByItem("Funenpark", 1)
+        )
+    }
+
+    @Test
+    fun `should maintain counts when documents change concurrently`() {
+        val definition = definition()
+        createDocument(definition, SESAME_STREET)
+        val properties = DocumentGroupByDataSourceProperties(definition.id().name(), "doc:street", null, null)
+        documentWidgetDataSource.getCaseGroupBy(properties)
+        documentWidgetCounterService.reconcileNewCounters()
+
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            executor.invokeAll(List(20) { index ->
+                Callable { createDocument(definition, if (index % 2 == 0) SESAME_STREET else "Main Street") }
+            }).forEach { it.get(1, TimeUnit.MINUTES) }
+        } finally {
+            executor.shutdownNow()
+        }
+
+        val result = documentWidgetDataSource.getCaseGroupBy(properties)
+        assertThat(result.values).containsExactlyInAnyOrder(
+            DocumentGroupByItem(SESAME_STREET, 11),
+            DocumentGroupByItem("Main Street", 10)
+        )
+    }
+
+    @Test
+    fun `should not maintain counters with conditions on the current time`() {
+        val definition = definition()
+        createDocument(definition)
+        val properties = DocumentCountDataSourceProperties(
+            definition.id().name(),
+            listOf(
+                QueryCondition(
+                    "case:createdOn",
+                    ExpressionOperator.LESS_THAN,
+                    "\${localDateTimeNow.plusDays(1)}"
+                )
+            )
+        )
+
+        val result = documentWidgetDataSource.getCaseCount(properties)
+
+        assertThat(result.value).isEqualTo(1)
+        assertThat(documentWidgetCounterRepository.findAll()).isEmpty()
+    }
+
+    private fun countProperties(definition: JsonSchemaDocumentDefinition) = DocumentCountDataSourceProperties(
+        definition.id().name(),
+        listOf(QueryCondition("doc:street", ExpressionOperator.EQUAL_TO, SESAME_STREET))
+    )
+
+    private fun createDocument(
+        documentDefinition: JsonSchemaDocumentDefinition,
+        street: String = "Funenpark",
+    ): JsonSchemaDocument {
+        val content = JsonDocumentContent("""{"street": "$street", "housenumber": 1}""")
+        return runWithoutAuthorization {
+            documentService.createDocument(
+                NewDocumentRequest(
+                    documentDefinition.id().name(),
+                    content.asJson()
+                )
+            )
+        }.resultingDocument().orElseThrow() as JsonSchemaDocument
+    }
+
+    companion object {
+        private const val SESAME_STREET = "Sesame Street"
+    }
+}
@@ -264,6 +264,60 @@ class DocumentWidgetDataSourceIntTest @Autowired constructor(
         assertThat(result.values[2].value).isEqualTo(5)
     }
 
+    @Test
+    fun `should combine conditional and unconditional case counts in one query`() {
+        documentRepository.deleteAll()
+        val definition = definition()
+        repeat(2) {
+            createDocument(definition, "Sesame Street")
+        }
+        createDocument(definition, "Main Street")
+
+        val properties = DocumentCountsDataSourceProperties(
+            definition.id().name(),
+            queryItems = listOf(
+                DocumentCountsQueryItem("All", listOf()),
+                DocumentCountsQueryItem(
+                    "Sesame Street",
+                    listOf(QueryCondition("doc:street", ExpressionOperator.EQUAL_TO, "Sesame Street"))
+                ),
+                DocumentCountsQueryItem(
+                    "Nowhere",
+                    listOf(QueryCondition("doc:street", ExpressionOperator.EQUAL_TO, "Nowhere"))
+                )
+            )
+        )
+
+        val result = documentWidgetDataSource.getCaseCounts(properties)
+
+        assertThat(result.values.map { it.label to it.value }).containsExactly(
+            "All" to 3L,
+            "Sesame Street" to 2L,
+            "Nowhere" to 0L
+        )
+    }
+
+    @Test
+    fun `should count zero for every condition when there are no documents`() {
+        documentRepository.deleteAll()
+        val definition = definition()
+
+        val properties = DocumentCountsDataSourceProperties(
+            definition.id().name(),
+            queryItems = listOf(
+                DocumentCountsQueryItem("All", listOf()),
+                DocumentCountsQueryItem(
+                    "Sesame Street",
+                    listOf(QueryCondition("doc:street", ExpressionOperator.EQUAL_TO, "Sesame Street"))
+                )
+            )
+        )
+
+        val result = documentWidgetDataSource.getCaseCounts(properties)
+
+        assertThat(result.values.map { it.value }).containsExactly(0L, 0L)
+    }
+
     @Test
     fun `should support by local date time in criteria`() {
         documentRepository.deleteAll()
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.document.event
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.ritense.document.BaseTest
+import com.ritense.document.domain.impl.JsonDocumentContent
+import com.ritense.outbox.OutboxService
+import com.ritense.outbox.domain.BaseEvent
+import com.ritense.valtimo.contract.json.MapperSingleton
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
+import java.util.function.Supplier
+
+class DocumentReadEventPublisherTest : BaseTest() {
+
+    lateinit var outboxService: OutboxService
+
+    @BeforeEach
+    fun beforeEach() {
+        outboxService = mock()
+    }
+
+    @Test
+    fun `should send full document when payload is FULL`() {
+        val document = createDocument(JsonDocumentContent("""{"street": "Funenpark", "number": 1}"""))
+
+        publisher(DocumentReadEventProperties()).documentViewed(document)
+
+        val event = sentEvent()
+        assertThat(event).isInstanceOf(DocumentViewed::class.java)
+        assertThat(event.result!!.get("content").get("street").textValue()).isEqualTo("Funenpark")
+    }
+
+    @Test
+    fun `should only send document ids when payload is ID`() {
+        val documents = listOf(createDocument(), createDocument())
+        val properties = DocumentReadEventProperties(
+            listed = DocumentReadEventProperties.ReadEvent(payload = DocumentEventPayload.ID)
+        )
+
+        publisher(properties).documentsListed(documents)
+
+        val event = sentEvent()
+        assertThat(event).isInstanceOf(DocumentsListed::class.java)
+        assertThat(event.result!!.map { it.toString() }).containsExactly(
+            """{"id":"${documents[0].id()}"}""",
+            """{"id":"${documents[1].id()}"}""",
+        )
+    }
+
+    @Test
+    fun `should only send configured fields when payload is FIELDS`() {
+        val document = createDocument(JsonDocumentContent("""{"street": "Funenpark", "number": 1}"""))
+        val properties = DocumentReadEventProperties(
+            viewed = DocumentReadEventProperties.ReadEvent(
+                payload = DocumentEventPayload.FIELDS,
+                fields = listOf("/id", "/content/street", "/does/not/exist")
+            )
+        )
+
+        publisher(properties).documentViewed(document)
+
+        val result = sentEvent().result!!
+        assertThat(result.get("id").textValue()).isEqualTo(document.id().toString())
+        assertThat(result.get("content").get("street").textValue()).isEqualTo("Funenpark")
+        assertThat(result.get("content").has("number")).isFalse()
+        assertThat(result.has("does")).isFalse()
+    }
+
+    @Test
+    fun `should project other document properties the same as the full document`() {
+        val document = createDocument(JsonDocumentContent("""{"street": "Funenpark"}"""))
+        val properties = DocumentReadEventProperties(
+            viewed = DocumentReadEventProperties.ReadEvent(
+                payload = DocumentEventPayload.FIELDS,
+                fields = listOf("/createdBy", "/definitionId/name", "/sequence")
+            )
+        )
+
+        publisher(properties).documentViewed(document)
+
+        val result = sentEvent().result!!
+        val fullDocument = MapperSingleton.get().valueToTree<JsonNode>(document)
+        assertThat(result.get("createdBy")).isEqualTo(fullDocument.get("createdBy"))
+        assertThat(result.get("definitionId").get("name")).isEqualTo(fullDocument.at("/definitionId/name"))
+        assertThat(result.get("sequence")).isEqualTo(fullDocument.get("sequence"))
+        assertThat(result.has("content")).isFalse()
+    }
+
+    @Test
+    fun `should not send event when disabled`() {
+        val properties = DocumentReadEventProperties(
+            listed = DocumentReadEventProperties.ReadEvent(enabled = false)
+        )
+
+        publisher(properties).documentsListed(listOf(createDocument()))
+
+        verify(outboxService, never()).send(any())
+    }
+
+    @Test
+    fun `should not send event when sample rate is 0`() {
+        val properties = DocumentReadEventProperties(
+            viewed = DocumentReadEventProperties.ReadEvent(sampleRate = 0.0)
+        )
+
+        publisher(properties).documentViewed(createDocument())
+
+        verify(outboxService, never()).send(any())
+    }
+
+    private fun publisher(properties: DocumentReadEventProperties) =
+        DocumentReadEventPublisher(outboxService, MapperSingleton.get(), properties)
+
+    private fun sentEvent(): BaseEvent {
+        val captor = argumentCaptor<Supplier<BaseEvent>>()
+        verify(outboxService).send(captor.capture())
+        return captor.firstValue.get()
+    }
+}
@@ -19,12 +19,18 @@ package com.ritense.document.listener
 import com.ritense.document.domain.event.CaseAssignedEvent
 import com.ritense.document.domain.event.CaseCreatedEvent
 import com.ritense.document.domain.event.CaseUnassignedEvent
+import com.ritense.document.event.DocumentAssigneeChangedEvent
+import com.ritense.document.event.DocumentUnassignedEvent
+import com.ritense.valtimo.web.sse.event.SseTopics
 import com.ritense.valtimo.web.sse.service.SseSubscriptionService
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.mockito.kotlin.any
+import org.mockito.kotlin.argThat
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import java.util.UUID
 
 class DocumentEventListenerTest {
 
@@ -45,14 +51,28 @@ class DocumentEventListenerTest {
 
     @Test
     fun `should send sse event for a case assignment`(){
-        documentEventListener.handleDocumentAssignedEvent()
-        verify(subscriptionService).notifySubscribers(any<CaseAssignedEvent>())
+        val documentId = UUID.randomUUID()
+        val event = mock<DocumentAssigneeChangedEvent>()
+        whenever(event.documentId).thenReturn(documentId)
+
+        documentEventListener.handleDocumentAssignedEvent(event)
+
+        verify(subscriptionService).notifySubscribers(argThat<CaseAssignedEvent> {
+            topics == setOf(SseTopics.document(documentId.toString()))
+        })
     }
 
     @Test
     fun `should send sse event for a case unassignment`(){
-        documentEventListener.handleDocumentUnassignedEvent()
-        verify(subscriptionService).notifySubscribers(any<CaseUnassignedEvent>())
+        val documentId = UUID.randomUUID()
+        val event = mock<DocumentUnassignedEvent>()
+        whenever(event.documentId).thenReturn(documentId)
+
+        documentEventListener.handleDocumentUnassignedEvent(event)
+
+        verify(subscriptionService).notifySubscribers(argThat<CaseUnassignedEvent> {
+            topics == setOf(SseTopics.document(documentId.toString()))
+        })
     }
 
 }
\ No newline at end of file
@@ -44,6 +44,7 @@ import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Tag
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
 import org.mockito.Mockito
 import org.mockito.Mockito.never
 import org.mockito.kotlin.argumentCaptor
@@ -53,6 +54,7 @@ import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.data.domain.Pageable
+import org.springframework.security.access.AccessDeniedException
 import org.springframework.security.test.context.support.WithMockUser
 import org.springframework.transaction.annotation.Transactional
 import java.util.UUID
@@ -410,6 +412,39 @@ internal class JsonSchemaDocumentServiceIntTest : BaseIntegrationTest() {
         assertThat(event.result).isEqualTo(objectMapper.valueToTree(document))
     }
 
+    @Test
+    @WithMockUser(username = USERNAME, authorities = [USER])
+    fun `should get documents when user may view them`() {
+        val otherDocument = createDocument("""{"street": "Kalverstraat"}""")
+        permissionRepository.deleteAll()
+        permissionRepository.saveAllAndFlush(
+            listOf(
+                Permission(
+                    UUID.randomUUID(),
+                    JsonSchemaDocument::class.java,
+                    JsonSchemaDocumentActionProvider.VIEW,
+                    ConditionContainer(),
+                    roleRepository.findByKey(USER)!!
+                )
+            )
+        )
+
+        val documents = documentService.getDocuments(listOf(originalDocument.id.toString(), otherDocument.id.toString()))
+
+        assertThat(documents).containsExactlyInAnyOrder(originalDocument, otherDocument)
+    }
+
+    @Test
+    @WithMockUser(username = USERNAME, authorities = [USER])
+    fun `should not get documents when user may not view them`() {
+        val otherDocument = createDocument("""{"street": "Kalverstraat"}""")
+        permissionRepository.deleteAll()
+
+        assertThrows<AccessDeniedException> {
+            documentService.getDocuments(listOf(originalDocument.id.toString(), otherDocument.id.toString()))
+        }
+    }
+
     private fun createDocument(content: String): JsonSchemaDocument {
         return runWithoutAuthorization {
             documentService.createDocument(
@@ -21,6 +21,7 @@ import com.ritense.authorization.AuthorizationService;
 import com.ritense.document.service.DocumentService;
 import com.ritense.form.autodeployment.FormApplicationReadyEventListener;
 import com.ritense.form.autodeployment.FormDefinitionDeploymentService;
+import com.ritense.form.domain.CompiledFormDefinitionCache;
 import com.ritense.form.domain.FormSpringContextHelper;
 import com.ritense.form.mapper.FormProcessLinkMapper;
 import com.ritense.form.processlink.FormProcessLinkActivityHandler;
@@ -38,24 +39,35 @@ import com.ritense.form.web.rest.impl.FormIoFormFileResource;
 import com.ritense.form.web.rest.impl.FormIoFormManagementResource;
 import com.ritense.processdocument.service.ProcessDocumentAssociationService;
 import com.ritense.resource.service.ResourceService;
+import com.ritense.valtimo.contract.concurrent.ContextPropagatingTaskExecutors;
 import com.ritense.valtimo.contract.form.FormFieldDataResolver;
 import com.ritense.valtimo.service.CamundaProcessService;
 import com.ritense.valtimo.service.CamundaTaskService;
 import com.ritense.valueresolver.ValueResolverService;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
 import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
 
 @AutoConfiguration
 @EnableJpaRepositories(basePackages = "com.ritense.form.repository")
 @EntityScan({"com.ritense.form"})
+@EnableCaching
 public class FormAutoConfiguration {
     private static boolean ignoreDisabledFields = false;
 
@@ -76,10 +88,19 @@ public class FormAutoConfiguration {
         return new FormIoFormLoaderService(formDefinitionRepository, prefillFormService);
     }
 
+    @Bean
+    @ConditionalOnMissingBean(CompiledFormDefinitionCache.class)
+    public CompiledFormDefinitionCache compiledFormDefinitionCache(CacheManager cacheManager) {
+        return new CompiledFormDefinitionCache(cacheManager);
+    }
+
     @Bean
     @ConditionalOnMissingBean(FormDefinitionService.class)
-    public FormIoFormDefinitionService formDefinitionService(final FormDefinitionRepository formDefinitionRepository) {
-        return new FormIoFormDefinitionService(formDefinitionRepository);
+    public FormIoFormDefinitionService formDefinitionService(
+        final FormDefinitionRepository formDefinitionRepository,
+        final CompiledFormDefinitionCache compiledFormDefinitionCache
+    ) {
+        return new FormIoFormDefinitionService(formDefinitionRepository, compiledFormDefinitionCache);
     }
 
     @Bean
@@ -140,6 +161,14 @@ public class FormAutoConfiguration {
         return new FormProcessLinkMapper(objectMapper, formDefinitionService);
     }
 
+    @Bean
+    @ConditionalOnMissingBean(name = "formPrefillExecutor")
+    public ThreadPoolTaskExecutor formPrefillExecutor(
+        @Value("${valtimo.form.prefill.thread-count:0}") int threadCount
+    ) {
+        return ContextPropagatingTaskExecutors.fixed("form-prefill-", Math.max(threadCount, 1));
+    }
+
     @Bean
     @ConditionalOnMissingBean(PrefillFormService.class)
     public PrefillFormService prefillFormService(
@@ -151,7 +180,12 @@ public class FormAutoConfiguration {
         ProcessDocumentAssociationService processDocumentAssociationService,
         ValueResolverService valueResolverService,
         ObjectMapper objectMapper,
-        AuthorizationService authorizationService
+        AuthorizationService authorizationService,
+        PlatformTransactionManager transactionManager,
+        ObjectProvider<MeterRegistry> meterRegistry,
+        @Value("${valtimo.form.prefill.thread-count:0}") int threadCount,
+        @Value("${valtimo.form.prefill.source-timeout:PT10S}") Duration sourceTimeout,
+        @Qualifier("formPrefillExecutor") AsyncTaskExecutor formPrefillExecutor
     ) {
         return new PrefillFormService(
             documentService,
@@ -162,7 +196,11 @@ public class FormAutoConfiguration {
             processDocumentAssociationService,
             valueResolverService,
             objectMapper,
-            authorizationService
+            authorizationService,
+            threadCount > 0 ? formPrefillExecutor : null,
+            sourceTimeout,
+            transactionManager,
+            meterRegistry.getIfAvailable()
         );
     }
 
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.form.domain;
+
+import static com.ritense.form.domain.FormIoFormDefinition.COMPONENTS_KEY;
+import static com.ritense.form.domain.FormIoFormDefinition.HAS_PREFILL_ENABLED;
+import static com.ritense.form.domain.FormIoFormDefinition.PROPERTY_KEY;
+import static com.ritense.form.domain.FormIoFormDefinition.TYPE_KEY;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.ritense.form.domain.FormIoFormDefinition.ContentItem;
+import com.ritense.form.domain.FormIoFormDefinition.ExternalContentItem;
+import com.ritense.valtimo.contract.json.MapperSingleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Immutable, pre-indexed model of a form definition. Parsing the definition and walking its component tree is done
+ * once per form version, after which the input fields, their keys and the derived content items can be read without
+ * touching the JSON again. The parsed tree is a template that is never handed out: a {@link FormIoFormDefinition}
+ * takes a copy of it only when it has to write (prefill) or expose its JSON.
+ */
+final class CompiledFormDefinition {
+
+    private static final String PROPERTY_ATTRIBUTES = "attributes";
+    private static final String PROPERTY_TESTID = "data-testid";
+
+    private final String name;
+    private final String definition;
+    private final JsonNode template;
+    private final List<Component> components;
+    private final List<Component> inputFields;
+    private final Map<String, String> prefillSourceKeys;
+    private final List<ContentItem> processVars;
+    private volatile Classification classification;
+
+    private CompiledFormDefinition(String name, String definition) throws JsonProcessingException {
+        this.name = name;
+        this.definition = definition;
+        this.template = MapperSingleton.INSTANCE.get().readTree(definition);
+
+        final var components = new ArrayList<Component>();
+        collectComponents(template, new ArrayList<>(), components);
+        this.components = Collections.unmodifiableList(components);
+        this.inputFields = components.stream().filter(component -> component.inputField).toList();
+
+        final var prefillSourceKeys = new LinkedHashMap<String, String>();
+        final var processVars = new ArrayList<ContentItem>();
+        inputFields.forEach(field -> {
+            appendFieldId((ObjectNode) field.node);
+            if (field.prefillEnabled && field.sourceKey != null) {
+                prefillSourceKeys.put(field.key, field.sourceKey);
+            }
+            field.processVar.ifPresent(processVars::add);
+        });
+        this.prefillSourceKeys = Collections.unmodifiableMap(prefillSourceKeys);
+        this.processVars = Collections.unmodifiableList(processVars);
+    }
+
+    /**
+     * Returns the compiled form for the given form id, from the {@link CompiledFormDefinitionCache} when there is one.
+     * A cached instance is only reused when both the name (which is part of the generated data-testid attributes) and
+     * the definition are unchanged.
+     */
+    static CompiledFormDefinition of(UUID id, String name, String definition) throws JsonProcessingException {
+        final var cache = id == null ? null : CompiledFormDefinitionCache.current();
+        if (cache == null) {
+            return compile(name, definition);
+        }
+        return cache.get(id, name, definition);
+    }
+
+    static CompiledFormDefinition compile(String name, String definition) throws JsonProcessingException {
+        return new CompiledFormDefinition(name, definition);
+    }
+
+    boolean isCompiledFrom(String name, String definition) {
+        return this.name.equals(name) && this.definition.equals(definition);
+    }
+
+    JsonNode copyTemplate() {
+        return template.deepCopy();
+    }
+
+    /**
+     * Resolves the nodes of all components in the given tree, which must be a copy of the template.
+     */
+    List<JsonNode> resolveComponents(JsonNode copy) {
+        final var nodes = new ArrayList<JsonNode>(components.size());
+        components.forEach(component -> {
+            JsonNode node = copy;
+            for (Object step : component.path) {
+                node = step instanceof Integer index ? node.path(index) : node.path((String) step);
+            }
+            nodes.add(node);
+        });
+        return nodes;
+    }
+
+    List<Component> getComponents() {
+        return components;
+    }
+
+    List<Component> getInputFields() {
+        return inputFields;
+    }
+
+    Map<String, String> getPrefillSourceKeys() {
+        return prefillSourceKeys;
+    }
+
+    List<ContentItem> getProcessVars() {
+        return processVars;
+    }
+
+    /**
+     * Returns the classification of the components that depends on the registered form field data resolvers. It is
+     * computed once and only recomputed when the application context holding the resolvers is replaced.
+     */
+    Classification classification() {
+        final var context = FormSpringContextHelper.applicationContext;
+        var current = classification;
+        if (current == null || current.context != context) {
+            current = new Classification(context, components);
+            classification = current;
+        }
+        return current;
+    }
+
+    private void appendFieldId(ObjectNode inputNode) {
+        var attributes = inputNode.has(PROPERTY_ATTRIBUTES) ? (ObjectNode) inputNode.get(
+            PROPERTY_ATTRIBUTES) : MapperSingleton.INSTANCE.get().createObjectNode();
+
+        inputNode.putIfAbsent(PROPERTY_ATTRIBUTES, attributes);
+        attributes.putIfAbsent(PROPERTY_TESTID, new TextNode(name + "-" + inputNode.get(PROPERTY_KEY).asText()));
+    }
+
+    // Walks the tree in the same order as FormIoFormDefinition.getComponentsWithInputs
+    private static void collectComponents(JsonNode node, List<Object> path, List<Component> result) {
+        if (node.has(TYPE_KEY)) {
+            final var type = node.get(TYPE_KEY).textValue();
+            if (type.equals("editgrid") || type.equals("datagrid")) {
+                return;
+            }
+        }
+        if (node.isObject() && node.has(COMPONENTS_KEY) && node.get(COMPONENTS_KEY).isArray()) {
+            final var componentsNode = node.get(COMPONENTS_KEY);
+            for (int i = 0; i < componentsNode.size(); i++) {
+                final var componentPath = new ArrayList<>(path);
+                componentPath.add(COMPONENTS_KEY);
+                componentPath.add(i);
+                result.add(new Component(result.size(), componentsNode.get(i), componentPath));
+            }
+        }
+        if (node.isObject()) {
+            node.fields().forEachRemaining(entry -> {
+                path.add(entry.getKey());
+                collectComponents(entry.getValue(), path, result);
+                path.remove(path.size() - 1);
+            });
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                path.add(i);
+                collectComponents(node.get(i), path, result);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    static final class Component {
+        final int index;
+        final JsonNode node;
+        final Object[] path;
+        final boolean inputField;
+        final String key;
+        final String sourceKey;
+        final boolean prefillEnabled;
+        final Optional<ContentItem> processVar;
+
+        private Component(int index, JsonNode node, List<Object> path) {
+            this.index = index;
+            this.node = node;
+            this.path = path.toArray();
+            this.inputField = FormIoFormDefinition.isInputField(node);
+            this.key = FormIoFormDefinition.getKey(node).orElse(null);
+            this.sourceKey = FormIoFormDefinition.getSourceKey(node).orElse(null);
+            this.prefillEnabled = HAS_PREFILL_ENABLED.test(node);
+            this.processVar = inputField ? FormIoFormDefinition.getProcessVar(node) : Optional.empty();
+        }
+    }
+
+    static final class Classification {
+        private final ApplicationContext context;
+        private final boolean[] documentContentVars;
+        private final List<Optional<? extends ContentItem>> contentItems;
+        private final List<Optional<ExternalContentItem>> externalFormFields;
+
+        private Classification(ApplicationContext context, List<Component> components) {
+            this.context = context;
+            final var documentContentVars = new boolean[components.size()];
+            final var contentItems = new ArrayList<Optional<? extends ContentItem>>(components.size());
+            final var externalFormFields = new ArrayList<Optional<ExternalContentItem>>(components.size());
+            components.forEach(component -> {
+                documentContentVars[component.index] = FormIoFormDefinition.isDocumentContentVar(component.node);
+                if (component.inputField) {
+                    contentItems.add(FormIoFormDefinition.getContentItem(component.node));
+                    externalFormFields.add(FormIoFormDefinition.getExternalFormField(component.node));
+                } else {
+                    contentItems.add(Optional.empty());
+                    externalFormFields.add(Optional.empty());
+                }
+            });
+            this.documentContentVars = documentContentVars;
+            this.contentItems = contentItems;
+            this.externalFormFields = externalFormFields;
+        }
+
+        boolean isDocumentContentVar(Component component) {
+            return documentContentVars[component.index];
+        }
+
+        Optional<? extends ContentItem> getContentItem(Component component) {
+            return contentItems.get(component.index);
+        }
+
+        Optional<ExternalContentItem> getExternalFormField(Component component) {
+            return externalFormFields.get(component.index);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.form.domain;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.util.UUID;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
+
+/**
+ * Keeps the compiled forms by form definition id, so a form is only parsed again when its name or definition changes.
+ */
+public class CompiledFormDefinitionCache {
+
+    public static final String CACHE_NAME = "form.compiledDefinition";
+
+    private final Cache cache;
+
+    public CompiledFormDefinitionCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public void evict(UUID formDefinitionId) {
+        cache.evict(formDefinitionId);
+    }
+
+    CompiledFormDefinition get(UUID id, String name, String definition) throws JsonProcessingException {
+        final var cached = cache.get(id, CompiledFormDefinition.class);
+        if (cached != null && cached.isCompiledFrom(name, definition)) {
+            return cached;
+        }
+        final var compiled = CompiledFormDefinition.compile(name, definition);
+        cache.put(id, compiled);
+        return compiled;
+    }
+
+    /**
+     * Returns the cache of the current application context, or null when there is none, like in unit tests.
+     */
+    static CompiledFormDefinitionCache current() {
+        final ApplicationContext context = FormSpringContextHelper.applicationContext;
+        return context == null ? null : context.getBeanProvider(CompiledFormDefinitionCache.class).getIfAvailable();
+    }
+}
@@ -27,7 +27,6 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.TextNode;
 import com.ritense.form.autoconfigure.FormAutoConfiguration;
 import com.ritense.form.domain.event.FormRegisteredEvent;
 import com.ritense.form.domain.exception.FormDefinitionParsingException;
@@ -75,8 +74,6 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
     public static final String LEGACY_EXTERNAL_FORM_FIELD_TYPE_SEPARATOR = ".";
     public static final String DISABLED_KEY = "disabled";
     public static final String PREFILL_KEY = "prefill";
-    private static final String PROPERTY_ATTRIBUTES = "attributes";
-    private static final String PROPERTY_TESTID = "data-testid";
 
     public static final String SOURCE_KEY_POINTER = "/properties/sourceKey";
     public static final String TARGET_KEY_POINTER = "/properties/targetKey";
@@ -105,9 +102,15 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
     @Column(name = "read_only", columnDefinition = "BIT")
     private Boolean readOnly = false;
 
+    @Transient
+    private CompiledFormDefinition compiled = null;
+
     @Transient
     private JsonNode workingCopy = null;
 
+    @Transient
+    private List<JsonNode> workingComponents = null;
+
     @Transient
     private boolean isNew = false;
 
@@ -147,6 +150,9 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
         assertStateTrue(readOnly.equals(false) || this.isWriting, "Cannot modify a readonly form");
         if (!this.name.equals(name)) {
             this.name = name;
+            this.compiled = null;
+            this.workingCopy = null;
+            this.workingComponents = null;
         }
     }
 
@@ -169,23 +175,23 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
 
     @Override
     public FormIoFormDefinition preFill(final JsonNode content) {
-        getInputFields().stream()
-            .filter(HAS_PREFILL_ENABLED)
-            .forEach(field -> fill(field, content));
+        final var classification = compiled().classification();
+        compiled().getInputFields().stream()
+            .filter(field -> field.prefillEnabled)
+            .forEach(field -> fill(field, classification, content));
 
         return this;
     }
 
     @Override
     public void preFill(@NotNull Map<String, ?> valueMap) {
-        getInputFields().stream()
-            .filter(HAS_PREFILL_ENABLED)
-            .forEach(fieldNode -> {
-                String fieldKey = getFieldKey(fieldNode);
-                Object value = valueMap.get(fieldKey);
+        compiled().getInputFields().stream()
+            .filter(field -> field.prefillEnabled && field.key != null)
+            .forEach(field -> {
+                Object value = valueMap.get(field.key);
                 if (value != null) {
                     JsonNode valueNode = MapperSingleton.INSTANCE.get().valueToTree(value);
-                    setDefaultValueField(fieldNode, valueNode);
+                    setDefaultValueField((ObjectNode) workingNode(field), valueNode);
                 }
             });
     }
@@ -202,14 +208,18 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
     }
 
     public List<String> extractProcessVarNames() {
-        return getInputFields().stream()
-            .map(this::getProcessVar)
-            .filter(Optional::isPresent)
-            .map(Optional::get)
+        return compiled().getProcessVars().stream()
             .map(ContentItem::getName)
             .toList();
     }
 
+    /**
+     * Returns the properties.sourceKey of every input field that has prefill enabled, keyed by the field key.
+     */
+    public Map<String, String> getPrefillSourceKeys() {
+        return compiled().getPrefillSourceKeys();
+    }
+
     public Map<String, List<ExternalContentItem>> buildExternalFormFieldsMap() {
         return buildExternalFormFieldsMapFiltered(null);
     }
@@ -222,10 +232,11 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
         @Nullable Predicate<JsonNode> predicate
     ) {
         var map = new HashMap<String, List<ExternalContentItem>>();
-        getInputFields()
+        final var classification = compiled().classification();
+        compiled().getInputFields()
             .stream()
-            .filter(field -> predicate == null || predicate.test(field))
-            .forEach(field -> getExternalFormField(field)
+            .filter(field -> predicate == null || predicate.test(currentNode(field)))
+            .forEach(field -> classification.getExternalFormField(field)
                 .ifPresent(externalContentItem ->
                     map.computeIfAbsent(
                         externalContentItem.externalFormFieldType.toLowerCase(),
@@ -238,10 +249,10 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
 
     public Map<String, Object> extractProcessVars(JsonNode formData) {
         final Map<String, Object> processVarFormData = new HashMap<>();
-        getInputFields()
+        compiled().getInputFields()
             .stream()
-            .filter(NOT_IGNORED)
-            .forEach(field -> getProcessVar(field)
+            .filter(field -> NOT_IGNORED.test(currentNode(field)))
+            .forEach(field -> field.processVar
                 .ifPresent(contentItem -> getValueBy(formData, contentItem.getJsonPointer())
                     .ifPresent(valueNode -> processVarFormData.put(
                         contentItem.getName(),
@@ -272,30 +283,14 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
     }
 
     public JsonNode asJson() {
-        if (this.workingCopy == null) {
-            try {
-                this.workingCopy = MapperSingleton.INSTANCE.get().readTree(formDefinition);
-            } catch (Exception e) {
-                throw new FormDefinitionParsingException(e);
-            }
-        }
-
-        appendFieldIds(workingCopy);
-
-        return this.workingCopy;
+        return working();
     }
 
-    private void appendFieldIds(JsonNode workingCopy) {
-        getInputFields(workingCopy).forEach(inputNode -> {
-            var attributes = inputNode.has(PROPERTY_ATTRIBUTES) ? (ObjectNode) inputNode.get(
-                PROPERTY_ATTRIBUTES) : MapperSingleton.INSTANCE.get().createObjectNode();
-
-            inputNode.putIfAbsent(PROPERTY_ATTRIBUTES, attributes);
-            attributes.putIfAbsent(PROPERTY_TESTID, new TextNode(name + "-" + inputNode.get(PROPERTY_KEY).asText()));
-        });
+    public Optional<ContentItem> getDocumentContentVar(JsonNode field) {
+        return documentContentVar(field);
     }
 
-    public Optional<ContentItem> getDocumentContentVar(JsonNode field) {
+    private static Optional<ContentItem> documentContentVar(JsonNode field) {
         if (isDocumentContentVar(field)) {
             String key = getFieldKey(field);
             if (!key.isEmpty() && !key.startsWith(PROCESS_VAR_PREFIX)) {
@@ -320,52 +315,93 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
     }
 
     public List<ObjectNode> getDocumentMappedFieldsFiltered(@Nullable Predicate<JsonNode> predicate) {
-        final List<ObjectNode> inputFields = new LinkedList<>();
-        List<ArrayNode> components = getComponentsWithInputs(this.asJson());
-        components.forEach(componentsNode -> componentsNode.forEach(fieldNode -> {
-            if (predicate == null || predicate.test(fieldNode) && (isDocumentContentVar(fieldNode))) {
+        final List<ObjectNode> inputFields = new ArrayList<>();
+        final var classification = predicate == null ? null : compiled().classification();
+        compiled().getComponents().forEach(component -> {
+            final var fieldNode = workingNode(component);
+            if (predicate == null || predicate.test(fieldNode) && (classification.isDocumentContentVar(component))) {
                 inputFields.add((ObjectNode) fieldNode);
             }
-        }));
+        });
         return Collections.unmodifiableList(inputFields);
     }
 
     public List<ObjectNode> getInputFields() {
-        return getInputFields(asJson());
+        return compiled().getInputFields().stream()
+            .map(field -> (ObjectNode) workingNode(field))
+            .toList();
     }
 
     public static List<ObjectNode> getInputFields(JsonNode formDefinition) {
         final List<ObjectNode> inputFields = new LinkedList<>();
         List<ArrayNode> components = getComponentsWithInputs(formDefinition);
         components.forEach(componentsNode -> componentsNode.forEach(fieldNode -> {
-            if (
-                (isInputComponent(fieldNode) || isTextFieldComponent(fieldNode) || isHiddenFieldComponent(fieldNode))
-                && !isButtonTypeComponent(fieldNode)
-            ) {
+            if (isInputField(fieldNode)) {
                 inputFields.add((ObjectNode) fieldNode);
             }
         }));
         return Collections.unmodifiableList(inputFields);
     }
 
+    static boolean isInputField(JsonNode fieldNode) {
+        return (isInputComponent(fieldNode) || isTextFieldComponent(fieldNode) || isHiddenFieldComponent(fieldNode))
+            && !isButtonTypeComponent(fieldNode);
+    }
+
     private void setFormDefinition(String formDefinition) {
         try {
-            this.workingCopy = MapperSingleton.INSTANCE.get().readTree(formDefinition);
+            this.compiled = CompiledFormDefinition.of(id, name, formDefinition);
         } catch (Exception e) {
             throw new IllegalArgumentException("The formDefinition argument could not be parsed as JSON.", e);
         }
         this.formDefinition = formDefinition;
+        this.workingCopy = null;
+        this.workingComponents = null;
+    }
+
+    private CompiledFormDefinition compiled() {
+        if (this.compiled == null) {
+            try {
+                this.compiled = CompiledFormDefinition.of(id, name, formDefinition);
+            } catch (Exception e) {
+                throw new FormDefinitionParsingException(e);
+            }
+        }
+        return this.compiled;
     }
 
-    private void fill(ObjectNode field, JsonNode content) {
+    // The compiled template is shared between instances, so it is only copied once this instance has to expose or
+    // modify its JSON.
+    private JsonNode working() {
+        if (this.workingCopy == null) {
+            this.workingCopy = compiled().copyTemplate();
+            this.workingComponents = compiled().resolveComponents(workingCopy);
+        }
+        return this.workingCopy;
+    }
+
+    private JsonNode workingNode(CompiledFormDefinition.Component component) {
+        working();
+        return workingComponents.get(component.index);
+    }
+
+    private JsonNode currentNode(CompiledFormDefinition.Component component) {
+        return workingCopy == null ? component.node : workingComponents.get(component.index);
+    }
+
+    private void fill(
+        CompiledFormDefinition.Component field,
+        CompiledFormDefinition.Classification classification,
+        JsonNode content
+    ) {
         assertArgumentNotNull(field, "field is required");
         assertArgumentNotNull(content, "content is required");
-        if (getSourceKey(field).isEmpty()) { // Only prefill when the properties.sourceKey is not set
-            getContentItem(field)
+        if (field.sourceKey == null) { // Only prefill when the properties.sourceKey is not set
+            classification.getContentItem(field)
                 .flatMap(
                     contentItem -> getValueBy(content, contentItem.getJsonPointer())
                 ).ifPresent(
-                    valueNode -> setDefaultValueField(field, valueNode)
+                    valueNode -> setDefaultValueField((ObjectNode) workingNode(field), valueNode)
                 );
         }
     }
@@ -391,9 +427,9 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
         });
     }
 
-    private Optional<? extends ContentItem> getContentItem(ObjectNode node) {
+    static Optional<? extends ContentItem> getContentItem(JsonNode node) {
         if (isDocumentContentVar(node)) {
-            return getDocumentContentVar(node);
+            return documentContentVar(node);
         } else if (isProcessVar(node)) {
             return getProcessVar(node);
         } else if (isExternalFormField(node)) {
@@ -402,7 +438,7 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
         return Optional.empty();
     }
 
-    private Optional<JsonPointer> buildJsonPointer(String jsonPointerExpression) {
+    private static Optional<JsonPointer> buildJsonPointer(String jsonPointerExpression) {
         try {
             return Optional.of(JsonPointer.valueOf(jsonPointerExpression));
         } catch (IllegalArgumentException e) {
@@ -410,7 +446,7 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
         }
     }
 
-    private Optional<ContentItem> getProcessVar(JsonNode field) {
+    static Optional<ContentItem> getProcessVar(JsonNode field) {
         if (isProcessVar(field)) {
             String jsonPointerExpr = getFieldKey(field).replace(".", "/");
             String processVarName = jsonPointerExpr.substring(
@@ -422,14 +458,14 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
         return Optional.empty();
     }
 
-    private boolean isProcessVar(JsonNode field) {
+    private static boolean isProcessVar(JsonNode field) {
         if (!field.has(PROPERTY_KEY)) {
             return false;
         }
         return getFieldKey(field).startsWith(PROCESS_VAR_PREFIX);
     }
 
-    private boolean isDocumentContentVar(JsonNode field) {
+    static boolean isDocumentContentVar(JsonNode field) {
         if (!field.has(PROPERTY_KEY)) {
             return false;
         }
@@ -440,7 +476,7 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
         return !key.isEmpty() && !key.startsWith(PROCESS_VAR_PREFIX.toUpperCase());
     }
 
-    private Optional<ExternalContentItem> getExternalFormField(JsonNode field) {
+    static Optional<ExternalContentItem> getExternalFormField(JsonNode field) {
         return getExternalFormFieldType(field).flatMap(externalFormFieldType -> {
             String fieldKey = getFieldKey(field);
             String propertyName = fieldKey.substring(
@@ -473,11 +509,11 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
         });
     }
 
-    private boolean isExternalFormField(JsonNode field) {
+    private static boolean isExternalFormField(JsonNode field) {
         return getExternalFormFieldType(field).isPresent();
     }
 
-    private Optional<String> getExternalFormFieldType(JsonNode field) {
+    private static Optional<String> getExternalFormFieldType(JsonNode field) {
         if (!field.has(PROPERTY_KEY) && !getFieldKey(field).isEmpty()) {
             return Optional.empty();
         }
@@ -503,7 +539,7 @@ public class FormIoFormDefinition extends AbstractAggregateRoot<FormIoFormDefini
         return Optional.empty();
     }
 
-    private String getFieldKey(JsonNode fieldNode) {
+    private static String getFieldKey(JsonNode fieldNode) {
         return getKey(fieldNode).orElseThrow();
     }
 
@@ -18,6 +18,7 @@ package com.ritense.form.service.impl;
 
 import static com.ritense.logging.LoggingContextKt.withLoggingContext;
 
+import com.ritense.form.domain.CompiledFormDefinitionCache;
 import com.ritense.form.domain.FormDefinition;
 import com.ritense.form.domain.FormIoFormDefinition;
 import com.ritense.form.domain.request.CreateFormDefinitionRequest;
@@ -36,9 +37,18 @@ import org.springframework.transaction.annotation.Transactional;
 public class FormIoFormDefinitionService implements FormDefinitionService {
 
     private final FormDefinitionRepository formDefinitionRepository;
+    private final CompiledFormDefinitionCache compiledFormDefinitionCache;
 
     public FormIoFormDefinitionService(final FormDefinitionRepository formDefinitionRepository) {
+        this(formDefinitionRepository, null);
+    }
+
+    public FormIoFormDefinitionService(
+        final FormDefinitionRepository formDefinitionRepository,
+        final CompiledFormDefinitionCache compiledFormDefinitionCache
+    ) {
         this.formDefinitionRepository = formDefinitionRepository;
+        this.compiledFormDefinitionCache = compiledFormDefinitionCache;
     }
 
     @Override
@@ -144,6 +154,9 @@ public class FormIoFormDefinitionService implements FormDefinitionService {
         @LoggableResource(resourceType = FormIoFormDefinition.class) UUID formDefinitionId
     ) {
         formDefinitionRepository.deleteById(formDefinitionId);
+        if (compiledFormDefinitionCache != null) {
+            compiledFormDefinitionCache.evict(formDefinitionId);
+        }
     }
 
     @Override
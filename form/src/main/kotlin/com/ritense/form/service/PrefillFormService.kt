@@ -22,6 +22,7 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.databind.node.ArrayNode
 import com.fasterxml.jackson.databind.node.JsonNodeFactory
 import com.fasterxml.jackson.databind.node.ObjectNode
+import com.ritense.authorization.AuthorizationContext
 import com.ritense.authorization.AuthorizationContext.Companion.runWithoutAuthorization
 import com.ritense.authorization.AuthorizationService
 import com.ritense.document.domain.Document
@@ -29,6 +30,7 @@ import com.ritense.document.domain.patch.JsonPatchFilterFlag
 import com.ritense.document.domain.patch.JsonPatchService
 import com.ritense.document.service.DocumentService
 import com.ritense.form.domain.FormIoFormDefinition
+import com.ritense.form.domain.FormIoFormDefinition.ExternalContentItem
 import com.ritense.form.service.impl.FormIoFormDefinitionService
 import com.ritense.logging.LoggableResource
 import com.ritense.processdocument.service.ProcessDocumentAssociationService
@@ -43,9 +45,23 @@ import com.ritense.valtimo.contract.json.patch.JsonPatchBuilder
 import com.ritense.valtimo.service.CamundaProcessService
 import com.ritense.valtimo.service.CamundaTaskService
 import com.ritense.valueresolver.ValueResolverService
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import mu.KotlinLogging
+import org.springframework.core.task.AsyncTaskExecutor
 import org.springframework.stereotype.Service
+import org.springframework.transaction.PlatformTransactionManager
 import org.springframework.transaction.annotation.Transactional
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
 import java.util.UUID
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
 
 @Transactional
 @Service
@@ -60,8 +76,14 @@ class PrefillFormService(
     private val valueResolverService: ValueResolverService,
     private val objectMapper: ObjectMapper,
     private val authorizationService: AuthorizationService,
+    private val executor: AsyncTaskExecutor? = null,
+    private val sourceTimeout: Duration = Duration.ofSeconds(10),
+    transactionManager: PlatformTransactionManager? = null,
+    private val meterRegistry: MeterRegistry? = null,
 ) {
 
+    private val transactionTemplate = transactionManager?.let { TransactionTemplate(it) }
+
     fun getPrefilledFormDefinition(
         formDefinitionId: UUID,
         @LoggableResource(resourceType = CamundaExecution::class) processInstanceId: String,
@@ -93,6 +115,17 @@ class PrefillFormService(
         return formDefinition
     }
 
+    /**
+     * Prefills the form definition with values from the value resolvers, the form field data resolvers, the document
+     * and the process or task variables.
+     *
+     * The sources are applied in that order, so later sources take precedence. The form field data resolvers get the
+     * form definition as it is after the value resolvers have been applied, so they are started once those are done.
+     * When an executor is configured, the sources are resolved concurrently, each in its own transaction. A source
+     * that fails or takes longer than the source timeout, counted from the moment it was submitted, is logged and left
+     * out, so the form can still be opened. Note that these transactions don't see changes that the caller hasn't
+     * committed yet.
+     */
     fun prefillFormDefinition(
         formDefinition: FormIoFormDefinition,
         document: Document,
@@ -106,143 +139,233 @@ class PrefillFormService(
             }
         }
 
-        prefillValueResolverFields(formDefinition, document.id(), processInstance, taskInstanceId)
+        val valueResolverValues = resolveValueResolverFields(
+            formDefinition,
+            document.id(),
+            processInstance,
+            taskInstanceId
+        )
+        val taskVariables = taskInstanceId?.let {
+            submit<Map<String, Any?>>(TASK_VARIABLES_SOURCE) {
+                runWithoutAuthorization { taskService.getVariables(taskInstanceId) }
+            }
+        }
+        val processVariables = if (taskInstanceId == null) resolveProcessVariables(formDefinition, document) else null
+
+        await(valueResolverValues)?.let { formDefinition.preFill(it) }
+        val dataResolverValues = resolveDataResolverFields(formDefinition, document)
 
         val extendedDocumentContent = document.content().asJson() as ObjectNode
 
         val documentMetadata = buildMetaDataObject(document)
         extendedDocumentContent.set<JsonNode>("metadata", documentMetadata)
 
-        prefillDataResolverFields(formDefinition, document, extendedDocumentContent)
+        dataResolverValues.forEach { (externalFormFieldType, externalContentItems, externalDataMap) ->
+            await(externalDataMap)?.let {
+                prefillDataResolverFields(formDefinition, externalFormFieldType, externalContentItems, it)
+            }
+        }
+        formDefinition.preFill(extendedDocumentContent)
 
-        if (taskInstanceId != null) {
-            prefillTaskVariables(formDefinition, taskInstanceId, extendedDocumentContent)
-        } else {
-            prefillProcessVariables(formDefinition, document)
+        if (taskVariables != null) {
+            await(taskVariables)?.let {
+                prefillTaskVariables(formDefinition, it, extendedDocumentContent)
+            }
+        } else if (processVariables != null) {
+            await(processVariables)?.let { processInstanceVariables ->
+                if (processInstanceVariables.isNotEmpty()) {
+                    formDefinition.preFillWith(FormIoFormDefinition.PROCESS_VAR_PREFIX, processInstanceVariables)
+                }
+            }
         }
     }
 
-    private fun prefillValueResolverFields(
+    private fun resolveValueResolverFields(
         formDefinition: FormIoFormDefinition,
         documentInstanceId: Document.Id,
         processInstance: CamundaExecution?,
         taskInstanceId: String?
-    ) {
+    ): PrefillSource<Map<String, Any?>> {
         // Map input fields to Map<{input.key}, {input.properties.sourceKey}>
-        val inputSourceKeyMap = formDefinition.inputFields
-            .filter { FormIoFormDefinition.HAS_PREFILL_ENABLED.test(it) }
-            .mapNotNull {
-                val inputKey = FormIoFormDefinition.getKey(it)
-                val sourceKey = FormIoFormDefinition.getSourceKey(it)
-                if (inputKey.isPresent && sourceKey.isPresent) {
-                    Pair(inputKey.get(), sourceKey.get())
+        val inputSourceKeyMap = formDefinition.prefillSourceKeys
+            .filter { valueResolverService.supportsValue(it.value) }
+        if (inputSourceKeyMap.isEmpty()) {
+            return PrefillSource(
+                VALUE_RESOLVERS_SOURCE,
+                CompletableFuture.completedFuture(emptyMap()),
+                System.nanoTime()
+            )
+        }
+
+        return submit(VALUE_RESOLVERS_SOURCE) {
+            // Resolve sourceKeys into a Map<{sourceKey}, {dataValue}>
+            val valueMap = runWithoutAuthorization {
+                if (taskInstanceId != null) {
+                    val task = taskService.findTaskById(taskInstanceId)
+                    valueResolverService.resolveValues(task.getProcessInstanceId(), task, inputSourceKeyMap.values)
+                } else if (processInstance != null) {
+                    valueResolverService.resolveValues(processInstance.id, processInstance, inputSourceKeyMap.values)
                 } else {
-                    null
+                    valueResolverService.resolveValues(documentInstanceId.toString(), inputSourceKeyMap.values)
                 }
             }
-            .toMap()
-            .filter { valueResolverService.supportsValue(it.value) }
 
-        // Resolve sourceKeys into a Map<{sourceKey}, {dataValue}>
-        val valueMap = runWithoutAuthorization {
-            if (taskInstanceId != null) {
-                val task = taskService.findTaskById(taskInstanceId)
-                valueResolverService.resolveValues(task.getProcessInstanceId(), task, inputSourceKeyMap.values)
-            } else if (processInstance != null) {
-                valueResolverService.resolveValues(processInstance.id, processInstance, inputSourceKeyMap.values)
-            } else {
-                valueResolverService.resolveValues(documentInstanceId.toString(), inputSourceKeyMap.values)
-            }
+            // Create a Map<{input.key}, {resolvedValue}>
+            inputSourceKeyMap.entries.mapNotNull { entry ->
+                valueMap[entry.value]?.let { resolvedValue -> Pair(entry.key, resolvedValue) }
+            }.toMap()
         }
-
-        // Create a Map<{input.key}, {resolvedValue}>
-        val keyValueMap = inputSourceKeyMap.entries.mapNotNull { entry ->
-            valueMap[entry.value]?.let { resolvedValue -> Pair(entry.key, resolvedValue) }
-        }.toMap()
-
-        formDefinition.preFill(keyValueMap)
     }
 
-    private fun prefillProcessVariables(formDefinition: FormIoFormDefinition, document: Document) {
+    private fun resolveProcessVariables(
+        formDefinition: FormIoFormDefinition,
+        document: Document
+    ): PrefillSource<Map<String, Any?>> {
         val processVarsNames = formDefinition.extractProcessVarNames()
-        val processInstanceVariables = runWithoutAuthorization {
-            processDocumentAssociationService.findProcessDocumentInstances(document.id())
-                .map { it.processDocumentInstanceId().processInstanceId().toString() }
-                .flatMap { camundaProcessService.getProcessInstanceVariables(it, processVarsNames).entries }
-                .associate { it.key to it.value }
-        }
-        if (processInstanceVariables.isNotEmpty()) {
-            formDefinition.preFillWith(FormIoFormDefinition.PROCESS_VAR_PREFIX, processInstanceVariables)
+        return submit(PROCESS_VARIABLES_SOURCE) {
+            runWithoutAuthorization {
+                processDocumentAssociationService.findProcessDocumentInstances(document.id())
+                    .map { it.processDocumentInstanceId().processInstanceId().toString() }
+                    .flatMap { camundaProcessService.getProcessInstanceVariables(it, processVarsNames).entries }
+                    .associate { it.key to it.value }
+            }
         }
     }
 
-    private fun prefillDataResolverFields(
+    private fun resolveDataResolverFields(
         formDefinition: FormIoFormDefinition,
-        document: Document,
-        extendedDocumentContent: JsonNode?
-    ) {
-        // FormFieldDataResolver pre-filling
+        document: Document
+    ): List<Triple<String, List<ExternalContentItem>, PrefillSource<MutableMap<String, Any?>>>> {
+        val externalFormFieldsMap = formDefinition.buildExternalFormFieldsMap()
+        if (externalFormFieldsMap.isEmpty()) {
+            return emptyList()
+        }
+
+        // FormFieldDataResolver pre-filling. The resolvers get their own copy of the form definition, as it is
+        // prefilled with the other sources while they might still be running.
         val dataResolvingContext = DataResolvingContext(
             document.definitionId().name(),
             document.id().id,
-            formDefinition.formDefinition
+            formDefinition.formDefinition.deepCopy<JsonNode>()
         )
-        formDefinition
-            .buildExternalFormFieldsMap()
-            .forEach { (externalFormFieldType, externalContentItems) ->
-                formFieldDataResolvers
-                    .stream()
-                    .filter { formFieldDataResolver -> formFieldDataResolver.supports(externalFormFieldType) }
-                    .findFirst()
-                    .ifPresent { formFieldDataResolver ->
-                        val varNames = externalContentItems.stream()
-                            .map { it.name }
-                            .toList()
-                            .toTypedArray()
-                        val externalDataMap = formFieldDataResolver.get(dataResolvingContext, *varNames)
-
-                        // TODO: remove support for legacy separator type and clean up code
-                        //support new notation prefix:some-expression
-                        val dataNode = JsonNodeFactory.instance.objectNode()
-                        externalContentItems.forEach { contentItem ->
-                            if (contentItem.separator == FormIoFormDefinition.EXTERNAL_FORM_FIELD_TYPE_SEPARATOR) {
-                                val fieldName =
-                                    externalFormFieldType + FormIoFormDefinition.EXTERNAL_FORM_FIELD_TYPE_SEPARATOR + contentItem.name
-                                dataNode.set<JsonNode>(
-                                    fieldName,
-                                    objectMapper.valueToTree(externalDataMap[contentItem.name])
-                                )
-                                externalDataMap.remove(contentItem.name)
-                            }
-                        }
-                        formDefinition.preFill(dataNode)
-
-                        // Support old notation prefix.field-a.field-b.field-c
-                        val prefillDataNode = JsonNodeFactory.instance.objectNode()
-                        externalContentItems.forEach { externalContentItem ->
-                            JsonPointerHelper.appendJsonPointerTo(
-                                prefillDataNode,
-                                externalContentItem.jsonPointer,
-                                objectMapper.valueToTree(externalDataMap[externalContentItem.name])
-                            )
-                        }
-                        formDefinition.preFill(prefillDataNode)
+        return externalFormFieldsMap.mapNotNull { (externalFormFieldType, externalContentItems) ->
+            formFieldDataResolvers
+                .firstOrNull { formFieldDataResolver -> formFieldDataResolver.supports(externalFormFieldType) }
+                ?.let { formFieldDataResolver ->
+                    val varNames = externalContentItems.map { it.name }.toTypedArray()
+                    val externalDataMap = submit<MutableMap<String, Any?>>(dataResolverSource(externalFormFieldType)) {
+                        formFieldDataResolver.get(dataResolvingContext, *varNames)
                     }
+                    Triple(externalFormFieldType, externalContentItems, externalDataMap)
+                }
+        }
+    }
+
+    private fun prefillDataResolverFields(
+        formDefinition: FormIoFormDefinition,
+        externalFormFieldType: String,
+        externalContentItems: List<ExternalContentItem>,
+        externalDataMap: MutableMap<String, Any?>
+    ) {
+        // TODO: remove support for legacy separator type and clean up code
+        //support new notation prefix:some-expression
+        val dataNode = JsonNodeFactory.instance.objectNode()
+        externalContentItems.forEach { contentItem ->
+            if (contentItem.separator == FormIoFormDefinition.EXTERNAL_FORM_FIELD_TYPE_SEPARATOR) {
+                val fieldName =
+                    externalFormFieldType + FormIoFormDefinition.EXTERNAL_FORM_FIELD_TYPE_SEPARATOR + contentItem.name
+                dataNode.set<JsonNode>(
+                    fieldName,
+                    objectMapper.valueToTree(externalDataMap[contentItem.name])
+                )
+                externalDataMap.remove(contentItem.name)
             }
-        formDefinition.preFill(extendedDocumentContent)
+        }
+        formDefinition.preFill(dataNode)
+
+        // Support old notation prefix.field-a.field-b.field-c
+        val prefillDataNode = JsonNodeFactory.instance.objectNode()
+        externalContentItems.forEach { externalContentItem ->
+            JsonPointerHelper.appendJsonPointerTo(
+                prefillDataNode,
+                externalContentItem.jsonPointer,
+                objectMapper.valueToTree(externalDataMap[externalContentItem.name])
+            )
+        }
+        formDefinition.preFill(prefillDataNode)
     }
 
     private fun prefillTaskVariables(
         formDefinition: FormIoFormDefinition,
-        taskInstanceId: String,
+        taskVariables: Map<String, Any?>,
         extendedDocumentContent: JsonNode
     ) {
-        val taskVariables = runWithoutAuthorization { taskService.getVariables(taskInstanceId) }
         val placeholders = objectMapper.valueToTree<ObjectNode>(taskVariables)
         formDefinition.preFillWith("pv", taskVariables)
         prePreFillTransform(formDefinition, placeholders, extendedDocumentContent)
     }
 
+    private fun <T> submit(source: String, body: () -> T): PrefillSource<T> {
+        // the executor passes on the security and logging context, the authorization context is passed on here
+        val ignoreAuthorization = AuthorizationContext.ignoreAuthorization
+        val task = Callable {
+            timed(source) {
+                if (ignoreAuthorization) {
+                    runWithoutAuthorization { inTransaction(body) }
+                } else {
+                    inTransaction(body)
+                }
+            }
+        }
+        val deadline = System.nanoTime() + sourceTimeout.toNanos()
+        val future = executor?.submit(task) ?: FutureTask(task).apply { run() }
+        return PrefillSource(source, future, deadline)
+    }
+
+    private fun <T> await(source: PrefillSource<T>): T? {
+        return try {
+            source.future.get(maxOf(0L, source.deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+        } catch (e: TimeoutException) {
+            source.future.cancel(true)
+            logger.warn { "Prefill source '${source.name}' took longer than $sourceTimeout and is left out" }
+            null
+        } catch (e: ExecutionException) {
+            // without an executor the sources run in the transaction of the caller, so failures are not swallowed
+            if (executor == null) {
+                throw e.cause ?: e
+            }
+            logger.warn(e.cause) { "Prefill source '${source.name}' failed and is left out" }
+            null
+        }
+    }
+
+    private fun <T> inTransaction(body: () -> T): T {
+        return if (executor != null && transactionTemplate != null) {
+            transactionTemplate.execute { body() } as T
+        } else {
+            body()
+        }
+    }
+
+    private fun <T> timed(source: String, body: () -> T): T {
+        if (meterRegistry == null) {
+            return body()
+        }
+        val start = System.nanoTime()
+        var outcome = "failure"
+        try {
+            return body().also { outcome = "success" }
+        } finally {
+            Timer.builder("valtimo.form.prefill.source")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+        }
+    }
+
+    private fun dataResolverSource(externalFormFieldType: String) = "$DATA_RESOLVER_SOURCE:$externalFormFieldType"
+
     internal fun prePreFillTransform(formDefinition: FormIoFormDefinition, placeholders: JsonNode, source: JsonNode) {
         val dataToPreFill = JsonNodeFactory.instance.objectNode()
         formDefinition.inputFields.forEach { field ->
@@ -419,10 +542,21 @@ class PrefillFormService(
         return metaDataNode
     }
 
+    private class PrefillSource<T>(
+        val name: String,
+        val future: Future<T>,
+        val deadline: Long,
+    )
+
     companion object {
         private const val CUSTOM_PROPERTIES = "properties"
         private const val CONTAINER_KEY = "container"
         private const val ID_KEY = "_id"
+        private const val VALUE_RESOLVERS_SOURCE = "value-resolvers"
+        private const val DATA_RESOLVER_SOURCE = "form-field-data-resolver"
+        private const val PROCESS_VARIABLES_SOURCE = "process-variables"
+        private const val TASK_VARIABLES_SOURCE = "task-variables"
+        private val logger = KotlinLogging.logger {}
     }
 
 }
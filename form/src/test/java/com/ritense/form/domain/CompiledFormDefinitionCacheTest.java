@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.form.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class CompiledFormDefinitionCacheTest {
+
+    private static final String DEFINITION = "{\"components\":[{\"key\":\"name\",\"type\":\"textfield\",\"input\":true}]}";
+
+    private CompiledFormDefinitionCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CompiledFormDefinitionCache(new ConcurrentMapCacheManager());
+    }
+
+    @Test
+    void shouldReuseCompiledFormWhileNameAndDefinitionAreUnchanged() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        CompiledFormDefinition first = cache.get(id, "form", DEFINITION);
+
+        assertThat(cache.get(id, "form", DEFINITION)).isSameAs(first);
+        assertThat(cache.get(id, "renamed", DEFINITION)).isNotSameAs(first);
+    }
+
+    @Test
+    void shouldCompileAgainAfterEviction() throws Exception {
+        UUID id = UUID.randomUUID();
+        CompiledFormDefinition first = cache.get(id, "form", DEFINITION);
+
+        cache.evict(id);
+
+        assertThat(cache.get(id, "form", DEFINITION)).isNotSameAs(first);
+    }
+}
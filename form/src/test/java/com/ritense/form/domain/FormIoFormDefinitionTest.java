@@ -40,6 +40,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.context.ApplicationContext;
@@ -380,6 +381,52 @@ public class FormIoFormDefinitionTest extends BaseTest {
         assertEquals("{\"array\":[3,4],\"nested\":{\"name\":\"Henk\",\"year\":\"1990\"},\"newKey\":\"value\"}", nameNodeDefaultValue.toString());
     }
 
+    @Test
+    void shouldNotShareDefaultValuesBetweenInstancesOfTheSameForm() throws IOException {
+        final var id = UUID.randomUUID();
+        final var definition = """
+            {"components":[{"key":"person.firstName","type":"textfield","input":true}]}
+        """;
+        final var formDefinition = new FormIoFormDefinition(id, "form-example", definition, false);
+        final var otherInstance = new FormIoFormDefinition(id, "form-example", definition, false);
+
+        formDefinition.preFill(Map.of("person.firstName", "John"));
+
+        assertEquals("John", formDefinition.asJson().get("components").get(0).get("defaultValue").asText());
+        assertNull(otherInstance.asJson().get("components").get(0).get("defaultValue"));
+    }
+
+    @Test
+    void shouldRecompileWhenDefinitionChanges() throws IOException {
+        final var formDefinition = formDefinitionOf("form-example");
+        assertThat(formDefinition.getInputFields()).hasSize(1);
+
+        formDefinition.changeDefinition("""
+            {"components":[{"key":"pv.firstName","type":"textfield","input":true},{"key":"pv.age","type":"number","input":true}]}
+        """);
+
+        assertThat(formDefinition.getInputFields()).hasSize(2);
+        assertThat(formDefinition.extractProcessVarNames()).containsExactly("firstName", "age");
+        assertEquals(
+            "form-example-pv.age",
+            formDefinition.asJson().get("components").get(1).get("attributes").get("data-testid").asText()
+        );
+    }
+
+    @Test
+    void shouldGetPrefillSourceKeys() throws IOException {
+        final var formDefinition = formDefinitionOf("form-example");
+        formDefinition.changeDefinition("""
+            {"components":[
+                {"key":"firstName","type":"textfield","input":true,"properties":{"sourceKey":"doc:firstName"}},
+                {"key":"lastName","type":"textfield","input":true,"prefill":false,"properties":{"sourceKey":"doc:lastName"}},
+                {"key":"age","type":"number","input":true}
+            ]}
+        """);
+
+        assertEquals(Map.of("firstName", "doc:firstName"), formDefinition.getPrefillSourceKeys());
+    }
+
     private void assertExampleExternalField(
         Map<String, List<FormIoFormDefinition.ExternalContentItem>> externalContent,
         boolean shouldIncludeDisabledFields
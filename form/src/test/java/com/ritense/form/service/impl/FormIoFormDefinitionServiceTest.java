@@ -19,25 +19,33 @@ package com.ritense.form.service.impl;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ritense.form.BaseTest;
+import com.ritense.form.domain.CompiledFormDefinitionCache;
 import com.ritense.form.domain.FormIoFormDefinition;
 import com.ritense.form.domain.request.CreateFormDefinitionRequest;
 import com.ritense.form.repository.FormDefinitionRepository;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 public class FormIoFormDefinitionServiceTest extends BaseTest {
 
     private FormDefinitionRepository formDefinitionRepository;
+    private CompiledFormDefinitionCache compiledFormDefinitionCache;
     private FormIoFormDefinitionService formIoFormDefinitionService;
 
     @BeforeEach
     public void setUp() {
         formDefinitionRepository = mock(FormDefinitionRepository.class);
-        formIoFormDefinitionService = new FormIoFormDefinitionService(formDefinitionRepository);
+        compiledFormDefinitionCache = mock(CompiledFormDefinitionCache.class);
+        formIoFormDefinitionService = new FormIoFormDefinitionService(
+            formDefinitionRepository,
+            compiledFormDefinitionCache
+        );
     }
 
     @Test
@@ -63,4 +71,12 @@ public class FormIoFormDefinitionServiceTest extends BaseTest {
         CreateFormDefinitionRequest request = new CreateFormDefinitionRequest("test", "", false);
         assertThrows(IllegalArgumentException.class, () -> formIoFormDefinitionService.createFormDefinition(request));
     }
+
+    @Test
+    public void shouldEvictCompiledFormWhenDeletingFormDefinition() {
+        UUID formDefinitionId = UUID.randomUUID();
+        formIoFormDefinitionService.deleteFormDefinition(formDefinitionId);
+        verify(formDefinitionRepository).deleteById(formDefinitionId);
+        verify(compiledFormDefinitionCache).evict(formDefinitionId);
+    }
 }
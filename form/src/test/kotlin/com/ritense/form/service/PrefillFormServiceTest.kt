@@ -33,6 +33,7 @@ import com.ritense.form.BaseTest
 import com.ritense.form.domain.FormIoFormDefinition
 import com.ritense.form.service.impl.FormIoFormDefinitionService
 import com.ritense.processdocument.service.ProcessDocumentAssociationService
+import com.ritense.valtimo.contract.concurrent.ContextPropagatingTaskExecutors
 import com.ritense.valtimo.contract.form.FormFieldDataResolver
 import com.ritense.valtimo.contract.json.MapperSingleton
 import com.ritense.valtimo.contract.json.patch.operation.AddOperation
@@ -123,6 +124,46 @@ class PrefillFormServiceTest : BaseTest() {
         }
     }
 
+    @Test
+    fun shouldLeaveOutFailingSourceWhenResolvingConcurrently() {
+        val executor = ContextPropagatingTaskExecutors.fixed("form-prefill-", 2).apply { initialize() }
+        val concurrentPrefillFormService = PrefillFormService(
+            documentService,
+            formDefinitionService,
+            camundaProcessService,
+            taskService,
+            listOf(formFieldDataResolver),
+            processDocumentAssociationService,
+            valueResolverService,
+            MapperSingleton.get(),
+            authorizationService,
+            executor = executor
+        )
+        val formDefinition = formDefinitionOf("form-example-various-prefill-fields")
+        val document = document()
+
+        whenever(formDefinitionService.getFormDefinitionById(formDefinition.id))
+            .thenReturn(Optional.of(formDefinition))
+        whenever(documentService.get(eq(document.id().toString())))
+            .thenReturn(document)
+        whenever(valueResolverService.supportsValue(any())).thenReturn(true)
+        whenever(valueResolverService.resolveValues(eq(document.id().toString()), any()))
+            .thenThrow(IllegalStateException("Value resolver unavailable"))
+
+        try {
+            val prefilledFormDefinition = concurrentPrefillFormService
+                .getPrefilledFormDefinition(formDefinition.id!!, document.id.id)
+
+            val defaultValue = prefilledFormDefinition.inputFields
+                .first { FormIoFormDefinition.getKey(it).get() == "vrDocFirstName" }
+                .path(FormIoFormDefinition.DEFAULT_VALUE_FIELD)
+                .textValue()
+            assertThat(defaultValue).isEqualTo("Jane")
+        } finally {
+            executor.shutdown()
+        }
+    }
+
     @Test
     fun prePreFillTransform() {
         val formDefinition = formDefinitionOf("existing-item-array-form-example")
@@ -23,6 +23,7 @@ import mu.KLogger
 import mu.KotlinLogging
 import org.springframework.amqp.core.Message
 import org.springframework.amqp.rabbit.connection.CorrelationData
+import org.springframework.amqp.rabbit.core.RabbitOperations
 import org.springframework.amqp.rabbit.core.RabbitTemplate
 import java.time.Duration
 import java.util.UUID
@@ -33,7 +34,9 @@ class RabbitMessagePublisher(
     private val rabbitTemplate: RabbitTemplate,
     routingKey: String? = null,
     private val deliveryTimeout: Duration = Duration.ofSeconds(1),
-    exchange: String? = null
+    exchange: String? = null,
+    private val confirmWindow: Int = 100,
+    private val ordered: Boolean = true
 ) : MessagePublisher {
 
     private val exchange: String = exchange ?: run {
@@ -49,14 +52,50 @@ class RabbitMessagePublisher(
         require(rabbitTemplate.connectionFactory.isPublisherConfirms) { "The RabbitMQ outbox publisher requires correlated publisher-confirm-type!" }
         require(rabbitTemplate.connectionFactory.isPublisherReturns) { "The RabbitMQ outbox publisher requires publisher-returns to be enabled!" }
         require(rabbitTemplate.isMandatoryFor(Message("test".toByteArray()))) { "The RabbitMQ outbox publisher requires messages to be mandatory!" }
+        require(confirmWindow > 0) { "The RabbitMQ outbox publisher requires a confirm-window greater than 0!" }
     }
 
     override fun publish(message: OutboxMessage) {
+        awaitConfirm(send(rabbitTemplate, message))
+    }
+
+    /**
+     * Sends the messages without waiting for each individual confirm. At most [confirmWindow] messages are unconfirmed
+     * at any time. When [ordered] is set, all messages are sent over one dedicated channel, so the broker receives them
+     * in the given order.
+     */
+    override fun publishAll(messages: List<OutboxMessage>) {
+        if (ordered) {
+            rabbitTemplate.invoke { operations -> publishPipelined(operations, messages) }
+        } else {
+            publishPipelined(rabbitTemplate, messages)
+        }
+    }
+
+    private fun publishPipelined(operations: RabbitOperations, messages: List<OutboxMessage>) {
+        val unconfirmed = ArrayDeque<PendingConfirm>(minOf(confirmWindow, messages.size))
+        messages.forEach { message ->
+            if (unconfirmed.size >= confirmWindow) {
+                awaitConfirm(unconfirmed.removeFirst())
+            }
+            unconfirmed.addLast(send(operations, message))
+        }
+        while (unconfirmed.isNotEmpty()) {
+            awaitConfirm(unconfirmed.removeFirst())
+        }
+    }
+
+    private fun send(operations: RabbitOperations, message: OutboxMessage): PendingConfirm {
         val correlationData = CorrelationData(UUID.randomUUID().toString())
         logger.trace { "Sending message to RabbitMQ: routingKey=${routingKey}, msgId=${message.id}, correlationId= ${correlationData.id}" }
 
-        rabbitTemplate.convertAndSend(exchange, routingKey, message.message, correlationData)
+        operations.convertAndSend(exchange, routingKey, message.message, correlationData)
+        return PendingConfirm(message, correlationData)
+    }
 
+    private fun awaitConfirm(pendingConfirm: PendingConfirm) {
+        val message = pendingConfirm.message
+        val correlationData = pendingConfirm.correlationData
         try {
             val result = correlationData.future.get(deliveryTimeout.toMillis(), TimeUnit.MILLISECONDS)
             if (!result!!.isAck) {
@@ -70,7 +109,12 @@ class RabbitMessagePublisher(
         }
     }
 
+    private class PendingConfirm(
+        val message: OutboxMessage,
+        val correlationData: CorrelationData
+    )
+
     companion object {
         private val logger: KLogger = KotlinLogging.logger {}
     }
-}
\ No newline at end of file
+}
@@ -38,7 +38,9 @@ class RabbitOutboxAutoconfiguration {
             rabbitTemplate,
             configurationProperties.routingKey,
             configurationProperties.deliveryTimeout,
-            configurationProperties.exchange
+            configurationProperties.exchange,
+            configurationProperties.confirmWindow,
+            configurationProperties.ordered
         )
     }
 }
\ No newline at end of file
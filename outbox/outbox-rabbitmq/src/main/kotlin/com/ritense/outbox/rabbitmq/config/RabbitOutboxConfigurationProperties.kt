@@ -23,6 +23,8 @@ import java.time.Duration
 data class RabbitOutboxConfigurationProperties (
     val exchange: String? = null,
     val routingKey: String? = null,
-    val deliveryTimeout: Duration = Duration.ofSeconds(1)
+    val deliveryTimeout: Duration = Duration.ofSeconds(1),
+    val confirmWindow: Int = 100,
+    val ordered: Boolean = true
 )
 
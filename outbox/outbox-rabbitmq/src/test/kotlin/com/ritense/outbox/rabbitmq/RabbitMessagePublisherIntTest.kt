@@ -49,6 +49,21 @@ class RabbitMessagePublisherIntTest : BaseIntegrationTest() {
             val msg = rabbitTemplate.receive(configurationProperties.routingKey!!)
             assertThat(msg!!.body.toString(Charsets.UTF_8)).isEqualTo(uuid)
         }
+
+        @Test
+        fun `should send batch of messages to rabbitmq queue in order`() {
+            rabbitAdmin.purgeQueue(configurationProperties.routingKey!!)
+
+            val uuids = (1..5).map { UUID.randomUUID().toString() }
+            springCloudMessagePublisher.publishAll(
+                uuids.map { OutboxMessage(message = it) }
+            )
+
+            val received = uuids.map {
+                rabbitTemplate.receive(configurationProperties.routingKey!!)!!.body.toString(Charsets.UTF_8)
+            }
+            assertThat(received).containsExactlyElementsOf(uuids)
+        }
     }
 
     @Nested
@@ -8,11 +8,15 @@ import org.junit.jupiter.api.assertThrows
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import org.springframework.amqp.core.MessageBuilder
 import org.springframework.amqp.core.ReturnedMessage
 import org.springframework.amqp.rabbit.connection.ConnectionFactory
 import org.springframework.amqp.rabbit.connection.CorrelationData
+import org.springframework.amqp.rabbit.core.RabbitOperations
 import org.springframework.amqp.rabbit.core.RabbitTemplate
 
 class RabbitMessagePublisherTest {
@@ -101,6 +105,54 @@ class RabbitMessagePublisherTest {
         Assertions.assertThat(ex.message).contains("not confirmed in time")
     }
 
+    @Test
+    fun `should publish all messages over a dedicated channel when ordered`() {
+        val rabbitTemplate = getMockedRabbitTemplate()
+        whenever(rabbitTemplate.invoke<Any>(any())).thenAnswer { answer ->
+            answer.getArgument<RabbitOperations.OperationsCallback<Any>>(0).doInRabbit(rabbitTemplate)
+        }
+        whenever(rabbitTemplate.convertAndSend(any<String>(), eq("test"), any<String>(), any<CorrelationData>())).thenAnswer { answer ->
+            answer.getArgument(3, CorrelationData::class.java).future.complete(CorrelationData.Confirm(true, null))
+        }
+
+        val publisher = RabbitMessagePublisher(rabbitTemplate, "test", confirmWindow = 2)
+        publisher.publishAll((1..5).map { OutboxMessage(message = "test $it") })
+
+        verify(rabbitTemplate, times(1)).invoke<Any>(any())
+        verify(rabbitTemplate, times(5)).convertAndSend(any<String>(), eq("test"), any<String>(), any<CorrelationData>())
+    }
+
+    @Test
+    fun `should publish all messages without a dedicated channel when not ordered`() {
+        val rabbitTemplate = getMockedRabbitTemplate()
+        whenever(rabbitTemplate.convertAndSend(any<String>(), eq("test"), any<String>(), any<CorrelationData>())).thenAnswer { answer ->
+            answer.getArgument(3, CorrelationData::class.java).future.complete(CorrelationData.Confirm(true, null))
+        }
+
+        val publisher = RabbitMessagePublisher(rabbitTemplate, "test", confirmWindow = 2, ordered = false)
+        publisher.publishAll((1..5).map { OutboxMessage(message = "test $it") })
+
+        verify(rabbitTemplate, never()).invoke<Any>(any())
+        verify(rabbitTemplate, times(5)).convertAndSend(any<String>(), eq("test"), any<String>(), any<CorrelationData>())
+    }
+
+    @Test
+    fun `should fail batch when one message in the batch is not acknowledged`() {
+        val rabbitTemplate = getMockedRabbitTemplate()
+        whenever(rabbitTemplate.convertAndSend(any<String>(), eq("test"), any<String>(), any<CorrelationData>())).thenAnswer { answer ->
+            val ack = answer.getArgument(2, String::class.java) != "test 3"
+            answer.getArgument(3, CorrelationData::class.java).future.complete(CorrelationData.Confirm(ack, "reasons"))
+        }
+
+        val publisher = RabbitMessagePublisher(rabbitTemplate, "test", ordered = false)
+
+        val ex = assertThrows<MessagePublishingFailed> {
+            publisher.publishAll((1..5).map { OutboxMessage(message = "test $it") })
+        }
+
+        Assertions.assertThat(ex.message).contains("not acknowledged")
+    }
+
     private fun getMockedRabbitTemplate(
         publisherConfirms: Boolean = true,
         publisherReturns: Boolean = true,
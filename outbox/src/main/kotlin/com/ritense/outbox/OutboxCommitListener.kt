@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.outbox
+
+/**
+ * Is called once for every committing transaction in which one or more outbox messages were sent.
+ */
+interface OutboxCommitListener {
+
+    /**
+     * Runs inside the transaction, just before it commits.
+     */
+    fun beforeCommit() {
+        // Nothing to do
+    }
+
+    /**
+     * Runs after the transaction has committed, on the thread that committed it.
+     */
+    fun afterCommit() {
+        // Nothing to do
+    }
+}
@@ -35,5 +35,20 @@ class OutboxMessage(
     val message: String,
 
     @Column(name = "created_on")
-    val createdOn: LocalDateTime = LocalDateTime.now()
-)
+    val createdOn: LocalDateTime = LocalDateTime.now(),
+
+    @Column(name = "partition_key")
+    val partitionKey: Int = partitionKeyOf(id.toString())
+) {
+    companion object {
+        /**
+         * The fixed number of partitions. Messages are only guaranteed to be published in order within one partition.
+         */
+        const val PARTITION_COUNT = 256
+
+        /**
+         * Messages about the same aggregate always end up in the same partition.
+         */
+        fun partitionKeyOf(aggregateId: String): Int = Math.floorMod(aggregateId.hashCode(), PARTITION_COUNT)
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.outbox
+
+import jakarta.persistence.Column
+import jakarta.persistence.Entity
+import jakarta.persistence.Id
+import jakarta.persistence.Table
+import java.time.LocalDateTime
+
+/**
+ * A range of outbox partitions. A publisher worker holds a row lock on a range while it drains the messages of that
+ * range, so at most one worker in the cluster publishes the messages of a partition at any time.
+ */
+@Entity
+@Table(name = "outbox_partition_range")
+class OutboxPartitionRange(
+
+    @Id
+    @Column(name = "range_id")
+    val rangeId: Int,
+
+    @Column(name = "last_drained_on")
+    var lastDrainedOn: LocalDateTime = LocalDateTime.now()
+)
@@ -27,6 +27,7 @@ import io.cloudevents.jackson.JsonFormat
 import mu.KotlinLogging
 import org.springframework.transaction.annotation.Propagation
 import org.springframework.transaction.annotation.Transactional
+import org.springframework.transaction.support.TransactionSynchronization
 import org.springframework.transaction.support.TransactionSynchronizationManager
 import java.net.URI
 import java.time.ZonedDateTime
@@ -39,6 +40,7 @@ open class ValtimoOutboxService(
     private val objectMapper: ObjectMapper,
     private val userProvider: UserProvider,
     private val cloudEventSource: String,
+    private val commitListeners: () -> List<OutboxCommitListener> = { emptyList() },
 ) : OutboxService {
 
     @Transactional(propagation = Propagation.MANDATORY)
@@ -63,7 +65,7 @@ open class ValtimoOutboxService(
             .serialize(cloudEvent)
         val serializedCloudEventString = String(serializedCloudEvent, UTF_8)
 
-        send(serializedCloudEventString)
+        send(serializedCloudEventString, baseEvent.resultId)
     }
 
     /**
@@ -80,21 +82,67 @@ open class ValtimoOutboxService(
      */
     @Transactional(propagation = Propagation.MANDATORY)
     open fun send(message: String) {
+        send(message, null)
+    }
+
+    /**
+     * Messages sent with the same aggregateId are published in the order they were sent.
+     * Messages without an aggregateId have no ordering guarantee when partitioned publishing is enabled.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    open fun send(message: String, aggregateId: String?) {
         if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
             throw OutboxTransactionReadOnlyException()
         }
 
+        val id = UUID.randomUUID()
         val outboxMessage = OutboxMessage(
-            message = message
+            id = id,
+            message = message,
+            partitionKey = OutboxMessage.partitionKeyOf(aggregateId ?: id.toString())
         )
         logger.debug { "Saving OutboxMessage '${outboxMessage.id}'" }
         outboxMessageRepository.save(outboxMessage)
+        registerCommitListeners()
+    }
+
+    private fun registerCommitListeners() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+            && TransactionSynchronizationManager.getSynchronizations().none { it is CommitListenerSynchronization }
+        ) {
+            val listeners = commitListeners()
+            if (listeners.isNotEmpty()) {
+                TransactionSynchronizationManager.registerSynchronization(CommitListenerSynchronization(listeners))
+            }
+        }
     }
 
     open fun getOldestMessage() = outboxMessageRepository.findOutboxMessage()
 
+    open fun getOldestMessages(limit: Int) = outboxMessageRepository.findOutboxMessages(limit)
+
+    open fun getOldestMessages(fromPartitionKey: Int, toPartitionKey: Int, limit: Int) =
+        outboxMessageRepository.findOutboxMessages(fromPartitionKey, toPartitionKey, limit)
+
     open fun deleteMessage(id: UUID) = outboxMessageRepository.deleteById(id)
 
+    open fun deleteMessages(ids: List<UUID>) = outboxMessageRepository.deleteAllByIdInBatch(ids)
+
+    /**
+     * Notifies the listeners once per transaction, no matter how many messages were sent in it.
+     */
+    private class CommitListenerSynchronization(
+        private val listeners: List<OutboxCommitListener>
+    ) : TransactionSynchronization {
+        override fun beforeCommit(readOnly: Boolean) {
+            listeners.forEach { it.beforeCommit() }
+        }
+
+        override fun afterCommit() {
+            listeners.forEach { it.afterCommit() }
+        }
+    }
+
     companion object {
         private val logger = KotlinLogging.logger {}
     }
@@ -17,9 +17,12 @@
 package com.ritense.outbox.config
 
 import com.fasterxml.jackson.databind.ObjectMapper
+import com.ritense.outbox.OutboxCommitListener
 import com.ritense.outbox.OutboxLiquibaseRunner
 import com.ritense.outbox.OutboxMessage
+import com.ritense.outbox.OutboxPartitionRange
 import com.ritense.outbox.repository.OutboxMessageRepository
+import com.ritense.outbox.repository.OutboxPartitionRangeRepository
 import com.ritense.outbox.OutboxService
 import com.ritense.outbox.UserProvider
 import com.ritense.outbox.ValtimoOutboxService
@@ -27,11 +30,17 @@ import com.ritense.outbox.config.condition.ConditionalOnOutboxEnabled
 import com.ritense.outbox.repository.impl.MySqlOutboxMessageRepository
 import com.ritense.outbox.repository.impl.PostgresOutboxMessageRepository
 import com.ritense.outbox.publisher.MessagePublisher
+import com.ritense.outbox.publisher.PartitionedPollingPublisherService
 import com.ritense.outbox.publisher.PollingPublisherJob
 import com.ritense.outbox.publisher.PollingPublisherService
+import com.ritense.outbox.publisher.PostgresPublisherNotifier
+import com.ritense.outbox.publisher.PublisherTrigger
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.ObjectProvider
 import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.AutoConfigureAfter
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.boot.autoconfigure.domain.EntityScan
@@ -77,12 +86,39 @@ class OutboxAutoConfiguration {
         objectMapper: ObjectMapper,
         userProvider: UserProvider,
         @Value("\${valtimo.outbox.publisher.cloudevent-source:\${spring.application.name:application}}") cloudEventSource: String,
+        outboxCommitListeners: ObjectProvider<OutboxCommitListener>,
     ): OutboxService {
+        val commitListeners by lazy { outboxCommitListeners.orderedStream().toList() }
         return ValtimoOutboxService(
             outboxMessageRepository,
             objectMapper,
             userProvider,
             cloudEventSource,
+        ) { commitListeners }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(PollingPublisherService::class)
+    @ConditionalOnProperty(prefix = "valtimo.outbox.publisher.partitioning", name = ["enabled"], havingValue = "true")
+    fun partitionedPollingPublisherService(
+        outboxService: ValtimoOutboxService,
+        messagePublisher: MessagePublisher,
+        platformTransactionManager: PlatformTransactionManager,
+        outboxPartitionRangeRepository: OutboxPartitionRangeRepository,
+        @Value("\${valtimo.outbox.publisher.polling.batch-size:1}") batchSize: Int,
+        @Value("\${valtimo.outbox.publisher.partitioning.range-count:16}") rangeCount: Int,
+        @Value("\${valtimo.outbox.publisher.partitioning.worker-count:4}") workerCount: Int,
+        meterRegistry: ObjectProvider<MeterRegistry>,
+    ): PollingPublisherService {
+        return PartitionedPollingPublisherService(
+            outboxService,
+            messagePublisher,
+            platformTransactionManager,
+            outboxPartitionRangeRepository,
+            batchSize,
+            rangeCount,
+            workerCount,
+            meterRegistry.ifAvailable
         )
     }
 
@@ -91,21 +127,52 @@ class OutboxAutoConfiguration {
     fun pollingPublisherService(
         outboxService: ValtimoOutboxService,
         messagePublisher: MessagePublisher,
-        platformTransactionManager: PlatformTransactionManager
+        platformTransactionManager: PlatformTransactionManager,
+        @Value("\${valtimo.outbox.publisher.polling.batch-size:1}") batchSize: Int,
+        meterRegistry: ObjectProvider<MeterRegistry>,
     ): PollingPublisherService {
         return PollingPublisherService(
             outboxService,
             messagePublisher,
-            platformTransactionManager
+            platformTransactionManager,
+            batchSize,
+            meterRegistry.ifAvailable
         )
     }
 
+    @Bean
+    @ConditionalOnMissingBean(PublisherTrigger::class)
+    @ConditionalOnProperty(prefix = "valtimo.outbox.publisher.push", name = ["enabled"], havingValue = "true")
+    fun publisherTrigger(
+        pollingPublisherService: PollingPublisherService
+    ): PublisherTrigger {
+        return PublisherTrigger(pollingPublisherService)
+    }
+
+    @Bean
+    @ConditionalOnBean(PublisherTrigger::class)
+    @ConditionalOnMissingBean(PostgresPublisherNotifier::class)
+    @ConditionalOnProperty(prefix = "valtimo", name = ["database"], havingValue = "postgres")
+    fun postgresPublisherNotifier(
+        dataSource: DataSource,
+        publisherTrigger: PublisherTrigger
+    ): PostgresPublisherNotifier {
+        return PostgresPublisherNotifier(dataSource, publisherTrigger)
+    }
+
     @Bean
     @ConditionalOnMissingBean(PollingPublisherJob::class)
     fun pollingPublisherJob(
-        pollingPublisherService: PollingPublisherService
+        pollingPublisherService: PollingPublisherService,
+        publisherTrigger: ObjectProvider<PublisherTrigger>
     ): PollingPublisherJob {
-        return PollingPublisherJob(pollingPublisherService)
+        return PollingPublisherJob(pollingPublisherService, publisherTrigger.ifAvailable)
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "valtimo.outbox.publisher.partitioning", name = ["enabled"], havingValue = "true")
+    fun outboxPartitionRangeRepository(): JpaRepositoryFactoryBean<OutboxPartitionRangeRepository, OutboxPartitionRange, Int> {
+        return JpaRepositoryFactoryBean(OutboxPartitionRangeRepository::class.java)
     }
 
     @Bean
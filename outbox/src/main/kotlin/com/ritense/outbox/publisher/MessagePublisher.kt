@@ -21,4 +21,12 @@ import com.ritense.outbox.OutboxMessage
 interface MessagePublisher {
 
     fun publish(message: OutboxMessage)
+
+    /**
+     * Publishes all messages in the given order. Returns only when every message has been confirmed, and throws
+     * otherwise. Implementations can override this to pipeline the messages instead of publishing them one by one.
+     */
+    fun publishAll(messages: List<OutboxMessage>) {
+        messages.forEach { publish(it) }
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.outbox.publisher
+
+import com.ritense.outbox.OutboxMessage.Companion.PARTITION_COUNT
+import com.ritense.outbox.OutboxPartitionRange
+import com.ritense.outbox.ValtimoOutboxService
+import com.ritense.outbox.repository.OutboxPartitionRangeRepository
+import io.micrometer.core.instrument.MeterRegistry
+import mu.KotlinLogging
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.dao.DataIntegrityViolationException
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.support.TransactionTemplate
+import java.time.LocalDateTime
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Publishes outbox messages with several workers in parallel, on one or more nodes.
+ *
+ * The partitions are divided into [rangeCount] ranges. A worker locks one range at a time and publishes the oldest
+ * messages of that range, so messages of the same aggregate are published in order, while messages of different
+ * aggregates are published in parallel. The [rangeCount] must be the same on every node.
+ */
+open class PartitionedPollingPublisherService(
+    private val outboxService: ValtimoOutboxService,
+    private val messagePublisher: MessagePublisher,
+    private val platformTransactionManager: PlatformTransactionManager,
+    private val partitionRangeRepository: OutboxPartitionRangeRepository,
+    private val batchSize: Int,
+    private val rangeCount: Int,
+    private val workerCount: Int,
+    meterRegistry: MeterRegistry? = null
+) : PollingPublisherService(outboxService, messagePublisher, platformTransactionManager, batchSize, meterRegistry),
+    DisposableBean {
+
+    private val polling = AtomicBoolean(false)
+    private val rangesCreated = AtomicBoolean(false)
+    private val executor: ExecutorService
+
+    init {
+        require(rangeCount in 1..PARTITION_COUNT) { "The outbox publisher range-count must be between 1 and $PARTITION_COUNT" }
+        require(workerCount > 0) { "The outbox publisher worker-count must be greater than 0" }
+        val threadNumber = AtomicInteger()
+        executor = Executors.newFixedThreadPool(workerCount) { runnable ->
+            Thread(runnable, "outbox-publisher-${threadNumber.incrementAndGet()}").apply { isDaemon = true }
+        }
+        logger.info { "Publishing outbox messages with $workerCount workers over $rangeCount partition ranges." }
+    }
+
+    override fun pollAndPublishAll() {
+        if (polling.compareAndSet(false, true)) {
+            try {
+                createMissingRanges()
+                executor.invokeAll(List(workerCount) { Callable { drainRanges() } })
+                    .forEach { it.get() }
+            } catch (e: Exception) {
+                throw RuntimeException("Failed to poll and publish outbox messages", e)
+            } finally {
+                polling.set(false)
+            }
+        }
+    }
+
+    override fun destroy() {
+        executor.shutdownNow()
+    }
+
+    private fun drainRanges() {
+        var emptyRangesInARow = 0
+        while (emptyRangesInARow < rangeCount) {
+            val publishedCount = TransactionTemplate(platformTransactionManager).execute { drainNextRange() }
+            when (publishedCount) {
+                null -> return // All ranges are being drained by other workers
+                0 -> emptyRangesInARow++
+                else -> emptyRangesInARow = 0
+            }
+        }
+    }
+
+    private fun drainNextRange(): Int? {
+        val range = partitionRangeRepository.lockLeastRecentlyDrainedRange(rangeCount) ?: return null
+        val fromPartitionKey = range.rangeId * PARTITION_COUNT / rangeCount
+        val toPartitionKey = (range.rangeId + 1) * PARTITION_COUNT / rangeCount - 1
+
+        val oldestMessages = outboxService.getOldestMessages(fromPartitionKey, toPartitionKey, batchSize)
+        if (oldestMessages.isNotEmpty()) {
+            val start = System.nanoTime()
+            logger.debug { "Sending ${oldestMessages.size} OutboxMessages of partition range ${range.rangeId}" }
+            messagePublisher.publishAll(oldestMessages)
+            outboxService.deleteMessages(oldestMessages.map { it.id })
+            recordPublishLatency(oldestMessages)
+            logBatchThroughput(oldestMessages.size, System.nanoTime() - start)
+        }
+        range.lastDrainedOn = LocalDateTime.now()
+        return oldestMessages.size
+    }
+
+    private fun createMissingRanges() {
+        if (rangesCreated.get()) {
+            return
+        }
+        (0 until rangeCount).forEach { rangeId ->
+            try {
+                TransactionTemplate(platformTransactionManager).executeWithoutResult {
+                    if (!partitionRangeRepository.existsById(rangeId)) {
+                        partitionRangeRepository.save(OutboxPartitionRange(rangeId))
+                    }
+                }
+            } catch (e: DataIntegrityViolationException) {
+                logger.debug { "Outbox partition range $rangeId was created by another node" }
+            }
+        }
+        rangesCreated.set(true)
+    }
+
+    companion object {
+        private val logger = KotlinLogging.logger {}
+    }
+}
@@ -19,11 +19,20 @@ package com.ritense.outbox.publisher
 import org.springframework.scheduling.annotation.Scheduled
 
 class PollingPublisherJob(
-    private val pollingPublisherService: PollingPublisherService
+    private val pollingPublisherService: PollingPublisherService,
+    private val publisherTrigger: PublisherTrigger? = null
 ) {
 
+    /**
+     * When the [PublisherTrigger] is enabled, this poll is only a safety net. It then runs through the trigger, so all
+     * publishing on this node happens on one thread and no trigger is lost while a poll is in progress.
+     */
     @Scheduled(fixedRateString = "\${valtimo.outbox.publisher.polling.rate:PT10S}")
     fun scheduledTaskPollMessage() {
-        pollingPublisherService.pollAndPublishAll()
+        if (publisherTrigger != null) {
+            publisherTrigger.trigger()
+        } else {
+            pollingPublisherService.pollAndPublishAll()
+        }
     }
 }
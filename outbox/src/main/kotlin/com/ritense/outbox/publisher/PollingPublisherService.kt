@@ -16,20 +16,34 @@
 
 package com.ritense.outbox.publisher
 
+import com.ritense.outbox.OutboxMessage
 import com.ritense.outbox.ValtimoOutboxService
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
 import mu.KotlinLogging
 import org.springframework.transaction.PlatformTransactionManager
 import org.springframework.transaction.support.TransactionTemplate
+import java.time.Duration
+import java.time.LocalDateTime
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicBoolean
 
 open class PollingPublisherService(
     private val outboxService: ValtimoOutboxService,
     private val messagePublisher: MessagePublisher,
-    private val platformTransactionManager: PlatformTransactionManager
+    private val platformTransactionManager: PlatformTransactionManager,
+    private val batchSize: Int = 1,
+    meterRegistry: MeterRegistry? = null
 ) {
     private val polling = AtomicBoolean(false)
+    private val publishLatencyTimer = meterRegistry?.let {
+        Timer.builder("valtimo.outbox.publish.latency")
+            .description("Time between saving an outbox message and publishing it")
+            .register(it)
+    }
 
     init {
+        require(batchSize > 0) { "The outbox publisher batch-size must be greater than 0" }
         logger.info { "Using ${messagePublisher::class.qualifiedName} as outbox message publisher." }
     }
 
@@ -41,13 +55,10 @@ open class PollingPublisherService(
             try {
                 do {
                     TransactionTemplate(platformTransactionManager).executeWithoutResult {
-                        val oldestMessage = outboxService.getOldestMessage()
-                        if (oldestMessage != null) {
-                            logger.debug { "Sending OutboxMessage '${oldestMessage.id}'" }
-                            messagePublisher.publish(oldestMessage)
-                            outboxService.deleteMessage(oldestMessage.id)
+                        if (batchSize > 1) {
+                            pollAndPublishBatch()
                         } else {
-                            polling.set(false)
+                            pollAndPublishOne()
                         }
                     }
                 } while (polling.get())
@@ -59,6 +70,48 @@ open class PollingPublisherService(
         }
     }
 
+    private fun pollAndPublishOne() {
+        val oldestMessage = outboxService.getOldestMessage()
+        if (oldestMessage != null) {
+            logger.debug { "Sending OutboxMessage '${oldestMessage.id}'" }
+            messagePublisher.publish(oldestMessage)
+            outboxService.deleteMessage(oldestMessage.id)
+            recordPublishLatency(listOf(oldestMessage))
+        } else {
+            polling.set(false)
+        }
+    }
+
+    private fun pollAndPublishBatch() {
+        val oldestMessages = outboxService.getOldestMessages(batchSize)
+        if (oldestMessages.isNotEmpty()) {
+            val start = System.nanoTime()
+            logger.debug { "Sending ${oldestMessages.size} OutboxMessages, starting with '${oldestMessages.first().id}'" }
+            messagePublisher.publishAll(oldestMessages)
+            outboxService.deleteMessages(oldestMessages.map { it.id })
+            recordPublishLatency(oldestMessages)
+            logBatchThroughput(oldestMessages.size, System.nanoTime() - start)
+        }
+        if (oldestMessages.size < batchSize) {
+            polling.set(false)
+        }
+    }
+
+    protected fun recordPublishLatency(messages: List<OutboxMessage>) {
+        if (publishLatencyTimer != null) {
+            val now = LocalDateTime.now()
+            messages.forEach { publishLatencyTimer.record(Duration.between(it.createdOn, now)) }
+        }
+    }
+
+    protected fun logBatchThroughput(messageCount: Int, durationNanos: Long) {
+        logger.debug {
+            val durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos)
+            val messagesPerSecond = messageCount * TimeUnit.SECONDS.toNanos(1) / durationNanos.coerceAtLeast(1)
+            "Published $messageCount OutboxMessages in $durationMillis ms ($messagesPerSecond msg/s)"
+        }
+    }
+
     companion object {
         val logger = KotlinLogging.logger {}
     }
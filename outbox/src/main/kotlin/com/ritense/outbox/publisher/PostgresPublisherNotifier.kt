@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.outbox.publisher
+
+import com.ritense.outbox.OutboxCommitListener
+import com.zaxxer.hikari.HikariDataSource
+import mu.KotlinLogging
+import org.postgresql.PGConnection
+import org.springframework.context.SmartLifecycle
+import org.springframework.jdbc.core.JdbcTemplate
+import java.sql.Connection
+import java.sql.DriverManager
+import java.util.Properties
+import javax.sql.DataSource
+
+/**
+ * Triggers publishing on every node using Postgres LISTEN/NOTIFY.
+ *
+ * A NOTIFY is sent inside every transaction that saves outbox messages. Postgres only delivers it when that transaction
+ * commits. Every node keeps one connection open that LISTENs on the channel and triggers its [PublisherTrigger]. That
+ * connection is opened outside the connection pool, so the listener never takes a pooled connection away from the
+ * application.
+ */
+class PostgresPublisherNotifier(
+    private val dataSource: DataSource,
+    private val publisherTrigger: PublisherTrigger
+) : OutboxCommitListener, SmartLifecycle {
+
+    private val jdbcTemplate = JdbcTemplate(dataSource)
+
+    @Volatile
+    private var running = false
+    private var listenerThread: Thread? = null
+
+    override fun beforeCommit() {
+        jdbcTemplate.execute("NOTIFY $CHANNEL")
+    }
+
+    override fun start() {
+        running = true
+        listenerThread = Thread(::listen, "outbox-notification-listener").apply {
+            isDaemon = true
+            start()
+        }
+    }
+
+    override fun stop() {
+        running = false
+        listenerThread?.interrupt()
+    }
+
+    override fun isRunning() = running
+
+    private fun listen() {
+        while (running) {
+            try {
+                openListenerConnection().use { connection ->
+                    connection.autoCommit = true
+                    connection.createStatement().use { it.execute("LISTEN $CHANNEL") }
+                    logger.debug { "Listening for outbox notifications on channel '$CHANNEL'" }
+                    val pgConnection = connection.unwrap(PGConnection::class.java)
+                    while (running) {
+                        val notifications = pgConnection.getNotifications(NOTIFICATION_TIMEOUT_MILLIS)
+                        if (!notifications.isNullOrEmpty()) {
+                            publisherTrigger.trigger()
+                        }
+                    }
+                }
+            } catch (e: Exception) {
+                if (running) {
+                    logger.warn(e) { "Lost the outbox notification listener connection. Reconnecting." }
+                    sleepBeforeReconnect()
+                }
+            }
+        }
+    }
+
+    private fun openListenerConnection(): Connection {
+        val hikariDataSource = if (dataSource.isWrapperFor(HikariDataSource::class.java)) {
+            dataSource.unwrap(HikariDataSource::class.java)
+        } else {
+            null
+        }
+        if (hikariDataSource?.jdbcUrl == null) {
+            logger.warn { "Cannot open a dedicated connection for outbox notifications. Using a pooled connection." }
+            return dataSource.connection
+        }
+        val properties = Properties()
+        properties.putAll(hikariDataSource.dataSourceProperties)
+        hikariDataSource.username?.let { properties.setProperty("user", it) }
+        hikariDataSource.password?.let { properties.setProperty("password", it) }
+        return DriverManager.getConnection(hikariDataSource.jdbcUrl, properties)
+    }
+
+    private fun sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS)
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+            running = false
+        }
+    }
+
+    companion object {
+        private val logger = KotlinLogging.logger {}
+
+        private const val CHANNEL = "valtimo_outbox"
+        private const val NOTIFICATION_TIMEOUT_MILLIS = 10_000
+        private const val RECONNECT_DELAY_MILLIS = 5_000L
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.outbox.publisher
+
+import com.ritense.outbox.OutboxCommitListener
+import mu.KotlinLogging
+import org.springframework.beans.factory.DisposableBean
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Starts publishing as soon as a transaction with outbox messages has committed, instead of waiting for the next
+ * scheduled poll. Publishing runs on a single background thread, so the committing thread is never blocked. Triggers
+ * that arrive while publishing is in progress are coalesced into one extra run.
+ */
+open class PublisherTrigger(
+    private val pollingPublisherService: PollingPublisherService
+) : OutboxCommitListener, DisposableBean {
+
+    private val runQueued = AtomicBoolean(false)
+    private val executor: ExecutorService = Executors.newSingleThreadExecutor { runnable ->
+        Thread(runnable, "outbox-publisher-trigger").apply { isDaemon = true }
+    }
+
+    override fun afterCommit() {
+        trigger()
+    }
+
+    open fun trigger() {
+        if (runQueued.compareAndSet(false, true)) {
+            executor.execute {
+                runQueued.set(false)
+                try {
+                    pollingPublisherService.pollAndPublishAll()
+                } catch (e: Exception) {
+                    logger.error(e) { "Triggered outbox publishing failed. Retrying on the next trigger or poll." }
+                }
+            }
+        }
+    }
+
+    override fun destroy() {
+        executor.shutdownNow()
+    }
+
+    companion object {
+        private val logger = KotlinLogging.logger {}
+    }
+}
@@ -25,4 +25,8 @@ import java.util.UUID
 interface OutboxMessageRepository : JpaRepository<OutboxMessage, UUID> {
 
     fun findOutboxMessage(): OutboxMessage?
+
+    fun findOutboxMessages(limit: Int): List<OutboxMessage>
+
+    fun findOutboxMessages(fromPartitionKey: Int, toPartitionKey: Int, limit: Int): List<OutboxMessage>
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.outbox.repository
+
+import com.ritense.outbox.OutboxPartitionRange
+import org.springframework.data.jpa.repository.JpaRepository
+import org.springframework.data.jpa.repository.Query
+import org.springframework.data.repository.NoRepositoryBean
+import org.springframework.data.repository.query.Param
+
+@NoRepositoryBean
+interface OutboxPartitionRangeRepository : JpaRepository<OutboxPartitionRange, Int> {
+
+    @Query(
+        "SELECT * FROM outbox_partition_range WHERE range_id < :rangeCount " +
+            "ORDER BY last_drained_on ASC LIMIT 1 FOR UPDATE SKIP LOCKED",
+        nativeQuery = true
+    )
+    fun lockLeastRecentlyDrainedRange(@Param("rangeCount") rangeCount: Int): OutboxPartitionRange?
+}
@@ -20,10 +20,25 @@ import com.ritense.outbox.OutboxMessage
 import com.ritense.outbox.repository.OutboxMessageRepository
 import org.springframework.data.jpa.repository.Query
 import org.springframework.data.repository.NoRepositoryBean
+import org.springframework.data.repository.query.Param
 
 @NoRepositoryBean
 interface PostgresOutboxMessageRepository : OutboxMessageRepository {
 
     @Query("SELECT * FROM outbox_message ORDER BY created_on ASC LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
     override fun findOutboxMessage(): OutboxMessage?
+
+    @Query("SELECT * FROM outbox_message ORDER BY created_on ASC LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    override fun findOutboxMessages(@Param("limit") limit: Int): List<OutboxMessage>
+
+    @Query(
+        "SELECT * FROM outbox_message WHERE partition_key BETWEEN :fromPartitionKey AND :toPartitionKey " +
+            "ORDER BY created_on ASC LIMIT :limit FOR UPDATE SKIP LOCKED",
+        nativeQuery = true
+    )
+    override fun findOutboxMessages(
+        @Param("fromPartitionKey") fromPartitionKey: Int,
+        @Param("toPartitionKey") toPartitionKey: Int,
+        @Param("limit") limit: Int
+    ): List<OutboxMessage>
 }
\ No newline at end of file
@@ -115,6 +115,16 @@ class ValtimoOutboxServiceIntTest : BaseIntegrationTest() {
         assertThat(roles).containsExactlyInAnyOrder("ADMIN", "USER")
     }
 
+    @Test
+    @Transactional
+    fun `should derive the partition key from the result id`() {
+        outboxService.send { TestEvent() }
+        outboxService.send { TestEvent() }
+
+        val messages = outboxMessageRepository.findAll()
+        assertThat(messages.map { it.partitionKey }).containsOnly(OutboxMessage.partitionKeyOf("test"))
+    }
+
     data class OrderCreatedEvent(
         val name: String
     )
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.outbox.publisher
+
+import com.ritense.outbox.BaseIntegrationTest
+import com.ritense.outbox.OutboxMessage
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.atLeastOnce
+import org.mockito.kotlin.verify
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.TestPropertySource
+import java.time.LocalDateTime
+
+@TestPropertySource(
+    properties = [
+        "valtimo.outbox.publisher.partitioning.enabled=true",
+        "valtimo.outbox.publisher.partitioning.range-count=4",
+        "valtimo.outbox.publisher.partitioning.worker-count=2",
+        "valtimo.outbox.publisher.polling.batch-size=2",
+    ]
+)
+class PartitionedPollingPublisherServiceIntTest : BaseIntegrationTest() {
+
+    @Autowired
+    lateinit var pollingPublisherService: PollingPublisherService
+
+    @Test
+    fun `should use the partitioned publisher`() {
+        assertThat(pollingPublisherService).isInstanceOf(PartitionedPollingPublisherService::class.java)
+    }
+
+    @Test
+    fun `should publish all messages in order per aggregate`() {
+        val now = LocalDateTime.now()
+        val aggregates = listOf("document-1", "document-2", "document-3")
+        aggregates.forEach { aggregateId ->
+            (1..3).forEach { sequence ->
+                insertOutboxMessage("$aggregateId:$sequence", aggregateId, now.plusSeconds(sequence.toLong()))
+            }
+        }
+
+        pollingPublisherService.pollAndPublishAll()
+
+        val captor = argumentCaptor<List<OutboxMessage>>()
+        verify(messagePublisher, atLeastOnce()).publishAll(captor.capture())
+        val published = captor.allValues.flatten().map { it.message }
+        assertThat(published).hasSize(9)
+        aggregates.forEach { aggregateId ->
+            assertThat(published.filter { it.startsWith(aggregateId) })
+                .containsExactly("$aggregateId:1", "$aggregateId:2", "$aggregateId:3")
+        }
+        assertThat(outboxMessageRepository.count()).isZero()
+    }
+
+    private fun insertOutboxMessage(message: String, aggregateId: String, createdOn: LocalDateTime) {
+        outboxMessageRepository.save(
+            OutboxMessage(
+                message = message,
+                createdOn = createdOn,
+                partitionKey = OutboxMessage.partitionKeyOf(aggregateId)
+            )
+        )
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.outbox.publisher
+
+import com.ritense.outbox.BaseIntegrationTest
+import com.ritense.outbox.OutboxMessage
+import com.ritense.outbox.test.OrderCreatedEvent
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.test.context.TestPropertySource
+import java.time.LocalDateTime
+
+@TestPropertySource(properties = ["valtimo.outbox.publisher.polling.batch-size=2"])
+class PollingPublisherServiceBatchIntTest : BaseIntegrationTest() {
+
+    @Autowired
+    lateinit var pollingPublisherService: PollingPublisherService
+
+    @Test
+    fun `should publish messages in batches in created order`() {
+        val now = LocalDateTime.now()
+        insertOutboxMessage(OrderCreatedEvent("event 3"), now.minusMinutes(1))
+        insertOutboxMessage(OrderCreatedEvent("event 1"), now.minusMinutes(3))
+        insertOutboxMessage(OrderCreatedEvent("event 2"), now.minusMinutes(2))
+
+        pollingPublisherService.pollAndPublishAll()
+
+        // Number of database reads is 2 because:
+        // Poller: read database. Find event 1 and 2
+        // Poller: read database. Find event 3, which is less than the batch size
+        verify(outboxMessageRepository, times(2)).findOutboxMessages(2)
+        verify(outboxMessageRepository, never()).findOutboxMessage()
+        verify(messagePublisher, never()).publish(any())
+
+        val captor = argumentCaptor<List<OutboxMessage>>()
+        verify(messagePublisher, times(2)).publishAll(captor.capture())
+        assertThat(captor.allValues.flatten().map { it.message }).containsExactly(
+            objectMapper.writeValueAsString(OrderCreatedEvent("event 1")),
+            objectMapper.writeValueAsString(OrderCreatedEvent("event 2")),
+            objectMapper.writeValueAsString(OrderCreatedEvent("event 3")),
+        )
+        assertThat(outboxMessageRepository.count()).isZero()
+    }
+
+    private fun insertOutboxMessage(event: Any, createdOn: LocalDateTime) {
+        outboxMessageRepository.save(
+            OutboxMessage(message = objectMapper.writeValueAsString(event), createdOn = createdOn)
+        )
+    }
+}
@@ -22,6 +22,7 @@ import com.ritense.documentenapi.DocumentenApiAuthentication
 import com.ritense.openzaak.plugin.token.OpenZaakPluginTokenGeneratorService
 import com.ritense.plugin.annotation.Plugin
 import com.ritense.plugin.annotation.PluginProperty
+import com.ritense.plugin.domain.PluginConfigurationId
 import com.ritense.zakenapi.ZakenApiAuthentication
 import org.springframework.web.client.RestClient
 import org.springframework.web.reactive.function.client.ClientRequest
@@ -35,8 +36,10 @@ import reactor.core.publisher.Mono
     description = "Plugin used to provide authentication for OpenZaak"
 )
 class OpenZaakPlugin(
-    private val tokenGeneratorService: OpenZaakPluginTokenGeneratorService
+    private val tokenGeneratorService: OpenZaakPluginTokenGeneratorService,
+    pluginConfigurationId: PluginConfigurationId? = null
 ) : DocumentenApiAuthentication, ZakenApiAuthentication, CatalogiApiAuthentication, BesluitenApiAuthentication {
+    override val configurationId = pluginConfigurationId
 
     @PluginProperty(key = "clientId", secret = false, required = true)
     lateinit var clientId: String
@@ -26,6 +26,6 @@ class OpenZaakPluginFactory(
 ) : PluginFactory<OpenZaakPlugin>(pluginService) {
 
     override fun create(): OpenZaakPlugin {
-        return OpenZaakPlugin(tokenGeneratorService)
+        return OpenZaakPlugin(tokenGeneratorService, pluginConfigurationId)
     }
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import com.fasterxml.jackson.databind.ObjectMapper
 import com.ritense.plugin.repository.PluginProcessLinkRepository
 import com.ritense.plugin.service.PluginService
 import com.ritense.processlink.repository.ValtimoPluginProcessLinkRepository
+import com.ritense.processlink.service.ProcessLinkIndex
 import com.ritense.processlink.service.ProcessLinkService
 import com.ritense.valtimo.processlink.mapper.PluginProcessLinkMapper
 import com.ritense.valtimo.processlink.security.config.PluginProcessLinkHttpSecurityConfigurer
@@ -28,6 +29,7 @@ import com.ritense.valtimo.processlink.service.PluginProcessLinkServiceImpl
 import com.ritense.valtimo.processlink.service.PluginSupportedProcessLinksHandler
 import com.ritense.valtimo.processlink.web.rest.PluginProcessLinkResource
 import com.ritense.valtimo.service.CamundaProcessService
+import org.springframework.beans.factory.ObjectProvider
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.context.annotation.Bean
@@ -39,11 +41,13 @@ class ProcessLinkAutoConfiguration {
     @ConditionalOnMissingBean(ProcessLinkServiceTaskStartListener::class)
     fun pluginLinkServiceTaskStartListener(
         pluginProcessLinkRepository: PluginProcessLinkRepository?,
-        pluginService: PluginService?
+        pluginService: PluginService?,
+        processLinkIndex: ObjectProvider<ProcessLinkIndex>
     ): ProcessLinkServiceTaskStartListener {
         return ProcessLinkServiceTaskStartListener(
             pluginProcessLinkRepository!!,
-            pluginService!!
+            pluginService!!,
+            processLinkIndex.ifAvailable
         )
     }
 
@@ -51,11 +55,13 @@ class ProcessLinkAutoConfiguration {
     @ConditionalOnMissingBean(ProcessLinkUserTaskCreateListener::class)
     fun processLinkUserTaskCreateListener(
         pluginProcessLinkRepository: PluginProcessLinkRepository?,
-        pluginService: PluginService?
+        pluginService: PluginService?,
+        processLinkIndex: ObjectProvider<ProcessLinkIndex>
     ): ProcessLinkUserTaskCreateListener {
         return ProcessLinkUserTaskCreateListener(
             pluginProcessLinkRepository!!,
-            pluginService!!
+            pluginService!!,
+            processLinkIndex.ifAvailable
         )
     }
 
@@ -63,11 +69,13 @@ class ProcessLinkAutoConfiguration {
     @ConditionalOnMissingBean(ProcessLinkCallActivityStartListener::class)
     fun processLinkCallActivityStartListener(
         pluginProcessLinkRepository: PluginProcessLinkRepository?,
-        pluginService: PluginService?
+        pluginService: PluginService?,
+        processLinkIndex: ObjectProvider<ProcessLinkIndex>
     ): ProcessLinkCallActivityStartListener {
         return ProcessLinkCallActivityStartListener(
             pluginProcessLinkRepository!!,
-            pluginService!!
+            pluginService!!,
+            processLinkIndex.ifAvailable
         )
     }
 
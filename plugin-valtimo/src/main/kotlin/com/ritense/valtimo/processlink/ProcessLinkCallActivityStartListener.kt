@@ -20,6 +20,7 @@ import com.ritense.logging.withLoggingContext
 import com.ritense.plugin.repository.PluginProcessLinkRepository
 import com.ritense.plugin.service.PluginService
 import com.ritense.processlink.domain.ActivityTypeWithEventName
+import com.ritense.processlink.service.ProcessLinkIndex
 import org.camunda.bpm.engine.ActivityTypes
 import org.camunda.bpm.engine.delegate.DelegateExecution
 import org.camunda.bpm.engine.delegate.ExecutionListener
@@ -31,11 +32,20 @@ import org.springframework.transaction.annotation.Transactional
 open class ProcessLinkCallActivityStartListener(
     private val pluginProcessLinkRepository: PluginProcessLinkRepository,
     private val pluginService: PluginService,
+    private val processLinkIndex: ProcessLinkIndex? = null,
 ) : ReactorExecutionListener() {
 
     @Transactional
     override fun notify(execution: DelegateExecution) {
         withLoggingContext("com.ritense.document.domain.impl.JsonSchemaDocument", execution.processBusinessKey) {
+            if (processLinkIndex?.hasProcessLinks(
+                    execution.processDefinitionId,
+                    execution.currentActivityId,
+                    ActivityTypeWithEventName.CALL_ACTIVITY_START
+                ) == false
+            ) {
+                return@withLoggingContext
+            }
             val pluginProcessLinks = pluginProcessLinkRepository.findByProcessDefinitionIdAndActivityIdAndActivityType(
                 execution.processDefinitionId,
                 execution.currentActivityId,
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.plugin.benchmark
+
+import com.fasterxml.jackson.databind.node.ObjectNode
+import com.ritense.plugin.annotation.PluginAction
+import com.ritense.plugin.annotation.PluginActionProperty
+import com.ritense.plugin.service.PluginActionDispatchTable
+import com.ritense.valtimo.contract.json.MapperSingleton
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Level
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+
+/**
+ * Measures the per-invocation overhead of a plugin action: finding the action method, binding the action properties
+ * and invoking the method. The reflective variant does what PluginService did before the dispatch table.
+ *
+ * Run with: ./gradlew :plugin:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+open class PluginActionDispatchBenchmark {
+
+    private val objectMapper = MapperSingleton.get()
+    private val plugin = BenchmarkPlugin()
+    private val context = BenchmarkContext()
+    private lateinit var actionProperties: ObjectNode
+    private lateinit var pluginActionDispatchTable: PluginActionDispatchTable
+
+    @Setup(Level.Trial)
+    fun setup() {
+        actionProperties = objectMapper.createObjectNode()
+            .put("name", "document-1")
+            .put("count", 3)
+        actionProperties.putArray("tags").add("a").add("b")
+        pluginActionDispatchTable = PluginActionDispatchTable(objectMapper)
+        pluginActionDispatchTable.register(BenchmarkPlugin::class.java)
+    }
+
+    @Benchmark
+    fun dispatchTable(): Any? {
+        val action = pluginActionDispatchTable.getAction(plugin.javaClass, ACTION_KEY)!!
+        val arguments = action.bindArguments(actionProperties, context, ::resolveValues)
+        return action.invoke(plugin, arguments)
+    }
+
+    @Benchmark
+    fun reflective(): Any? {
+        val method = plugin.javaClass.methods.filter { method ->
+            method.isAnnotationPresent(PluginAction::class.java)
+        }.associateWith { method -> method.getAnnotation(PluginAction::class.java) }
+            .filter { (_, annotation) -> annotation.key == ACTION_KEY }
+            .map { entry -> entry.key }
+            .first()
+        val paramValues = method.parameters.filter { param ->
+            param.isAnnotationPresent(PluginActionProperty::class.java)
+        }.mapNotNull { param ->
+            param to actionProperties.get(param.name)
+        }.filter { pair ->
+            pair.second != null
+        }.toMap()
+        val resolvedValues = method.parameters.filter { param ->
+            param.isAnnotationPresent(PluginActionProperty::class.java)
+        }.mapNotNull { param ->
+            param to actionProperties.get(param.name)
+        }.toMap()
+            .filterValues { it != null && it.isTextual }
+            .mapValues { it.value.textValue() }
+            .run { resolveValues(values.toList()) }
+        val values = paramValues.mapValues { (param, value) ->
+            if (value.isTextual && resolvedValues.containsKey(value.textValue())) {
+                objectMapper.convertValue(resolvedValues[value.textValue()], objectMapper.constructType(param.parameterizedType))
+            } else {
+                objectMapper.treeToValue<Any>(value, objectMapper.constructType(param.parameterizedType))
+            }
+        }
+        val arguments = method.parameters.map { param ->
+            values[param] ?: if (param.type.isInstance(context)) context else null
+        }.toTypedArray()
+        return method.invoke(plugin, *arguments)
+    }
+
+    // Stands in for the value resolvers, which are the same for both variants
+    private fun resolveValues(values: List<String>): Map<String, Any?> = emptyMap()
+
+    companion object {
+        private const val ACTION_KEY = "benchmark-action"
+    }
+}
+
+class BenchmarkPlugin {
+
+    @PluginAction(
+        key = "benchmark-action",
+        title = "Benchmark action",
+        description = "Action with a few typical action properties",
+        activityTypes = []
+    )
+    fun benchmarkAction(
+        context: BenchmarkContext,
+        @PluginActionProperty name: String,
+        @PluginActionProperty count: Int,
+        @PluginActionProperty tags: List<String>
+    ): Int {
+        return name.length + count + tags.size
+    }
+
+    @PluginAction(
+        key = "other-action",
+        title = "Other action",
+        description = "Action that is never invoked",
+        activityTypes = []
+    )
+    fun otherAction() {
+        //do nothing
+    }
+}
+
+class BenchmarkContext
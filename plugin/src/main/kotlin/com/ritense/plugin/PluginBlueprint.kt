@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.plugin
+
+import com.fasterxml.jackson.databind.JavaType
+import com.fasterxml.jackson.databind.JsonNode
+import com.ritense.plugin.domain.PluginConfigurationId
+
+/**
+ * Everything that is needed to create a plugin instance for a plugin configuration. See [PluginFactory.prepare].
+ *
+ * The property values are decrypted and are only read when an instance is created, so a blueprint can be shared
+ * between threads.
+ */
+class PluginBlueprint(
+    val pluginConfigurationId: PluginConfigurationId,
+    val pluginDefinitionKey: String,
+    val properties: List<Property>,
+) {
+    sealed class Property(
+        val fieldName: String,
+        val required: Boolean,
+    )
+
+    /**
+     * A property that holds another plugin. The plugin is created again for every new instance.
+     */
+    class PluginReference(
+        fieldName: String,
+        required: Boolean,
+        val pluginConfigurationId: PluginConfigurationId,
+    ) : Property(fieldName, required)
+
+    /**
+     * A property that is deserialized from [value] for every new instance.
+     */
+    class Value(
+        fieldName: String,
+        required: Boolean,
+        val value: JsonNode,
+        val type: JavaType,
+    ) : Property(fieldName, required)
+}
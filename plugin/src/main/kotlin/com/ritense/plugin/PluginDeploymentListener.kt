@@ -30,6 +30,7 @@ import com.ritense.plugin.repository.PluginActionDefinitionRepository
 import com.ritense.plugin.repository.PluginActionPropertyDefinitionRepository
 import com.ritense.plugin.repository.PluginCategoryRepository
 import com.ritense.plugin.repository.PluginDefinitionRepository
+import com.ritense.plugin.service.PluginActionDispatchTable
 import mu.KotlinLogging
 import org.springframework.boot.context.event.ApplicationStartedEvent
 import org.springframework.context.event.EventListener
@@ -45,7 +46,8 @@ open class PluginDeploymentListener(
     private val pluginDefinitionRepository: PluginDefinitionRepository,
     private val pluginCategoryRepository: PluginCategoryRepository,
     private val pluginActionDefinitionRepository: PluginActionDefinitionRepository,
-    private val pluginActionPropertyDefinitionRepository: PluginActionPropertyDefinitionRepository
+    private val pluginActionPropertyDefinitionRepository: PluginActionPropertyDefinitionRepository,
+    private val pluginActionDispatchTable: PluginActionDispatchTable? = null,
 ) {
 
     @Transactional
@@ -100,6 +102,7 @@ open class PluginDeploymentListener(
                 val deployedPluginDefinition = createPluginDefinition(clazz, pluginAnnotation)
 
                 createActionDefinition(deployedPluginDefinition, clazz)
+                pluginActionDispatchTable?.register(clazz)
 
             } catch (e: Exception) {
                 throw PluginDefinitionNotDeployedException(pluginAnnotation.key, clazz.name, e)
@@ -55,32 +55,49 @@ abstract class PluginFactory<T : Any>(
      * @return plugin instance of type T
      */
     fun create(configuration: PluginConfiguration): T {
-        pluginConfigurationId = configuration.id
-        val instance = create()
-
-        injectProperties(instance, configuration)
-
-        return instance
+        return create(prepare(configuration))
     }
 
-    fun canCreate(configuration: PluginConfiguration): Boolean {
-        if (fullyQualifiedClassName.isEmpty()) {
-            pluginConfigurationId = configuration.id
-            val instance = create()
-            fullyQualifiedClassName = instance::class.java.name
+    /**
+     * Creates a new plugin of type T from a blueprint made by [prepare]. Every call returns a new instance with new
+     * property values, so a blueprint can be reused without sharing plugin state.
+     *
+     * @param blueprint
+     *
+     * @return plugin instance of type T
+     */
+    fun create(blueprint: PluginBlueprint): T {
+        pluginConfigurationId = blueprint.pluginConfigurationId
+        val instance = create()
+        val mapper = pluginService.getObjectMapper()
+
+        blueprint.properties.forEach { property ->
+            val propertyValue = when (property) {
+                is PluginBlueprint.PluginReference -> pluginService.createInstance(property.pluginConfigurationId)
+                is PluginBlueprint.Value -> mapper.treeToValue<Any>(property.value, property.type)
+            }
+            if (property.required) {
+                requireNotNull(propertyValue) { "${property.fieldName} value was null on plugin '${blueprint.pluginDefinitionKey}'" }
+            }
+            FieldUtils.writeField(instance, property.fieldName, propertyValue, true)
         }
 
-        return this.fullyQualifiedClassName == configuration.pluginDefinition.fullyQualifiedClassName
+        return instance
     }
 
-    private fun injectProperties(instance: T, configuration: PluginConfiguration) {
-        if (configuration.properties == null) {
-            return
-        }
-
+    /**
+     * Resolves everything that is needed to create a plugin for the configuration: the decrypted property values and
+     * their types. The blueprint does not depend on the persistence context, so it can be kept after the transaction.
+     *
+     * @param configuration
+     *
+     * @return the blueprint to pass to [create]
+     */
+    fun prepare(configuration: PluginConfiguration): PluginBlueprint {
         val pluginDefinition = configuration.pluginDefinition
         val mapper = pluginService.getObjectMapper()
-        val propertyIterator = configuration.properties!!.fields()
+        val properties = mutableListOf<PluginBlueprint.Property>()
+        val propertyIterator = configuration.properties?.fields() ?: emptyList<Map.Entry<String, JsonNode>>().iterator()
 
         while (propertyIterator.hasNext()) {
             val configuredPropertyEntry = propertyIterator.next()
@@ -92,49 +109,56 @@ abstract class PluginFactory<T : Any>(
             val propertyDefinition = pluginDefinition.findPluginProperty(configuredPropertyEntry.key)
                 ?: throw IllegalStateException("Error while creating plugin '${configuration.title}'. Unknown property '${configuredPropertyEntry.key}'.")
 
-            setProperty(instance, propertyDefinition, configuredPropertyEntry.value, mapper)
+            properties.add(prepareProperty(pluginDefinition.fullyQualifiedClassName, propertyDefinition, configuredPropertyEntry.value, mapper))
         }
+
+        return PluginBlueprint(configuration.id, pluginDefinition.key, properties)
     }
 
-    private fun setProperty(
-        instance: T,
+    fun canCreate(configuration: PluginConfiguration): Boolean {
+        if (fullyQualifiedClassName.isEmpty()) {
+            pluginConfigurationId = configuration.id
+            val instance = create()
+            fullyQualifiedClassName = instance::class.java.name
+        }
+
+        return this.fullyQualifiedClassName == configuration.pluginDefinition.fullyQualifiedClassName
+    }
+
+    private fun prepareProperty(
+        pluginClassName: String,
         propertyDefinition: PluginProperty,
         configuredProperty: JsonNode,
         mapper: ObjectMapper
-    ) {
+    ): PluginBlueprint.Property {
         val propertyType = Class.forName(propertyDefinition.fieldType)
 
-        val propertyValue = if (propertyType.isAnnotationPresent(Plugin::class.java)
+        return if (propertyType.isAnnotationPresent(Plugin::class.java)
             || propertyType.isAnnotationPresent(PluginCategory::class.java)
         ) {
-            val pluginConfigurationId =
+            PluginBlueprint.PluginReference(
+                propertyDefinition.fieldName,
+                propertyDefinition.required,
                 PluginConfigurationId.existingId(UUID.fromString(configuredProperty.textValue()))
-
-            pluginService.createInstance(pluginConfigurationId)
-        } else if (propertyType.typeParameters.isNotEmpty()) {
-            val propertyTypeWithGeneric =
-                getPropertyTypeWithGeneric(instance::class, propertyDefinition.fieldName, mapper)
-            require(propertyType == propertyTypeWithGeneric.rawClass)
-            mapper.treeToValue(
-                configuredProperty,
-                propertyTypeWithGeneric
             )
         } else {
-            mapper.treeToValue(
-                configuredProperty,
-                propertyType
-            )
-        }
-
-        if (propertyDefinition.required) {
-            requireNotNull(propertyValue) { "${propertyDefinition.fieldName} value was null on plugin '${propertyDefinition.pluginDefinition.key}'" }
+            val type = if (propertyType.typeParameters.isNotEmpty()) {
+                val propertyTypeWithGeneric = getPropertyTypeWithGeneric(
+                    Class.forName(pluginClassName).kotlin,
+                    propertyDefinition.fieldName,
+                    mapper
+                )
+                require(propertyType == propertyTypeWithGeneric.rawClass)
+                propertyTypeWithGeneric
+            } else {
+                mapper.constructType(propertyType)
+            }
+            PluginBlueprint.Value(propertyDefinition.fieldName, propertyDefinition.required, configuredProperty.deepCopy(), type)
         }
-
-        FieldUtils.writeField(instance, propertyDefinition.fieldName, propertyValue, true)
     }
 
     private fun getPropertyTypeWithGeneric(
-        pluginClass: KClass<out T>,
+        pluginClass: KClass<*>,
         fieldName: String,
         mapper: ObjectMapper
     ): JavaType {
@@ -33,17 +33,22 @@ import com.ritense.plugin.repository.PluginProcessLinkRepositoryImpl
 import com.ritense.plugin.repository.PluginPropertyRepository
 import com.ritense.plugin.security.config.PluginHttpSecurityConfigurer
 import com.ritense.plugin.service.EncryptionService
+import com.ritense.plugin.service.PluginActionDispatchTable
 import com.ritense.plugin.service.PluginConfigurationListener
+import com.ritense.plugin.service.PluginInstanceCache
 import com.ritense.plugin.service.PluginService
 import com.ritense.plugin.web.rest.PluginConfigurationResource
 import com.ritense.plugin.web.rest.PluginDefinitionResource
 import com.ritense.plugin.web.rest.converter.StringToActivityTypeConverter
 import com.ritense.valueresolver.ValueResolverService
+import io.micrometer.core.instrument.MeterRegistry
 import jakarta.persistence.EntityManager
 import jakarta.validation.Validator
+import org.springframework.beans.factory.ObjectProvider
 import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.boot.autoconfigure.domain.EntityScan
 import org.springframework.context.ApplicationContext
 import org.springframework.context.ApplicationEventPublisher
@@ -76,7 +81,8 @@ class PluginAutoConfiguration {
         pluginDefinitionRepository: PluginDefinitionRepository,
         pluginCategoryRepository: PluginCategoryRepository,
         pluginActionDefinitionRepository: PluginActionDefinitionRepository,
-        pluginActionPropertyDefinitionRepository: PluginActionPropertyDefinitionRepository
+        pluginActionPropertyDefinitionRepository: PluginActionPropertyDefinitionRepository,
+        pluginActionDispatchTable: PluginActionDispatchTable
     ): PluginDeploymentListener {
         return PluginDeploymentListener(
             pluginDefinitionResolver,
@@ -84,10 +90,17 @@ class PluginAutoConfiguration {
             pluginDefinitionRepository,
             pluginCategoryRepository,
             pluginActionDefinitionRepository,
-            pluginActionPropertyDefinitionRepository
+            pluginActionPropertyDefinitionRepository,
+            pluginActionDispatchTable
         )
     }
 
+    @Bean
+    @ConditionalOnMissingBean(PluginActionDispatchTable::class)
+    fun pluginActionDispatchTable(objectMapper: ObjectMapper): PluginActionDispatchTable {
+        return PluginActionDispatchTable(objectMapper)
+    }
+
     @Bean
     @ConditionalOnMissingBean(StringToActivityTypeConverter::class)
     fun stringToActivityTypeConverter(): StringToActivityTypeConverter {
@@ -124,7 +137,9 @@ class PluginAutoConfiguration {
         validator: Validator,
         applicationEventPublisher: ApplicationEventPublisher,
         encryptionService: EncryptionService,
-        environment: Environment
+        environment: Environment,
+        pluginInstanceCache: ObjectProvider<PluginInstanceCache>,
+        pluginActionDispatchTable: PluginActionDispatchTable
     ): PluginService {
         return PluginService(
             pluginDefinitionRepository,
@@ -139,6 +154,21 @@ class PluginAutoConfiguration {
             applicationEventPublisher,
             encryptionService,
             environment,
+            pluginInstanceCache.ifAvailable,
+            pluginActionDispatchTable
+        )
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(PluginInstanceCache::class)
+    @ConditionalOnProperty(value = ["valtimo.plugin.instance-cache.enabled"], havingValue = "true", matchIfMissing = true)
+    fun pluginInstanceCache(
+        @Value("\${valtimo.plugin.instance-cache.maximum-size:1000}") maximumSize: Int,
+        meterRegistry: ObjectProvider<MeterRegistry>
+    ): PluginInstanceCache {
+        return PluginInstanceCache(
+            maximumSize,
+            meterRegistry.ifAvailable
         )
     }
 
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.plugin.service
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.ritense.plugin.annotation.PluginAction
+import mu.KotlinLogging
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Plugin actions per plugin class, indexed by action key.
+ *
+ * The actions of every deployed plugin class are compiled once by [com.ritense.plugin.PluginDeploymentListener].
+ * Classes that weren't deployed, like subclasses created by a [com.ritense.plugin.PluginFactory], are compiled on
+ * first use.
+ */
+open class PluginActionDispatchTable(
+    private val objectMapper: ObjectMapper
+) {
+    private val actionsByClass = ConcurrentHashMap<Class<*>, Map<String, PluginActionInvoker>>()
+
+    fun register(pluginClass: Class<*>) {
+        actionsByClass.computeIfAbsent(pluginClass, ::compile)
+    }
+
+    fun getAction(pluginClass: Class<*>, actionKey: String): PluginActionInvoker? {
+        val actions = actionsByClass[pluginClass] ?: actionsByClass.computeIfAbsent(pluginClass, ::compile)
+        return actions[actionKey]
+    }
+
+    private fun compile(pluginClass: Class<*>): Map<String, PluginActionInvoker> {
+        val actions = mutableMapOf<String, PluginActionInvoker>()
+        pluginClass.methods.forEach { method ->
+            method.getAnnotation(PluginAction::class.java)?.let { annotation ->
+                actions.putIfAbsent(annotation.key, PluginActionInvoker(method, objectMapper))
+            }
+        }
+        logger.debug { "Compiled ${actions.size} plugin actions for ${pluginClass.name}" }
+        return actions
+    }
+
+    companion object {
+        private val logger = KotlinLogging.logger {}
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.plugin.service
+
+import com.fasterxml.jackson.databind.JavaType
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.fasterxml.jackson.databind.ObjectReader
+import com.fasterxml.jackson.databind.node.ObjectNode
+import com.ritense.plugin.annotation.PluginActionProperty
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.lang.reflect.Parameter
+
+/**
+ * A compiled plugin action: a MethodHandle for the action method, and for every parameter the Jackson reader that
+ * converts the configured action property into an argument.
+ */
+class PluginActionInvoker internal constructor(
+    val method: Method,
+    private val objectMapper: ObjectMapper
+) {
+    private val parameters = method.parameters.map { ActionParameter(it, objectMapper) }.toTypedArray()
+    private val handle = toHandle(method)
+
+    /**
+     * Binds the action properties, and the given context for parameters that aren't action properties.
+     *
+     * @param resolveValues resolves the textual action property values, which might be value resolver placeholders
+     */
+    fun bindArguments(
+        actionProperties: ObjectNode?,
+        context: Any,
+        resolveValues: (List<String>) -> Map<String, Any?>
+    ): Array<Any?> {
+        val arguments = arrayOfNulls<Any?>(parameters.size)
+        if (actionProperties != null) {
+            val nodes = arrayOfNulls<JsonNode>(parameters.size)
+            val textValues = ArrayList<String>(parameters.size)
+            for (index in parameters.indices) {
+                val parameter = parameters[index]
+                if (parameter.isActionProperty) {
+                    val node = actionProperties.get(parameter.name) ?: continue
+                    nodes[index] = node
+                    if (node.isTextual) {
+                        textValues.add(node.textValue())
+                    }
+                }
+            }
+            // We want to process all placeholder values together to improve performance if external sources are needed.
+            val resolvedValues = resolveValues(textValues)
+            for (index in parameters.indices) {
+                nodes[index]?.let { node -> arguments[index] = parameters[index].bind(node, resolvedValues) }
+            }
+        }
+        for (index in parameters.indices) {
+            if (arguments[index] == null && parameters[index].type.isInstance(context)) {
+                arguments[index] = context
+            }
+        }
+        return arguments
+    }
+
+    /**
+     * Invokes the action on the plugin instance. Exceptions thrown by the action are wrapped in an
+     * [InvocationTargetException], like [Method.invoke] does.
+     */
+    fun invoke(instance: Any, arguments: Array<Any?>): Any? {
+        return try {
+            handle.invoke(instance, arguments)
+        } catch (e: Throwable) {
+            throw InvocationTargetException(e)
+        }
+    }
+
+    private inner class ActionParameter(
+        parameter: Parameter,
+        objectMapper: ObjectMapper
+    ) {
+        val name: String = parameter.name
+        val type: Class<*> = parameter.type
+        val isActionProperty = parameter.isAnnotationPresent(PluginActionProperty::class.java)
+        private val javaType: JavaType = objectMapper.constructType(parameter.parameterizedType)
+        private val reader: ObjectReader = objectMapper.readerFor(javaType)
+
+        fun bind(value: JsonNode, resolvedValues: Map<String, Any?>): Any? {
+            if (value.isTextual && resolvedValues.containsKey(value.textValue())) {
+                return objectMapper.convertValue(resolvedValues[value.textValue()], javaType)
+            }
+            if (javaType.isTypeOrSuperTypeOf(value.javaClass)) {
+                return value
+            }
+            return reader.readValue<Any?>(value)
+        }
+    }
+
+    companion object {
+        private val INVOKER_TYPE = MethodType.methodType(
+            Any::class.java,
+            Any::class.java,
+            Array<Any?>::class.java
+        )
+
+        private fun toHandle(method: Method): MethodHandle {
+            method.trySetAccessible()
+            val handle = MethodHandles.lookup().unreflect(method)
+            val instanceHandle = if (Modifier.isStatic(method.modifiers)) {
+                MethodHandles.dropArguments(handle, 0, Any::class.java)
+            } else {
+                handle
+            }
+            return instanceHandle
+                .asSpreader(Array<Any?>::class.java, method.parameterCount)
+                .asType(INVOKER_TYPE)
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.plugin.service
+
+import com.ritense.plugin.PluginBlueprint
+import com.ritense.plugin.PluginFactory
+import com.ritense.plugin.domain.PluginConfiguration
+import com.ritense.plugin.domain.PluginConfigurationId
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.MeterRegistry
+import mu.KotlinLogging
+
+/**
+ * In-memory cache of plugin blueprints, keyed by plugin configuration id.
+ *
+ * Creating a plugin from a configuration decrypts its secrets, deserializes every property and looks up the property
+ * types. The cache keeps the result of that as a [PluginBlueprint], and every lookup creates a new plugin instance
+ * from it, so plugin instances are never shared between callers.
+ *
+ * A blueprint is only reused while the version key of the configuration, its plugin definition and stored (encrypted)
+ * properties, is unchanged. Plugins that are properties of another plugin are resolved through [PluginService] for
+ * every new instance, so they are validated against their own configuration. [PluginService] also evicts blueprints
+ * when a configuration is updated, deleted or deployed. When the cache is full the least recently used blueprint is
+ * evicted.
+ */
+open class PluginInstanceCache(
+    private val maximumSize: Int = 1000,
+    meterRegistry: MeterRegistry? = null,
+) {
+    private val blueprints = object : LinkedHashMap<PluginConfigurationId, CachedBlueprint>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<PluginConfigurationId, CachedBlueprint>): Boolean {
+            return size > maximumSize
+        }
+    }
+
+    private val hits = meterRegistry?.let { counter(it, "hit") }
+    private val misses = meterRegistry?.let { counter(it, "miss") }
+
+    /**
+     * Creates a new plugin instance for the configuration, from the cached blueprint when it is still valid.
+     *
+     * @param configuration the current plugin configuration
+     * @param factory the factory that creates plugins for the configuration
+     */
+    fun <T : Any> getOrCreate(
+        configuration: PluginConfiguration,
+        factory: PluginFactory<out T>
+    ): T {
+        val versionKey = VersionKey.of(configuration)
+        val cached = synchronized(blueprints) { blueprints[configuration.id] }
+        if (cached != null && cached.versionKey == versionKey) {
+            hits?.increment()
+            return factory.create(cached.blueprint)
+        }
+        misses?.increment()
+        val blueprint = factory.prepare(configuration)
+        synchronized(blueprints) {
+            blueprints[configuration.id] = CachedBlueprint(versionKey, blueprint)
+        }
+        return factory.create(blueprint)
+    }
+
+    fun evict(pluginConfigurationId: PluginConfigurationId) {
+        if (synchronized(blueprints) { blueprints.remove(pluginConfigurationId) } != null) {
+            logger.debug { "Evicted plugin blueprint for configuration ${pluginConfigurationId.id}" }
+        }
+    }
+
+    fun clear() {
+        synchronized(blueprints) {
+            blueprints.clear()
+        }
+    }
+
+    private fun counter(meterRegistry: MeterRegistry, result: String): Counter {
+        return Counter.builder("cache.gets")
+            .tag("cache", CACHE_NAME)
+            .tag("result", result)
+            .register(meterRegistry)
+    }
+
+    private class CachedBlueprint(
+        val versionKey: VersionKey,
+        val blueprint: PluginBlueprint,
+    )
+
+    /**
+     * The stored state of a plugin configuration. Secret properties are compared in their encrypted form.
+     */
+    private data class VersionKey(
+        val pluginDefinitionKey: String,
+        val properties: String?,
+    ) {
+        companion object {
+            fun of(configuration: PluginConfiguration) = VersionKey(
+                configuration.pluginDefinition.key,
+                configuration.rawProperties?.toString()
+            )
+        }
+    }
+
+    companion object {
+        const val CACHE_NAME = "valtimo.plugin-instances"
+
+        private val logger = KotlinLogging.logger {}
+    }
+}
@@ -24,8 +24,6 @@ import com.ritense.logging.LoggableResource
 import com.ritense.logging.withLoggingContext
 import com.ritense.plugin.PluginFactory
 import com.ritense.plugin.annotation.Plugin
-import com.ritense.plugin.annotation.PluginAction
-import com.ritense.plugin.annotation.PluginActionProperty
 import com.ritense.plugin.annotation.PluginCategory
 import com.ritense.plugin.annotation.PluginEvent
 import com.ritense.plugin.autodeployment.PluginAutoDeploymentDto
@@ -66,8 +64,6 @@ import org.springframework.core.env.Environment
 import org.springframework.data.repository.findByIdOrNull
 import org.springframework.stereotype.Service
 import org.springframework.transaction.annotation.Transactional
-import java.lang.reflect.Method
-import java.lang.reflect.Parameter
 import java.util.UUID
 import kotlin.reflect.full.findAnnotation
 import kotlin.reflect.full.functions
@@ -87,7 +83,9 @@ class PluginService(
     private val validator: Validator,
     private val applicationEventPublisher: ApplicationEventPublisher,
     private val encryptionService: EncryptionService,
-    private val environment: Environment
+    private val environment: Environment,
+    private val pluginInstanceCache: PluginInstanceCache? = null,
+    private val pluginActionDispatchTable: PluginActionDispatchTable = PluginActionDispatchTable(objectMapper),
 ) {
 
     fun getObjectMapper(): ObjectMapper {
@@ -184,6 +182,7 @@ class PluginService(
             )
 
             pluginConfigurationRepository.saveAndFlush(pluginConfiguration)
+            pluginInstanceCache?.evict(pluginConfiguration.id)
             try {
                 pluginConfiguration.runAllPluginEvents(action)
             } catch (e: Exception) {
@@ -244,6 +243,8 @@ class PluginService(
         properties: ObjectNode,
     ): PluginConfiguration {
         val pluginConfiguration = updatePluginConfigurationId(oldPluginConfigurationId, newPluginConfigurationId)
+        pluginInstanceCache?.evict(oldPluginConfigurationId)
+        pluginInstanceCache?.evict(newPluginConfigurationId)
 
         pluginConfiguration.title = title
         pluginConfiguration.updateProperties(properties)
@@ -271,6 +272,7 @@ class PluginService(
                 }
 
                 pluginConfigurationRepository.deleteById(pluginConfigurationId)
+                pluginInstanceCache?.evict(pluginConfigurationId)
 
                 val event = PluginConfigurationDeletedEvent(it)
                 applicationEventPublisher.publishEvent(event)
@@ -383,12 +385,12 @@ class PluginService(
         ) {
             val instance: Any = createInstance(processLink.pluginConfigurationId)
 
-            val method = getActionMethod(instance, processLink)
-            val methodArguments = resolveMethodArguments(method, execution, processLink.actionProperties)
+            val action = getAction(instance, processLink)
+            val methodArguments = resolveMethodArguments(action, execution, processLink.actionProperties)
 
-            logger.debug { "Invoking method ${method.name} of class ${instance.javaClass.simpleName} for activity ${execution.currentActivityId} of process-instance ${execution.processInstanceId}" }
+            logger.debug { "Invoking method ${action.method.name} of class ${instance.javaClass.simpleName} for activity ${execution.currentActivityId} of process-instance ${execution.processInstanceId}" }
 
-            method.invoke(instance, *methodArguments)
+            action.invoke(instance, methodArguments)
         }
     }
 
@@ -404,12 +406,12 @@ class PluginService(
         ) {
             val instance: Any = createInstance(processLink.pluginConfigurationId)
 
-            val method = getActionMethod(instance, processLink)
-            val methodArguments = resolveMethodArguments(method, task, processLink.actionProperties)
+            val action = getAction(instance, processLink)
+            val methodArguments = resolveMethodArguments(action, task, processLink.actionProperties)
 
-            logger.debug { "Invoking method ${method.name} of class ${instance.javaClass.simpleName} for task ${task.taskDefinitionKey} of process-instance ${task.processInstanceId}" }
+            logger.debug { "Invoking method ${action.method.name} of class ${instance.javaClass.simpleName} for task ${task.taskDefinitionKey} of process-instance ${task.processInstanceId}" }
 
-            method.invoke(instance, *methodArguments)
+            action.invoke(instance, methodArguments)
         }
     }
 
@@ -448,144 +450,29 @@ class PluginService(
     }
 
     private fun resolveMethodArguments(
-        method: Method,
+        action: PluginActionInvoker,
         execution: DelegateExecution,
         actionProperties: ObjectNode?
     ): Array<Any?> {
-
-        val actionParamValueMap = resolveActionParamValues(execution, method, actionProperties)
-
-        return method.parameters.map { param ->
-            actionParamValueMap[param]
-                ?: if (param.type.isInstance(execution)) {
-                    execution
-                } else {
-                    null
-                }
-
-        }.toTypedArray()
+        return action.bindArguments(actionProperties, execution) { values ->
+            // Resolve all string values, which might or might not be placeholders.
+            valueResolverService.resolveValues(execution.processInstanceId, execution, values)
+        }
     }
 
     private fun resolveMethodArguments(
-        method: Method,
+        action: PluginActionInvoker,
         task: DelegateTask,
         actionProperties: ObjectNode?
     ): Array<Any?> {
         return withLoggingContext("com.ritense.valtimo.camunda.domain.CamundaTask", task.id) {
-
-            val actionParamValueMap = resolveActionParamValues(task, method, actionProperties)
-
-            method.parameters.map { param ->
-                actionParamValueMap[param]
-                    ?: if (param.type.isInstance(task)) {
-                        task
-                    } else {
-                        null
-                    }
-
-            }.toTypedArray()
-        }
-    }
-
-    private fun resolveActionParamValues(
-        execution: DelegateExecution,
-        method: Method,
-        actionProperties: ObjectNode?
-    ): Map<Parameter, Any> {
-        if (actionProperties == null) {
-            return mapOf()
-        }
-
-        val paramValues = method.parameters.filter { param ->
-            param.isAnnotationPresent(PluginActionProperty::class.java)
-        }.mapNotNull { param ->
-            param to actionProperties.get(param.name)
-        }.filter { pair ->
-            pair.second != null
-        }.toMap()
-
-        // We want to process all placeholder values together to improve performance if external sources are needed.
-        val resolvedValueMap = method.parameters.filter { param ->
-            param.isAnnotationPresent(PluginActionProperty::class.java)
-        }.mapNotNull { param ->
-            param to actionProperties.get(param.name)
-        }.toMap()
-            .filterValues { it != null && it.isTextual }
-            .mapValues {
-                it.value.textValue()
-            }.run {
+            action.bindArguments(actionProperties, task) { values ->
                 // Resolve all string values, which might or might not be placeholders.
-                valueResolverService.resolveValues(execution.processInstanceId, execution, values.toList())
+                valueResolverService.resolveValues(task.execution.processInstanceId, task.execution, values)
             }
-
-        return mapActionParamValues(paramValues, resolvedValueMap)
-    }
-
-    private fun resolveActionParamValues(
-        task: DelegateTask,
-        method: Method,
-        actionProperties: ObjectNode?
-    ): Map<Parameter, Any> {
-        return withLoggingContext("com.ritense.valtimo.camunda.domain.CamundaTask", task.id) {
-
-            if (actionProperties == null) {
-                return@withLoggingContext mapOf()
-            }
-
-            val paramValues = method.parameters.filter { param ->
-                param.isAnnotationPresent(PluginActionProperty::class.java)
-            }.mapNotNull { param ->
-                param to actionProperties.get(param.name)
-            }.filter { pair ->
-                pair.second != null
-            }.toMap()
-
-            // We want to process all placeholder values together to improve performance if external sources are needed.
-            val resolvedValueMap = method.parameters.filter { param ->
-                param.isAnnotationPresent(PluginActionProperty::class.java)
-            }.mapNotNull { param ->
-                param to actionProperties.get(param.name)
-            }.toMap()
-                .filterValues { it != null && it.isTextual }
-                .mapValues {
-                    it.value.textValue()
-                }.run {
-                    // Resolve all string values, which might or might not be placeholders.
-                    valueResolverService.resolveValues(
-                        task.execution.processInstanceId,
-                        task.execution,
-                        values.toList()
-                    )
-                }
-
-            mapActionParamValues(paramValues, resolvedValueMap)
         }
     }
 
-    private fun mapActionParamValues(
-        paramValues: Map<Parameter, JsonNode>,
-        resolvedValueMap: Map<String, Any?>
-    ): Map<Parameter, Any> {
-        return paramValues.mapValues { (param, value) ->
-            if (value.isTextual) {
-                if (resolvedValueMap.containsKey(value.textValue())) {
-                    objectMapper.convertValue(
-                        resolvedValueMap[value.textValue()],
-                        objectMapper.constructType(param.parameterizedType)
-                    )
-                } else {
-                    toValue(value, param)
-                }
-            } else {
-                toValue(value, param)
-            }
-        }
-    }
-
-    private fun <T> toValue(value: JsonNode, param: Parameter): T {
-        return objectMapper.treeToValue(value, objectMapper.constructType(param.parameterizedType))
-    }
-
     fun <T> createInstance(
         @LoggableResource(resourceType = PluginConfiguration::class) pluginConfigurationId: String
     ): T {
@@ -600,14 +487,23 @@ class PluginService(
         @LoggableResource(resourceType = PluginConfiguration::class) pluginConfigurationId: PluginConfigurationId
     ): Any {
         val configuration = pluginConfigurationRepository.getReferenceById(pluginConfigurationId)
+        if (pluginInstanceCache != null) {
+            return withLoggingContext(PluginConfiguration::class, configuration.id) {
+                pluginInstanceCache.getOrCreate(configuration, getPluginFactory(configuration))
+            }
+        }
         return createInstance(configuration)
     }
 
     fun createInstance(pluginConfiguration: PluginConfiguration): Any {
         return withLoggingContext(PluginConfiguration::class, pluginConfiguration.id) {
-            pluginFactories.first {
-                it.canCreate(pluginConfiguration)
-            }.create(pluginConfiguration)
+            getPluginFactory(pluginConfiguration).create(pluginConfiguration)
+        }
+    }
+
+    private fun getPluginFactory(pluginConfiguration: PluginConfiguration): PluginFactory<*> {
+        return pluginFactories.first {
+            it.canCreate(pluginConfiguration)
         }
     }
 
@@ -617,18 +513,12 @@ class PluginService(
         return pluginConfiguration?.let { createInstance(it) as T }
     }
 
-    private fun getActionMethod(
+    private fun getAction(
         instance: Any,
         processLink: PluginProcessLink
-    ): Method {
-        val method = instance.javaClass.methods.filter { method ->
-            method.isAnnotationPresent(PluginAction::class.java)
-        }.associateWith { method -> method.getAnnotation(PluginAction::class.java) }
-            .filter { (_, annotation) -> annotation.key == processLink.pluginActionDefinitionKey }
-            .map { entry -> entry.key }
-            .firstOrNull()
+    ): PluginActionInvoker {
+        return pluginActionDispatchTable.getAction(instance.javaClass, processLink.pluginActionDefinitionKey)
             ?: throw IllegalStateException("Plugin configuration '${processLink.pluginConfigurationId}', doesn't have any action named '${processLink.pluginActionDefinitionKey}'")
-        return method
     }
 
     private fun validateProperties(properties: ObjectNode, pluginDefinition: PluginDefinition) {
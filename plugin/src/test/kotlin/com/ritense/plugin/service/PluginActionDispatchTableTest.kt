@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.plugin.service
+
+import com.ritense.plugin.TestPlugin
+import com.ritense.valtimo.contract.json.MapperSingleton
+import org.assertj.core.api.Assertions.assertThat
+import org.camunda.bpm.engine.delegate.DelegateExecution
+import org.junit.jupiter.api.Assertions.assertThrows
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import java.lang.reflect.InvocationTargetException
+import java.net.URI
+
+class PluginActionDispatchTableTest {
+
+    private val objectMapper = MapperSingleton.get()
+    private val pluginActionDispatchTable = PluginActionDispatchTable(objectMapper)
+    private val plugin = TestPlugin("test")
+
+    @Test
+    fun `should find action by key`() {
+        pluginActionDispatchTable.register(TestPlugin::class.java)
+
+        val action = pluginActionDispatchTable.getAction(TestPlugin::class.java, "other-test-action")
+
+        assertThat(action).isNotNull
+        assertThat(action!!.method.name).isEqualTo("testAction")
+        assertThat(action.method.parameterCount).isEqualTo(1)
+        assertThat(pluginActionDispatchTable.getAction(TestPlugin::class.java, "unknown-action")).isNull()
+    }
+
+    @Test
+    fun `should compile actions of a class that was not registered`() {
+        val action = pluginActionDispatchTable.getAction(TestPlugin::class.java, "test-action")
+
+        assertThat(action).isNotNull
+        assertThat(action!!.invoke(plugin, action.bindArguments(null, mock<DelegateExecution>()) { emptyMap() }))
+            .isNull()
+    }
+
+    @Test
+    fun `should bind action properties and invoke action`() {
+        val action = pluginActionDispatchTable.getAction(TestPlugin::class.java, "test-action-with-uri-parameter")!!
+        val actionProperties = objectMapper.createObjectNode().put("uriParam", "http://example.com")
+
+        val arguments = action.bindArguments(actionProperties, mock<DelegateExecution>()) { emptyMap() }
+
+        assertThat(action.invoke(plugin, arguments)).isEqualTo(URI("http://example.com"))
+    }
+
+    @Test
+    fun `should bind resolved values of action properties`() {
+        val action = pluginActionDispatchTable.getAction(TestPlugin::class.java, "other-test-action")!!
+        val actionProperties = objectMapper.createObjectNode().put("someString", "pv:someValue")
+        var requestedValues: List<String>? = null
+
+        val arguments = action.bindArguments(actionProperties, mock<DelegateExecution>()) { values ->
+            requestedValues = values
+            mapOf("pv:someValue" to "resolved")
+        }
+
+        assertThat(requestedValues).containsExactly("pv:someValue")
+        assertThat(action.invoke(plugin, arguments)).isEqualTo("resolved")
+    }
+
+    @Test
+    fun `should wrap exception thrown by action`() {
+        val action = pluginActionDispatchTable.getAction(TestPlugin::class.java, "other-test-action")!!
+
+        assertThrows(InvocationTargetException::class.java) {
+            action.invoke(plugin, arrayOf(null))
+        }
+    }
+}
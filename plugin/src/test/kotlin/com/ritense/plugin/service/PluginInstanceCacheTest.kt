@@ -0,0 +1,170 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.plugin.service
+
+import com.ritense.plugin.TestPlugin
+import com.ritense.plugin.TestPluginCategory
+import com.ritense.plugin.TestPluginFactory
+import com.ritense.plugin.domain.PluginConfiguration
+import com.ritense.plugin.domain.PluginConfigurationId
+import com.ritense.plugin.domain.PluginDefinition
+import com.ritense.plugin.domain.PluginProperty
+import com.ritense.valtimo.contract.json.MapperSingleton
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+class PluginInstanceCacheTest {
+
+    private lateinit var meterRegistry: SimpleMeterRegistry
+    private lateinit var pluginService: PluginService
+    private lateinit var pluginFactory: TestPluginFactory
+    private lateinit var pluginInstanceCache: PluginInstanceCache
+
+    @BeforeEach
+    fun setUp() {
+        meterRegistry = SimpleMeterRegistry()
+        pluginService = mock()
+        whenever(pluginService.getObjectMapper()).thenReturn(MapperSingleton.get())
+        pluginFactory = TestPluginFactory("someObject", pluginService)
+        pluginInstanceCache = PluginInstanceCache(meterRegistry = meterRegistry)
+    }
+
+    @Test
+    fun `should reuse the blueprint but create a new plugin instance for every lookup`() {
+        val configuration = newConfiguration("a")
+
+        val first = pluginInstanceCache.getOrCreate(configuration, pluginFactory)
+        val second = pluginInstanceCache.getOrCreate(configuration, pluginFactory)
+
+        assertThat(second).isNotSameAs(first)
+        assertThat(first.property1).isEqualTo("a")
+        assertThat(second.property1).isEqualTo("a")
+        assertThat(cacheGets("hit")).isEqualTo(1.0)
+        assertThat(cacheGets("miss")).isEqualTo(1.0)
+    }
+
+    @Test
+    fun `should prepare a new blueprint when properties changed`() {
+        val configuration = newConfiguration("a")
+        pluginInstanceCache.getOrCreate(configuration, pluginFactory)
+
+        val changed = pluginInstanceCache.getOrCreate(newConfiguration("b", configuration.id), pluginFactory)
+
+        assertThat(changed.property1).isEqualTo("b")
+        assertThat(cacheGets("miss")).isEqualTo(2.0)
+    }
+
+    @Test
+    fun `should prepare a new blueprint after eviction`() {
+        val configuration = newConfiguration("a")
+        pluginInstanceCache.getOrCreate(configuration, pluginFactory)
+
+        pluginInstanceCache.evict(configuration.id)
+        pluginInstanceCache.getOrCreate(configuration, pluginFactory)
+
+        assertThat(cacheGets("hit")).isEqualTo(0.0)
+        assertThat(cacheGets("miss")).isEqualTo(2.0)
+    }
+
+    @Test
+    fun `should only evict the least recently used blueprint when full`() {
+        pluginInstanceCache = PluginInstanceCache(maximumSize = 2, meterRegistry = meterRegistry)
+        val a = newConfiguration("a")
+        val b = newConfiguration("b")
+        val c = newConfiguration("c")
+        pluginInstanceCache.getOrCreate(a, pluginFactory)
+        pluginInstanceCache.getOrCreate(b, pluginFactory)
+        pluginInstanceCache.getOrCreate(a, pluginFactory)
+
+        pluginInstanceCache.getOrCreate(c, pluginFactory)
+        pluginInstanceCache.getOrCreate(a, pluginFactory)
+        pluginInstanceCache.getOrCreate(c, pluginFactory)
+
+        assertThat(cacheGets("hit")).isEqualTo(3.0)
+        assertThat(cacheGets("miss")).isEqualTo(3.0)
+
+        pluginInstanceCache.getOrCreate(b, pluginFactory)
+
+        assertThat(cacheGets("miss")).isEqualTo(4.0)
+    }
+
+    @Test
+    fun `should resolve nested plugins again for every new plugin instance`() {
+        val nestedId = PluginConfigurationId.newId()
+        whenever(pluginService.createInstance(nestedId)).thenReturn(object : TestPluginCategory {})
+        val configuration = newConfiguration("a", nested = nestedId)
+
+        pluginInstanceCache.getOrCreate(configuration, pluginFactory)
+        pluginInstanceCache.getOrCreate(configuration, pluginFactory)
+
+        verify(pluginService, times(2)).createInstance(nestedId)
+    }
+
+    private fun newConfiguration(
+        value: String,
+        id: PluginConfigurationId = PluginConfigurationId.newId(),
+        nested: PluginConfigurationId? = null
+    ): PluginConfiguration {
+        val configuration = PluginConfiguration(id, "title", pluginDefinition = PLUGIN_DEFINITION)
+        configuration.rawProperties = MapperSingleton.get().createObjectNode()
+            .put("property1", value)
+            .apply { nested?.let { put("property4", it.id.toString()) } }
+        return configuration
+    }
+
+    private fun cacheGets(result: String): Double {
+        return meterRegistry.get("cache.gets")
+            .tag("cache", PluginInstanceCache.CACHE_NAME)
+            .tag("result", result)
+            .counter()
+            .count()
+    }
+
+    companion object {
+        private val PLUGIN_PROPERTIES = mutableSetOf<PluginProperty>()
+        private val PLUGIN_DEFINITION = PluginDefinition(
+            "test-plugin",
+            "Test Plugin",
+            "description",
+            TestPlugin::class.java.name,
+            PLUGIN_PROPERTIES
+        )
+
+        init {
+            PLUGIN_PROPERTIES.add(
+                PluginProperty("property1", PLUGIN_DEFINITION, "property1", true, false, "property1", String::class.java.name)
+            )
+            PLUGIN_PROPERTIES.add(
+                PluginProperty(
+                    "property4",
+                    PLUGIN_DEFINITION,
+                    "property4",
+                    false,
+                    false,
+                    "property4",
+                    TestPluginCategory::class.java.name
+                )
+            )
+        }
+    }
+}
@@ -92,6 +92,9 @@ public class ProcessDocumentHttpSecurityConfigurer implements HttpSecurityConfig
                 .requestMatchers(antMatcher(
                     POST, "/api/v1/document-definition/{caseDefinitionName}/task/search"))
                 .authenticated()
+                .requestMatchers(antMatcher(
+                    POST, "/api/v1/document-definition/{caseDefinitionName}/task/search/scroll"))
+                .authenticated()
             );
         } catch (Exception e) {
             throw new HttpConfigurerConfigurationException(e);
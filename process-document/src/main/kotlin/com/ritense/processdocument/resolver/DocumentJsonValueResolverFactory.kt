@@ -86,6 +86,12 @@ class DocumentJsonValueResolverFactory(
         )
     }
 
+    override fun createResolvers(documentIds: Collection<String>): Map<String, Function<String, Any?>> {
+        val documents = AuthorizationContext.runWithoutAuthorization { documentService.getDocuments(documentIds) }
+            .associateBy { document -> document.id().id }
+        return documentIds.associateWith { documentId -> createResolver(documents.getValue(UUID.fromString(documentId))) }
+    }
+
     override fun handleValues(
         processInstanceId: String,
         variableScope: VariableScope?,
@@ -48,6 +48,9 @@ import com.ritense.valtimo.camunda.repository.CamundaTaskSpecificationHelper
 import com.ritense.valtimo.contract.annotation.SkipComponentScan
 import com.ritense.valtimo.contract.authentication.UserManagementService
 import com.ritense.valtimo.contract.database.QueryDialectHelper
+import com.ritense.valtimo.contract.repository.InvalidKeysetException
+import com.ritense.valtimo.contract.repository.KeysetPage
+import com.ritense.valtimo.contract.repository.KeysetToken
 import com.ritense.valtimo.contract.utils.RequestHelper
 import com.ritense.valtimo.service.CamundaTaskService.TaskFilter
 import com.ritense.valueresolver.ValueResolverService
@@ -115,8 +118,7 @@ class CaseTaskListSearchService(
         ).ifEmpty { defaultColumns }
         val newPageable = mutatePageable(taskListColumns, pageable)
 
-        return search(caseDefinitionName, AdvancedSearchRequest().assigneeFilter(assignmentFilter), newPageable)
-            .map { task -> toCaseListRowDto(task, taskListColumns) }
+        return toCaseListRows(search(caseDefinitionName, AdvancedSearchRequest().assigneeFilter(assignmentFilter), newPageable), taskListColumns)
     }
 
     fun searchTaskListRows(
@@ -129,8 +131,25 @@ class CaseTaskListSearchService(
         ).ifEmpty { defaultColumns }
         val newPageable = mutatePageable(taskListColumns, pageable)
 
-        return search(caseDefinitionName, searchWithConfigRequest, newPageable)
-            .map { task -> toCaseListRowDto(task, taskListColumns) }
+        return toCaseListRows(search(caseDefinitionName, searchWithConfigRequest, newPageable), taskListColumns)
+    }
+
+    fun scrollTaskListRows(
+        caseDefinitionName: String,
+        searchWithConfigRequest: SearchWithConfigRequest,
+        sort: Sort,
+        size: Int,
+        token: String?
+    ): KeysetPage<TaskListRowDto> {
+        val taskListColumns = taskListColumnRepository.findByIdCaseDefinitionNameOrderByOrderAsc(
+            caseDefinitionName
+        ).ifEmpty { defaultColumns }
+        val advancedSearchRequest = toAdvancedSearchRequest(caseDefinitionName, searchWithConfigRequest)
+        // Unsorted requests use the default keyset order instead of the default column
+        val keysetSort = if (sort.isUnsorted) sort else mutateSort(taskListColumns, sort)
+        val tasks = scroll(caseDefinitionName, advancedSearchRequest, keysetSort, size, token)
+
+        return KeysetPage(toCaseListRows(tasks.content, taskListColumns), tasks.next)
     }
 
     fun search(
@@ -138,6 +157,13 @@ class CaseTaskListSearchService(
         searchWithConfigRequest: SearchWithConfigRequest,
         pageable: Pageable
     ): Page<CaseTask> {
+        return search(caseDefinitionName, toAdvancedSearchRequest(caseDefinitionName, searchWithConfigRequest), pageable)
+    }
+
+    private fun toAdvancedSearchRequest(
+        caseDefinitionName: String,
+        searchWithConfigRequest: SearchWithConfigRequest
+    ): AdvancedSearchRequest {
         val zoneOffset = RequestHelper.getZoneOffset()
         val searchFieldMap: Map<String, SearchFieldV2> =
             searchFieldV2Service.findAllByOwnerTypeAndOwnerId(SEARCH_FIELD_OWNER_TYPE, caseDefinitionName)
@@ -153,9 +179,7 @@ class CaseTaskListSearchService(
             }
             .toList()
 
-        val advancedSearchRequest = SearchRequestMapper.toAdvancedSearchRequest(searchWithConfigRequest, searchCriteria)
-
-        return search(caseDefinitionName, advancedSearchRequest, pageable)
+        return SearchRequestMapper.toAdvancedSearchRequest(searchWithConfigRequest, searchCriteria)
     }
 
     fun search(caseDefinitionName: String, advancedSearchRequest: AdvancedSearchRequest, pageable: Pageable): Page<CaseTask> {
@@ -163,6 +187,73 @@ class CaseTaskListSearchService(
         val query = cb.createQuery(CaseTask::class.java)
         val taskRoot = query.from(CamundaTask::class.java)
         val documentRoot = query.from(JsonSchemaDocument::class.java)
+        selectCaseTasks(cb, query, taskRoot, documentRoot)
+
+        // TODO: look into ability to re-use where predicate in list and count query. improves performance
+        query.where(constructWhere(cb, query, taskRoot, documentRoot, caseDefinitionName, advancedSearchRequest))
+
+        query.orderBy(constructOrderBy(query, cb, taskRoot, documentRoot, pageable.sort))
+
+        val pagedQuery = entityManager.createQuery(query)
+            .setFirstResult(pageable.offset.toInt())
+            .setMaxResults(pageable.pageSize)
+
+        return PageImpl(pagedQuery.resultList, pageable, count(caseDefinitionName, advancedSearchRequest))
+    }
+
+    /**
+     * Keyset (seek) paginated search. Tasks are ordered on (createTime, id) and the page continues after the position in
+     * the token, so deep pages don't have to skip rows.
+     */
+    fun scroll(
+        caseDefinitionName: String,
+        advancedSearchRequest: AdvancedSearchRequest,
+        sort: Sort,
+        size: Int,
+        token: String?
+    ): KeysetPage<CaseTask> {
+        val order = getKeysetOrder(sort)
+        val keysetToken = token?.let { KeysetToken.decode(it).requireMatches(order) }
+
+        val cb: CriteriaBuilder = entityManager.criteriaBuilder
+        val query = cb.createQuery(CaseTask::class.java)
+        val taskRoot = query.from(CamundaTask::class.java)
+        val documentRoot = query.from(JsonSchemaDocument::class.java)
+        selectCaseTasks(cb, query, taskRoot, documentRoot)
+
+        val createTime = taskRoot.get<LocalDateTime>(CaseTaskProperties.CREATE_TIME.propertyName)
+        val taskId = taskRoot.get<String>("id")
+        val where = constructWhere(cb, query, taskRoot, documentRoot, caseDefinitionName, advancedSearchRequest)
+        query.where(
+            if (keysetToken == null) where else cb.and(where, keysetToken.toPredicate(cb, createTime, taskId))
+        )
+        query.orderBy(
+            if (order.isAscending) listOf(cb.asc(createTime), cb.asc(taskId)) else listOf(cb.desc(createTime), cb.desc(taskId))
+        )
+
+        val tasks = entityManager.createQuery(query)
+            .setMaxResults(size + 1)
+            .resultList
+        if (tasks.size <= size) {
+            return KeysetPage(tasks, null)
+        }
+        val content = tasks.subList(0, size)
+        val last = content.last()
+        val next = KeysetToken(
+            order.property,
+            order.direction,
+            checkNotNull(last.createTime) { "Task '${last.taskId}' has no create time" },
+            last.taskId
+        )
+        return KeysetPage(content, next.encode())
+    }
+
+    private fun selectCaseTasks(
+        cb: CriteriaBuilder,
+        query: CriteriaQuery<CaseTask>,
+        taskRoot: Root<CamundaTask>,
+        documentRoot: Root<JsonSchemaDocument>
+    ) {
 
         val selectCols = arrayOf(
             taskRoot.get<String>("id"),
@@ -187,17 +278,19 @@ class CaseTaskListSearchService(
         val groupList = query.groupList.toMutableList()
         groupList.addAll(selectCols)
         query.groupBy(groupList)
+    }
 
-        // TODO: look into ability to re-use where predicate in list and count query. improves performance
-        query.where(constructWhere(cb, query, taskRoot, documentRoot, caseDefinitionName, advancedSearchRequest))
-
-        query.orderBy(constructOrderBy(query, cb, taskRoot, documentRoot, pageable.sort))
-
-        val pagedQuery = entityManager.createQuery(query)
-            .setFirstResult(pageable.offset.toInt())
-            .setMaxResults(pageable.pageSize)
-
-        return PageImpl(pagedQuery.resultList, pageable, count(caseDefinitionName, advancedSearchRequest))
+    private fun getKeysetOrder(sort: Sort): Sort.Order {
+        if (sort.isUnsorted) {
+            return Sort.Order.asc(CaseTaskProperties.CREATE_TIME.propertyName)
+        }
+        val order = sort.first()
+        if (sort.count() != 1 || order.property.removePrefix(TASK_PREFIX) != CaseTaskProperties.CREATE_TIME.propertyName) {
+            throw InvalidKeysetException(
+                "Keyset pagination only supports sorting on '${CaseTaskProperties.CREATE_TIME.propertyName}', not on '$sort'"
+            )
+        }
+        return Sort.Order(order.direction, CaseTaskProperties.CREATE_TIME.propertyName)
     }
 
     private fun count(caseDefinitionName: String, advancedSearchRequest: AdvancedSearchRequest): Long {
@@ -607,7 +700,11 @@ class CaseTaskListSearchService(
     }
 
     private fun mutatePageable(taskListColumns: Collection<TaskListColumn>, pageable: Pageable): PageRequest {
-        val newSortOrders = if (pageable.sort.isUnsorted) {
+        return PageRequest.of(pageable.pageNumber, pageable.pageSize, mutateSort(taskListColumns, pageable.sort))
+    }
+
+    private fun mutateSort(taskListColumns: Collection<TaskListColumn>, sort: Sort): Sort {
+        val newSortOrders = if (sort.isUnsorted) {
             // Default is the defaultSort or when absent, the first sortable column
             val defaultSortColumn = taskListColumns.find { it.defaultSort != null } ?: taskListColumns.find { it.sortable }
             val defaultSortDirection = if (defaultSortColumn?.defaultSort == ColumnDefaultSort.DESC) Sort.Direction.DESC else Sort.Direction.ASC
@@ -618,22 +715,37 @@ class CaseTaskListSearchService(
                 Sort.unsorted()
             }
         } else {
-            pageable.sort.map { sortOrder ->
+            sort.map { sortOrder ->
                 val caseListColumn = taskListColumns.find { caseListColumn -> caseListColumn.id.key == sortOrder.property }
                 val sortingProperty = caseListColumn?.path ?: sortOrder.property
                 Sort.Order(sortOrder.direction, sortingProperty, sortOrder.nullHandling)
             }
         }
-        val newSort = Sort.by(newSortOrders.toMutableList())
-        return PageRequest.of(pageable.pageNumber, pageable.pageSize, newSort)
+        return Sort.by(newSortOrders.toMutableList())
     }
 
-    private fun toCaseListRowDto(caseTask: CaseTask, taskListColumns: List<TaskListColumn>): TaskListRowDto {
-        val paths = taskListColumns.map { it.path }
+    private fun toCaseListRows(tasks: Page<CaseTask>, taskListColumns: List<TaskListColumn>): Page<TaskListRowDto> {
+        return PageImpl(toCaseListRows(tasks.content, taskListColumns), tasks.pageable, tasks.totalElements)
+    }
 
-        val (taskPaths, otherPaths) = paths.partition { it.startsWith(TASK_PREFIX) }
+    private fun toCaseListRows(tasks: List<CaseTask>, taskListColumns: List<TaskListColumn>): List<TaskListRowDto> {
+        val (taskPaths, otherPaths) = taskListColumns.map { it.path }.partition { it.startsWith(TASK_PREFIX) }
+        val resolvedValues = valueResolverService.resolveValuesForDocuments(
+            tasks.map { task -> task.documentInstanceId.toString() },
+            otherPaths
+        )
+        return tasks.map { task ->
+            toCaseListRowDto(task, taskListColumns, taskPaths, resolvedValues[task.documentInstanceId.toString()] ?: emptyMap())
+        }
+    }
 
-        val resolvedValuesMap = valueResolverService.resolveValues(caseTask.documentInstanceId.toString(), otherPaths).toMutableMap()
+    private fun toCaseListRowDto(
+        caseTask: CaseTask,
+        taskListColumns: List<TaskListColumn>,
+        taskPaths: List<String>,
+        documentValues: Map<String, Any?>
+    ): TaskListRowDto {
+        val resolvedValuesMap = documentValues.toMutableMap()
         resolvedValuesMap.putAll(taskPaths.map { taskPath -> resolveTaskValue(caseTask, taskPath) })
 
         val items = taskListColumns.map { caseListColumn ->
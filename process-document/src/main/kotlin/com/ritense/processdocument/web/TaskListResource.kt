@@ -23,6 +23,7 @@ import com.ritense.processdocument.web.result.TaskListRowDto
 import com.ritense.valtimo.camunda.dto.TaskExtended
 import com.ritense.valtimo.contract.annotation.SkipComponentScan
 import com.ritense.valtimo.contract.domain.ValtimoMediaType
+import com.ritense.valtimo.contract.repository.KeysetPage
 import com.ritense.valtimo.service.CamundaTaskService
 import org.springframework.data.domain.Page
 import org.springframework.data.domain.Pageable
@@ -66,4 +67,15 @@ class TaskListResource (
         return ResponseEntity.ok(result)
     }
 
+    @PostMapping("/v1/document-definition/{caseDefinitionName}/task/search/scroll")
+    fun scrollTaskList(
+        @PathVariable(name = "caseDefinitionName") caseDefinitionName: String,
+        @RequestBody searchRequest: SearchWithConfigRequest,
+        pageable: Pageable,
+        @RequestParam(name = "token", required = false) token: String?
+    ): ResponseEntity<KeysetPage<TaskListRowDto>> {
+        val result = service.scrollTaskListRows(caseDefinitionName, searchRequest, pageable.sort, pageable.pageSize, token)
+        return ResponseEntity.ok(result)
+    }
+
 }
\ No newline at end of file
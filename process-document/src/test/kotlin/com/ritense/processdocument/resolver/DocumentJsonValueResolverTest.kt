@@ -26,6 +26,7 @@ import com.ritense.document.domain.impl.JsonDocumentContent
 import com.ritense.document.domain.impl.JsonSchema
 import com.ritense.document.domain.impl.JsonSchemaDocumentDefinition
 import com.ritense.document.domain.impl.JsonSchemaDocumentDefinitionId
+import com.ritense.document.domain.impl.JsonSchemaDocumentId
 import com.ritense.document.service.DocumentService
 import com.ritense.document.service.impl.JsonSchemaDocumentDefinitionService
 import com.ritense.processdocument.domain.impl.CamundaProcessInstanceId
@@ -39,9 +40,11 @@ import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Assertions.assertNotNull
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
 import org.mockito.kotlin.argumentCaptor
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.net.URI
@@ -110,6 +113,24 @@ internal class DocumentJsonValueResolverTest {
         assertThat(resolvedValue).isEqualTo("John")
     }
 
+    @Test
+    fun `should resolve values for many documents with one fetch`() {
+        val otherDocumentInstanceId = UUID.randomUUID().toString()
+        val otherDocument: Document = mock()
+        whenever(document.id()).thenReturn(JsonSchemaDocumentId.existingId(UUID.fromString(documentInstanceId)))
+        whenever(document.content()).thenReturn(JsonDocumentContent("""{"firstName":"John"}"""))
+        whenever(otherDocument.id()).thenReturn(JsonSchemaDocumentId.existingId(UUID.fromString(otherDocumentInstanceId)))
+        whenever(otherDocument.content()).thenReturn(JsonDocumentContent("""{"firstName":"Jane"}"""))
+        val documentIds = listOf(documentInstanceId, otherDocumentInstanceId)
+        whenever(documentService.getDocuments(documentIds)).thenReturn(listOf(otherDocument, document))
+
+        val resolvers = documentValueResolver.createResolvers(documentIds)
+
+        assertThat(resolvers.getValue(documentInstanceId).apply("/firstName")).isEqualTo("John")
+        assertThat(resolvers.getValue(otherDocumentInstanceId).apply("/firstName")).isEqualTo("Jane")
+        verify(documentService, never()).get(any())
+    }
+
     @Test
     fun `should resolve int value from document properties`() {
         whenever(document.content()).thenReturn(JsonDocumentContent("""{"root":{"child":{"firstName":"John", "lastName": "Doe", "age": 5}}}"""))
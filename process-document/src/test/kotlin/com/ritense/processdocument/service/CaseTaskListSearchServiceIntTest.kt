@@ -22,6 +22,7 @@ import com.ritense.authorization.AuthorizationContext.Companion.runWithoutAuthor
 import com.ritense.document.domain.impl.JsonDocumentContent
 import com.ritense.document.domain.impl.JsonSchemaDocumentDefinition
 import com.ritense.document.domain.impl.request.NewDocumentRequest
+import com.ritense.document.domain.search.AdvancedSearchRequest
 import com.ritense.document.service.DocumentService
 import com.ritense.document.service.result.CreateDocumentResult
 import com.ritense.processdocument.BaseIntegrationTest
@@ -35,13 +36,17 @@ import com.ritense.search.domain.SearchFieldMatchType
 import com.ritense.search.service.SearchFieldV2Service
 import com.ritense.valtimo.contract.Constants
 import com.ritense.valtimo.contract.authentication.AuthoritiesConstants
+import com.ritense.valtimo.contract.repository.InvalidKeysetException
+import com.ritense.valtimo.contract.repository.KeysetToken
 import com.ritense.valtimo.service.CamundaTaskService
 import org.assertj.core.api.Assertions.assertThat
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.data.domain.Page
 import org.springframework.data.domain.PageRequest
+import org.springframework.data.domain.Sort
 import org.springframework.security.test.context.support.WithMockUser
 import org.springframework.transaction.annotation.Transactional
 import java.util.UUID
@@ -292,6 +297,48 @@ class CaseTaskListSearchServiceIntTest : BaseIntegrationTest() {
         assertThat(searchResult.numberOfElements).isEqualTo(10)
     }
 
+    @Test
+    @WithMockUser(username = "user@ritense.com", authorities = [AuthoritiesConstants.USER])
+    fun shouldScrollThroughAllTasksInCreateTimeOrder() {
+        val definition2 = definition("notahouse")
+        (1..6).forEach { createDocumentAndTwoProcesses("Funenpark$it", definition2.id().name()) }
+        val sort = Sort.by(Sort.Direction.DESC, "createTime")
+
+        val pages = generateSequence(
+            caseTaskListSearchService.scroll(definition2.id().name(), AdvancedSearchRequest(), sort, 5, null)
+        ) { page ->
+            page.next?.let { caseTaskListSearchService.scroll(definition2.id().name(), AdvancedSearchRequest(), sort, 5, it) }
+        }.toList()
+
+        val tasks = pages.flatMap { it.content }
+        assertThat(pages).hasSize(3)
+        assertThat(pages.last().next).isNull()
+        assertThat(tasks).hasSize(12)
+        assertThat(tasks.map { it.taskId }).doesNotHaveDuplicates()
+        assertThat(tasks.map { it.createTime!! }).isSortedAccordingTo(Comparator.reverseOrder())
+    }
+
+    @Test
+    @WithMockUser(username = "user@ritense.com", authorities = [AuthoritiesConstants.USER])
+    fun shouldRejectScrollOnUnsupportedSort() {
+        assertThrows<InvalidKeysetException> {
+            caseTaskListSearchService.scroll("house", AdvancedSearchRequest(), Sort.by("name"), 5, null)
+        }
+    }
+
+    @Test
+    @WithMockUser(username = "user@ritense.com", authorities = [AuthoritiesConstants.USER])
+    fun shouldRejectScrollWithTokenForAnotherSort() {
+        val token = KeysetToken("createTime", Sort.Direction.ASC, "2024-01-01T00:00:00", "task-id").encode()
+
+        assertThrows<InvalidKeysetException> {
+            caseTaskListSearchService.scroll("house", AdvancedSearchRequest(), Sort.by(Sort.Direction.DESC, "createTime"), 5, token)
+        }
+        assertThrows<InvalidKeysetException> {
+            caseTaskListSearchService.scroll("house", AdvancedSearchRequest(), Sort.unsorted(), 5, "not a token")
+        }
+    }
+
     private fun createDocumentAndTwoProcesses(streetName: String, documentName: String) {
         val content2 = JsonDocumentContent("{\"street\": \"$streetName\"}")
 
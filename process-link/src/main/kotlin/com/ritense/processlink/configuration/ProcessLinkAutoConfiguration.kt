@@ -25,10 +25,12 @@ import com.ritense.processlink.exporter.ProcessLinkExporter
 import com.ritense.processlink.importer.ProcessLinkImporter
 import com.ritense.processlink.mapper.ProcessLinkMapper
 import com.ritense.processlink.repository.ProcessLinkRepository
+import com.ritense.processlink.repository.ProcessLinkVersionRepository
 import com.ritense.processlink.security.config.ProcessLinkHttpSecurityConfigurer
 import com.ritense.processlink.service.CopyProcessLinkOnProcessDeploymentListener
 import com.ritense.processlink.service.ProcessLinkActivityHandler
 import com.ritense.processlink.service.ProcessLinkActivityService
+import com.ritense.processlink.service.ProcessLinkIndex
 import com.ritense.processlink.service.ProcessLinkService
 import com.ritense.processlink.web.rest.ProcessLinkResource
 import com.ritense.processlink.web.rest.ProcessLinkTaskResource
@@ -37,17 +39,20 @@ import com.ritense.valtimo.camunda.service.CamundaRepositoryService
 import com.ritense.valtimo.event.ProcessDefinitionDeployedEvent
 import com.ritense.valtimo.service.CamundaProcessService
 import com.ritense.valtimo.service.CamundaTaskService
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.AutoConfigureAfter
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.boot.autoconfigure.domain.EntityScan
 import org.springframework.context.annotation.Bean
 import org.springframework.core.annotation.Order
 import org.springframework.core.env.Environment
 import org.springframework.core.io.ResourceLoader
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import java.time.Duration
 
 @AutoConfiguration
 @EnableJpaRepositories(
@@ -135,6 +140,21 @@ class ProcessLinkAutoConfiguration {
         )
     }
 
+    @Bean
+    @ConditionalOnMissingBean(ProcessLinkIndex::class)
+    @ConditionalOnProperty(value = ["valtimo.process-link.index.enabled"], havingValue = "true", matchIfMissing = true)
+    fun processLinkIndex(
+        processLinkRepository: ProcessLinkRepository,
+        processLinkVersionRepository: ProcessLinkVersionRepository,
+        @Value("\${valtimo.process-link.index.revalidate-interval:PT1S}") revalidateInterval: Duration,
+    ): ProcessLinkIndex {
+        return ProcessLinkIndex(
+            processLinkRepository,
+            processLinkVersionRepository,
+            revalidateInterval
+        )
+    }
+
     @Bean
     @ConditionalOnMissingBean(ProcessLinkDeploymentApplicationReadyEventListener::class)
     fun processLinkDeploymentApplicationReadyEventListener(
@@ -16,10 +16,12 @@
 
 package com.ritense.processlink.domain
 
+import com.ritense.processlink.service.ProcessLinkIndexInvalidationListener
 import jakarta.persistence.Column
 import jakarta.persistence.DiscriminatorColumn
 import jakarta.persistence.DiscriminatorType.STRING
 import jakarta.persistence.Entity
+import jakarta.persistence.EntityListeners
 import jakarta.persistence.EnumType
 import jakarta.persistence.Enumerated
 import jakarta.persistence.Id
@@ -29,6 +31,7 @@ import jakarta.persistence.Table
 import java.util.UUID
 
 @Entity
+@EntityListeners(ProcessLinkIndexInvalidationListener::class)
 @Table(name = "process_link")
 @Inheritance(strategy = SINGLE_TABLE)
 @DiscriminatorColumn(name = "process_link_type", discriminatorType = STRING)
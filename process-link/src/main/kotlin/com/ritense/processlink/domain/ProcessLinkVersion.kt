@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.processlink.domain
+
+import jakarta.persistence.Column
+import jakarta.persistence.Entity
+import jakarta.persistence.Id
+import jakarta.persistence.Table
+
+/**
+ * Single row that is incremented whenever process links change, so other nodes know to drop their
+ * [com.ritense.processlink.service.ProcessLinkIndex].
+ */
+@Entity
+@Table(name = "process_link_version")
+class ProcessLinkVersion(
+    @Id
+    @Column(name = "id")
+    val id: Int = ID,
+
+    @Column(name = "version", nullable = false)
+    val version: Long = 0,
+) {
+    companion object {
+        const val ID = 1
+    }
+}
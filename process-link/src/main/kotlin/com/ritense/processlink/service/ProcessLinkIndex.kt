@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.processlink.service
+
+import com.ritense.processlink.domain.ActivityTypeWithEventName
+import com.ritense.processlink.domain.ProcessLink
+import com.ritense.processlink.repository.ProcessLinkRepository
+import com.ritense.processlink.repository.ProcessLinkVersionRepository
+import mu.KotlinLogging
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.time.Duration
+import java.util.Collections
+import java.util.UUID
+import java.util.WeakHashMap
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * In-memory index of the process links of a process definition, keyed by activity id and activity type.
+ *
+ * Camunda listeners use it to skip the database query for the many activities without a process link. The links of a
+ * process definition are loaded on first use. Every change to a [ProcessLink] drops the index of its process
+ * definition through [ProcessLinkIndexInvalidationListener]. Within the transaction that made the change that process
+ * definition is not indexed, and it is dropped again when the transaction completes. A committed change also
+ * increments the [com.ritense.processlink.domain.ProcessLinkVersion], which other nodes check at most once per
+ * revalidateInterval.
+ */
+open class ProcessLinkIndex(
+    private val processLinkRepository: ProcessLinkRepository,
+    private val processLinkVersionRepository: ProcessLinkVersionRepository,
+    private val revalidateInterval: Duration = Duration.ofSeconds(1),
+) {
+    private val processLinksByDefinition = ConcurrentHashMap<String, Map<ActivityKey, List<UUID>>>()
+    private val generation = AtomicLong()
+
+    @Volatile
+    private var version: Long? = null
+
+    @Volatile
+    private var revalidated = false
+
+    @Volatile
+    private var lastRevalidatedAt = 0L
+
+    init {
+        synchronized(instances) {
+            instances.add(this)
+        }
+    }
+
+    /**
+     * Returns false when the activity certainly has no process links of the given type.
+     */
+    fun hasProcessLinks(
+        processDefinitionId: String,
+        activityId: String,
+        activityType: ActivityTypeWithEventName
+    ): Boolean {
+        if (isBypassed(processDefinitionId)) {
+            return true
+        }
+        revalidate()
+        val processLinks = processLinksByDefinition[processDefinitionId] ?: load(processDefinitionId)
+        return processLinks.containsKey(ActivityKey(activityId, activityType))
+    }
+
+    fun invalidate(processDefinitionId: String) {
+        evict(processDefinitionId)
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            processLinkVersionRepository.incrementVersion()
+            return
+        }
+        val changedProcessDefinitionIds = changedProcessDefinitionIds()
+        if (changedProcessDefinitionIds != null) {
+            changedProcessDefinitionIds.add(processDefinitionId)
+            return
+        }
+        TransactionSynchronizationManager.bindResource(this, mutableSetOf(processDefinitionId))
+        TransactionSynchronizationManager.registerSynchronization(object : TransactionSynchronization {
+            override fun afterCommit() {
+                processLinkVersionRepository.incrementVersion()
+            }
+
+            override fun afterCompletion(status: Int) {
+                val processDefinitionIds = changedProcessDefinitionIds() ?: emptySet()
+                TransactionSynchronizationManager.unbindResourceIfPossible(this@ProcessLinkIndex)
+                processDefinitionIds.forEach { evict(it) }
+            }
+        })
+    }
+
+    fun clear() {
+        generation.incrementAndGet()
+        processLinksByDefinition.clear()
+    }
+
+    private fun load(processDefinitionId: String): Map<ActivityKey, List<UUID>> {
+        val loadedGeneration = generation.get()
+        val processLinks = processLinkRepository.findByProcessDefinitionId(processDefinitionId)
+            .groupBy({ ActivityKey(it.activityId, it.activityType) }, { it.id })
+        processLinksByDefinition[processDefinitionId] = processLinks
+        // A change while loading means the loaded process links may already be outdated
+        if (generation.get() != loadedGeneration) {
+            processLinksByDefinition.remove(processDefinitionId)
+        }
+        return processLinks
+    }
+
+    private fun evict(processDefinitionId: String) {
+        generation.incrementAndGet()
+        processLinksByDefinition.remove(processDefinitionId)
+    }
+
+    private fun isBypassed(processDefinitionId: String): Boolean {
+        return changedProcessDefinitionIds()?.contains(processDefinitionId) ?: false
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun changedProcessDefinitionIds(): MutableSet<String>? {
+        return TransactionSynchronizationManager.getResource(this) as MutableSet<String>?
+    }
+
+    private fun revalidate() {
+        val now = System.nanoTime()
+        if (revalidated && now - lastRevalidatedAt < revalidateInterval.toNanos()) {
+            return
+        }
+        lastRevalidatedAt = now
+        revalidated = true
+        val currentVersion = processLinkVersionRepository.findCurrentVersion()
+        if (currentVersion != version) {
+            logger.debug { "Process link version changed from $version to $currentVersion. Clearing process link index" }
+            clear()
+            version = currentVersion
+        }
+    }
+
+    private data class ActivityKey(
+        val activityId: String,
+        val activityType: ActivityTypeWithEventName,
+    )
+
+    companion object {
+        private val logger = KotlinLogging.logger {}
+        private val instances: MutableSet<ProcessLinkIndex> = Collections.newSetFromMap(WeakHashMap())
+
+        /**
+         * Invalidates the process links of a process definition in every index in this JVM. Used by JPA entity
+         * listeners, which are not Spring beans.
+         */
+        @JvmStatic
+        fun invalidateAll(processDefinitionId: String) {
+            synchronized(instances) {
+                instances.toList()
+            }.forEach { it.invalidate(processDefinitionId) }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.processlink.service
+
+import com.ritense.processlink.domain.ProcessLink
+import jakarta.persistence.PrePersist
+import jakarta.persistence.PreRemove
+import jakarta.persistence.PreUpdate
+
+/**
+ * Invalidates the [ProcessLinkIndex] of the process definition of every [ProcessLink] that is created, updated or
+ * deleted, whether by [CopyProcessLinkOnProcessDeploymentListener], the process link endpoints, the importer or any
+ * other code using the repositories.
+ */
+class ProcessLinkIndexInvalidationListener {
+
+    @PrePersist
+    @PreUpdate
+    @PreRemove
+    fun invalidate(processLink: ProcessLink) {
+        ProcessLinkIndex.invalidateAll(processLink.processDefinitionId)
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.processlink.service
+
+import com.ritense.processlink.domain.ActivityTypeWithEventName.SERVICE_TASK_START
+import com.ritense.processlink.domain.ActivityTypeWithEventName.USER_TASK_CREATE
+import com.ritense.processlink.domain.TestProcessLink
+import com.ritense.processlink.repository.ProcessLinkRepository
+import com.ritense.processlink.repository.ProcessLinkVersionRepository
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import java.time.Duration
+import java.util.UUID
+
+class ProcessLinkIndexTest {
+
+    private lateinit var processLinkRepository: ProcessLinkRepository
+    private lateinit var processLinkVersionRepository: ProcessLinkVersionRepository
+    private lateinit var processLinkIndex: ProcessLinkIndex
+
+    @BeforeEach
+    fun setUp() {
+        processLinkRepository = mock()
+        processLinkVersionRepository = mock()
+        whenever(processLinkVersionRepository.findCurrentVersion()).thenReturn(0L)
+        whenever(processLinkRepository.findByProcessDefinitionId(PROCESS_DEFINITION_ID))
+            .thenReturn(listOf(TestProcessLink(UUID.randomUUID(), PROCESS_DEFINITION_ID, ACTIVITY_ID, SERVICE_TASK_START)))
+        processLinkIndex = ProcessLinkIndex(processLinkRepository, processLinkVersionRepository, Duration.ofHours(1))
+    }
+
+    @AfterEach
+    fun tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization()
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(processLinkIndex)
+    }
+
+    @Test
+    fun `should load process links of a process definition once`() {
+        assertThat(processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, ACTIVITY_ID, SERVICE_TASK_START)).isTrue()
+        assertThat(processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, ACTIVITY_ID, USER_TASK_CREATE)).isFalse()
+        assertThat(processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, "other-activity", SERVICE_TASK_START)).isFalse()
+
+        verify(processLinkRepository, times(1)).findByProcessDefinitionId(PROCESS_DEFINITION_ID)
+    }
+
+    @Test
+    fun `should reload process links after invalidation`() {
+        processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, ACTIVITY_ID, SERVICE_TASK_START)
+
+        processLinkIndex.invalidate(PROCESS_DEFINITION_ID)
+        processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, ACTIVITY_ID, SERVICE_TASK_START)
+
+        verify(processLinkRepository, times(2)).findByProcessDefinitionId(PROCESS_DEFINITION_ID)
+        verify(processLinkVersionRepository).incrementVersion()
+    }
+
+    @Test
+    fun `should reload process links when another node changed the version`() {
+        val processLinkIndex = ProcessLinkIndex(processLinkRepository, processLinkVersionRepository, Duration.ZERO)
+        processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, ACTIVITY_ID, SERVICE_TASK_START)
+        processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, ACTIVITY_ID, SERVICE_TASK_START)
+
+        whenever(processLinkVersionRepository.findCurrentVersion()).thenReturn(1L)
+        processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, ACTIVITY_ID, SERVICE_TASK_START)
+
+        verify(processLinkRepository, times(2)).findByProcessDefinitionId(PROCESS_DEFINITION_ID)
+    }
+
+    @Test
+    fun `should bypass index in transaction that changed process links until it completes`() {
+        TransactionSynchronizationManager.initSynchronization()
+
+        processLinkIndex.invalidate(PROCESS_DEFINITION_ID)
+        assertThat(processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, ACTIVITY_ID, USER_TASK_CREATE)).isTrue()
+        verify(processLinkRepository, times(0)).findByProcessDefinitionId(PROCESS_DEFINITION_ID)
+
+        TransactionSynchronizationManager.getSynchronizations().forEach { synchronization ->
+            synchronization.afterCommit()
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+        }
+        TransactionSynchronizationManager.clearSynchronization()
+
+        assertThat(processLinkIndex.hasProcessLinks(PROCESS_DEFINITION_ID, ACTIVITY_ID, USER_TASK_CREATE)).isFalse()
+        verify(processLinkRepository, times(1)).findByProcessDefinitionId(PROCESS_DEFINITION_ID)
+        verify(processLinkVersionRepository).incrementVersion()
+    }
+
+    companion object {
+        private const val PROCESS_DEFINITION_ID = "process:1:1"
+        private const val ACTIVITY_ID = "service-task"
+    }
+}
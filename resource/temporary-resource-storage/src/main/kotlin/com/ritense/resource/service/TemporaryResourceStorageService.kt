@@ -128,6 +128,14 @@ class TemporaryResourceStorageService(
         return dataFile.inputStream()
     }
 
+    /**
+     * Returns the path of the file holding the content of the resource, for callers that need random access to it.
+     */
+    fun getResourceContentPath(id: String): Path {
+        val metadata = getResourceMetadata(id, false)
+        return Path(metadata[MetadataType.FILE_PATH.key] as String)
+    }
+
     fun getResourceMetadata(id: String): Map<String, Any> {
         return getResourceMetadata(id, true)
     }
@@ -85,6 +85,19 @@ interface ValueResolverFactory {
     fun createResolver(documentId: String)
         : Function<String, Any?>
 
+    /**
+     * This creates a requestedValue resolver for each of the given documents, for instance for all rows of a case list page.
+     *
+     * The default implementation calls createResolver(documentId) for every document. Factories that fetch the
+     * document themselves should override this to fetch all documents in one go.
+     *
+     * @param documentIds The documentIds these values belong to
+     *
+     * @return a map where the key is the documentId, and the value the resolver for that document.
+     */
+    fun createResolvers(documentIds: Collection<String>)
+        : Map<String, Function<String, Any?>> = documentIds.associateWith { documentId -> createResolver(documentId) }
+
     /**
      * @param processInstanceId The Camunda processInstanceId these values belong to
      * @param variableScope An implementation of VariableScope.
@@ -71,6 +71,19 @@ interface ValueResolverService {
         requestedValues: Collection<String>
     ): Map<String, Any?>
 
+    /**
+     * Resolves the same requestedValues for many documents at once, for instance for all rows of a case list page.
+     * Each resolver is created once for all documents, so a resolver can fetch the documents in a single call.
+     *
+     * @param documentInstanceIds The documentInstanceIds these values belong to
+     * @param requestedValues The requestedValues that should be resolved into values.
+     * @return A map where the key is the documentInstanceId, and the value the resolved values for that document.
+     */
+    fun resolveValuesForDocuments(
+        documentInstanceIds: Collection<String>,
+        requestedValues: Collection<String>
+    ): Map<String, Map<String, Any?>>
+
     /**
      * Handle values. Usually by storing them somewhere.
      *
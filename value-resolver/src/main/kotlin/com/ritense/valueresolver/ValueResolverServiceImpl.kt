@@ -169,6 +169,33 @@ class ValueResolverServiceImpl(
         }.flatten().toMap()
     }
 
+    /**
+     * Resolves the same requestedValues for many documents at once, for instance for all rows of a case list page.
+     * Each resolver is created once for all documents, so a resolver can fetch the documents in a single call.
+     *
+     * @param documentInstanceIds The documentInstanceIds these values belong to
+     * @param requestedValues The requestedValues that should be resolved into values.
+     * @return A map where the key is the documentInstanceId, and the value the resolved values for that document.
+     */
+    override fun resolveValuesForDocuments(
+        documentInstanceIds: Collection<String>,
+        requestedValues: Collection<String>
+    ): Map<String, Map<String, Any?>> {
+        val resolvedValues = documentInstanceIds.associateWith { mutableMapOf<String, Any?>() }
+        if (resolvedValues.isEmpty()) {
+            return resolvedValues
+        }
+        toResolverFactoryMap(requestedValues).forEach { (resolverFactory, requestedValues) ->
+            resolverFactory.createResolvers(resolvedValues.keys).forEach { (documentInstanceId, resolver) ->
+                val documentValues = resolvedValues[documentInstanceId] ?: return@forEach
+                requestedValues.forEach { requestedValue ->
+                    documentValues[requestedValue] = resolver.apply(trimPrefix(requestedValue))
+                }
+            }
+        }
+        return resolvedValues
+    }
+
     /**
      * Handle values. Usually by storing them somewhere.
      *
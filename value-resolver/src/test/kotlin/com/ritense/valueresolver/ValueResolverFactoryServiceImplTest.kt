@@ -17,13 +17,17 @@
 package com.ritense.valueresolver
 
 import java.util.UUID
+import java.util.function.Function
 import org.assertj.core.api.Assertions.assertThat
 import org.camunda.bpm.engine.RuntimeService
 import org.camunda.community.mockito.delegate.DelegateTaskFake
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.assertThrows
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
 
 internal class ValueResolverFactoryServiceImplTest {
 
@@ -85,6 +89,33 @@ internal class ValueResolverFactoryServiceImplTest {
         )
     }
 
+    @Test
+    fun `Should resolve requested values for many documents with one resolver per prefix`() {
+        val documentResolverFactory: ValueResolverFactory = mock()
+        whenever(documentResolverFactory.supportedPrefix()).thenReturn("doc")
+        whenever(documentResolverFactory.createResolvers(any())).thenReturn(
+            mapOf(
+                "document-1" to Function<String, Any?> { path -> "$path-1" },
+                "document-2" to Function<String, Any?> { path -> "$path-2" },
+            )
+        )
+        val resolverService = ValueResolverServiceImpl(listOf(documentResolverFactory, FixedValueResolverFactory()))
+
+        val resolvedValues = resolverService.resolveValuesForDocuments(
+            listOf("document-1", "document-2"),
+            listOf("doc:firstName", "fixedValue")
+        )
+
+        assertThat(resolvedValues).containsExactlyInAnyOrderEntriesOf(
+            mapOf(
+                "document-1" to mapOf("doc:firstName" to "firstName-1", "fixedValue" to "fixedValue"),
+                "document-2" to mapOf("doc:firstName" to "firstName-2", "fixedValue" to "fixedValue"),
+            )
+        )
+        verify(documentResolverFactory).createResolvers(setOf("document-1", "document-2"))
+        verify(documentResolverFactory, never()).createResolver(any<String>())
+    }
+
     @Test
     @Throws(RuntimeException::class)
     fun `Should throw exception on unknown prefix`() {
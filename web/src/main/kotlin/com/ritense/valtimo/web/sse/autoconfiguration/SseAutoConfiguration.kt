@@ -16,15 +16,59 @@
 
 package com.ritense.valtimo.web.sse.autoconfiguration
 
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.ritense.valtimo.web.sse.domain.SseOverflowPolicy
+import com.ritense.valtimo.web.sse.relay.LocalSseEventRelay
+import com.ritense.valtimo.web.sse.relay.PostgresSseEventRelay
+import com.ritense.valtimo.web.sse.relay.SseEventRelay
+import com.ritense.valtimo.web.sse.service.SseEventDispatcher
 import com.ritense.valtimo.web.sse.service.SseSubscriptionService
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty
 import org.springframework.context.annotation.Bean
+import javax.sql.DataSource
 
 @AutoConfiguration
 class SseAutoConfiguration {
 
+    @Bean
+    @ConditionalOnMissingBean(SseEventDispatcher::class)
+    fun sseEventDispatcher(
+        @Value("\${valtimo.sse.dispatcher.thread-count:2}") threadCount: Int,
+        @Value("\${valtimo.sse.dispatcher.queue-capacity:100}") queueCapacity: Int,
+        @Value("\${valtimo.sse.dispatcher.overflow-policy:DROP_OLDEST}") overflowPolicy: SseOverflowPolicy,
+        @Value("\${valtimo.sse.dispatcher.coalesce:true}") coalesce: Boolean,
+        meterRegistry: ObjectProvider<MeterRegistry>
+    ) = SseEventDispatcher(
+        threadCount,
+        queueCapacity,
+        overflowPolicy,
+        coalesce,
+        meterRegistry.ifAvailable
+    )
+
+    @Bean
+    @ConditionalOnMissingBean(SseEventRelay::class)
+    @ConditionalOnProperty(value = ["valtimo.sse.relay"], havingValue = "postgres")
+    fun postgresSseEventRelay(
+        dataSource: DataSource,
+        objectMapper: ObjectMapper,
+        @Value("\${valtimo.sse.relay-channel:valtimo_sse}") channel: String,
+    ): SseEventRelay = PostgresSseEventRelay(dataSource, objectMapper, channel)
+
+    @Bean
+    @ConditionalOnMissingBean(SseEventRelay::class)
+    fun localSseEventRelay(): SseEventRelay = LocalSseEventRelay()
+
     @Bean
     @ConditionalOnMissingBean(SseSubscriptionService::class)
-    fun sseSubscriptionService() = SseSubscriptionService()
+    fun sseSubscriptionService(
+        sseEventDispatcher: SseEventDispatcher,
+        sseEventRelay: SseEventRelay,
+        @Value("\${valtimo.sse.require-topics:false}") requireTopics: Boolean,
+    ) = SseSubscriptionService(sseEventDispatcher, sseEventRelay, requireTopics)
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.web.sse.domain
+
+/**
+ * What to do with a new event when the queue of a subscriber is full.
+ */
+enum class SseOverflowPolicy {
+    /**
+     * Drop the oldest queued event, so the subscriber receives the most recent events.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Drop the new event, so the subscriber receives the events that were queued first.
+     */
+    DROP_NEWEST,
+}
@@ -17,55 +17,137 @@
 package com.ritense.valtimo.web.sse.domain
 
 import com.ritense.valtimo.web.sse.event.BaseSseEvent
+import com.ritense.valtimo.web.sse.service.SseEventDispatcher
+import mu.KotlinLogging
 import java.io.IOException
-import java.util.LinkedList
+import java.util.ArrayDeque
+import java.util.concurrent.atomic.AtomicBoolean
 
 class SubscriberHandler(
-    val state: SubscriberState = SubscriberState()
+    val state: SubscriberState = SubscriberState(),
+    private val dispatcher: SseEventDispatcher = SseEventDispatcher(),
 ) {
 
     /**
      * Active subscriber instance if connected, or null if disconnected
      */
+    @Volatile
     var subscriber: Subscriber? = null
         private set
 
-    private val eventQueue = LinkedList<BaseSseEvent>()
+    private val eventQueue = ArrayDeque<BaseSseEvent>()
+    private val draining = AtomicBoolean(false)
+
+    val queueSize: Int
+        get() = synchronized(eventQueue) { eventQueue.size }
 
     /**
-     * Sends an SSE event, or if not connected add it to the queue, to be sent upon reconnecting
+     * Queues an SSE event. It is sent by the dispatcher when connected, or upon reconnecting.
+     *
+     * When the queue is full an event is dropped according to the overflow policy of the dispatcher. An event with the
+     * same coalesce key as a queued event is not queued again.
      */
     fun enqueue(event: BaseSseEvent) {
-        var sent = false
-        this.subscriber?.let {
-            try {
-                it.send(event)
-                sent = true
-            } catch (ex: IOException) {
-                this.subscriber = null
+        synchronized(eventQueue) {
+            if (dispatcher.coalesce && isQueued(event)) {
+                dispatcher.coalesced()
+                return@synchronized
             }
+            if (eventQueue.size >= dispatcher.queueCapacity) {
+                dispatcher.dropped()
+                when (dispatcher.overflowPolicy) {
+                    SseOverflowPolicy.DROP_NEWEST -> return@synchronized
+                    SseOverflowPolicy.DROP_OLDEST -> {
+                        eventQueue.pollFirst()
+                        dispatcher.dequeued()
+                    }
+                }
+            }
+            eventQueue.addLast(event)
+            dispatcher.queued()
         }
-        if (!sent) {
-            this.eventQueue.add(event)
-        }
+        scheduleDrain()
     }
 
     fun setSubscriber(subscriber: Subscriber?) {
         this.subscriber = subscriber
         // process built up events
-        subscriber?.let { sub ->
-            while (eventQueue.isNotEmpty()) {
-                val event = eventQueue.pop()
-                try {
-                    sub.send(event)
-                } catch (ex: IOException) {
-                    // reinsert event at start of queue
-                    eventQueue.add(0, event)
-                    this.subscriber = null
+        scheduleDrain()
+    }
+
+    /**
+     * Drops all queued events
+     */
+    fun clear() {
+        synchronized(eventQueue) {
+            dispatcher.dequeued(eventQueue.size)
+            eventQueue.clear()
+        }
+    }
+
+    private fun isQueued(event: BaseSseEvent): Boolean {
+        val coalesceKey = event.coalesceKey ?: return false
+        return eventQueue.any { it.coalesceKey == coalesceKey }
+    }
+
+    private fun scheduleDrain() {
+        if (subscriber != null && draining.compareAndSet(false, true)) {
+            dispatcher.dispatch(::drain)
+        }
+    }
+
+    private fun drain() {
+        try {
+            while (true) {
+                val sub = subscriber ?: break
+                val event = synchronized(eventQueue) { eventQueue.pollFirst() } ?: break
+                dispatcher.dequeued()
+                if (!send(sub, event)) {
                     break
                 }
             }
+        } finally {
+            draining.set(false)
+        }
+        // an event may have been queued, or a subscriber set, after the last poll
+        if (subscriber != null && queueSize > 0) {
+            scheduleDrain()
+        }
+    }
+
+    private fun send(sub: Subscriber, event: BaseSseEvent): Boolean {
+        return try {
+            sub.send(event)
+            true
+        } catch (ex: IOException) {
+            disconnected(sub, event)
+            false
+        } catch (ex: IllegalStateException) {
+            // the emitter has already completed
+            disconnected(sub, event)
+            false
+        } catch (ex: Exception) {
+            logger.warn(ex) { "Failed to send ${event.eventType} event to ${state.subscriptionId}" }
+            true
         }
     }
 
-}
\ No newline at end of file
+    private fun disconnected(sub: Subscriber, event: BaseSseEvent) {
+        // reinsert event at start of queue
+        synchronized(eventQueue) {
+            if (eventQueue.size < dispatcher.queueCapacity) {
+                eventQueue.addFirst(event)
+                dispatcher.queued()
+            } else {
+                dispatcher.dropped()
+            }
+        }
+        if (subscriber === sub) {
+            subscriber = null
+        }
+    }
+
+    companion object {
+        private val logger = KotlinLogging.logger {}
+    }
+}
@@ -16,8 +16,30 @@
 
 package com.ritense.valtimo.web.sse.domain
 
+import com.ritense.valtimo.web.sse.event.BaseSseEvent
 import java.util.UUID
 
 class SubscriberState(
-    val subscriptionId: UUID = UUID.randomUUID()
-)
\ No newline at end of file
+    val subscriptionId: UUID = UUID.randomUUID(),
+    val userId: String? = null,
+) {
+    /**
+     * The topics this subscriber watches, like the ids of the cases or tasks that are on screen. The set is replaced
+     * as a whole, so a concurrent event sees either the old or the new topics.
+     */
+    @Volatile
+    var topics: Set<String> = emptySet()
+
+    /**
+     * Whether the event should be sent to this subscriber. A subscriber that doesn't watch any topic receives all
+     * events, unless topics are required.
+     */
+    fun isInterestedIn(event: BaseSseEvent, requireTopics: Boolean = false): Boolean {
+        val eventTopics = event.topics ?: return true
+        val watched = topics
+        if (watched.isEmpty()) {
+            return !requireTopics
+        }
+        return eventTopics.any { it in watched }
+    }
+}
@@ -16,9 +16,26 @@
 
 package com.ritense.valtimo.web.sse.event
 
+import com.fasterxml.jackson.annotation.JsonIgnore
 import com.fasterxml.jackson.annotation.JsonProperty
 
 abstract class BaseSseEvent(
     @JsonProperty("_t")
     val eventType: String
-)
+) {
+    /**
+     * Events with the same key are interchangeable, so an event isn't queued for a subscriber when an event with the
+     * same key is still waiting to be sent. Null when every event must be sent.
+     */
+    @get:JsonIgnore
+    open val coalesceKey: Any?
+        get() = null
+
+    /**
+     * The topics this event is about, like the process instance it changed. Only subscribers watching one of these
+     * topics receive the event. Null when the event is relevant to every subscriber.
+     */
+    @get:JsonIgnore
+    open val topics: Set<String>?
+        get() = null
+}
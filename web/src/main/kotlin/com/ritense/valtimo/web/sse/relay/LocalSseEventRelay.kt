@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.web.sse.relay
+
+import com.ritense.valtimo.web.sse.event.BaseSseEvent
+
+/**
+ * Delivers events to the subscribers of this node only. Used for single node installations and in tests.
+ */
+class LocalSseEventRelay : SseEventRelay {
+
+    @Volatile
+    private var receiver: ((BaseSseEvent) -> Unit)? = null
+
+    override fun start(receiver: (BaseSseEvent) -> Unit) {
+        this.receiver = receiver
+    }
+
+    override fun publish(event: BaseSseEvent) {
+        receiver?.invoke(event)
+    }
+}
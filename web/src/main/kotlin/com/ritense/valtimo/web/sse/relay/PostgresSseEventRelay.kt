@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.web.sse.relay
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.ritense.valtimo.web.sse.event.BaseSseEvent
+import com.zaxxer.hikari.HikariDataSource
+import mu.KotlinLogging
+import org.postgresql.PGConnection
+import org.springframework.beans.factory.DisposableBean
+import java.sql.Connection
+import java.sql.DriverManager
+import java.util.Properties
+import java.util.UUID
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import javax.sql.DataSource
+
+/**
+ * Relays events between nodes with PostgreSQL LISTEN/NOTIFY.
+ *
+ * Events are delivered to the local subscribers directly, and sent to the other nodes with pg_notify on a separate
+ * thread, so raising an event never waits for the database. Every node keeps one connection open to LISTEN on the
+ * channel. That connection is opened outside the connection pool, so the listener never takes a pooled connection away
+ * from the application.
+ */
+class PostgresSseEventRelay(
+    private val dataSource: DataSource,
+    private val objectMapper: ObjectMapper,
+    private val channel: String = DEFAULT_CHANNEL,
+) : SseEventRelay, DisposableBean {
+
+    private val nodeId = UUID.randomUUID().toString()
+    private val publisher: ExecutorService = Executors.newSingleThreadExecutor { runnable ->
+        Thread(runnable, "sse-relay-publisher").apply { isDaemon = true }
+    }
+    private var listener: Thread? = null
+
+    @Volatile
+    private var receiver: ((BaseSseEvent) -> Unit)? = null
+
+    @Volatile
+    private var running = false
+
+    init {
+        require(channel.matches(CHANNEL_PATTERN)) { "Invalid SSE relay channel name '$channel'" }
+    }
+
+    @Synchronized
+    override fun start(receiver: (BaseSseEvent) -> Unit) {
+        this.receiver = receiver
+        if (!running) {
+            running = true
+            listener = Thread(::listen, "sse-relay-listener").apply {
+                isDaemon = true
+                start()
+            }
+        }
+    }
+
+    override fun publish(event: BaseSseEvent) {
+        receiver?.invoke(event)
+        publisher.execute { notify(event) }
+    }
+
+    override fun destroy() {
+        running = false
+        publisher.shutdownNow()
+        listener?.interrupt()
+    }
+
+    private fun notify(event: BaseSseEvent) {
+        try {
+            val message = objectMapper.writeValueAsString(SseRelayMessage.of(nodeId, event, objectMapper))
+            if (message.toByteArray(Charsets.UTF_8).size > MAX_PAYLOAD_LENGTH) {
+                logger.warn { "Not relaying ${event.eventType} event to other nodes: payload too large" }
+                return
+            }
+            dataSource.connection.use { connection ->
+                connection.prepareStatement("SELECT pg_notify(?, ?)").use { statement ->
+                    statement.setString(1, channel)
+                    statement.setString(2, message)
+                    statement.execute()
+                }
+                if (!connection.autoCommit) {
+                    connection.commit()
+                }
+            }
+        } catch (e: Exception) {
+            logger.warn(e) { "Failed to relay ${event.eventType} event to other nodes" }
+        }
+    }
+
+    private fun listen() {
+        while (running) {
+            try {
+                openListenerConnection().use { connection ->
+                    connection.autoCommit = true
+                    connection.createStatement().use { it.execute("LISTEN $channel") }
+                    val pgConnection = connection.unwrap(PGConnection::class.java)
+                    logger.info { "Listening for server-sent events of other nodes on channel '$channel'" }
+                    while (running) {
+                        pgConnection.getNotifications(POLL_TIMEOUT_MILLIS)?.forEach { receive(it.parameter) }
+                    }
+                }
+            } catch (e: Exception) {
+                if (running) {
+                    logger.warn(e) { "Lost connection for SSE relay channel '$channel'. Reconnecting" }
+                    sleepBeforeReconnect()
+                }
+            }
+        }
+    }
+
+    private fun openListenerConnection(): Connection {
+        val hikariDataSource = if (dataSource.isWrapperFor(HikariDataSource::class.java)) {
+            dataSource.unwrap(HikariDataSource::class.java)
+        } else {
+            null
+        }
+        if (hikariDataSource?.jdbcUrl == null) {
+            logger.warn { "Cannot open a dedicated connection for the SSE relay. Using a pooled connection." }
+            return dataSource.connection
+        }
+        val properties = Properties()
+        properties.putAll(hikariDataSource.dataSourceProperties)
+        hikariDataSource.username?.let { properties.setProperty("user", it) }
+        hikariDataSource.password?.let { properties.setProperty("password", it) }
+        return DriverManager.getConnection(hikariDataSource.jdbcUrl, properties)
+    }
+
+    private fun receive(payload: String) {
+        try {
+            val message = objectMapper.readValue(payload, SseRelayMessage::class.java)
+            if (message.nodeId != nodeId) {
+                receiver?.invoke(message.toEvent())
+            }
+        } catch (e: Exception) {
+            logger.warn(e) { "Failed to receive relayed server-sent event" }
+        }
+    }
+
+    private fun sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS)
+        } catch (e: InterruptedException) {
+            Thread.currentThread().interrupt()
+        }
+    }
+
+    companion object {
+        const val DEFAULT_CHANNEL = "valtimo_sse"
+
+        // PostgreSQL limits a notification payload to 8000 bytes
+        private const val MAX_PAYLOAD_LENGTH = 7900
+        private const val POLL_TIMEOUT_MILLIS = 1000
+        private const val RECONNECT_DELAY_MILLIS = 5000L
+        private val CHANNEL_PATTERN = Regex("[a-z_][a-z0-9_]*")
+        private val logger = KotlinLogging.logger {}
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.web.sse.relay
+
+import com.fasterxml.jackson.annotation.JsonValue
+import com.fasterxml.jackson.databind.JsonNode
+import com.ritense.valtimo.web.sse.event.BaseSseEvent
+
+/**
+ * An event raised on another node. It is sent to subscribers exactly as it was serialized on that node.
+ */
+class RelayedSseEvent(
+    eventType: String,
+    @get:JsonValue
+    val payload: JsonNode,
+    override val topics: Set<String>?,
+    override val coalesceKey: Any?,
+) : BaseSseEvent(eventType)
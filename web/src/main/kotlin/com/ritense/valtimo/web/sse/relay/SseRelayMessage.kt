@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.web.sse.relay
+
+import com.fasterxml.jackson.databind.JsonNode
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.ritense.valtimo.web.sse.event.BaseSseEvent
+
+/**
+ * An event as it is sent between nodes: the serialized event, with the properties that are needed to route it.
+ */
+class SseRelayMessage(
+    val nodeId: String,
+    val eventType: String,
+    val payload: JsonNode,
+    val topics: Set<String>? = null,
+    val coalesceKey: String? = null,
+) {
+    fun toEvent() = RelayedSseEvent(eventType, payload, topics, coalesceKey)
+
+    companion object {
+        @JvmStatic
+        fun of(nodeId: String, event: BaseSseEvent, objectMapper: ObjectMapper) = SseRelayMessage(
+            nodeId,
+            event.eventType,
+            objectMapper.valueToTree(event),
+            event.topics,
+            event.coalesceKey?.toString()
+        )
+    }
+}
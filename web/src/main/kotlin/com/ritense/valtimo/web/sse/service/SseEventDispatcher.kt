@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.web.sse.service
+
+import com.ritense.valtimo.web.sse.domain.SseOverflowPolicy
+import io.micrometer.core.instrument.Counter
+import io.micrometer.core.instrument.Gauge
+import io.micrometer.core.instrument.MeterRegistry
+import mu.KotlinLogging
+import org.springframework.beans.factory.DisposableBean
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Sends queued server-sent events to subscribers, off the thread that raised the event.
+ *
+ * Every [com.ritense.valtimo.web.sse.domain.SubscriberHandler] holds at most [queueCapacity] events, and is drained
+ * by one dispatcher thread at a time, so a slow or disconnected subscriber never blocks the thread that raised the
+ * event nor the other subscribers' queues. With a [threadCount] of 0 events are sent on the calling thread.
+ */
+open class SseEventDispatcher(
+    threadCount: Int = 0,
+    val queueCapacity: Int = DEFAULT_QUEUE_CAPACITY,
+    val overflowPolicy: SseOverflowPolicy = SseOverflowPolicy.DROP_OLDEST,
+    val coalesce: Boolean = true,
+    meterRegistry: MeterRegistry? = null,
+) : DisposableBean {
+
+    private val executor: Executor
+    private val queuedEvents = AtomicInteger()
+    private val droppedEvents = meterRegistry?.let { counter(it, "dropped") }
+    private val coalescedEvents = meterRegistry?.let { counter(it, "coalesced") }
+
+    init {
+        require(threadCount >= 0) { "The SSE dispatcher thread count must not be negative" }
+        require(queueCapacity > 0) { "The SSE queue capacity must be greater than 0" }
+        executor = if (threadCount == 0) {
+            Executor(Runnable::run)
+        } else {
+            val threadNumber = AtomicInteger()
+            logger.info { "Sending server-sent events with $threadCount dispatcher threads." }
+            Executors.newFixedThreadPool(threadCount) { runnable ->
+                Thread(runnable, "sse-dispatcher-${threadNumber.incrementAndGet()}").apply { isDaemon = true }
+            }
+        }
+        meterRegistry?.let {
+            Gauge.builder("valtimo.sse.queued", queuedEvents) { it.get().toDouble() }
+                .description("Number of server-sent events waiting to be sent to a subscriber")
+                .register(it)
+        }
+    }
+
+    fun dispatch(task: Runnable) {
+        executor.execute(task)
+    }
+
+    fun queued(count: Int = 1) {
+        queuedEvents.addAndGet(count)
+    }
+
+    fun dequeued(count: Int = 1) {
+        queuedEvents.addAndGet(-count)
+    }
+
+    fun dropped() {
+        droppedEvents?.increment()
+    }
+
+    fun coalesced() {
+        coalescedEvents?.increment()
+    }
+
+    override fun destroy() {
+        (executor as? ExecutorService)?.shutdownNow()
+    }
+
+    private fun counter(meterRegistry: MeterRegistry, result: String): Counter {
+        return Counter.builder("valtimo.sse.events")
+            .tag("result", result)
+            .register(meterRegistry)
+    }
+
+    companion object {
+        const val DEFAULT_QUEUE_CAPACITY = 100
+
+        private val logger = KotlinLogging.logger {}
+    }
+}
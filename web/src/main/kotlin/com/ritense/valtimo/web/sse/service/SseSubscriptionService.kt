@@ -20,47 +20,104 @@ import com.google.common.cache.Cache
 import com.google.common.cache.CacheBuilder
 import com.ritense.valtimo.web.sse.domain.Subscriber
 import com.ritense.valtimo.web.sse.domain.SubscriberHandler
+import com.ritense.valtimo.web.sse.domain.SubscriberState
 import com.ritense.valtimo.web.sse.event.BaseSseEvent
 import com.ritense.valtimo.web.sse.event.EstablishedConnectionSseEvent
+import com.ritense.valtimo.web.sse.relay.LocalSseEventRelay
+import com.ritense.valtimo.web.sse.relay.SseEventRelay
 import mu.KotlinLogging
+import org.springframework.security.core.context.SecurityContextHolder
 import java.time.Duration
 import java.util.UUID
 
-class SseSubscriptionService {
+/**
+ * Keeps the SSE subscriptions of this node, and sends them the events they are interested in.
+ *
+ * Events are published through the [SseEventRelay], so they reach the subscribers on every node. Each node filters
+ * the events on the topics of its own subscribers before they are queued and serialized.
+ */
+class SseSubscriptionService(
+    private val dispatcher: SseEventDispatcher = SseEventDispatcher(),
+    private val relay: SseEventRelay = LocalSseEventRelay(),
+    private val requireTopics: Boolean = false,
+) {
 
     // use cache so items get automatically evicted after 3h as final safeguard for memory leaks
     private val subscriberHandles: Cache<UUID, SubscriberHandler> = CacheBuilder.newBuilder()
         .expireAfterAccess(Duration.ofHours(3))
+        .removalListener<UUID, SubscriberHandler> { notification ->
+            notification.value?.clear()
+        }
         .build()
 
-    fun subscribe(subscriptionId: UUID? = null): Subscriber {
+    init {
+        relay.start(::deliver)
+    }
+
+    fun subscribe(subscriptionId: UUID? = null, userId: String? = currentUserId()): Subscriber {
         logger.debug { "Fetching new or existing subscription: $subscriptionId" }
         return subscriptionId?.let { id ->
-            subscriberHandles.getIfPresent(id)?.let { handle ->
-                logger.debug { "Found state for $id, getting subscription" }
-                ensureConnectedSubscriber(handle)
-            }
-        } ?: registerNewSubscriber()
+            subscriberHandles.getIfPresent(id)
+                ?.takeIf { handle -> handle.state.userId == userId }
+                ?.let { handle ->
+                    logger.debug { "Found state for $id, getting subscription" }
+                    ensureConnectedSubscriber(handle)
+                }
+        } ?: registerNewSubscriber(userId)
+    }
+
+    /**
+     * Replaces the topics a subscription watches, for instance with the case or task that is on screen.
+     *
+     * @return false when the subscription doesn't exist or belongs to another user
+     */
+    fun watch(subscriptionId: UUID, topics: Collection<String>, userId: String? = currentUserId()): Boolean {
+        val state = subscriberHandles.getIfPresent(subscriptionId)?.state
+            ?.takeIf { it.userId == userId }
+            ?: return false
+        state.topics = topics.toSet()
+        return true
     }
 
     fun remove(subscriptionId: UUID) {
         this.subscriberHandles.invalidate(subscriptionId)
     }
 
+    /**
+     * Publishes the event to the subscribers on all nodes
+     */
     fun notifySubscribers(event: BaseSseEvent) {
+        try {
+            relay.publish(event)
+        } catch (e: Exception) {
+            logger.error { "Failed to notify subscribers $e" }
+        }
+    }
+
+    /**
+     * Queues the event for every subscriber on this node that is interested in it. The events are sent by the
+     * [SseEventDispatcher].
+     */
+    private fun deliver(event: BaseSseEvent) {
         logger.debug { "Notify subscribers (total=${subscriberHandles.asMap().size})" }
         try {
             subscriberHandles.asMap().values.forEach { subscriber ->
-                logger.debug { "Sending notification to ${subscriber.state.subscriptionId}" }
-                subscriber.enqueue(event)
+                if (subscriber.state.isInterestedIn(event, requireTopics)) {
+                    logger.debug { "Sending notification to ${subscriber.state.subscriptionId}" }
+                    subscriber.enqueue(event)
+                }
             }
         } catch (e: Exception) {
             logger.error { "Failed to notify subscribers $e" }
         }
     }
 
-    private fun registerNewSubscriber(): Subscriber {
-        return this.setupNewSubscriber(SubscriberHandler(), true)
+    private fun registerNewSubscriber(userId: String?): Subscriber {
+        return this.setupNewSubscriber(SubscriberHandler(SubscriberState(userId = userId), dispatcher), true)
+    }
+
+    private fun currentUserId(): String? {
+        return SecurityContextHolder.getContext().authentication?.name
     }
 
     private fun setupNewSubscriber(handle: SubscriberHandler, isNew: Boolean): Subscriber {
@@ -154,6 +154,15 @@ public class ExceptionTranslatorIntTest {
             .andExpect(jsonPath("$.title").value("test response status"));
     }
 
+    @Test
+    public void testInvalidKeyset() throws Exception {
+        mockMvc.perform(get("/test/invalid-keyset"))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+            .andExpect(jsonPath("$.message").value("error.http.400"))
+            .andExpect(jsonPath("$.detail").value("Invalid continuation token"));
+    }
+
     @Test
     public void testInternalServerError() throws Exception {
         mockMvc.perform(get("/test/internal-server-error"))
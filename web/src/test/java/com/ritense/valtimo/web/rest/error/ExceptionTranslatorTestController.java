@@ -16,6 +16,7 @@
 
 package com.ritense.valtimo.web.rest.error;
 
+import com.ritense.valtimo.contract.repository.InvalidKeysetException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.dao.ConcurrencyFailureException;
@@ -65,6 +66,11 @@ public class ExceptionTranslatorTestController {
         throw new TestResponseStatusException();
     }
 
+    @GetMapping("/test/invalid-keyset")
+    public void invalidKeyset() {
+        throw new InvalidKeysetException("Invalid continuation token");
+    }
+
     @GetMapping("/test/internal-server-error")
     public void internalServerError() {
         throw new RuntimeException();
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.web.sse.domain
+
+import com.ritense.valtimo.web.sse.event.BaseSseEvent
+import com.ritense.valtimo.web.sse.service.SseEventDispatcher
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.doThrow
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import java.io.IOException
+
+class SubscriberHandlerTest {
+
+    private val meterRegistry = SimpleMeterRegistry()
+
+    @Test
+    fun `should send queued events when subscriber connects`() {
+        val handler = SubscriberHandler(dispatcher = dispatcher())
+        handler.enqueue(TestSseEvent("a"))
+        handler.enqueue(TestSseEvent("b"))
+        val subscriber = mock<Subscriber>()
+
+        handler.setSubscriber(subscriber)
+
+        assertThat(sentValues(subscriber, 2)).containsExactly("a", "b")
+        assertThat(handler.queueSize).isZero()
+        assertThat(queued()).isZero()
+    }
+
+    @Test
+    fun `should drop oldest event when queue is full`() {
+        val handler = SubscriberHandler(dispatcher = dispatcher(queueCapacity = 2))
+        handler.enqueue(TestSseEvent("a"))
+        handler.enqueue(TestSseEvent("b"))
+        handler.enqueue(TestSseEvent("c"))
+        assertThat(queued()).isEqualTo(2.0)
+        val subscriber = mock<Subscriber>()
+
+        handler.setSubscriber(subscriber)
+
+        assertThat(sentValues(subscriber, 2)).containsExactly("b", "c")
+        assertThat(events("dropped")).isEqualTo(1.0)
+    }
+
+    @Test
+    fun `should drop newest event when queue is full`() {
+        val handler = SubscriberHandler(
+            dispatcher = dispatcher(queueCapacity = 2, overflowPolicy = SseOverflowPolicy.DROP_NEWEST)
+        )
+        handler.enqueue(TestSseEvent("a"))
+        handler.enqueue(TestSseEvent("b"))
+        handler.enqueue(TestSseEvent("c"))
+        val subscriber = mock<Subscriber>()
+
+        handler.setSubscriber(subscriber)
+
+        assertThat(sentValues(subscriber, 2)).containsExactly("a", "b")
+        assertThat(events("dropped")).isEqualTo(1.0)
+    }
+
+    @Test
+    fun `should coalesce queued events with the same key`() {
+        val handler = SubscriberHandler(dispatcher = dispatcher())
+        handler.enqueue(TestSseEvent("a"))
+        handler.enqueue(TestSseEvent("a"))
+        handler.enqueue(TestSseEvent("b"))
+        handler.enqueue(TestSseEvent(null))
+        handler.enqueue(TestSseEvent(null))
+        val subscriber = mock<Subscriber>()
+
+        handler.setSubscriber(subscriber)
+
+        assertThat(sentValues(subscriber, 4)).containsExactly("a", "b", null, null)
+        assertThat(events("coalesced")).isEqualTo(1.0)
+    }
+
+    @Test
+    fun `should keep event and disconnect when sending fails`() {
+        val handler = SubscriberHandler(dispatcher = dispatcher())
+        val subscriber = mock<Subscriber>()
+        whenever(subscriber.send(any<Any>())).doThrow(IOException("Broken pipe"))
+        handler.setSubscriber(subscriber)
+
+        handler.enqueue(TestSseEvent("a"))
+
+        assertThat(handler.subscriber).isNull()
+        assertThat(handler.queueSize).isEqualTo(1)
+
+        val reconnectedSubscriber = mock<Subscriber>()
+        handler.setSubscriber(reconnectedSubscriber)
+        assertThat(sentValues(reconnectedSubscriber, 1)).containsExactly("a")
+    }
+
+    @Test
+    fun `should not send events after clear`() {
+        val handler = SubscriberHandler(dispatcher = dispatcher())
+        handler.enqueue(TestSseEvent("a"))
+
+        handler.clear()
+        val subscriber = mock<Subscriber>()
+        handler.setSubscriber(subscriber)
+
+        verify(subscriber, never()).send(any<Any>())
+        assertThat(queued()).isZero()
+    }
+
+    private fun dispatcher(
+        queueCapacity: Int = 10,
+        overflowPolicy: SseOverflowPolicy = SseOverflowPolicy.DROP_OLDEST
+    ) = SseEventDispatcher(
+        queueCapacity = queueCapacity,
+        overflowPolicy = overflowPolicy,
+        meterRegistry = meterRegistry
+    )
+
+    private fun sentValues(subscriber: Subscriber, count: Int): List<String?> {
+        val captor = argumentCaptor<Any>()
+        verify(subscriber, times(count)).send(captor.capture())
+        return captor.allValues.map { (it as TestSseEvent).value }
+    }
+
+    private fun queued() = meterRegistry.get("valtimo.sse.queued").gauge().value()
+
+    private fun events(result: String) = meterRegistry.get("valtimo.sse.events").tag("result", result).counter().count()
+
+    private class TestSseEvent(
+        val value: String?
+    ) : BaseSseEvent("TEST") {
+        override val coalesceKey: Any?
+            get() = value
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.web.sse.domain
+
+import com.ritense.valtimo.web.sse.event.BaseSseEvent
+import com.ritense.valtimo.web.sse.event.SseTopics
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+class SubscriberStateTest {
+
+    @Test
+    fun `should be interested in events without topics`() {
+        val state = SubscriberState(userId = "user")
+        state.topics = setOf(SseTopics.processInstance("1"))
+
+        assertThat(state.isInterestedIn(TestSseEvent(null), requireTopics = true)).isTrue()
+    }
+
+    @Test
+    fun `should only be interested in watched topics`() {
+        val state = SubscriberState(userId = "user")
+        state.topics = setOf(SseTopics.processInstance("1"))
+
+        assertThat(state.isInterestedIn(TestSseEvent(setOf(SseTopics.processInstance("1"))))).isTrue()
+        assertThat(state.isInterestedIn(TestSseEvent(setOf(SseTopics.processInstance("2"))))).isFalse()
+    }
+
+    @Test
+    fun `should be interested in events on any of the watched topics`() {
+        val state = SubscriberState(userId = "user")
+        state.topics = setOf(SseTopics.document("1"), SseTopics.task("2"))
+
+        assertThat(state.isInterestedIn(TestSseEvent(setOf(SseTopics.processInstance("3"), SseTopics.task("2"))))).isTrue()
+        assertThat(state.isInterestedIn(TestSseEvent(setOf(SseTopics.document("2"))))).isFalse()
+    }
+
+    @Test
+    fun `should receive all events when no topics are watched unless topics are required`() {
+        val state = SubscriberState(userId = "user")
+        val event = TestSseEvent(setOf(SseTopics.processInstance("1")))
+
+        assertThat(state.isInterestedIn(event)).isTrue()
+        assertThat(state.isInterestedIn(event, requireTopics = true)).isFalse()
+    }
+
+    private class TestSseEvent(
+        override val topics: Set<String>?
+    ) : BaseSseEvent("TEST")
+}
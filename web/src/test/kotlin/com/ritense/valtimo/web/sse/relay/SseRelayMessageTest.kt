@@ -0,0 +1,65 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.valtimo.web.sse.relay
+
+import com.fasterxml.jackson.module.kotlin.jacksonObjectMapper
+import com.fasterxml.jackson.module.kotlin.readValue
+import com.ritense.valtimo.web.sse.event.BaseSseEvent
+import com.ritense.valtimo.web.sse.event.SseTopics
+import org.assertj.core.api.Assertions.assertThat
+import org.junit.jupiter.api.Test
+
+class SseRelayMessageTest {
+
+    private val objectMapper = jacksonObjectMapper()
+
+    @Test
+    fun `should serialize relayed event like the original event`() {
+        val event = TestSseEvent("1")
+
+        val json = objectMapper.writeValueAsString(SseRelayMessage.of("node", event, objectMapper))
+        val relayed = objectMapper.readValue<SseRelayMessage>(json).toEvent()
+
+        assertThat(objectMapper.readTree(objectMapper.writeValueAsString(relayed)))
+            .isEqualTo(objectMapper.readTree(objectMapper.writeValueAsString(event)))
+        assertThat(relayed.eventType).isEqualTo("TEST")
+        assertThat(relayed.topics).containsExactly(SseTopics.processInstance("1"))
+        assertThat(relayed.coalesceKey).isEqualTo("TEST:1")
+    }
+
+    @Test
+    fun `should deliver published events to the receiver`() {
+        val relay = LocalSseEventRelay()
+        val received = mutableListOf<BaseSseEvent>()
+        relay.start { received.add(it) }
+        val event = TestSseEvent("1")
+
+        relay.publish(event)
+
+        assertThat(received).containsExactly(event)
+    }
+
+    class TestSseEvent(
+        val processInstanceId: String
+    ) : BaseSseEvent("TEST") {
+        override val coalesceKey: Any
+            get() = "$eventType:$processInstanceId"
+
+        override val topics: Set<String>
+            get() = setOf(SseTopics.processInstance(processInstanceId))
+    }
+}
@@ -52,6 +52,12 @@ class SseSubscriptionServiceTest {
         }
     }
 
+    @Test
+    fun `watch unknown subscription`() {
+        val watched = sseSubscriptionService.watch(UUID.randomUUID(), setOf("document:1"), "user")
+        assertThat(watched).isFalse()
+    }
+
     @Test
     fun remove() {
         val subscriptionId = UUID.randomUUID()
@@ -19,6 +19,7 @@ package com.ritense.besluitenapi
 import com.ritense.besluitenapi.client.BesluitenApiClient
 import com.ritense.plugin.service.PluginService
 import com.ritense.zakenapi.ZaakUrlProvider
+import com.ritense.zgw.client.ZgwHttpClientRegistry
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.context.annotation.Bean
 import org.springframework.web.client.RestClient
@@ -27,7 +28,10 @@ import org.springframework.web.client.RestClient
 class BesluitenApiAutoConfiguration {
 
     @Bean
-    fun besluitenApiClient(restClientBuilder: RestClient.Builder) = BesluitenApiClient(restClientBuilder)
+    fun besluitenApiClient(
+        restClientBuilder: RestClient.Builder,
+        zgwHttpClientRegistry: ZgwHttpClientRegistry
+    ) = BesluitenApiClient(zgwHttpClientRegistry.configure(restClientBuilder))
 
     @Bean
     fun besluitenApiPluginFactory(
@@ -17,6 +17,7 @@
 package com.ritense.catalogiapi
 
 import com.ritense.plugin.annotation.PluginCategory
+import com.ritense.plugin.domain.PluginConfigurationId
 import org.springframework.web.client.RestClient
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction
 
@@ -24,6 +25,12 @@ import org.springframework.web.reactive.function.client.ExchangeFilterFunction
 // TODO remove ExchangeFilterFunction next major version
 interface CatalogiApiAuthentication : ExchangeFilterFunction {
 
+    /**
+     * The configuration of this authentication plugin. Responses are only cached for authentications that have one.
+     */
+    val configurationId: PluginConfigurationId?
+        get() = null
+
     fun applyAuth(builder: RestClient.Builder): RestClient.Builder
 
 }
\ No newline at end of file
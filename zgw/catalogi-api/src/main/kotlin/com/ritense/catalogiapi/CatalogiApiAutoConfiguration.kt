@@ -16,13 +16,17 @@
 
 package com.ritense.catalogiapi
 
+import com.ritense.catalogiapi.client.CatalogiApiCache
 import com.ritense.catalogiapi.client.CatalogiApiClient
+import com.ritense.catalogiapi.listener.CatalogiApiCacheInvalidationListener
 import com.ritense.catalogiapi.security.CatalogiApiHttpSecurityConfigurer
 import com.ritense.catalogiapi.service.CatalogiService
 import com.ritense.catalogiapi.service.ZaaktypeUrlProvider
 import com.ritense.catalogiapi.web.rest.CatalogiResource
 import com.ritense.document.service.DocumentService
 import com.ritense.plugin.service.PluginService
+import com.ritense.zgw.client.ZgwHttpClientRegistry
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.cache.CacheManager
@@ -30,17 +34,42 @@ import org.springframework.cache.annotation.EnableCaching
 import org.springframework.context.annotation.Bean
 import org.springframework.core.annotation.Order
 import org.springframework.web.client.RestClient
+import java.time.Duration
 
 @AutoConfiguration
 @EnableCaching
 class CatalogiApiAutoConfiguration {
 
+    /**
+     * Catalogi API responses are kept in the `zgw-catalogiapi-response` cache of the application's cache manager. Spring
+     * Boot's default simple cache never evicts entries, so applications should configure a bounded cache provider.
+     */
+    @Bean
+    @ConditionalOnMissingBean(CatalogiApiCache::class)
+    fun catalogiApiCache(
+        cacheManager: CacheManager,
+        @Value("\${valtimo.catalogi-api.cache.fresh-for:PT5M}") freshFor: Duration,
+    ): CatalogiApiCache {
+        return CatalogiApiCache(cacheManager, freshFor)
+    }
+
     @Bean
     fun catalogiApiClient(
         restClientBuilder: RestClient.Builder,
         cacheManager: CacheManager,
+        zgwHttpClientRegistry: ZgwHttpClientRegistry,
+        catalogiApiCache: CatalogiApiCache,
     ): CatalogiApiClient {
-        return CatalogiApiClient(restClientBuilder, cacheManager)
+        return CatalogiApiClient(zgwHttpClientRegistry.configure(restClientBuilder), cacheManager, catalogiApiCache)
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(CatalogiApiCacheInvalidationListener::class)
+    fun catalogiApiCacheInvalidationListener(
+        catalogiApiCache: CatalogiApiCache,
+        cacheManager: CacheManager,
+    ): CatalogiApiCacheInvalidationListener {
+        return CatalogiApiCacheInvalidationListener(catalogiApiCache, cacheManager)
     }
 
     @Bean
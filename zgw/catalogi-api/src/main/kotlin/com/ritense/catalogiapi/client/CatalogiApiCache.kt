@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.catalogiapi.client
+
+import com.ritense.plugin.domain.PluginConfigurationId
+import mu.KotlinLogging
+import org.springframework.cache.Cache
+import org.springframework.cache.CacheManager
+import java.io.Serializable
+import java.net.URI
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+
+/**
+ * Cache of Catalogi API responses, kept in the [CACHE_NAME] Spring cache. Entries are keyed by the authentication
+ * plugin configuration and the url of the request, as different credentials can see different catalogi.
+ *
+ * Catalogi only change when a catalogue is published. Entries are used as-is for [freshFor] and are revalidated with
+ * their ETag after that. The cache is cleared when a notification is received for a zaaktype or catalogus.
+ *
+ * Entries are immutable and replaced when revalidated, so they also work with providers that store by value. Such
+ * providers must be able to serialize the cached response objects. How many entries are kept is up to the cache
+ * provider: the default simple cache of Spring Boot is unbounded, so configure a bounded provider, e.g. Caffeine with a
+ * maximum size, for this cache.
+ */
+class CatalogiApiCache(
+    cacheManager: CacheManager,
+    private val freshFor: Duration = Duration.ofMinutes(5),
+    private val clock: Clock = Clock.systemUTC()
+) {
+    private val cache: Cache? = cacheManager.getCache(CACHE_NAME)
+
+    fun get(configurationId: PluginConfigurationId, url: URI): Entry? {
+        return cache?.get(Key(configurationId, url), Entry::class.java)
+    }
+
+    fun put(configurationId: PluginConfigurationId, url: URI, value: Any, eTag: String?) {
+        cache?.put(Key(configurationId, url), Entry(value, eTag, clock.instant()))
+    }
+
+    fun isFresh(entry: Entry): Boolean {
+        return entry.validatedAt.plus(freshFor).isAfter(clock.instant())
+    }
+
+    /**
+     * Marks the entry as validated now. The entry is replaced instead of modified, as a cache provider that stores by
+     * value would not see changes to an entry that was read from it.
+     */
+    fun revalidated(configurationId: PluginConfigurationId, url: URI, entry: Entry) {
+        cache?.put(Key(configurationId, url), entry.copy(validatedAt = clock.instant()))
+    }
+
+    /**
+     * Removes all entries. A change to a zaaktype also changes the lists of statustypen, resultaattypen, etc. of that
+     * zaaktype, so invalidating single urls isn't enough.
+     */
+    fun invalidateAll() {
+        cache?.clear()
+        logger.debug { "Invalidated all cached catalogi api responses" }
+    }
+
+    data class Key(
+        val configurationId: PluginConfigurationId,
+        val url: URI
+    )
+
+    data class Entry(
+        val value: Any,
+        val eTag: String?,
+        val validatedAt: Instant
+    ) : Serializable
+
+    companion object {
+        const val CACHE_NAME = "zgw-catalogiapi-response"
+        private val logger = KotlinLogging.logger {}
+    }
+}
@@ -30,14 +30,17 @@ import com.ritense.zgw.Page
 import mu.KotlinLogging
 import org.springframework.cache.CacheManager
 import org.springframework.cache.annotation.Cacheable
+import org.springframework.http.HttpStatus
 import org.springframework.web.client.RestClient
-import org.springframework.web.client.body
+import org.springframework.web.client.toEntity
 import org.springframework.web.util.UriBuilder
+import org.springframework.web.util.UriComponentsBuilder
 import java.net.URI
 
 open class CatalogiApiClient(
     private val restClientBuilder: RestClient.Builder,
-    private val cacheManager: CacheManager
+    private val cacheManager: CacheManager,
+    private val catalogiApiCache: CatalogiApiCache? = null
 ) {
     open fun getZaaktypeInformatieobjecttypes(
         authentication: CatalogiApiAuthentication,
@@ -45,20 +48,17 @@ open class CatalogiApiClient(
         request: ZaaktypeInformatieobjecttypeRequest
     ): Page<ZaaktypeInformatieobjecttype> {
         validateUrlHost(baseUrl, request.zaaktype)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri {
-                ClientTools.baseUrlToBuilder(it, baseUrl)
-                    .pathSegment("zaaktype-informatieobjecttypen")
-                    .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
-                    .addOptionalQueryParamFromRequest("informatieobjecttype", request.informatieobjecttype)
-                    .addOptionalQueryParamFromRequest("richting", request.richting?.getSearchValue())
-                    .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
-                    .addOptionalQueryParamFromRequest("page", request.page)
-                    .build()
-            }
-            .retrieve()
-            .body<Page<ZaaktypeInformatieobjecttype>>()!!
+        val result = get<Page<ZaaktypeInformatieobjecttype>>(
+            authentication,
+            ClientTools.baseUrlToBuilder(UriComponentsBuilder.newInstance(), baseUrl)
+                .pathSegment("zaaktype-informatieobjecttypen")
+                .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
+                .addOptionalQueryParamFromRequest("informatieobjecttype", request.informatieobjecttype)
+                .addOptionalQueryParamFromRequest("richting", request.richting?.getSearchValue())
+                .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
+                .addOptionalQueryParamFromRequest("page", request.page)
+                .build()
+        ).copyResults()
         return result
     }
 
@@ -67,16 +67,14 @@ open class CatalogiApiClient(
         baseUrl: URI,
         request: InformatieobjecttypeRequest
     ): Page<Informatieobjecttype> {
-        val result = buildRestClient(authentication)
-            .get()
-            .uri {
-                ClientTools.baseUrlToBuilder(it, baseUrl)
-                    .pathSegment("informatieobjecttypen")
-                    .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
-                    .addOptionalQueryParamFromRequest("page", request.page)
-                    .build()
-            }.retrieve()
-            .body<Page<Informatieobjecttype>>()!!
+        val result = get<Page<Informatieobjecttype>>(
+            authentication,
+            ClientTools.baseUrlToBuilder(UriComponentsBuilder.newInstance(), baseUrl)
+                .pathSegment("informatieobjecttypen")
+                .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
+                .addOptionalQueryParamFromRequest("page", request.page)
+                .build()
+        ).copyResults()
             .sortedBy { it.omschrijving }
         return result
     }
@@ -88,11 +86,7 @@ open class CatalogiApiClient(
         informatieobjecttypeUrl: URI
     ): Informatieobjecttype {
         validateUrlHost(baseUrl, informatieobjecttypeUrl)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri(informatieobjecttypeUrl)
-            .retrieve()
-            .body<Informatieobjecttype>()!!
+        val result = get<Informatieobjecttype>(authentication, informatieobjecttypeUrl)
         return result
     }
 
@@ -102,18 +96,16 @@ open class CatalogiApiClient(
         request: RoltypeRequest,
     ): Page<Roltype> {
         validateUrlHost(baseUrl, request.zaaktype)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri {
-                ClientTools.baseUrlToBuilder(it, baseUrl)
-                    .pathSegment("roltypen")
-                    .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
-                    .addOptionalQueryParamFromRequest("omschrijvingGeneriek", request.omschrijvingGeneriek)
-                    .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
-                    .addOptionalQueryParamFromRequest("page", request.page)
-                    .build()
-            }.retrieve()
-            .body<Page<Roltype>>()!!
+        val result = get<Page<Roltype>>(
+            authentication,
+            ClientTools.baseUrlToBuilder(UriComponentsBuilder.newInstance(), baseUrl)
+                .pathSegment("roltypen")
+                .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
+                .addOptionalQueryParamFromRequest("omschrijvingGeneriek", request.omschrijvingGeneriek)
+                .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
+                .addOptionalQueryParamFromRequest("page", request.page)
+                .build()
+        ).copyResults()
             .sortedBy { it.omschrijving }
         return result
     }
@@ -124,11 +116,7 @@ open class CatalogiApiClient(
         statustypeUrl: URI
     ): Statustype {
         validateUrlHost(baseUrl, statustypeUrl)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri(statustypeUrl)
-            .retrieve()
-            .body<Statustype>()!!
+        val result = get<Statustype>(authentication, statustypeUrl)
         return result
     }
 
@@ -138,17 +126,15 @@ open class CatalogiApiClient(
         request: StatustypeRequest,
     ): Page<Statustype> {
         validateUrlHost(baseUrl, request.zaaktype)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri {
-                ClientTools.baseUrlToBuilder(it, baseUrl)
-                    .pathSegment("statustypen")
-                    .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
-                    .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
-                    .addOptionalQueryParamFromRequest("page", request.page)
-                    .build()
-            }.retrieve()
-            .body<Page<Statustype>>()!!
+        val result = get<Page<Statustype>>(
+            authentication,
+            ClientTools.baseUrlToBuilder(UriComponentsBuilder.newInstance(), baseUrl)
+                .pathSegment("statustypen")
+                .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
+                .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
+                .addOptionalQueryParamFromRequest("page", request.page)
+                .build()
+        ).copyResults()
             .sortedBy { it.omschrijving }
         return result
     }
@@ -159,11 +145,7 @@ open class CatalogiApiClient(
         resultaattypeUrl: URI
     ): Resultaattype {
         validateUrlHost(baseUrl, resultaattypeUrl)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri(resultaattypeUrl)
-            .retrieve()
-            .body<Resultaattype>()!!
+        val result = get<Resultaattype>(authentication, resultaattypeUrl)
         return result
     }
 
@@ -173,17 +155,15 @@ open class CatalogiApiClient(
         request: ResultaattypeRequest,
     ): Page<Resultaattype> {
         validateUrlHost(baseUrl, request.zaaktype)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri {
-                ClientTools.baseUrlToBuilder(it, baseUrl)
-                    .pathSegment("resultaattypen")
-                    .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
-                    .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
-                    .addOptionalQueryParamFromRequest("page", request.page)
-                    .build()
-            }.retrieve()
-            .body<Page<Resultaattype>>()!!
+        val result = get<Page<Resultaattype>>(
+            authentication,
+            ClientTools.baseUrlToBuilder(UriComponentsBuilder.newInstance(), baseUrl)
+                .pathSegment("resultaattypen")
+                .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
+                .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
+                .addOptionalQueryParamFromRequest("page", request.page)
+                .build()
+        ).copyResults()
             .sortedBy { it.omschrijving }
         return result
     }
@@ -194,19 +174,17 @@ open class CatalogiApiClient(
         request: BesluittypeRequest,
     ): Page<Besluittype> {
         validateUrlHost(baseUrl, request.zaaktypen)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri {
-                ClientTools.baseUrlToBuilder(it, baseUrl)
-                    .pathSegment("besluittypen")
-                    .addOptionalQueryParamFromRequest("catalogus", request.catalogus)
-                    .addOptionalQueryParamFromRequest("zaaktypen", request.zaaktypen)
-                    .addOptionalQueryParamFromRequest("informatieobjecttypen", request.informatieobjecttypen)
-                    .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
-                    .addOptionalQueryParamFromRequest("page", request.page)
-                    .build()
-            }.retrieve()
-            .body<Page<Besluittype>>()!!
+        val result = get<Page<Besluittype>>(
+            authentication,
+            ClientTools.baseUrlToBuilder(UriComponentsBuilder.newInstance(), baseUrl)
+                .pathSegment("besluittypen")
+                .addOptionalQueryParamFromRequest("catalogus", request.catalogus)
+                .addOptionalQueryParamFromRequest("zaaktypen", request.zaaktypen)
+                .addOptionalQueryParamFromRequest("informatieobjecttypen", request.informatieobjecttypen)
+                .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
+                .addOptionalQueryParamFromRequest("page", request.page)
+                .build()
+        ).copyResults()
             .sortedBy { it.omschrijving ?: it.omschrijvingGeneriek ?: "" }
         return result
     }
@@ -217,18 +195,15 @@ open class CatalogiApiClient(
         request: EigenschapRequest,
     ): Page<Eigenschap> {
         validateUrlHost(baseUrl, request.zaaktype)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri {
-                ClientTools.baseUrlToBuilder(it, baseUrl)
-                    .pathSegment("eigenschappen")
-                    .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
-                    .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
-                    .addOptionalQueryParamFromRequest("page", request.page)
-                    .build()
-            }
-            .retrieve()
-            .body<Page<Eigenschap>>()!!
+        val result = get<Page<Eigenschap>>(
+            authentication,
+            ClientTools.baseUrlToBuilder(UriComponentsBuilder.newInstance(), baseUrl)
+                .pathSegment("eigenschappen")
+                .addOptionalQueryParamFromRequest("zaaktype", request.zaaktype)
+                .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
+                .addOptionalQueryParamFromRequest("page", request.page)
+                .build()
+        ).copyResults()
         return result
     }
 
@@ -237,18 +212,15 @@ open class CatalogiApiClient(
         baseUrl: URI,
         request: ZaaktypeRequest
     ): Page<Zaaktype> {
-        val result = buildRestClient(authentication)
-            .get()
-            .uri {
-                ClientTools.baseUrlToBuilder(it, baseUrl)
-                    .pathSegment("zaaktypen")
-                    .addOptionalQueryParamFromRequest("catalogus", request.catalogus)
-                    .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
-                    .addOptionalQueryParamFromRequest("page", request.page)
-                    .build()
-            }
-            .retrieve()
-            .body<Page<Zaaktype>>()!!
+        val result = get<Page<Zaaktype>>(
+            authentication,
+            ClientTools.baseUrlToBuilder(UriComponentsBuilder.newInstance(), baseUrl)
+                .pathSegment("zaaktypen")
+                .addOptionalQueryParamFromRequest("catalogus", request.catalogus)
+                .addOptionalQueryParamFromRequest("status", request.status?.getSearchValue())
+                .addOptionalQueryParamFromRequest("page", request.page)
+                .build()
+        ).copyResults()
             .sortedBy { it.omschrijving }
         return result
     }
@@ -259,16 +231,15 @@ open class CatalogiApiClient(
         zaaktypeUrl: URI
     ): Zaaktype {
         validateUrlHost(baseUrl, zaaktypeUrl)
-        val result = buildRestClient(authentication)
-            .get()
-            .uri(zaaktypeUrl)
-            .retrieve()
-            .body<Zaaktype>()!!
+        val result = get<Zaaktype>(authentication, zaaktypeUrl)
         return result
     }
 
     open fun prefillCache(authenticationPluginConfiguration: CatalogiApiAuthentication, url: URI) {
         prefillInformatieobjecttypeCache(authenticationPluginConfiguration, url)
+        if (catalogiApiCache != null) {
+            prefillZaaktypeCache(authenticationPluginConfiguration, url)
+        }
     }
 
     private fun prefillInformatieobjecttypeCache(
@@ -289,6 +260,75 @@ open class CatalogiApiClient(
         }
     }
 
+    /**
+     * Loads the published zaaktypen with their statustypen and resultaattypen, using the same requests as the plugin,
+     * so the status and result pickers are served from the cache.
+     */
+    private fun prefillZaaktypeCache(
+        authenticationPluginConfiguration: CatalogiApiAuthentication,
+        url: URI
+    ) {
+        Page.getAll { page ->
+            getZaaktypen(
+                authenticationPluginConfiguration,
+                url,
+                ZaaktypeRequest(status = ZaakTypePublishedStatus.DEFINITIEF, page = page)
+            )
+        }.forEach { zaaktype ->
+            Page.getAll { page ->
+                getStatustypen(
+                    authenticationPluginConfiguration,
+                    url,
+                    StatustypeRequest(zaaktype = zaaktype.url, page = page)
+                )
+            }
+            Page.getAll { page ->
+                getResultaattypen(
+                    authenticationPluginConfiguration,
+                    url,
+                    ResultaattypeRequest(zaaktype = zaaktype.url, page = page)
+                )
+            }
+        }
+    }
+
+    /**
+     * Gets the resource from the cache, if any. Stale entries are revalidated with their ETag, so the resource is
+     * only downloaded again when it has changed.
+     */
+    private inline fun <reified T : Any> get(authentication: CatalogiApiAuthentication, url: URI): T {
+        val cache = catalogiApiCache
+        val configurationId = authentication.configurationId
+        val cached = if (cache != null && configurationId != null) cache.get(configurationId, url) else null
+        if (cached != null && cache!!.isFresh(cached)) {
+            return cached.value as T
+        }
+
+        val response = buildRestClient(authentication)
+            .get()
+            .uri(url)
+            .headers { headers -> cached?.eTag?.let { headers.setIfNoneMatch(it) } }
+            .retrieve()
+            .toEntity<T>()
+
+        if (cached != null && response.statusCode == HttpStatus.NOT_MODIFIED) {
+            logger.trace { "Catalogi api resource $url was not modified" }
+            cache!!.revalidated(configurationId!!, url, cached)
+            return cached.value as T
+        }
+
+        val result = response.body!!
+        if (cache != null && configurationId != null) {
+            cache.put(configurationId, url, result, response.headers.eTag)
+        }
+        return result
+    }
+
+    // cached pages are shared, so they are copied before their results are sorted
+    private fun <T> Page<T>.copyResults(): Page<T> {
+        return if (catalogiApiCache == null) this else copy(results = results.toMutableList())
+    }
+
     private fun validateUrlHost(baseUrl: URI, url: URI?) {
         if (url != null && baseUrl.host != url.host) {
             throw IllegalArgumentException(
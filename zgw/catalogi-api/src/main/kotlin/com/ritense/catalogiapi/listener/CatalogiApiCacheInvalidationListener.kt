@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.catalogiapi.listener
+
+import com.ritense.catalogiapi.client.CatalogiApiCache
+import com.ritense.catalogiapi.client.CatalogiApiClient.Companion.INFORMATIEOBJECTTYPECACHE_KEY
+import com.ritense.notificatiesapi.event.NotificatiesApiNotificationReceivedEvent
+import mu.KotlinLogging
+import org.springframework.cache.CacheManager
+import org.springframework.context.event.EventListener
+import java.net.URI
+import java.net.URISyntaxException
+
+/**
+ * Invalidates the cached Catalogi API responses when the Notificaties API reports a change to a catalogus or one of
+ * its types.
+ */
+class CatalogiApiCacheInvalidationListener(
+    private val catalogiApiCache: CatalogiApiCache,
+    private val cacheManager: CacheManager
+) {
+
+    @EventListener(NotificatiesApiNotificationReceivedEvent::class)
+    fun invalidateCache(event: NotificatiesApiNotificationReceivedEvent) {
+        if (CATALOGI_KANALEN.none { it.equals(event.kanaal, ignoreCase = true) }) {
+            return
+        }
+
+        logger.debug { "Received '${event.actie}' notification for ${event.resourceUrl}, invalidating catalogi api cache" }
+        catalogiApiCache.invalidateAll()
+        if (!event.kanaal.equals(INFORMATIEOBJECTTYPEN_KANAAL, ignoreCase = true)) {
+            return
+        }
+
+        val informatieobjecttypeCache = cacheManager.getCache(INFORMATIEOBJECTTYPECACHE_KEY) ?: return
+        try {
+            informatieobjecttypeCache.evict(URI(event.resourceUrl))
+        } catch (e: URISyntaxException) {
+            logger.warn { "Invalid resource url '${event.resourceUrl}' in notification, invalidating all cached informatieobjecttypen" }
+            informatieobjecttypeCache.clear()
+        }
+    }
+
+    companion object {
+        private const val INFORMATIEOBJECTTYPEN_KANAAL = "informatieobjecttypen"
+        private val CATALOGI_KANALEN = listOf("catalogussen", "zaaktypen", "besluittypen", INFORMATIEOBJECTTYPEN_KANAAL)
+        private val logger = KotlinLogging.logger {}
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.catalogiapi.client
+
+import com.ritense.plugin.domain.PluginConfigurationId
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager
+import java.net.URI
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneOffset
+
+class CatalogiApiCacheTest {
+
+    lateinit var cacheManager: ConcurrentMapCacheManager
+
+    @BeforeEach
+    fun setUp() {
+        // Store by value, like a distributed cache, so changes to entries that were read are not seen by the cache
+        cacheManager = ConcurrentMapCacheManager().apply {
+            setBeanClassLoader(javaClass.classLoader)
+            setStoreByValue(true)
+        }
+    }
+
+    @Test
+    fun `should keep revalidated entry fresh in a cache that stores by value`() {
+        CatalogiApiCache(cacheManager, FRESH_FOR, clockAt(START)).put(CONFIGURATION_ID, URL, "statustypen", "\"1\"")
+
+        val later = CatalogiApiCache(cacheManager, FRESH_FOR, clockAt(START.plus(FRESH_FOR).plusSeconds(1)))
+        val stale = later.get(CONFIGURATION_ID, URL)!!
+        assertFalse(later.isFresh(stale))
+
+        later.revalidated(CONFIGURATION_ID, URL, stale)
+
+        val revalidated = later.get(CONFIGURATION_ID, URL)!!
+        assertTrue(later.isFresh(revalidated))
+        assertEquals("statustypen", revalidated.value)
+        assertEquals("\"1\"", revalidated.eTag)
+    }
+
+    private fun clockAt(instant: Instant) = Clock.fixed(instant, ZoneOffset.UTC)
+
+    companion object {
+        private val CONFIGURATION_ID = PluginConfigurationId.newId()
+        private val URL = URI("https://catalogi.example.com/catalogi/api/v1/statustypen?zaaktype=1")
+        private val FRESH_FOR = Duration.ofMinutes(5)
+        private val START = Instant.parse("2024-01-01T00:00:00Z")
+    }
+}
@@ -20,11 +20,14 @@ import com.ritense.catalogiapi.CatalogiApiAuthentication
 import com.ritense.catalogiapi.client.CatalogiApiClient.Companion.INFORMATIEOBJECTTYPECACHE_KEY
 import com.ritense.catalogiapi.domain.InformatieobjecttypeRichting
 import com.ritense.catalogiapi.domain.InformatieobjecttypeVertrouwelijkheid
+import com.ritense.plugin.domain.PluginConfigurationId
 import okhttp3.mockwebserver.MockResponse
 import okhttp3.mockwebserver.MockWebServer
 import okhttp3.mockwebserver.RecordedRequest
 import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotNull
+import org.junit.jupiter.api.Assertions.assertNull
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
@@ -36,14 +39,17 @@ import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import org.springframework.cache.Cache
 import org.springframework.cache.CacheManager
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager
 import org.springframework.web.client.RestClient
 import org.springframework.web.reactive.function.client.ClientRequest
 import org.springframework.web.reactive.function.client.ClientResponse
 import org.springframework.web.reactive.function.client.ExchangeFunction
 import reactor.core.publisher.Mono
 import java.net.URI
+import java.time.Duration
 import java.time.LocalDate
 import java.util.UUID
+import java.util.concurrent.TimeUnit
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 internal class CatalogiApiClientTest {
@@ -599,13 +605,89 @@ internal class CatalogiApiClientTest {
         assertEquals("achternaam", zaaktype.naam)
     }
 
+    @Test
+    fun `should serve cached statustypen without request while fresh`() {
+        val client = CatalogiApiClient(RestClient.builder(), cacheManager, CatalogiApiCache(ConcurrentMapCacheManager()))
+        val baseUrl = mockApi.url("api").toString()
+        val zaakTypeUrl = "$baseUrl/zaaktypen/${UUID.randomUUID()}"
+        mockApi.enqueue(mockResponse(statustypenResponseBody(zaakTypeUrl)))
+        val request = StatustypeRequest(zaaktype = URI(zaakTypeUrl), page = 1)
+
+        val response = client.getStatustypen(TestAuthentication(), URI(baseUrl), request)
+        val cachedResponse = client.getStatustypen(TestAuthentication(), URI(baseUrl), request)
+
+        mockApi.takeRequest()
+        assertNull(mockApi.takeRequest(100, TimeUnit.MILLISECONDS))
+        assertEquals(response.results, cachedResponse.results)
+    }
+
+    @Test
+    fun `should revalidate cached statustypen with etag`() {
+        val client = CatalogiApiClient(
+            RestClient.builder(),
+            cacheManager,
+            CatalogiApiCache(ConcurrentMapCacheManager(), freshFor = Duration.ZERO)
+        )
+        val baseUrl = mockApi.url("api").toString()
+        val zaakTypeUrl = "$baseUrl/zaaktypen/${UUID.randomUUID()}"
+        mockApi.enqueue(mockResponse(statustypenResponseBody(zaakTypeUrl)).addHeader("ETag", "\"v1\""))
+        mockApi.enqueue(MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""))
+        val request = StatustypeRequest(zaaktype = URI(zaakTypeUrl), page = 1)
+
+        client.getStatustypen(TestAuthentication(), URI(baseUrl), request)
+        val revalidatedResponse = client.getStatustypen(TestAuthentication(), URI(baseUrl), request)
+
+        assertNull(mockApi.takeRequest().getHeader("If-None-Match"))
+        assertEquals("\"v1\"", mockApi.takeRequest().getHeader("If-None-Match"))
+        assertEquals(1, revalidatedResponse.results.size)
+        assertEquals("Zaak afgerond", revalidatedResponse.results[0].omschrijving)
+    }
+
+    @Test
+    fun `should not share cached statustypen between authentication configurations`() {
+        val client = CatalogiApiClient(RestClient.builder(), cacheManager, CatalogiApiCache(ConcurrentMapCacheManager()))
+        val baseUrl = mockApi.url("api").toString()
+        val zaakTypeUrl = "$baseUrl/zaaktypen/${UUID.randomUUID()}"
+        mockApi.enqueue(mockResponse(statustypenResponseBody(zaakTypeUrl)))
+        mockApi.enqueue(mockResponse(statustypenResponseBody(zaakTypeUrl)))
+        val request = StatustypeRequest(zaaktype = URI(zaakTypeUrl), page = 1)
+
+        client.getStatustypen(TestAuthentication(), URI(baseUrl), request)
+        client.getStatustypen(TestAuthentication(PluginConfigurationId.newId()), URI(baseUrl), request)
+
+        mockApi.takeRequest()
+        assertNotNull(mockApi.takeRequest(100, TimeUnit.MILLISECONDS))
+    }
+
+    private fun statustypenResponseBody(zaakTypeUrl: String) = """
+        {
+            "count": 1,
+            "next": null,
+            "previous": null,
+            "results": [
+                {
+                    "url": "http://example.com/id",
+                    "zaaktype": "$zaakTypeUrl",
+                    "omschrijving": "Zaak afgerond",
+                    "omschrijvingGeneriek": "Zaak afgerond",
+                    "statustekst": "Geachte heer/mevrouw",
+                    "volgnummer": 7,
+                    "isEindstatus": true,
+                    "informeren": true
+                }
+            ]
+        }
+    """.trimIndent()
+
     private fun mockResponse(body: String): MockResponse {
         return MockResponse()
             .addHeader("Content-Type", "application/json")
             .setBody(body)
     }
 
-    class TestAuthentication : CatalogiApiAuthentication {
+    class TestAuthentication(
+        override val configurationId: PluginConfigurationId = CONFIGURATION_ID
+    ) : CatalogiApiAuthentication {
         override fun applyAuth(builder: RestClient.Builder): RestClient.Builder {
             return builder.defaultHeaders { headers ->
                 headers.setBearerAuth("test")
@@ -619,4 +701,8 @@ internal class CatalogiApiClientTest {
             return next.exchange(filteredRequest)
         }
     }
+
+    companion object {
+        private val CONFIGURATION_ID = PluginConfigurationId.newId()
+    }
 }
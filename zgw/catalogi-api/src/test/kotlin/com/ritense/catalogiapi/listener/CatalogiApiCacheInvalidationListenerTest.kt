@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.catalogiapi.listener
+
+import com.ritense.catalogiapi.client.CatalogiApiCache
+import com.ritense.catalogiapi.client.CatalogiApiClient.Companion.INFORMATIEOBJECTTYPECACHE_KEY
+import com.ritense.notificatiesapi.event.NotificatiesApiNotificationReceivedEvent
+import com.ritense.plugin.domain.PluginConfigurationId
+import org.junit.jupiter.api.Assertions.assertNotNull
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager
+import java.net.URI
+
+class CatalogiApiCacheInvalidationListenerTest {
+
+    lateinit var cacheManager: ConcurrentMapCacheManager
+    lateinit var catalogiApiCache: CatalogiApiCache
+    lateinit var listener: CatalogiApiCacheInvalidationListener
+
+    @BeforeEach
+    fun setUp() {
+        cacheManager = ConcurrentMapCacheManager()
+        catalogiApiCache = CatalogiApiCache(cacheManager)
+        listener = CatalogiApiCacheInvalidationListener(catalogiApiCache, cacheManager)
+
+        catalogiApiCache.put(CONFIGURATION_ID, STATUSTYPEN_URL, "statustypen", null)
+        cacheManager.getCache(INFORMATIEOBJECTTYPECACHE_KEY)!!.put(INFORMATIEOBJECTTYPE_URL, "informatieobjecttype")
+        cacheManager.getCache(INFORMATIEOBJECTTYPECACHE_KEY)!!.put(OTHER_INFORMATIEOBJECTTYPE_URL, "other")
+    }
+
+    @Test
+    fun `should invalidate cached responses on zaaktype notification`() {
+        listener.invalidateCache(notification("zaaktypen", "$BASE_URL/zaaktypen/1"))
+
+        assertNull(catalogiApiCache.get(CONFIGURATION_ID, STATUSTYPEN_URL))
+        assertNotNull(cacheManager.getCache(INFORMATIEOBJECTTYPECACHE_KEY)!!.get(INFORMATIEOBJECTTYPE_URL))
+    }
+
+    @Test
+    fun `should evict informatieobjecttype on informatieobjecttype notification`() {
+        listener.invalidateCache(notification("informatieobjecttypen", INFORMATIEOBJECTTYPE_URL.toString()))
+
+        assertNull(catalogiApiCache.get(CONFIGURATION_ID, STATUSTYPEN_URL))
+        assertNull(cacheManager.getCache(INFORMATIEOBJECTTYPECACHE_KEY)!!.get(INFORMATIEOBJECTTYPE_URL))
+        assertNotNull(cacheManager.getCache(INFORMATIEOBJECTTYPECACHE_KEY)!!.get(OTHER_INFORMATIEOBJECTTYPE_URL))
+    }
+
+    @Test
+    fun `should clear informatieobjecttypen on notification with invalid resource url`() {
+        listener.invalidateCache(notification("informatieobjecttypen", "not a url"))
+
+        assertNull(cacheManager.getCache(INFORMATIEOBJECTTYPECACHE_KEY)!!.get(OTHER_INFORMATIEOBJECTTYPE_URL))
+    }
+
+    @Test
+    fun `should keep cache on notification of other kanaal`() {
+        listener.invalidateCache(notification("zaken", "http://example.com/zaken/api/v1/zaken/1"))
+
+        assertNotNull(catalogiApiCache.get(CONFIGURATION_ID, STATUSTYPEN_URL))
+        assertNotNull(cacheManager.getCache(INFORMATIEOBJECTTYPECACHE_KEY)!!.get(INFORMATIEOBJECTTYPE_URL))
+    }
+
+    private fun notification(kanaal: String, resourceUrl: String) =
+        NotificatiesApiNotificationReceivedEvent(kanaal, resourceUrl, "update", emptyMap())
+
+    companion object {
+        private const val BASE_URL = "http://example.com/catalogi/api/v1"
+        private val CONFIGURATION_ID = PluginConfigurationId.newId()
+        private val STATUSTYPEN_URL = URI("$BASE_URL/statustypen?zaaktype=$BASE_URL/zaaktypen/1")
+        private val INFORMATIEOBJECTTYPE_URL = URI("$BASE_URL/informatieobjecttypen/1")
+        private val OTHER_INFORMATIEOBJECTTYPE_URL = URI("$BASE_URL/informatieobjecttypen/2")
+    }
+}
@@ -46,9 +46,14 @@ import com.ritense.resource.service.TemporaryResourceStorageService
 import com.ritense.valtimo.camunda.service.CamundaRepositoryService
 import com.ritense.valtimo.changelog.service.ChangelogDeployer
 import com.ritense.valtimo.changelog.service.ChangelogService
+import com.ritense.valtimo.contract.concurrent.ContextPropagatingTaskExecutors
 import com.ritense.valtimo.contract.config.LiquibaseMasterChangeLogLocation
 import com.ritense.valtimo.processlink.service.PluginProcessLinkService
 import com.ritense.valueresolver.ValueResolverService
+import com.ritense.zgw.client.ZgwHttpClientRegistry
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.beans.factory.annotation.Qualifier
 import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass
@@ -59,9 +64,12 @@ import org.springframework.context.annotation.Bean
 import org.springframework.core.Ordered.HIGHEST_PRECEDENCE
 import org.springframework.core.annotation.Order
 import org.springframework.core.io.ResourceLoader
+import org.springframework.core.task.AsyncTaskExecutor
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
 import org.springframework.transaction.PlatformTransactionManager
 import org.springframework.web.client.RestClient
+import java.time.Duration
 import javax.sql.DataSource
 
 @AutoConfiguration
@@ -69,17 +77,35 @@ import javax.sql.DataSource
 @EntityScan("com.ritense.documentenapi.domain")
 class DocumentenApiAutoConfiguration {
 
+    @Bean
+    @ConditionalOnMissingBean(name = ["documentenApiUploadExecutor"])
+    fun documentenApiUploadExecutor(
+        @Value("\${valtimo.documenten-api.upload.thread-count:4}") uploadThreadCount: Int
+    ): ThreadPoolTaskExecutor {
+        return ContextPropagatingTaskExecutors.fixed("documenten-api-upload-", maxOf(uploadThreadCount, 1))
+    }
+
     @Bean
     fun documentenApiClient(
         restClientBuilder: RestClient.Builder,
         outboxService: OutboxService,
         objectMapper: ObjectMapper,
-        platformTransactionManager: PlatformTransactionManager
+        platformTransactionManager: PlatformTransactionManager,
+        meterRegistry: ObjectProvider<MeterRegistry>,
+        @Value("\${valtimo.documenten-api.upload.thread-count:4}") uploadThreadCount: Int,
+        @Value("\${valtimo.documenten-api.upload.max-attempts:3}") uploadMaxAttempts: Int,
+        @Value("\${valtimo.documenten-api.upload.retry-backoff:PT1S}") uploadRetryBackoff: Duration,
+        zgwHttpClientRegistry: ZgwHttpClientRegistry,
+        @Qualifier("documentenApiUploadExecutor") documentenApiUploadExecutor: AsyncTaskExecutor,
     ) = DocumentenApiClient(
-        restClientBuilder,
+        zgwHttpClientRegistry.configure(restClientBuilder),
         outboxService,
         objectMapper,
-        platformTransactionManager
+        platformTransactionManager,
+        documentenApiUploadExecutor.takeIf { uploadThreadCount > 0 },
+        uploadMaxAttempts,
+        uploadRetryBackoff,
+        meterRegistry.ifAvailable
     )
 
     @Bean
@@ -20,7 +20,6 @@ import com.fasterxml.jackson.databind.JsonNode
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.fasterxml.jackson.module.kotlin.convertValue
 import com.ritense.documentenapi.DocumentenApiPlugin.Companion.PLUGIN_KEY
-import com.ritense.documentenapi.client.BestandsdelenRequest
 import com.ritense.documentenapi.client.CreateDocumentRequest
 import com.ritense.documentenapi.client.CreateDocumentResult
 import com.ritense.documentenapi.client.DocumentInformatieObject
@@ -55,6 +54,7 @@ import org.springframework.data.domain.Pageable
 import org.springframework.web.util.UriComponentsBuilder
 import java.io.InputStream
 import java.net.URI
+import java.nio.file.Path
 import java.time.LocalDate
 import java.util.UUID
 
@@ -165,14 +165,14 @@ class DocumentenApiPlugin(
     ) {
         val resourceId = execution.getVariable(RESOURCE_ID_PROCESS_VAR) as String?
             ?: throw IllegalStateException("Failed to store document. No process variable '$RESOURCE_ID_PROCESS_VAR' found.")
-        val contentAsInputStream = storageService.getResourceContentAsInputStream(resourceId)
+        val contentPath = storageService.getResourceContentPath(resourceId)
         val metadata = storageService.getResourceMetadata(resourceId)
 
         storeDocumentInParts(
             execution = execution,
             metadata = metadata,
             bestandsnaam = metadata["filename"].toString(),
-            inhoudAsInputStream = contentAsInputStream,
+            inhoud = contentPath,
         )
     }
 
@@ -333,7 +333,8 @@ class DocumentenApiPlugin(
      * to store a document:
      *  - First the document metadata is uploaded without the 'inhoud' parameter. The response of this method will
      *    contain a 'lock' parameter that must be used in the next call
-     *  - Using the provided lock the contents of the file is uploaded to the bestandsdelen api
+     *  - Using the provided lock the contents of the file is uploaded to the bestandsdelen api. The parts are streamed
+     *    from the file and uploaded in parallel
      *  - When the complete file is uploaded the unlock api must be called. This will unlock the document enabling it
      *    for download.
      */
@@ -341,7 +342,7 @@ class DocumentenApiPlugin(
         execution: DelegateExecution,
         metadata: Map<String, Any>,
         bestandsnaam: String,
-        inhoudAsInputStream: InputStream,
+        inhoud: Path,
     ) {
         val documentCreateResult = storeDocument(
             execution = execution,
@@ -357,15 +358,11 @@ class DocumentenApiPlugin(
             storedDocumentKey = DOCUMENT_URL_PROCESS_VAR
         )
 
-        val bestandsdelenRequest = BestandsdelenRequest(
-            inhoud = inhoudAsInputStream,
-            lock = documentCreateResult.getLockFromBestandsdelen()
-        )
-
         client.storeDocumentInParts(
             authenticationPluginConfiguration,
             url,
-            bestandsdelenRequest,
+            inhoud,
+            documentCreateResult.getLockFromBestandsdelen(),
             documentCreateResult,
             bestandsnaam
         )
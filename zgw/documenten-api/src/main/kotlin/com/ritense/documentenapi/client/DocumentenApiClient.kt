@@ -20,6 +20,7 @@ import BestandsdelenResult
 import com.fasterxml.jackson.databind.ObjectMapper
 import com.ritense.documentenapi.DocumentenApiAuthentication
 import com.ritense.documentenapi.domain.DocumentenApiColumnKey
+import com.ritense.documentenapi.domain.FileRegionUploadPart
 import com.ritense.documentenapi.domain.FileUploadPart
 import com.ritense.documentenapi.event.DocumentDeleted
 import com.ritense.documentenapi.event.DocumentInformatieObjectDownloaded
@@ -32,28 +33,47 @@ import com.ritense.outbox.OutboxService
 import com.ritense.zgw.ClientTools
 import com.ritense.zgw.ClientTools.Companion.optionalQueryParam
 import com.ritense.zgw.Page
+import io.micrometer.core.instrument.MeterRegistry
 import mu.KotlinLogging
 import org.springframework.core.io.Resource
+import org.springframework.core.task.AsyncTaskExecutor
 import org.springframework.data.domain.PageImpl
 import org.springframework.data.domain.Pageable
 import org.springframework.http.MediaType
 import org.springframework.http.converter.ResourceHttpMessageConverter
 import org.springframework.transaction.PlatformTransactionManager
 import org.springframework.transaction.support.TransactionTemplate
+import org.springframework.util.MultiValueMap
+import org.springframework.web.client.ResourceAccessException
 import org.springframework.web.client.RestClient
+import org.springframework.web.client.RestClientException
+import org.springframework.web.client.RestClientResponseException
 import org.springframework.web.client.body
 import org.springframework.web.util.UriBuilder
 import org.springframework.web.util.UriComponentsBuilder
 import java.io.InputStream
 import java.net.URI
+import java.nio.file.Files
+import java.nio.file.Path
+import java.time.Duration
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.FutureTask
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
 import kotlin.math.min
 
 class DocumentenApiClient(
     private val restClientBuilder: RestClient.Builder,
     private val outboxService: OutboxService,
     private val objectMapper: ObjectMapper,
-    private val platformTransactionManager: PlatformTransactionManager
+    private val platformTransactionManager: PlatformTransactionManager,
+    private val uploadExecutor: AsyncTaskExecutor? = null,
+    private val uploadMaxAttempts: Int = 3,
+    private val uploadRetryBackoff: Duration = Duration.ofSeconds(1),
+    private val meterRegistry: MeterRegistry? = null,
 ) {
+
     fun storeDocument(
         authentication: DocumentenApiAuthentication,
         baseUrl: URI,
@@ -87,23 +107,14 @@ class DocumentenApiClient(
         // So the documenten api determines the amount (and size) of chunks, not this application.
         logger.info { "Starting upload of file $bestandsnaam in ${createDocumentResult.bestandsdelen.size} chunks" }
 
+        val restClient = restClient(authentication)
         createDocumentResult.bestandsdelen.forEach { bestandsdeel ->
             logger.debug { "Sending chunk #${bestandsdeel.volgnummer} for a size of ${bestandsdeel.omvang} bytes" }
 
             val body = FileUploadPart(bestandsdeel, request, bestandsnaam)
                 .createBody()
 
-            restClient(authentication)
-                .put()
-                .uri {
-                    ClientTools.baseUrlToBuilder(it, baseUrl)
-                        .path("bestandsdelen/{uuid}")
-                        .build(bestandsdeel.url.substring(bestandsdeel.url.lastIndexOf("/") + 1))
-                }
-                .contentType(MediaType.MULTIPART_FORM_DATA)
-                .body(body)
-                .retrieve()
-                .body<BestandsdelenResult>()!!
+            putBestandsdeel(restClient, baseUrl, bestandsdeel, body)
         }
 
         check(request.inhoud.read() == -1) {
@@ -111,6 +122,120 @@ class DocumentenApiClient(
         }
     }
 
+    /**
+     * Uploads the bestandsdelen of a document from a file. Each bestandsdeel is streamed from its own region of the
+     * file by a client without request interceptors, so the bestandsdelen can be uploaded in parallel without holding
+     * them in memory. A bestandsdeel that fails with a server or I/O error is retried on its own.
+     */
+    fun storeDocumentInParts(
+        authentication: DocumentenApiAuthentication,
+        baseUrl: URI,
+        file: Path,
+        lock: String,
+        createDocumentResult: CreateDocumentResult,
+        bestandsnaam: String
+    ) {
+        val bestandsdelen = createDocumentResult.bestandsdelen.sortedBy { it.volgnummer }
+        val totalSize = bestandsdelen.sumOf { it.omvang.toLong() }
+        val fileSize = Files.size(file)
+        require(fileSize >= totalSize) {
+            "Failed to read all the bytes to upload. " +
+                "Expected $totalSize bytes, but the file only contains $fileSize bytes."
+        }
+        check(fileSize == totalSize) {
+            "Failed to upload the full file. The file is larger than the sum of the omvang of all bestandsdelen."
+        }
+
+        logger.info { "Starting upload of file $bestandsnaam in ${bestandsdelen.size} chunks" }
+
+        val restClient = uploadRestClient(authentication)
+        val start = System.nanoTime()
+        val uploadedSize = AtomicLong()
+        var offset = 0L
+        val uploads = bestandsdelen.map { bestandsdeel ->
+            val part = FileRegionUploadPart(bestandsdeel, file, offset, lock, bestandsnaam)
+            offset += bestandsdeel.omvang
+            val task = Callable {
+                uploadPart(restClient, baseUrl, part)
+                val uploaded = uploadedSize.addAndGet(bestandsdeel.omvang.toLong())
+                logger.debug { "Uploaded chunk #${bestandsdeel.volgnummer} of file $bestandsnaam ($uploaded/$totalSize bytes)" }
+            }
+            uploadExecutor?.submit(task) ?: FutureTask(task).apply { run() }
+        }
+
+        uploads.forEach { upload ->
+            try {
+                upload.get()
+            } catch (e: ExecutionException) {
+                uploads.forEach { it.cancel(true) }
+                throw e.cause ?: e
+            }
+        }
+
+        val duration = Duration.ofNanos(System.nanoTime() - start)
+        logger.info {
+            val bytesPerSecond = totalSize * 1000 / maxOf(1L, duration.toMillis())
+            "Uploaded file $bestandsnaam ($totalSize bytes) in ${duration.toMillis()} ms ($bytesPerSecond bytes/s)"
+        }
+    }
+
+    private fun uploadPart(restClient: RestClient, baseUrl: URI, part: FileRegionUploadPart): BestandsdelenResult {
+        var attempt = 1
+        while (true) {
+            val start = System.nanoTime()
+            try {
+                val result = putBestandsdeel(restClient, baseUrl, part.bestandsdeel, part.createBody())
+                recordPartUpload("success", start)
+                meterRegistry?.counter(UPLOADED_BYTES_METRIC)?.increment(part.bestandsdeel.omvang.toDouble())
+                return result
+            } catch (e: RestClientException) {
+                recordPartUpload("failure", start)
+                if (attempt >= uploadMaxAttempts || !isRetryable(e)) {
+                    throw e
+                }
+                logger.warn {
+                    "Upload of chunk #${part.bestandsdeel.volgnummer} of file ${part.bestandsnaam} failed " +
+                        "(attempt $attempt of $uploadMaxAttempts), retrying: ${e.message}"
+                }
+                meterRegistry?.counter(PART_RETRIES_METRIC)?.increment()
+                Thread.sleep(uploadRetryBackoff.toMillis() * attempt)
+                attempt++
+            }
+        }
+    }
+
+    private fun isRetryable(e: RestClientException): Boolean {
+        return when (e) {
+            is RestClientResponseException -> e.statusCode.is5xxServerError || e.statusCode.value() == 429
+            is ResourceAccessException -> true
+            else -> false
+        }
+    }
+
+    private fun recordPartUpload(outcome: String, start: Long) {
+        meterRegistry?.timer(PART_UPLOAD_METRIC, "outcome", outcome)
+            ?.record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+    }
+
+    private fun putBestandsdeel(
+        restClient: RestClient,
+        baseUrl: URI,
+        bestandsdeel: Bestandsdeel,
+        body: MultiValueMap<String, Any>
+    ): BestandsdelenResult {
+        return restClient
+            .put()
+            .uri {
+                ClientTools.baseUrlToBuilder(it, baseUrl)
+                    .path("bestandsdelen/{uuid}")
+                    .build(bestandsdeel.url.substring(bestandsdeel.url.lastIndexOf("/") + 1))
+            }
+            .contentType(MediaType.MULTIPART_FORM_DATA)
+            .body(body)
+            .retrieve()
+            .body<BestandsdelenResult>()!!
+    }
+
     fun getInformatieObject(
         authentication: DocumentenApiAuthentication,
         baseUrl: URI,
@@ -318,6 +443,20 @@ class DocumentenApiClient(
             .build()
     }
 
+    /**
+     * Request interceptors, such as request logging and metrics, receive the request body as a byte array, which
+     * copies every bestandsdeel into memory. They are left out, so the body is streamed to the connection.
+     */
+    private fun uploadRestClient(authentication: DocumentenApiAuthentication): RestClient {
+        return restClientBuilder
+            .clone()
+            .requestInterceptors { it.clear() }
+            .apply {
+                authentication.applyAuth(it)
+            }
+            .build()
+    }
+
     fun UriBuilder.addSortParameter(pageable: Pageable): UriBuilder {
         val sortString = pageable.sort.map {
             val property = DocumentenApiColumnKey.fromProperty(it.property)
@@ -333,6 +472,9 @@ class DocumentenApiClient(
 
     companion object {
         const val ITEMS_PER_PAGE = 100
+        private const val PART_UPLOAD_METRIC = "valtimo.documenten-api.bestandsdeel.upload"
+        private const val PART_RETRIES_METRIC = "valtimo.documenten-api.bestandsdeel.upload.retries"
+        private const val UPLOADED_BYTES_METRIC = "valtimo.documenten-api.bestandsdeel.upload.bytes"
         val logger = KotlinLogging.logger {}
     }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.documentenapi.domain
+
+import com.ritense.documentenapi.client.Bestandsdeel
+import org.springframework.core.io.AbstractResource
+import org.springframework.util.LinkedMultiValueMap
+import org.springframework.util.MultiValueMap
+import java.io.FilterInputStream
+import java.io.InputStream
+import java.nio.channels.Channels
+import java.nio.channels.FileChannel
+import java.nio.file.Path
+import java.nio.file.StandardOpenOption
+
+/**
+ * A bestandsdeel that is read from a region of a file. The content is streamed from the file when the request is
+ * written, so no part is held in memory, and the body can be created again when an upload is retried.
+ */
+data class FileRegionUploadPart(
+    val bestandsdeel: Bestandsdeel,
+    val file: Path,
+    val offset: Long,
+    val lock: String,
+    val bestandsnaam: String,
+) {
+
+    fun createBody(): MultiValueMap<String, Any> {
+        return LinkedMultiValueMap<String, Any>().apply {
+            add("inhoud", FileRegionResource(file, offset, bestandsdeel.omvang.toLong(), bestandsnaam))
+            add("lock", lock)
+        }
+    }
+
+    private class FileRegionResource(
+        private val file: Path,
+        private val offset: Long,
+        private val length: Long,
+        private val filename: String,
+    ) : AbstractResource() {
+
+        override fun getInputStream(): InputStream {
+            val channel = FileChannel.open(file, StandardOpenOption.READ).position(offset)
+            return BoundedInputStream(Channels.newInputStream(channel), length)
+        }
+
+        override fun contentLength() = length
+
+        override fun getFilename() = filename
+
+        override fun getDescription() = "region [$offset, ${offset + length}) of file [$file]"
+    }
+
+    private class BoundedInputStream(
+        input: InputStream,
+        private var remaining: Long,
+    ) : FilterInputStream(input) {
+
+        override fun read(): Int {
+            if (remaining <= 0) {
+                return -1
+            }
+            val result = super.read()
+            if (result != -1) {
+                remaining--
+            }
+            return result
+        }
+
+        override fun read(b: ByteArray, off: Int, len: Int): Int {
+            if (remaining <= 0) {
+                return -1
+            }
+            val result = super.read(b, off, minOf(len.toLong(), remaining).toInt())
+            if (result > 0) {
+                remaining -= result
+            }
+            return result
+        }
+
+        override fun skip(n: Long): Long {
+            val skipped = super.skip(minOf(n, remaining))
+            remaining -= skipped
+            return skipped
+        }
+
+        override fun available() = minOf(super.available().toLong(), remaining).toInt()
+
+        override fun markSupported() = false
+    }
+}
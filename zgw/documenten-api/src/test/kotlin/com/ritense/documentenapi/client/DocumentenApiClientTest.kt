@@ -28,6 +28,7 @@ import com.ritense.documentenapi.event.DocumentUpdated
 import com.ritense.documentenapi.web.rest.dto.DocumentSearchRequest
 import com.ritense.outbox.OutboxService
 import com.ritense.outbox.domain.BaseEvent
+import com.ritense.valtimo.contract.concurrent.ContextPropagatingTaskExecutors
 import com.ritense.valtimo.contract.json.MapperSingleton
 import com.ritense.zgw.Rsin
 import com.ritense.zgw.domain.Vertrouwelijkheid
@@ -53,6 +54,10 @@ import org.springframework.data.domain.Page
 import org.springframework.data.domain.PageRequest
 import org.springframework.data.domain.Pageable
 import org.springframework.data.domain.Sort
+import org.springframework.http.StreamingHttpOutputMessage
+import org.springframework.http.client.ClientHttpRequest
+import org.springframework.http.client.ClientHttpRequestFactory
+import org.springframework.http.client.SimpleClientHttpRequestFactory
 import org.springframework.web.client.HttpClientErrorException
 import org.springframework.web.client.RestClient
 import org.springframework.web.reactive.function.client.ClientRequest
@@ -60,10 +65,14 @@ import org.springframework.web.reactive.function.client.ClientResponse
 import org.springframework.web.reactive.function.client.ExchangeFunction
 import reactor.core.publisher.Mono
 import java.io.InputStream
+import java.io.OutputStream
 import java.net.URI
+import java.nio.file.Files
+import java.time.Duration
 import java.time.LocalDate
 import java.time.LocalDateTime
 import java.util.UUID
+import java.util.concurrent.CopyOnWriteArrayList
 import java.util.function.Supplier
 import kotlin.test.assertEquals
 import kotlin.test.assertIs
@@ -221,6 +230,115 @@ DocumentenApiClientTest {
         assertEquals("PUT", recordedRequest.method)
     }
 
+    @Test
+    fun `should upload bestandsdelen from file in parallel`() {
+        val restClientBuilder = RestClient.builder()
+        val uploadExecutor = ContextPropagatingTaskExecutors.fixed("documenten-api-upload-", 2).apply { initialize() }
+        val client = DocumentenApiClient(restClientBuilder, outboxService, objectMapper, mock(), uploadExecutor)
+        val file = Files.createTempFile("bestand", ".txt")
+        Files.writeString(file, "abcdef")
+
+        mockDocumentenApi.enqueue(mockResponse(bestandsdeelResponse(1)))
+        mockDocumentenApi.enqueue(mockResponse(bestandsdeelResponse(2)))
+
+        try {
+            client.storeDocumentInParts(
+                TestAuthentication(),
+                mockDocumentenApi.url("/").toUri(),
+                file,
+                "de9c883a-cdfc-493b-9c38-5824e334a1b1",
+                createResultWithBestandsdelen(3, 3),
+                "bestand.txt"
+            )
+        } finally {
+            uploadExecutor.shutdown()
+            Files.delete(file)
+        }
+
+        val bodies = listOf(mockDocumentenApi.takeRequest(), mockDocumentenApi.takeRequest())
+            .onEach {
+                assertEquals("PUT", it.method)
+                assertEquals("Bearer test", it.getHeader("Authorization"))
+            }
+            .map { it.body.readUtf8() }
+        assertThat(bodies).anyMatch { it.contains("abc") && !it.contains("def") }
+        assertThat(bodies).anyMatch { it.contains("def") && !it.contains("abc") }
+    }
+
+    @Test
+    fun `should stream bestandsdelen without request interceptors`() {
+        val intercepted = CopyOnWriteArrayList<String>()
+        val streamed = CopyOnWriteArrayList<Boolean>()
+        val requestFactory = SimpleClientHttpRequestFactory()
+        val restClientBuilder = RestClient.builder()
+            .requestFactory(ClientHttpRequestFactory { uri, method ->
+                RecordingRequest(requestFactory.createRequest(uri, method), streamed)
+            })
+            .requestInterceptor { request, body, execution ->
+                intercepted.add(request.uri.path)
+                execution.execute(request, body)
+            }
+        val client = DocumentenApiClient(restClientBuilder, outboxService, objectMapper, mock())
+        val file = Files.createTempFile("bestand", ".txt")
+        Files.writeString(file, "abcdef")
+
+        mockDocumentenApi.enqueue(mockResponse(bestandsdeelResponse(1)))
+        mockDocumentenApi.enqueue(mockResponse(bestandsdeelResponse(2)))
+
+        try {
+            client.storeDocumentInParts(
+                TestAuthentication(),
+                mockDocumentenApi.url("/").toUri(),
+                file,
+                "de9c883a-cdfc-493b-9c38-5824e334a1b1",
+                createResultWithBestandsdelen(3, 3),
+                "bestand.txt"
+            )
+        } finally {
+            Files.delete(file)
+        }
+
+        assertThat(intercepted).isEmpty()
+        assertThat(streamed).containsExactly(true, true)
+        repeat(2) {
+            assertEquals("Bearer test", mockDocumentenApi.takeRequest().getHeader("Authorization"))
+        }
+    }
+
+    @Test
+    fun `should retry bestandsdeel upload on server error`() {
+        val restClientBuilder = RestClient.builder()
+        val client = DocumentenApiClient(
+            restClientBuilder,
+            outboxService,
+            objectMapper,
+            mock(),
+            uploadRetryBackoff = Duration.ZERO
+        )
+        val file = Files.createTempFile("bestand", ".txt")
+        Files.writeString(file, "abc")
+
+        mockDocumentenApi.enqueue(MockResponse().setResponseCode(503))
+        mockDocumentenApi.enqueue(mockResponse(bestandsdeelResponse(1)))
+
+        try {
+            client.storeDocumentInParts(
+                TestAuthentication(),
+                mockDocumentenApi.url("/").toUri(),
+                file,
+                "de9c883a-cdfc-493b-9c38-5824e334a1b1",
+                createResultWithBestandsdelen(3),
+                "bestand.txt"
+            )
+        } finally {
+            Files.delete(file)
+        }
+
+        repeat(2) {
+            assertThat(mockDocumentenApi.takeRequest().body.readUtf8()).contains("abc")
+        }
+    }
+
     @Test
     fun `should send outbox message on saving document`() {
         val restClientBuilder = RestClient.builder()
@@ -1098,6 +1216,35 @@ DocumentenApiClientTest {
         val event: BaseEvent
     )
 
+    private fun bestandsdeelResponse(volgnummer: Int) = """
+        {
+            "url": "https://example.com/bestandsdelen/$volgnummer",
+            "volgnummer": $volgnummer,
+            "omvang": 3,
+            "voltooid": true,
+            "lock": "de9c883a-cdfc-493b-9c38-5824e334a1b1"
+        }
+    """.trimIndent()
+
+    private fun createResultWithBestandsdelen(vararg omvang: Int): CreateDocumentResult {
+        return CreateDocumentResult(
+            "url",
+            "auteur",
+            "bestandsnaam.txt",
+            omvang.sum().toLong(),
+            LocalDateTime.now(),
+            omvang.mapIndexed { index, size ->
+                Bestandsdeel(
+                    "https://example.com/bestandsdelen/${index + 1}",
+                    index + 1,
+                    size,
+                    false,
+                    "de9c883a-cdfc-493b-9c38-5824e334a1b1"
+                )
+            }
+        )
+    }
+
     private fun mockResponse(body: String): MockResponse {
         return MockResponse()
             .addHeader("Content-Type", "application/json")
@@ -1117,6 +1264,25 @@ DocumentenApiClientTest {
             .setBody(this::class.java.getResource(fileName).readText(Charsets.UTF_8))
     }
 
+    /**
+     * Records whether the body of a request is streamed to the connection or written to a buffered output stream.
+     */
+    private class RecordingRequest(
+        private val delegate: ClientHttpRequest,
+        private val streamed: MutableList<Boolean>
+    ) : ClientHttpRequest by delegate, StreamingHttpOutputMessage {
+
+        override fun getBody(): OutputStream {
+            streamed.add(false)
+            return delegate.body
+        }
+
+        override fun setBody(body: StreamingHttpOutputMessage.Body) {
+            streamed.add(true)
+            (delegate as StreamingHttpOutputMessage).setBody(body)
+        }
+    }
+
     class TestAuthentication : DocumentenApiAuthentication {
         override fun applyAuth(builder: RestClient.Builder): RestClient.Builder {
             return builder.defaultHeaders { headers ->
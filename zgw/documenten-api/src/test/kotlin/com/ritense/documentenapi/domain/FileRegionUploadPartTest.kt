@@ -0,0 +1,55 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.documentenapi.domain
+
+import com.ritense.documentenapi.client.Bestandsdeel
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.springframework.core.io.Resource
+import java.nio.file.Files
+import java.nio.file.Path
+
+class FileRegionUploadPartTest {
+
+    @TempDir
+    lateinit var tempDir: Path
+
+    @Test
+    fun `createBody should stream the region of the file of the bestandsdeel`() {
+        val file = Files.write(tempDir.resolve("content.bin"), ByteArray(10) { it.toByte() })
+        val bestandsdeel = Bestandsdeel(
+            url = "https://example.com/file",
+            omvang = 3,
+            volgnummer = 2,
+            voltooid = false,
+            lock = "test-lock"
+        )
+        val fileRegionUploadPart = FileRegionUploadPart(bestandsdeel, file, 4, "test-lock", "testfile.txt")
+
+        val result = fileRegionUploadPart.createBody()
+
+        assertEquals("test-lock", result["lock"]?.firstOrNull())
+        val resource = result["inhoud"]?.firstOrNull() as Resource
+        assertEquals("testfile.txt", resource.filename)
+        assertEquals(3, resource.contentLength())
+        assertArrayEquals(byteArrayOf(4, 5, 6), resource.inputStream.use { it.readAllBytes() })
+        // the content can be read again, for instance when the upload is retried
+        assertArrayEquals(byteArrayOf(4, 5, 6), resource.inputStream.use { it.readAllBytes() })
+    }
+}
@@ -24,6 +24,7 @@ import com.ritense.notificatiesapi.service.NotificatiesApiService
 import com.ritense.notificatiesapi.web.rest.NotificatiesApiResource
 import com.ritense.plugin.repository.PluginConfigurationRepository
 import com.ritense.plugin.service.PluginService
+import com.ritense.zgw.client.ZgwHttpClientRegistry
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.domain.EntityScan
@@ -39,8 +40,11 @@ import org.springframework.web.client.RestClient
 class NotificatiesApiAutoConfiguration {
 
     @Bean
-    fun notificatiesApiClient(restClientBuilder: RestClient.Builder): NotificatiesApiClient {
-        return NotificatiesApiClient(restClientBuilder)
+    fun notificatiesApiClient(
+        restClientBuilder: RestClient.Builder,
+        zgwHttpClientRegistry: ZgwHttpClientRegistry
+    ): NotificatiesApiClient {
+        return NotificatiesApiClient(zgwHttpClientRegistry.configure(restClientBuilder))
     }
 
     @Bean
@@ -31,15 +31,26 @@ import com.ritense.objectenapi.web.rest.ZaakObjectResource
 import com.ritense.outbox.OutboxService
 import com.ritense.plugin.service.PluginService
 import com.ritense.processdocument.service.ProcessDocumentService
+import com.ritense.valtimo.contract.concurrent.ContextPropagatingTaskExecutors
 import com.ritense.zakenapi.ZaakUrlProvider
+import com.ritense.zgw.client.ZgwHttpClientRegistry
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.beans.factory.annotation.Qualifier
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.cache.CacheManager
+import org.springframework.cache.annotation.EnableCaching
 import org.springframework.context.annotation.Bean
 import org.springframework.context.annotation.DependsOn
 import org.springframework.core.annotation.Order
+import org.springframework.core.task.AsyncTaskExecutor
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor
 import org.springframework.web.client.RestClient
 
 @AutoConfiguration
+@EnableCaching
 class ObjectenApiAutoConfiguration {
 
     @Bean
@@ -57,9 +68,10 @@ class ObjectenApiAutoConfiguration {
     fun objectenApiClient(
         restClientBuilder: RestClient.Builder,
         outboxService: OutboxService,
-        objectMapper: ObjectMapper
+        objectMapper: ObjectMapper,
+        zgwHttpClientRegistry: ZgwHttpClientRegistry
     ) = ObjectenApiClient(
-        restClientBuilder,
+        zgwHttpClientRegistry.configure(restClientBuilder),
         outboxService,
         objectMapper
     )
@@ -73,17 +85,32 @@ class ObjectenApiAutoConfiguration {
         objectenApiClient
     )
 
+    @Bean
+    @ConditionalOnMissingBean(name = ["zaakObjectExecutor"])
+    fun zaakObjectExecutor(
+        @Value("\${valtimo.zaakobject.thread-count:4}") threadCount: Int
+    ): ThreadPoolTaskExecutor {
+        return ContextPropagatingTaskExecutors.fixed("zaakobject-", maxOf(threadCount, 1))
+    }
+
     @Bean
     fun zaakObjectService(
         zaakUrlProvider: ZaakUrlProvider,
         pluginService: PluginService,
         formDefinitionService: FormDefinitionService,
-        objectManagementInfoProvider: ObjectManagementInfoProvider
+        objectManagementInfoProvider: ObjectManagementInfoProvider,
+        @Value("\${valtimo.zaakobject.thread-count:4}") threadCount: Int,
+        @Qualifier("zaakObjectExecutor") zaakObjectExecutor: AsyncTaskExecutor,
+        cacheManager: CacheManager,
+        meterRegistry: ObjectProvider<MeterRegistry>
     ) = ZaakObjectService(
         zaakUrlProvider,
         pluginService,
         formDefinitionService,
-        objectManagementInfoProvider
+        objectManagementInfoProvider,
+        zaakObjectExecutor.takeIf { threadCount > 0 },
+        cacheManager.getCache(ZaakObjectService.OBJECTTYPE_CACHE_NAME),
+        meterRegistry.ifAvailable
     )
 
     @Order(380)
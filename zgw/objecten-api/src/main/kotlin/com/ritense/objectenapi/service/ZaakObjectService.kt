@@ -35,14 +35,25 @@ import com.ritense.plugin.service.PluginService
 import com.ritense.valtimo.contract.annotation.SkipComponentScan
 import com.ritense.zakenapi.ZaakUrlProvider
 import com.ritense.zakenapi.ZakenApiPlugin
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
 import mu.KotlinLogging
+import org.springframework.cache.Cache
+import org.springframework.cache.annotation.CacheEvict
+import org.springframework.core.task.AsyncTaskExecutor
 import org.springframework.http.HttpStatus
+import org.springframework.scheduling.annotation.Scheduled
 import org.springframework.stereotype.Service
 import org.springframework.transaction.annotation.Transactional
 import org.springframework.web.util.UriComponentsBuilder
 import java.net.URI
 import java.time.LocalDate
 import java.util.UUID
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Future
+import java.util.concurrent.FutureTask
+import java.util.concurrent.TimeUnit
 
 @Transactional
 @Service
@@ -51,21 +62,36 @@ class ZaakObjectService(
     private val zaakUrlProvider: ZaakUrlProvider,
     private val pluginService: PluginService,
     private val formDefinitionService: FormDefinitionService,
-    private val objectManagementInfoProvider: ObjectManagementInfoProvider
+    private val objectManagementInfoProvider: ObjectManagementInfoProvider,
+    private val executor: AsyncTaskExecutor? = null,
+    private val objecttypeCache: Cache? = null,
+    meterRegistry: MeterRegistry? = null
 ) {
+
+    private val callTimers: Map<String, Timer> = if (meterRegistry == null) {
+        emptyMap()
+    } else {
+        listOf(OBJECT_CALL, OBJECTTYPE_CALL).flatMap { call ->
+            listOf(SUCCESS, FAILURE).map { outcome ->
+                "$call:$outcome" to Timer.builder("valtimo.zaakobject.call")
+                    .tag("call", call)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+            }
+        }.toMap()
+    }
+
     fun getZaakObjectTypes(documentId: UUID): List<Objecttype> {
         return withLoggingContext(JsonSchemaDocument::class, documentId) {
             val zaakUrl = zaakUrlProvider.getZaakUrl(documentId)
             val zakenApiPluginInstance = findZakenApiPlugin(zaakUrl)
 
-            return@withLoggingContext zakenApiPluginInstance.getZaakObjecten(zaakUrl)
-                .mapNotNull {
-                    getObjectByObjectUrl(it.objectUrl)
-                }.map { it.type }
+            val typeUrls = getObjectsByObjectUrls(zakenApiPluginInstance.getZaakObjecten(zaakUrl).map { it.objectUrl })
+                .map { it.type }
                 .distinct()
-                .mapNotNull {
-                    getObjectTypeByUrl(it)
-                }
+            val objecttypes = getObjectTypesByUrls(typeUrls)
+
+            return@withLoggingContext typeUrls.mapNotNull { objecttypes[it] }
         }
     }
 
@@ -74,19 +100,123 @@ class ZaakObjectService(
             val objectenApiPlugin = pluginService
                 .createInstance(ObjectenApiPlugin::class.java, ObjectenApiPlugin.findConfigurationByUrl(objectUrl))
                 ?: return null
-            return objectenApiPlugin.getObject(objectUrl)
+            return timed(OBJECT_CALL) { objectenApiPlugin.getObject(objectUrl) }
         }
     }
 
     private fun getObjectTypeByUrl(objectTypeUrl: URI): Objecttype? {
-        withLoggingContext("objectTypeUrl", objectTypeUrl.toString()) {
-            val objectTypePluginInstance = pluginService
-                .createInstance(
-                    ObjecttypenApiPlugin::class.java,
-                    ObjecttypenApiPlugin.findConfigurationByUrl(objectTypeUrl)
-                ) ?: return null
-
-            return objectTypePluginInstance.getObjecttype(objectTypeUrl)
+        return getObjectTypesByUrls(listOf(objectTypeUrl))[objectTypeUrl]
+    }
+
+    /**
+     * Retrieves the objects of the given urls. Every object is only retrieved once, and the objects are retrieved
+     * concurrently when a thread pool is configured. Objects without a matching Objecten API plugin are left out.
+     */
+    private fun getObjectsByObjectUrls(objectUrls: List<URI>): List<ObjectWrapper> {
+        val distinctObjectUrls = objectUrls.distinct()
+        val plugins = findPluginsByUrl(distinctObjectUrls) { objectUrl ->
+            pluginService.createInstance(ObjectenApiPlugin::class.java, ObjectenApiPlugin.findConfigurationByUrl(objectUrl))
+        }
+
+        val objects = resolveConcurrently(distinctObjectUrls.filter { plugins.containsKey(it) }) { objectUrl ->
+            withLoggingContext("objectUrl", objectUrl.toString()) {
+                timed(OBJECT_CALL) { plugins.getValue(objectUrl).getObject(objectUrl) }
+            }
+        }
+
+        return objectUrls.mapNotNull { objects[it] }
+    }
+
+    /**
+     * Retrieves the objecttypes of the given urls. Objecttypes rarely change, so they are cached until the cache is
+     * cleared. Objecttypes without a matching Objecttypen API plugin are left out.
+     */
+    private fun getObjectTypesByUrls(objectTypeUrls: List<URI>): Map<URI, Objecttype> {
+        val objecttypes = mutableMapOf<URI, Objecttype>()
+        val uncachedObjectTypeUrls = objectTypeUrls.distinct().filter { objectTypeUrl ->
+            val cached = objecttypeCache?.get(objectTypeUrl, Objecttype::class.java)
+            if (cached != null) {
+                objecttypes[objectTypeUrl] = cached
+            }
+            cached == null
+        }
+        if (uncachedObjectTypeUrls.isEmpty()) {
+            return objecttypes
+        }
+
+        val plugins = findPluginsByUrl(uncachedObjectTypeUrls) { objectTypeUrl ->
+            pluginService.createInstance(
+                ObjecttypenApiPlugin::class.java,
+                ObjecttypenApiPlugin.findConfigurationByUrl(objectTypeUrl)
+            )
+        }
+
+        resolveConcurrently(uncachedObjectTypeUrls.filter { plugins.containsKey(it) }) { objectTypeUrl ->
+            withLoggingContext("objectTypeUrl", objectTypeUrl.toString()) {
+                timed(OBJECTTYPE_CALL) { plugins.getValue(objectTypeUrl).getObjecttype(objectTypeUrl) }
+            }
+        }.forEach { (objectTypeUrl, objecttype) ->
+            objecttypeCache?.put(objectTypeUrl, objecttype)
+            objecttypes[objectTypeUrl] = objecttype
+        }
+
+        return objecttypes
+    }
+
+    /**
+     * Finds the plugin instance for every url. Urls of the same API only differ in the last path segment, so the
+     * plugin configurations are searched once per API instead of once per url.
+     */
+    private fun <T : Any> findPluginsByUrl(urls: List<URI>, createInstance: (URI) -> T?): Map<URI, T> {
+        val plugins = mutableMapOf<URI, T>()
+        urls.groupBy { it.resolve(".") }.values.forEach { urlsOfApi ->
+            val plugin = createInstance(urlsOfApi.first()) ?: return@forEach
+            urlsOfApi.forEach { plugins[it] = plugin }
+        }
+        return plugins
+    }
+
+    private fun <T> resolveConcurrently(urls: List<URI>, resolve: (URI) -> T?): Map<URI, T> {
+        val futures = urls.map { url -> url to submit(urls.size > 1) { resolve(url) } }
+
+        val results = mutableMapOf<URI, T>()
+        futures.forEach { (url, future) ->
+            try {
+                future.get()?.let { results[url] = it }
+            } catch (e: ExecutionException) {
+                futures.forEach { it.second.cancel(true) }
+                throw e.cause ?: e
+            }
+        }
+        return results
+    }
+
+    private fun <T> submit(concurrent: Boolean, body: () -> T): Future<T> {
+        // the executor passes on the security context, so the plugins can authenticate as the current user
+        val task = Callable { body() }
+        return if (concurrent && executor != null) {
+            executor.submit(task)
+        } else {
+            FutureTask(task).apply { run() }
+        }
+    }
+
+    @CacheEvict(cacheNames = [OBJECTTYPE_CACHE_NAME], allEntries = true)
+    @Scheduled(fixedRateString = "\${valtimo.zaakobject.objecttype-cache-ttl:PT10M}")
+    fun clearObjecttypeCache() {
+        logger.debug { "Clearing objecttype cache" }
+    }
+
+    private fun <T> timed(call: String, body: () -> T): T {
+        if (callTimers.isEmpty()) {
+            return body()
+        }
+        val start = System.nanoTime()
+        var outcome = FAILURE
+        try {
+            return body().also { outcome = SUCCESS }
+        } finally {
+            callTimers["$call:$outcome"]?.record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
         }
     }
 
@@ -96,10 +226,8 @@ class ZaakObjectService(
                 val zaakUrl = zaakUrlProvider.getZaakUrl(documentId)
                 val zakenApiPluginInstance = findZakenApiPlugin(zaakUrl)
 
-                return zakenApiPluginInstance.getZaakObjecten(zaakUrl)
-                    .mapNotNull {
-                        getObjectByObjectUrl(it.objectUrl)
-                    }.filter {
+                return getObjectsByObjectUrls(zakenApiPluginInstance.getZaakObjecten(zaakUrl).map { it.objectUrl })
+                    .filter {
                         it.type == typeUrl
                     }
             }
@@ -112,13 +240,14 @@ class ZaakObjectService(
             val zaakUrl = zaakUrlProvider.getZaakUrl(documentId)
             val zakenApiPluginInstance = findZakenApiPlugin(zaakUrl)
 
-            val listOfObjecttypeWithCorrectName = zakenApiPluginInstance.getZaakObjecten(zaakUrl)
-                .mapNotNull {
-                    getObjectByObjectUrl(it.objectUrl)
-                }.groupBy {
+            val objectsByType = getObjectsByObjectUrls(zakenApiPluginInstance.getZaakObjecten(zaakUrl).map { it.objectUrl })
+                .groupBy {
                     it.type
-                }.filter {
-                    getObjectTypeByUrl(it.key)?.name == objecttypeName
+                }
+            val objecttypes = getObjectTypesByUrls(objectsByType.keys.toList())
+            val listOfObjecttypeWithCorrectName = objectsByType
+                .filter {
+                    objecttypes[it.key]?.name == objecttypeName
                 }.map {
                     it.value
                 }
@@ -318,6 +447,11 @@ class ZaakObjectService(
 
     companion object {
         const val FORM_SUFFIX = ".editform"
+        private const val OBJECT_CALL = "object"
+        const val OBJECTTYPE_CACHE_NAME = "zaakobject.objecttype"
+        private const val OBJECTTYPE_CALL = "objecttype"
+        private const val SUCCESS = "success"
+        private const val FAILURE = "failure"
         val logger = KotlinLogging.logger {}
     }
 }
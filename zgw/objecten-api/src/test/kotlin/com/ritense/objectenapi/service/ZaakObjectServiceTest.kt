@@ -25,6 +25,7 @@ import com.ritense.objectenapi.management.ObjectManagementInfoProvider
 import com.ritense.objecttypenapi.ObjecttypenApiPlugin
 import com.ritense.objecttypenapi.client.Objecttype
 import com.ritense.plugin.service.PluginService
+import com.ritense.valtimo.contract.concurrent.ContextPropagatingTaskExecutors
 import com.ritense.valtimo.contract.json.MapperSingleton
 import com.ritense.zakenapi.ZaakUrlProvider
 import com.ritense.zakenapi.ZakenApiPlugin
@@ -35,8 +36,10 @@ import org.junit.jupiter.api.Test
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
+import org.springframework.cache.concurrent.ConcurrentMapCache
 import java.net.URI
 import java.util.Optional
 import java.util.UUID
@@ -163,6 +166,40 @@ internal class ZaakObjectServiceTest {
         assertTrue(zaakObjectTypes.isEmpty())
     }
 
+    @Test
+    fun `should retrieve linked objects once and cache objecttypes when resolving concurrently`() {
+        val executor = ContextPropagatingTaskExecutors.fixed("zaakobject-", 4).apply { initialize() }
+        zaakObjectService = ZaakObjectService(
+            zaakUrlProvider,
+            pluginService,
+            formDefinitionService,
+            objectManagementInfoProvider,
+            executor,
+            ConcurrentMapCache(ZaakObjectService.OBJECTTYPE_CACHE_NAME)
+        )
+        val documentId = UUID.randomUUID()
+
+        val zaakInstanceUrl = setupZaakInstanceLink(documentId)
+        setupPlugins(zaakInstanceUrl)
+        val objecttype = mock<Objecttype>()
+        val objecttypeUrl = URI("http://example.com/objecttype/123")
+        val objectWrapper = setupObjectForObjecttype(zaakInstanceUrl, objecttype, objecttypeUrl)
+        zaakObjecten.add(zaakObjecten[0])
+        setupObjectForObjecttype(zaakInstanceUrl, objecttype, objecttypeUrl)
+
+        val zaakObjects = zaakObjectService.getZaakObjectenOfType(documentId, objecttypeUrl)
+        zaakObjectService.getZaakObjectTypes(documentId)
+        val zaakObjectTypes = zaakObjectService.getZaakObjectTypes(documentId)
+
+        assertEquals(3, zaakObjects.size)
+        assertEquals(objectWrapper, zaakObjects[1])
+        assertEquals(listOf(objecttype), zaakObjectTypes)
+        verify(objectenApiPlugin, times(3))?.getObject(zaakObjecten[0].objectUrl)
+        verify(objecttypenApiPlugin, times(1))?.getObjecttype(objecttypeUrl)
+        verify(pluginService, times(3)).createInstance(eq(ObjectenApiPlugin::class.java), any())
+        executor.shutdown()
+    }
+
     @Test
     fun `should get objects for document and objecttype`() {
         val documentId = UUID.randomUUID()
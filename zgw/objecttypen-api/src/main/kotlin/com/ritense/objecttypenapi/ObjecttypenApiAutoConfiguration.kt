@@ -18,6 +18,7 @@ package com.ritense.objecttypenapi
 
 import com.ritense.objecttypenapi.client.ObjecttypenApiClient
 import com.ritense.plugin.service.PluginService
+import com.ritense.zgw.client.ZgwHttpClientRegistry
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.context.annotation.Bean
@@ -28,7 +29,10 @@ class ObjecttypenApiAutoConfiguration {
 
     @Bean
     @ConditionalOnMissingBean(ObjecttypenApiClient::class)
-    fun objecttypenApiClient(restClientBuilder: RestClient.Builder) = ObjecttypenApiClient(restClientBuilder)
+    fun objecttypenApiClient(
+        restClientBuilder: RestClient.Builder,
+        zgwHttpClientRegistry: ZgwHttpClientRegistry
+    ) = ObjecttypenApiClient(zgwHttpClientRegistry.configure(restClientBuilder))
 
     @Bean
     fun objecttypenApiPluginFactory(
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.zgw.client
+
+import com.ritense.valtimo.contract.client.ValtimoHttpRestClientConfigurationProperties
+import io.micrometer.core.instrument.MeterRegistry
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.boot.autoconfigure.AutoConfiguration
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
+import org.springframework.boot.context.properties.EnableConfigurationProperties
+import org.springframework.context.annotation.Bean
+
+@AutoConfiguration
+@EnableConfigurationProperties(ZgwHttpClientProperties::class)
+class ZgwHttpClientAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(ZgwHttpClientRegistry::class)
+    fun zgwHttpClientRegistry(
+        zgwHttpClientProperties: ZgwHttpClientProperties,
+        meterRegistry: ObjectProvider<MeterRegistry>,
+        restClientProperties: ObjectProvider<ValtimoHttpRestClientConfigurationProperties>
+    ): ZgwHttpClientRegistry {
+        return ZgwHttpClientRegistry(
+            zgwHttpClientProperties,
+            meterRegistry.ifAvailable,
+            restClientProperties.getIfAvailable { ValtimoHttpRestClientConfigurationProperties() }
+        )
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.zgw.client
+
+import org.springframework.boot.context.properties.ConfigurationProperties
+import java.time.Duration
+
+/**
+ * Connection settings shared by the clients of all ZGW plugins. Settings can be overridden per host, e.g.
+ * `valtimo.zgw.http-client.hosts[openzaak.example.com].read-timeout=PT2M`.
+ *
+ * The connect and connection request timeouts default to the ones in `valtimo.http.rest-client`. Without a read
+ * timeout, requests wait for a response as long as the connection stays open.
+ */
+@ConfigurationProperties(prefix = "valtimo.zgw.http-client")
+data class ZgwHttpClientProperties(
+    val maxConnections: Int = 200,
+    val maxConnectionsPerHost: Int = 20,
+    val connectTimeout: Duration? = null,
+    val connectionRequestTimeout: Duration? = null,
+    val readTimeout: Duration? = null,
+    val idleTimeout: Duration = Duration.ofMinutes(1),
+    // HTTP/2 is negotiated with the JDK http client, which doesn't support connection limits per host
+    val http2: Boolean = false,
+    val hosts: Map<String, Host> = emptyMap()
+) {
+    data class Host(
+        val maxConnections: Int? = null,
+        val connectTimeout: Duration? = null,
+        val readTimeout: Duration? = null
+    )
+
+    fun maxConnectionsFor(host: String) = hosts[host]?.maxConnections ?: maxConnectionsPerHost
+
+    fun connectTimeoutFor(host: String) = hosts[host]?.connectTimeout ?: connectTimeout
+
+    fun readTimeoutFor(host: String) = hosts[host]?.readTimeout ?: readTimeout
+}
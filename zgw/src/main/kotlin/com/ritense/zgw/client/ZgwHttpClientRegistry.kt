@@ -0,0 +1,200 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.zgw.client
+
+import com.ritense.valtimo.contract.client.ValtimoHttpRestClientConfigurationProperties
+import io.micrometer.core.instrument.MeterRegistry
+import io.micrometer.core.instrument.Timer
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder
+import mu.KotlinLogging
+import org.apache.hc.client5.http.HttpRoute
+import org.apache.hc.client5.http.config.ConnectionConfig
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient
+import org.apache.hc.client5.http.impl.classic.HttpClients
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder
+import org.apache.hc.core5.http.HttpHost
+import org.apache.hc.core5.util.TimeValue
+import org.apache.hc.core5.util.Timeout
+import org.springframework.beans.factory.DisposableBean
+import org.springframework.http.HttpMethod
+import org.springframework.http.HttpRequest
+import org.springframework.http.client.ClientHttpRequest
+import org.springframework.http.client.ClientHttpRequestExecution
+import org.springframework.http.client.ClientHttpRequestFactory
+import org.springframework.http.client.ClientHttpRequestInterceptor
+import org.springframework.http.client.ClientHttpResponse
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory
+import org.springframework.http.client.JdkClientHttpRequestFactory
+import org.springframework.web.client.RestClient
+import java.net.URI
+import java.net.http.HttpClient
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * Registry of the http connections used by the clients of the ZGW plugins.
+ *
+ * All clients share one connection pool, so connections to the same host are reused across plugins and requests.
+ * The registry keeps a request factory per base url (scheme, host and port) with the timeouts and connection limit
+ * configured for that host.
+ *
+ * Authentication is not part of the registry: the authentication plugins create a token for the current user on
+ * every request, so the clients keep applying it to their own copy of the builder.
+ */
+class ZgwHttpClientRegistry(
+    private val properties: ZgwHttpClientProperties = ZgwHttpClientProperties(),
+    private val meterRegistry: MeterRegistry? = null,
+    restClientProperties: ValtimoHttpRestClientConfigurationProperties = ValtimoHttpRestClientConfigurationProperties()
+) : ClientHttpRequestFactory, DisposableBean {
+
+    private val defaultConnectTimeout = Duration.ofSeconds(restClientProperties.connectTimeout)
+
+    private val connectionRequestTimeout = properties.connectionRequestTimeout
+        ?: Duration.ofSeconds(restClientProperties.connectionRequestTimeout)
+
+    private val requestFactories = ConcurrentHashMap<String, ClientHttpRequestFactory>()
+
+    private val connectionManager: PoolingHttpClientConnectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+        .setMaxConnTotal(properties.maxConnections)
+        .setMaxConnPerRoute(properties.maxConnectionsPerHost)
+        .build()
+        .apply {
+            setConnectionConfigResolver { route ->
+                ConnectionConfig.custom()
+                    .setConnectTimeout(timeout(connectTimeoutFor(route.targetHost.hostName)))
+                    .build()
+            }
+        }
+
+    private val apacheHttpClient: CloseableHttpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .evictExpiredConnections()
+        .evictIdleConnections(TimeValue.ofMilliseconds(properties.idleTimeout.toMillis()))
+        .useSystemProperties()
+        .build()
+
+    private val jdkHttpClient: HttpClient? = if (properties.http2) {
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(properties.connectTimeout ?: defaultConnectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build()
+    } else {
+        null
+    }
+
+    private val metricsInterceptor = meterRegistry?.let { MetricsInterceptor(it) }
+
+    init {
+        meterRegistry?.let {
+            PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "zgw").bindTo(it)
+        }
+    }
+
+    /**
+     * Configures the given builder to send its requests through the shared connection pool. This replaces the
+     * request factory of the builder, so the timeouts of `valtimo.http.rest-client` are applied by the registry
+     * instead. Response bodies are streamed, so downloads are not held in memory.
+     */
+    fun configure(restClientBuilder: RestClient.Builder): RestClient.Builder {
+        restClientBuilder.requestFactory(this)
+        metricsInterceptor?.let { restClientBuilder.requestInterceptor(it) }
+        return restClientBuilder
+    }
+
+    override fun createRequest(uri: URI, httpMethod: HttpMethod): ClientHttpRequest {
+        return getRequestFactory(uri).createRequest(uri, httpMethod)
+    }
+
+    fun getRequestFactory(uri: URI): ClientHttpRequestFactory {
+        val scheme = uri.scheme ?: DEFAULT_SCHEME
+        val port = if (uri.port != -1) uri.port else if (scheme == "https") 443 else 80
+        return requestFactories.computeIfAbsent("$scheme://${uri.host}:$port") {
+            createRequestFactory(scheme, uri.host, port)
+        }
+    }
+
+    private fun createRequestFactory(scheme: String, host: String, port: Int): ClientHttpRequestFactory {
+        logger.debug { "Creating request factory for $scheme://$host:$port" }
+        if (jdkHttpClient != null) {
+            return JdkClientHttpRequestFactory(jdkHttpClient).apply {
+                properties.readTimeoutFor(host)?.let { setReadTimeout(it) }
+            }
+        }
+
+        val maxConnections = properties.maxConnectionsFor(host)
+        if (maxConnections != properties.maxConnectionsPerHost) {
+            val route = HttpRoute(HttpHost(scheme, host, port), null, scheme == "https")
+            connectionManager.setMaxPerRoute(route, maxConnections)
+        }
+        return HttpComponentsClientHttpRequestFactory(apacheHttpClient).apply {
+            setConnectionRequestTimeout(connectionRequestTimeout)
+            properties.readTimeoutFor(host)?.let { setReadTimeout(it) }
+        }
+    }
+
+    private fun connectTimeoutFor(host: String) = properties.connectTimeoutFor(host) ?: defaultConnectTimeout
+
+    override fun destroy() {
+        apacheHttpClient.close()
+    }
+
+    private class MetricsInterceptor(
+        private val meterRegistry: MeterRegistry
+    ) : ClientHttpRequestInterceptor {
+
+        override fun intercept(
+            request: HttpRequest,
+            body: ByteArray,
+            execution: ClientHttpRequestExecution
+        ): ClientHttpResponse {
+            val start = System.nanoTime()
+            var status = "IO_ERROR"
+            try {
+                return execution.execute(request, body).also { status = it.statusCode.value().toString() }
+            } finally {
+                Timer.builder("valtimo.zgw.http.client.requests")
+                    .tag("host", request.uri.host ?: "none")
+                    .tag("endpoint", endpoint(request.uri))
+                    .tag("method", request.method.name())
+                    .tag("status", status)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS)
+            }
+        }
+    }
+
+    companion object {
+        private const val DEFAULT_SCHEME = "http"
+        private val ID_SEGMENT = Regex("[0-9]+|[0-9a-fA-F-]{32,36}")
+        private val logger = KotlinLogging.logger {}
+
+        private fun timeout(duration: Duration) = Timeout.ofMilliseconds(duration.toMillis())
+
+        /**
+         * The path of the request with the identifiers replaced, so requests for different resources of the same
+         * endpoint end up in the same timer.
+         */
+        internal fun endpoint(uri: URI): String {
+            return (uri.path ?: "").split('/')
+                .joinToString("/") { if (it.matches(ID_SEGMENT)) "{id}" else it }
+                .ifEmpty { "/" }
+        }
+    }
+}
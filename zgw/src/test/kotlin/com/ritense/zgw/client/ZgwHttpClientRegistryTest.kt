@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015-2024 Ritense BV, the Netherlands.
+ *
+ * Licensed under EUPL, Version 1.2 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://joinup.ec.europa.eu/collection/eupl/eupl-text-eupl-12
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" basis,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.ritense.zgw.client
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import okhttp3.mockwebserver.Dispatcher
+import okhttp3.mockwebserver.MockResponse
+import okhttp3.mockwebserver.MockWebServer
+import okhttp3.mockwebserver.RecordedRequest
+import okio.Buffer
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertTimeoutPreemptively
+import org.junit.jupiter.api.assertThrows
+import org.springframework.web.client.ResourceAccessException
+import org.springframework.web.client.RestClient
+import java.net.URI
+import java.time.Duration
+import java.util.UUID
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+class ZgwHttpClientRegistryTest {
+
+    lateinit var mockApi: MockWebServer
+    lateinit var meterRegistry: SimpleMeterRegistry
+
+    @BeforeEach
+    fun setUp() {
+        mockApi = MockWebServer()
+        mockApi.dispatcher = object : Dispatcher() {
+            override fun dispatch(request: RecordedRequest): MockResponse {
+                return if (request.path!!.startsWith("/slow")) {
+                    MockResponse().setResponseCode(200).setHeadersDelay(2, TimeUnit.SECONDS)
+                } else if (request.path!!.startsWith("/large")) {
+                    // Takes minutes to send completely, so only a streaming client gets the first bytes in time
+                    MockResponse().setResponseCode(200)
+                        .setBody(Buffer().write(ByteArray(LARGE_BODY_SIZE)))
+                        .throttleBody(1024, 1, TimeUnit.SECONDS)
+                } else {
+                    MockResponse().setResponseCode(200).setBodyDelay(20, TimeUnit.MILLISECONDS).setBody("{}")
+                }
+            }
+        }
+        mockApi.start()
+        meterRegistry = SimpleMeterRegistry()
+    }
+
+    @AfterEach
+    fun tearDown() {
+        mockApi.shutdown()
+    }
+
+    @Test
+    fun `should reuse pooled connections within the limit per host`() {
+        val registry = ZgwHttpClientRegistry(
+            ZgwHttpClientProperties(maxConnectionsPerHost = 2),
+            meterRegistry
+        )
+        val restClient = registry.configure(RestClient.builder()).build()
+        val executor = Executors.newFixedThreadPool(8)
+
+        try {
+            val futures = (1..40).map {
+                executor.submit(Callable {
+                    restClient.get()
+                        .uri(mockApi.url("/zaken/api/v1/zaken/${UUID.randomUUID()}").toString())
+                        .retrieve()
+                        .body(String::class.java)
+                })
+            }
+            futures.forEach { assertEquals("{}", it.get(10, TimeUnit.SECONDS)) }
+        } finally {
+            executor.shutdownNow()
+            registry.destroy()
+        }
+
+        val requests = (1..40).map { mockApi.takeRequest() }
+        val connections = requests.count { it.sequenceNumber == 0 }
+        assertTrue(connections in 1..2, "Expected at most 2 connections, but $connections were opened")
+
+        val timer = meterRegistry.get("valtimo.zgw.http.client.requests")
+            .tag("endpoint", "/zaken/api/v1/zaken/{id}")
+            .tag("status", "200")
+            .timer()
+        assertEquals(40, timer.count())
+    }
+
+    @Test
+    fun `should apply read timeout configured for host`() {
+        val registry = ZgwHttpClientRegistry(
+            ZgwHttpClientProperties(
+                hosts = mapOf(mockApi.hostName to ZgwHttpClientProperties.Host(readTimeout = Duration.ofMillis(200)))
+            ),
+            meterRegistry
+        )
+        val restClient = registry.configure(RestClient.builder()).build()
+
+        try {
+            assertThrows<ResourceAccessException> {
+                restClient.get()
+                    .uri(mockApi.url("/slow").toString())
+                    .retrieve()
+                    .toBodilessEntity()
+            }
+        } finally {
+            registry.destroy()
+        }
+
+        val timer = meterRegistry.get("valtimo.zgw.http.client.requests")
+            .tag("endpoint", "/slow")
+            .tag("status", "IO_ERROR")
+            .timer()
+        assertEquals(1, timer.count())
+    }
+
+    @Test
+    fun `should not apply a read timeout by default`() {
+        val registry = ZgwHttpClientRegistry(ZgwHttpClientProperties(), meterRegistry)
+        val restClient = registry.configure(RestClient.builder()).build()
+
+        try {
+            val response = restClient.get()
+                .uri(mockApi.url("/slow").toString())
+                .retrieve()
+                .toBodilessEntity()
+            assertEquals(200, response.statusCode.value())
+        } finally {
+            registry.destroy()
+        }
+    }
+
+    @Test
+    fun `should stream a large download instead of buffering it`() {
+        val registry = ZgwHttpClientRegistry(ZgwHttpClientProperties(), meterRegistry)
+        val restClient = registry.configure(RestClient.builder()).build()
+
+        try {
+            val head = assertTimeoutPreemptively(Duration.ofSeconds(10)) {
+                restClient.get()
+                    .uri(mockApi.url("/large").toString())
+                    .exchange<ByteArray> { _, response ->
+                        val head = response.body.readNBytes(1024)
+                        // Stop the server, so closing the response does not wait for the rest of the body
+                        mockApi.shutdown()
+                        head
+                    }
+            }
+            assertEquals(1024, head.size)
+        } finally {
+            registry.destroy()
+        }
+    }
+
+    @Test
+    fun `should return one request factory per base url`() {
+        val registry = ZgwHttpClientRegistry()
+
+        try {
+            val factory = registry.getRequestFactory(URI("https://openzaak.example.com/zaken/api/v1/zaken"))
+            assertTrue(factory === registry.getRequestFactory(URI("https://openzaak.example.com:443/catalogi/api/v1")))
+            assertTrue(factory !== registry.getRequestFactory(URI("https://objecten.example.com/api/v2/objects")))
+        } finally {
+            registry.destroy()
+        }
+    }
+
+    companion object {
+        private const val LARGE_BODY_SIZE = 256 * 1024
+    }
+}
@@ -56,6 +56,7 @@ import com.ritense.zakenapi.service.ZakenApiEventListener
 import com.ritense.zakenapi.service.ZakenDocumentDeleteHandler
 import com.ritense.zakenapi.web.rest.DefaultZaakTypeLinkResource
 import com.ritense.zakenapi.web.rest.ZaakDocumentResource
+import com.ritense.zgw.client.ZgwHttpClientRegistry
 import org.springframework.boot.autoconfigure.AutoConfiguration
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.domain.EntityScan
@@ -77,9 +78,10 @@ class ZakenApiAutoConfiguration {
     fun zakenApiClient(
         restClientBuilder: RestClient.Builder,
         outboxService: OutboxService,
-        objectMapper: ObjectMapper
+        objectMapper: ObjectMapper,
+        zgwHttpClientRegistry: ZgwHttpClientRegistry
     ) = ZakenApiClient(
-        restClientBuilder,
+        zgwHttpClientRegistry.configure(restClientBuilder),
         outboxService,
         objectMapper
     )